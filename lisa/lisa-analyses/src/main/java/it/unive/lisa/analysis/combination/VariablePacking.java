@@ -0,0 +1,568 @@
+package it.unive.lisa.analysis.combination;
+
+import it.unive.lisa.analysis.BaseLattice;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.representation.DomainRepresentation;
+import it.unive.lisa.analysis.representation.SetRepresentation;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.TernaryExpression;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.PersistentMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A {@link ValueDomain} that partitions the {@link Identifier}s into packs,
+ * and that tracks each pack with its own instance of a (typically relational)
+ * value domain, so that the cost of the relational domain depends on the size
+ * of the packs instead of on the number of identifiers. The packs are driven
+ * by the syntactic pre-analysis of {@link VariablePacks}, computed once for
+ * each {@link CFG} (the one of the {@link ProgramPoint}s where the semantic
+ * operations happen) and cached: whenever an identifier is touched by an
+ * operation, the pack holding it is joined with the ones holding the other
+ * variables of its syntactic pack. Packs are also joined lazily whenever an
+ * expression spans several of them (e.g., due to identifiers that do not
+ * appear in the code, like the ones of heap locations). Identifiers that do
+ * not belong to any pack are unconstrained.<br>
+ * <br>
+ * Joining two packs is performed through the greatest lower bound of their
+ * instances: this is exact as long as the greatest lower bound of two
+ * instances tracking disjoint sets of identifiers is their conjunction, as it
+ * happens for all the value domains where untracked identifiers are
+ * unconstrained (e.g., the {@link it.unive.lisa.analysis.numeric.Octagon}s).
+ * Lattice operations between two elements with different packs are computed
+ * pointwise on the coarsest partition refined by both.<br>
+ * <br>
+ * Packs are stored in {@link PersistentMap}s: the elements produced by
+ * semantic operations share the structure of the element they are computed
+ * from, and only the entries of the packs touched by the operation are
+ * updated.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <D> the type of domain tracking each pack
+ */
+public class VariablePacking<D extends ValueDomain<D>>
+		implements ValueDomain<VariablePacking<D>>, BaseLattice<VariablePacking<D>> {
+
+	/**
+	 * The top element of the domain tracking each pack, used for packs that
+	 * are created
+	 */
+	private final D domain;
+
+	/**
+	 * The packs, each mapped to the instance tracking it, or {@code null} if
+	 * this is the bottom element. Packs are disjoint, and instances are never
+	 * top nor bottom.
+	 */
+	private final PersistentMap<Set<Identifier>, D> packs;
+
+	/**
+	 * The pack holding the identifiers with a given name, or {@code null} if
+	 * this is the bottom element
+	 */
+	private final PersistentMap<String, Set<Identifier>> index;
+
+	/**
+	 * The packs computed by the pre-analysis for each cfg, shared among all
+	 * the elements generated from the same one
+	 */
+	private final Map<CFG, VariablePacks> cache;
+
+	/**
+	 * Builds the top element of the domain.
+	 *
+	 * @param domain an instance of the domain to use for tracking each pack
+	 */
+	public VariablePacking(D domain) {
+		this(domain.top(), new PersistentMap<>(), new PersistentMap<>(),
+				Collections.synchronizedMap(new IdentityHashMap<>()));
+	}
+
+	private VariablePacking(D domain, PersistentMap<Set<Identifier>, D> packs,
+			PersistentMap<String, Set<Identifier>> index, Map<CFG, VariablePacks> cache) {
+		this.domain = domain;
+		this.packs = packs;
+		this.index = index;
+		this.cache = cache;
+	}
+
+	/**
+	 * Builds a new element from the given packs, dropping the ones whose
+	 * instance is top, and yielding the bottom element if any instance is
+	 * bottom.
+	 */
+	private VariablePacking<D> mk(Map<Set<Identifier>, D> packs) {
+		PersistentMap<Set<Identifier>, D> result = new PersistentMap<>();
+		PersistentMap<String, Set<Identifier>> idx = new PersistentMap<>();
+		for (Entry<Set<Identifier>, D> pack : packs.entrySet())
+			if (pack.getValue().isBottom())
+				return bottom();
+			else if (!pack.getValue().isTop()) {
+				result.put(pack.getKey(), pack.getValue());
+				for (Identifier id : pack.getKey())
+					idx.put(id.getName(), pack.getKey());
+			}
+		return new VariablePacking<>(domain, result, idx, cache);
+	}
+
+	/**
+	 * Builds a new element by replacing the given packs of this one with
+	 * {@code pack}, tracked by {@code instance}. Only the entries of the
+	 * replaced packs and of {@code pack} are updated, while the rest of the
+	 * structure is shared with this element. If {@code instance} is top,
+	 * {@code pack} is dropped, and if it is bottom, the bottom element is
+	 * returned.
+	 */
+	private VariablePacking<D> replace(Collection<Set<Identifier>> replaced, Set<Identifier> pack, D instance) {
+		if (instance.isBottom())
+			return bottom();
+
+		PersistentMap<Set<Identifier>, D> result = new PersistentMap<>(packs);
+		PersistentMap<String, Set<Identifier>> idx = new PersistentMap<>(index);
+		for (Set<Identifier> old : replaced) {
+			result.remove(old);
+			for (Identifier id : old)
+				idx.remove(id.getName());
+		}
+		if (!pack.isEmpty() && !instance.isTop()) {
+			Set<Identifier> stored = Collections.unmodifiableSet(pack);
+			result.put(stored, instance);
+			for (Identifier id : stored)
+				idx.put(id.getName(), stored);
+		}
+		return new VariablePacking<>(domain, result, idx, cache);
+	}
+
+	@Override
+	public VariablePacking<D> top() {
+		return new VariablePacking<>(domain, new PersistentMap<>(), new PersistentMap<>(), cache);
+	}
+
+	@Override
+	public boolean isTop() {
+		return packs != null && packs.isEmpty();
+	}
+
+	@Override
+	public VariablePacking<D> bottom() {
+		return new VariablePacking<>(domain, null, null, cache);
+	}
+
+	@Override
+	public boolean isBottom() {
+		return packs == null;
+	}
+
+	/**
+	 * Yields the packs of this element.
+	 *
+	 * @return the (unmodifiable) packs
+	 */
+	public Collection<Set<Identifier>> getPacks() {
+		return packs == null ? Collections.emptySet() : Collections.unmodifiableSet(packs.keySet());
+	}
+
+	/**
+	 * Yields the instance tracking the pack that holds the given identifier.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the instance tracking {@code id}, that is top if {@code id}
+	 *             does not belong to any pack and bottom if this is the bottom
+	 *             element
+	 */
+	public D getPack(Identifier id) {
+		if (isBottom())
+			return domain.bottom();
+		Set<Identifier> pack = index.get(id.getName());
+		return pack == null ? domain : packs.get(pack);
+	}
+
+	/**
+	 * The result of joining all the packs touched by an operation.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private final class Group {
+
+		private final Set<Identifier> ids = new HashSet<>();
+
+		private final List<Set<Identifier>> absorbed = new ArrayList<>();
+
+		private D instance = domain;
+
+		private VariablePacking<D> store(D result) {
+			return replace(absorbed, ids, result);
+		}
+	}
+
+	private Group group(Set<Identifier> ids, ProgramPoint pp) throws SemanticException {
+		VariablePacks pre = null;
+		CFG cfg = pp == null ? null : pp.getCFG();
+		if (cfg != null)
+			pre = cache.computeIfAbsent(cfg, VariablePacks::new);
+
+		Group group = new Group();
+		group.ids.addAll(ids);
+		Set<String> seen = new HashSet<>();
+		Deque<String> worklist = new ArrayDeque<>();
+		for (Identifier id : ids)
+			worklist.add(id.getName());
+		while (!worklist.isEmpty()) {
+			String name = worklist.pop();
+			if (!seen.add(name))
+				continue;
+
+			Set<Identifier> pack = index.get(name);
+			if (pack != null && !group.absorbed.contains(pack)) {
+				group.absorbed.add(pack);
+				group.ids.addAll(pack);
+				group.instance = group.instance.glb(packs.get(pack));
+				for (Identifier id : pack)
+					worklist.add(id.getName());
+			}
+
+			Set<String> names = pre == null ? null : pre.getPack(name);
+			if (names != null)
+				worklist.addAll(names);
+		}
+		return group;
+	}
+
+	private static Set<Identifier> identifiers(SymbolicExpression expression) {
+		Set<Identifier> ids = new HashSet<>();
+		collect(expression, ids);
+		return ids;
+	}
+
+	private static void collect(SymbolicExpression expression, Set<Identifier> ids) {
+		if (expression instanceof Identifier)
+			ids.add((Identifier) expression);
+		else if (expression instanceof UnaryExpression)
+			collect(((UnaryExpression) expression).getExpression(), ids);
+		else if (expression instanceof BinaryExpression) {
+			collect(((BinaryExpression) expression).getLeft(), ids);
+			collect(((BinaryExpression) expression).getRight(), ids);
+		} else if (expression instanceof TernaryExpression) {
+			collect(((TernaryExpression) expression).getLeft(), ids);
+			collect(((TernaryExpression) expression).getMiddle(), ids);
+			collect(((TernaryExpression) expression).getRight(), ids);
+		}
+	}
+
+	@Override
+	public VariablePacking<D> assign(Identifier id, ValueExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		if (isBottom())
+			return this;
+
+		Set<Identifier> ids = identifiers(expression);
+		ids.add(id);
+		Group group = group(ids, pp);
+		return group.store(group.instance.assign(id, expression, pp));
+	}
+
+	@Override
+	public VariablePacking<D> smallStepSemantics(ValueExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		if (isBottom())
+			return this;
+
+		Set<Identifier> ids = identifiers(expression);
+		if (ids.isEmpty())
+			return domain.smallStepSemantics(expression, pp).isBottom() ? bottom() : this;
+		Group group = group(ids, pp);
+		return group.store(group.instance.smallStepSemantics(expression, pp));
+	}
+
+	@Override
+	public VariablePacking<D> assume(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		if (isBottom())
+			return this;
+
+		Set<Identifier> ids = identifiers(expression);
+		if (ids.isEmpty())
+			return domain.assume(expression, pp).isBottom() ? bottom() : this;
+		Group group = group(ids, pp);
+		return group.store(group.instance.assume(expression, pp));
+	}
+
+	@Override
+	public Satisfiability satisfies(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		if (isBottom())
+			return Satisfiability.BOTTOM;
+
+		Set<Identifier> ids = identifiers(expression);
+		if (ids.isEmpty())
+			return domain.satisfies(expression, pp);
+		// the joined packs are not stored
+		return group(ids, pp).instance.satisfies(expression, pp);
+	}
+
+	@Override
+	public VariablePacking<D> forgetIdentifier(Identifier id) throws SemanticException {
+		if (isBottom() || isTop())
+			return this;
+
+		Set<Identifier> pack = index.get(id.getName());
+		if (pack == null || !pack.contains(id))
+			return this;
+
+		Set<Identifier> remaining = new HashSet<>(pack);
+		remaining.remove(id);
+		return replace(Collections.singleton(pack), remaining,
+				remaining.isEmpty() ? domain : packs.get(pack).forgetIdentifier(id));
+	}
+
+	@Override
+	public VariablePacking<D> forgetIdentifiersIf(Predicate<Identifier> test) throws SemanticException {
+		if (isBottom() || isTop())
+			return this;
+
+		Map<Set<Identifier>, D> updated = new HashMap<>(packs.size());
+		for (Entry<Set<Identifier>, D> pack : packs.entrySet()) {
+			Set<Identifier> remaining = new HashSet<>();
+			for (Identifier id : pack.getKey())
+				if (!test.test(id))
+					remaining.add(id);
+			if (remaining.size() == pack.getKey().size())
+				updated.put(pack.getKey(), pack.getValue());
+			else if (!remaining.isEmpty())
+				updated.put(Collections.unmodifiableSet(remaining), pack.getValue().forgetIdentifiersIf(test));
+		}
+		return mk(updated);
+	}
+
+	@Override
+	public VariablePacking<D> pushScope(ScopeToken token) throws SemanticException {
+		if (isBottom() || isTop())
+			return this;
+
+		Map<Set<Identifier>, D> updated = new HashMap<>(packs.size());
+		for (Entry<Set<Identifier>, D> pack : packs.entrySet()) {
+			Set<Identifier> renamed = new HashSet<>();
+			for (Identifier id : pack.getKey())
+				renamed.add((Identifier) id.pushScope(token));
+			renamed.remove(null);
+			updated.put(renamed, pack.getValue().pushScope(token));
+		}
+		return rename(updated);
+	}
+
+	@Override
+	public VariablePacking<D> popScope(ScopeToken token) throws SemanticException {
+		if (isBottom() || isTop())
+			return this;
+
+		Map<Set<Identifier>, D> updated = new HashMap<>(packs.size());
+		for (Entry<Set<Identifier>, D> pack : packs.entrySet()) {
+			Set<Identifier> renamed = new HashSet<>();
+			for (Identifier id : pack.getKey())
+				renamed.add((Identifier) id.popScope(token));
+			renamed.remove(null);
+			updated.put(renamed, pack.getValue().popScope(token));
+		}
+		return rename(updated);
+	}
+
+	/**
+	 * Completes the renaming of the packs, forgetting the identifiers whose
+	 * name is shared by several packs, since we cannot tell which constraints
+	 * apply to them.
+	 */
+	private VariablePacking<D> rename(Map<Set<Identifier>, D> renamed) throws SemanticException {
+		Set<String> seen = new HashSet<>();
+		Set<String> colliding = new HashSet<>();
+		for (Set<Identifier> pack : renamed.keySet()) {
+			Set<String> names = new HashSet<>();
+			for (Identifier id : pack)
+				names.add(id.getName());
+			for (String name : names)
+				if (!seen.add(name))
+					colliding.add(name);
+		}
+
+		Map<Set<Identifier>, D> result = new HashMap<>(renamed.size());
+		for (Entry<Set<Identifier>, D> pack : renamed.entrySet()) {
+			Set<Identifier> remaining = new HashSet<>();
+			for (Identifier id : pack.getKey())
+				if (!colliding.contains(id.getName()))
+					remaining.add(id);
+			if (remaining.isEmpty())
+				continue;
+			D instance = pack.getValue();
+			if (remaining.size() != pack.getKey().size())
+				instance = instance.forgetIdentifiersIf(id -> colliding.contains(id.getName()));
+			result.put(Collections.unmodifiableSet(remaining), instance);
+		}
+		return mk(result);
+	}
+
+	/**
+	 * The instances of two elements tracking the same block of the coarsest
+	 * partition refined by the packs of both.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private final class Block {
+
+		private final Set<Identifier> ids = new HashSet<>();
+
+		private D left = domain, right = domain;
+	}
+
+	private Collection<Block> align(VariablePacking<D> other) throws SemanticException {
+		List<Block> blocks = new ArrayList<>();
+		if (packs.keySet().equals(other.packs.keySet())) {
+			for (Entry<Set<Identifier>, D> pack : packs.entrySet()) {
+				Block block = new Block();
+				block.ids.addAll(pack.getKey());
+				block.left = pack.getValue();
+				block.right = other.packs.get(pack.getKey());
+				blocks.add(block);
+			}
+			return blocks;
+		}
+
+		// packs of the two elements that hold identifiers with the same name
+		// end up in the same block
+		Set<Set<Identifier>> visitedLeft = new HashSet<>(), visitedRight = new HashSet<>();
+		Set<String> seen = new HashSet<>();
+		Deque<String> worklist = new ArrayDeque<>();
+		for (Set<Identifier> start : packs.keySet()) {
+			if (visitedLeft.contains(start))
+				continue;
+
+			Block block = new Block();
+			worklist.add(start.iterator().next().getName());
+			while (!worklist.isEmpty()) {
+				String name = worklist.pop();
+				if (!seen.add(name))
+					continue;
+
+				Set<Identifier> pack = index.get(name);
+				if (pack != null && visitedLeft.add(pack)) {
+					block.ids.addAll(pack);
+					block.left = block.left.glb(packs.get(pack));
+					for (Identifier id : pack)
+						worklist.add(id.getName());
+				}
+				pack = other.index.get(name);
+				if (pack != null && visitedRight.add(pack)) {
+					block.ids.addAll(pack);
+					block.right = block.right.glb(other.packs.get(pack));
+					for (Identifier id : pack)
+						worklist.add(id.getName());
+				}
+			}
+			blocks.add(block);
+		}
+
+		// packs of the other element that do not share names with ours
+		for (Entry<Set<Identifier>, D> pack : other.packs.entrySet())
+			if (!visitedRight.contains(pack.getKey())) {
+				Block block = new Block();
+				block.ids.addAll(pack.getKey());
+				block.right = pack.getValue();
+				blocks.add(block);
+			}
+		return blocks;
+	}
+
+	@Override
+	public VariablePacking<D> lubAux(VariablePacking<D> other) throws SemanticException {
+		Map<Set<Identifier>, D> result = new HashMap<>();
+		for (Block block : align(other))
+			result.put(Collections.unmodifiableSet(block.ids), block.left.lub(block.right));
+		return mk(result);
+	}
+
+	@Override
+	public VariablePacking<D> glbAux(VariablePacking<D> other) throws SemanticException {
+		Map<Set<Identifier>, D> result = new HashMap<>();
+		for (Block block : align(other))
+			result.put(Collections.unmodifiableSet(block.ids), block.left.glb(block.right));
+		return mk(result);
+	}
+
+	@Override
+	public VariablePacking<D> wideningAux(VariablePacking<D> other) throws SemanticException {
+		Map<Set<Identifier>, D> result = new HashMap<>();
+		for (Block block : align(other))
+			result.put(Collections.unmodifiableSet(block.ids), block.left.widening(block.right));
+		return mk(result);
+	}
+
+	@Override
+	public VariablePacking<D> narrowingAux(VariablePacking<D> other) throws SemanticException {
+		Map<Set<Identifier>, D> result = new HashMap<>();
+		for (Block block : align(other))
+			result.put(Collections.unmodifiableSet(block.ids), block.left.narrowing(block.right));
+		return mk(result);
+	}
+
+	@Override
+	public boolean lessOrEqualAux(VariablePacking<D> other) throws SemanticException {
+		for (Block block : align(other))
+			if (!block.left.lessOrEqual(block.right))
+				return false;
+		return true;
+	}
+
+	@Override
+	public DomainRepresentation representation() {
+		if (isBottom())
+			return Lattice.bottomRepresentation();
+		if (isTop())
+			return Lattice.topRepresentation();
+
+		Set<DomainRepresentation> representations = new HashSet<>();
+		for (D instance : packs.values())
+			representations.add(instance.representation());
+		return new SetRepresentation(representations);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(domain, packs);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		VariablePacking<?> other = (VariablePacking<?>) obj;
+		return Objects.equals(domain, other.domain) && Objects.equals(packs, other.packs);
+	}
+
+	@Override
+	public String toString() {
+		return representation().toString();
+	}
+}
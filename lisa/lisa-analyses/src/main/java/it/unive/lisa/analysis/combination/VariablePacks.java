@@ -0,0 +1,140 @@
+package it.unive.lisa.analysis.combination;
+
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.BinaryExpression;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.NaryExpression;
+import it.unive.lisa.program.cfg.statement.NaryStatement;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cheap syntactic pre-analysis that partitions the variables of a
+ * {@link CFG} into packs of variables that might be related. Two variables
+ * end up in the same pack if they (transitively) occur together in the same
+ * {@link BinaryExpression} (and thus also in the same
+ * {@link it.unive.lisa.program.cfg.statement.Assignment}), or in the same
+ * guard, that is, a node of the cfg with at least one conditional outgoing
+ * edge. Variables are identified by their name, and each variable occurring
+ * in the cfg belongs to exactly one pack (possibly containing only that
+ * variable). The packs are computed once, when this object is built, in time
+ * that is almost linear in the size of the cfg.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class VariablePacks {
+
+	/**
+	 * The packs, indexed by the names of the variables they contain
+	 */
+	private final Map<String, Set<String>> packs;
+
+	/**
+	 * Builds the packs of the variables of the given cfg.
+	 *
+	 * @param cfg the cfg to inspect
+	 */
+	public VariablePacks(CFG cfg) {
+		Map<String, String> parents = new HashMap<>();
+		for (Statement node : cfg.getNodes()) {
+			Set<String> names = visit(node, parents);
+			boolean guard = false;
+			for (Edge edge : cfg.getOutgoingEdges(node))
+				guard |= !edge.isUnconditional();
+			if (guard)
+				union(names, parents);
+		}
+
+		Map<String, Set<String>> roots = new HashMap<>();
+		for (String name : parents.keySet())
+			roots.computeIfAbsent(find(name, parents), k -> new HashSet<>()).add(name);
+		packs = new HashMap<>(parents.size());
+		for (Set<String> pack : roots.values()) {
+			Set<String> unmodifiable = Collections.unmodifiableSet(pack);
+			for (String name : pack)
+				packs.put(name, unmodifiable);
+		}
+	}
+
+	/**
+	 * Collects the names of the variables occurring in {@code st}, joining
+	 * the packs of the ones that occur in the same binary expression.
+	 */
+	private static Set<String> visit(Statement st, Map<String, String> parents) {
+		Set<String> names = new HashSet<>();
+		if (st instanceof VariableRef) {
+			String name = ((VariableRef) st).getName();
+			parents.putIfAbsent(name, name);
+			names.add(name);
+			return names;
+		}
+
+		Expression[] subs = null;
+		if (st instanceof NaryExpression)
+			subs = ((NaryExpression) st).getSubExpressions();
+		else if (st instanceof NaryStatement)
+			subs = ((NaryStatement) st).getSubExpressions();
+		if (subs != null)
+			for (Expression sub : subs)
+				names.addAll(visit(sub, parents));
+
+		if (st instanceof BinaryExpression)
+			union(names, parents);
+		return names;
+	}
+
+	private static void union(Set<String> names, Map<String, String> parents) {
+		String root = null;
+		for (String name : names)
+			if (root == null)
+				root = find(name, parents);
+			else
+				parents.put(find(name, parents), root);
+	}
+
+	private static String find(String name, Map<String, String> parents) {
+		String root = name;
+		while (!parents.get(root).equals(root))
+			root = parents.get(root);
+		// path compression
+		while (!name.equals(root)) {
+			String next = parents.get(name);
+			parents.put(name, root);
+			name = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Yields the pack containing the variable with the given name.
+	 *
+	 * @param name the name of the variable
+	 *
+	 * @return the (unmodifiable) pack containing {@code name}, or {@code null}
+	 *             if no variable with that name occurs in the cfg
+	 */
+	public Set<String> getPack(String name) {
+		return packs.get(name);
+	}
+
+	/**
+	 * Yields all the packs computed by this pre-analysis.
+	 *
+	 * @return the (unmodifiable) packs
+	 */
+	public Collection<Set<String>> getPacks() {
+		return Collections.unmodifiableCollection(new HashSet<>(packs.values()));
+	}
+
+	@Override
+	public String toString() {
+		return getPacks().toString();
+	}
+}
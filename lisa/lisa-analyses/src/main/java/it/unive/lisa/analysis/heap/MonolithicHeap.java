@@ -7,6 +7,7 @@ import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.Interning;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.AccessChild;
 import it.unive.lisa.symbolic.heap.HeapDereference;
@@ -186,7 +187,8 @@ public class MonolithicHeap implements BaseHeapDomain<MonolithicHeap> {
 
 			HeapLocation loc = new HeapLocation(refType, MONOLITH_NAME, true,
 					expression.getCodeLocation());
-			MemoryPointer e = new MemoryPointer(new ReferenceType(refType), loc, expression.getCodeLocation());
+			MemoryPointer e = new MemoryPointer(Interning.intern(new ReferenceType(refType)), loc,
+					expression.getCodeLocation());
 			if (expression.hasRuntimeTypes())
 				e.setRuntimeTypes(expression.getRuntimeTypes(null));
 			return new ExpressionSet<>(e);
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.SetRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.Interning;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.AccessChild;
 import it.unive.lisa.symbolic.heap.HeapDereference;
@@ -254,7 +255,7 @@ public class TypeBasedHeap implements BaseHeapDomain<TypeBasedHeap> {
 					Set<Type> rt = refExp.getRuntimeTypes(types);
 					Type sup = Type.commonSupertype(rt, Untyped.INSTANCE);
 					MemoryPointer e = new MemoryPointer(
-							new ReferenceType(refExp.hasRuntimeTypes() ? sup : Untyped.INSTANCE),
+							Interning.intern(new ReferenceType(refExp.hasRuntimeTypes() ? sup : Untyped.INSTANCE)),
 							(HeapLocation) refExp,
 							refExp.getCodeLocation());
 					if (expression.hasRuntimeTypes())
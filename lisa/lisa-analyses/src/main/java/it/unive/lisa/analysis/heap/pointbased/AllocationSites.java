@@ -3,7 +3,7 @@ package it.unive.lisa.analysis.heap.pointbased;
 import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
-import it.unive.lisa.analysis.lattices.SetLattice;
+import it.unive.lisa.analysis.lattices.ExternalSetLattice;
 import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
 import it.unive.lisa.analysis.nonrelational.heap.NonRelationalHeapDomain;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
@@ -12,57 +12,65 @@ import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.function.Predicate;
 
 /**
- * A heap domain tracking sets of {@link AllocationSite}.
+ * A heap domain tracking sets of {@link AllocationSite}. Each instance built
+ * through {@link #AllocationSites()} owns a fresh {@link ExternalSetCache},
+ * that is shared by all the instances derived from it (e.g., through
+ * {@link #top()}, {@link #mk(Set)} or {@link #lub(AllocationSites)}): sets of
+ * sites are thus represented as bit vectors, and the cache is discarded
+ * together with the domain instances of the analysis that created it.
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
+public class AllocationSites extends ExternalSetLattice<AllocationSites, AllocationSite>
 		implements NonRelationalHeapDomain<AllocationSites> {
 
-	private static final AllocationSites TOP = new AllocationSites(new HashSet<>(), true);
-	private static final AllocationSites BOTTOM = new AllocationSites(new HashSet<>(), false);
-
 	/**
 	 * Builds an instance of HeapIdentiferSetLattice, corresponding to the top
 	 * element.
 	 */
 	public AllocationSites() {
-		this(new HashSet<>(), true);
+		this(new ExternalSetCache<AllocationSite>().mkEmptySet(), true);
 	}
 
 	/**
-	 * Builds an instance of this class to hold the given sites.
+	 * Builds an instance of this class to hold the given sites. If
+	 * {@code set} is an {@link ExternalSet}, its cache is used by the new
+	 * instance, otherwise a fresh cache is created.
 	 * 
 	 * @param set   the set of {@link AllocationSite}s
 	 * @param isTop whether this instance is the top of the lattice
 	 */
 	AllocationSites(Set<AllocationSite> set, boolean isTop) {
+		this(set instanceof ExternalSet ? (ExternalSet<AllocationSite>) set
+				: new ExternalSetCache<AllocationSite>().mkSet(set), isTop);
+	}
+
+	private AllocationSites(ExternalSet<AllocationSite> set, boolean isTop) {
 		super(set, isTop);
 	}
 
 	@Override
 	public AllocationSites top() {
-		return TOP;
+		return new AllocationSites(getCache().mkEmptySet(), true);
 	}
 
 	@Override
 	public AllocationSites bottom() {
-		return BOTTOM;
+		return new AllocationSites(getCache().mkEmptySet(), false);
 	}
 
 	@Override
 	public AllocationSites mk(Set<AllocationSite> set) {
-		return new AllocationSites(set, false);
+		return new AllocationSites(getCache().asExternalSet(set), false);
 	}
 
 	@Override
@@ -73,7 +81,7 @@ public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
 	@Override
 	public AllocationSites eval(SymbolicExpression expression,
 			HeapEnvironment<AllocationSites> environment, ProgramPoint pp) {
-		return new AllocationSites(Collections.singleton((AllocationSite) expression), false);
+		return new AllocationSites(getCache().mkSingletonSet((AllocationSite) expression), false);
 	}
 
 	@Override
@@ -94,24 +102,18 @@ public class AllocationSites extends SetLattice<AllocationSites, AllocationSite>
 
 	@Override
 	public AllocationSites lubAux(AllocationSites other) throws SemanticException {
-		Map<String, AllocationSite> lub = new HashMap<>();
-
-		// all weak identifiers are part of the lub
-		elements.stream().filter(AllocationSite::isWeak).forEach(e -> lub.put(e.getName(), e));
-		// common ones will be overwritten
-		other.elements.stream().filter(AllocationSite::isWeak).forEach(e -> lub.put(e.getName(), e));
-
-		// strong identifiers are only added if we did not consider a
-		// weak identifier with the same name
-		elements.stream().filter(Predicate.not(AllocationSite::isWeak))
-				.filter(e -> !lub.containsKey(e.getName()))
-				.forEach(e -> lub.put(e.getName(), e));
-
-		other.elements.stream().filter(Predicate.not(AllocationSite::isWeak))
-				.filter(e -> !lub.containsKey(e.getName()))
-				.forEach(e -> lub.put(e.getName(), e));
-
-		return new AllocationSites(new HashSet<>(lub.values()), false);
+		ExternalSet<AllocationSite> lub = elements().union(getCache().asExternalSet(other.elements));
+
+		// strong identifiers are only kept if there is no weak identifier with
+		// the same name
+		Set<String> weak = new HashSet<>();
+		for (AllocationSite site : lub)
+			if (site.isWeak())
+				weak.add(site.getName());
+		if (weak.isEmpty())
+			return new AllocationSites(lub, false);
+
+		return new AllocationSites(lub.filter(site -> site.isWeak() || !weak.contains(site.getName())), false);
 	}
 
 	@Override
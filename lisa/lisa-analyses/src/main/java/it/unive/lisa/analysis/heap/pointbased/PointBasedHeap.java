@@ -9,6 +9,7 @@ import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.program.cfg.CodeLocation;
 import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.Interning;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.AccessChild;
 import it.unive.lisa.symbolic.heap.HeapDereference;
@@ -410,7 +411,7 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 			for (ValueExpression loc : arg)
 				if (loc instanceof AllocationSite) {
 					MemoryPointer e = new MemoryPointer(
-							new ReferenceType(loc.getStaticType()),
+							Interning.intern(new ReferenceType(loc.getStaticType())),
 							(AllocationSite) loc,
 							loc.getCodeLocation());
 					if (expression.hasRuntimeTypes())
@@ -468,7 +469,7 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 			Set<ValueExpression> result = new HashSet<>();
 			for (AllocationSite site : heapEnv.getState(v)) {
 				MemoryPointer e = new MemoryPointer(
-						new ReferenceType(site.getStaticType()),
+						Interning.intern(new ReferenceType(site.getStaticType())),
 						site,
 						site.getCodeLocation());
 				if (v.hasRuntimeTypes())
@@ -134,8 +134,8 @@ public class Interval implements BaseNonRelationalValueDomain<Interval> {
 	@Override
 	public Interval evalNonNullConstant(Constant constant, ProgramPoint pp) {
 		if (constant.getValue() instanceof Integer) {
-			Integer i = (Integer) constant.getValue();
-			return new Interval(new MathNumber(i), new MathNumber(i));
+			MathNumber i = new MathNumber((Integer) constant.getValue());
+			return new Interval(i, i);
 		}
 
 		return top();
@@ -247,11 +247,26 @@ public class Interval implements BaseNonRelationalValueDomain<Interval> {
 		return top();
 	}
 
+	/**
+	 * Builds the interval {@code [low, high]}, reusing {@code this} or
+	 * {@code other} if their bounds are exactly {@code low} and {@code high}.
+	 * Since {@link MathNumber#min(MathNumber)} and
+	 * {@link MathNumber#max(MathNumber)} yield one of their operands, this
+	 * avoids most allocations once a fixpoint iteration stabilizes.
+	 */
+	private Interval mk(MathNumber low, MathNumber high, Interval other) {
+		if (low == interval.getLow() && high == interval.getHigh())
+			return this;
+		if (low == other.interval.getLow() && high == other.interval.getHigh())
+			return other;
+		return new Interval(low, high);
+	}
+
 	@Override
 	public Interval lubAux(Interval other) throws SemanticException {
 		MathNumber newLow = interval.getLow().min(other.interval.getLow());
 		MathNumber newHigh = interval.getHigh().max(other.interval.getHigh());
-		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : new Interval(newLow, newHigh);
+		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : mk(newLow, newHigh, other);
 	}
 
 	@Override
@@ -261,7 +276,7 @@ public class Interval implements BaseNonRelationalValueDomain<Interval> {
 
 		if (newLow.compareTo(newHigh) > 0)
 			return bottom();
-		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : new Interval(newLow, newHigh);
+		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : mk(newLow, newHigh, other);
 	}
 
 	@Override
@@ -277,7 +292,7 @@ public class Interval implements BaseNonRelationalValueDomain<Interval> {
 		else
 			newLow = interval.getLow();
 
-		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : new Interval(newLow, newHigh);
+		return newLow.isMinusInfinity() && newHigh.isPlusInfinity() ? top() : mk(newLow, newHigh, other);
 	}
 
 	@Override
@@ -285,7 +300,7 @@ public class Interval implements BaseNonRelationalValueDomain<Interval> {
 		MathNumber newLow, newHigh;
 		newHigh = interval.getHigh().isInfinite() ? other.interval.getHigh() : interval.getHigh();
 		newLow = interval.getLow().isInfinite() ? other.interval.getLow() : interval.getLow();
-		return new Interval(newLow, newHigh);
+		return mk(newLow, newHigh, other);
 	}
 
 	@Override
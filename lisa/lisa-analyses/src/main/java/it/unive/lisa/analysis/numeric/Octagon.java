@@ -0,0 +1,993 @@
+package it.unive.lisa.analysis.numeric;
+
+import it.unive.lisa.analysis.BaseLattice;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.representation.DomainRepresentation;
+import it.unive.lisa.analysis.representation.SetRepresentation;
+import it.unive.lisa.analysis.representation.StringRepresentation;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.operator.AdditionOperator;
+import it.unive.lisa.symbolic.value.operator.MultiplicationOperator;
+import it.unive.lisa.symbolic.value.operator.SubtractionOperator;
+import it.unive.lisa.symbolic.value.operator.binary.BinaryOperator;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonEq;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonGe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonGt;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLt;
+import it.unive.lisa.symbolic.value.operator.binary.LogicalAnd;
+import it.unive.lisa.symbolic.value.operator.binary.LogicalOr;
+import it.unive.lisa.symbolic.value.operator.unary.LogicalNegation;
+import it.unive.lisa.symbolic.value.operator.unary.NumericNegation;
+import it.unive.lisa.util.numeric.MathNumber;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The overflow-insensitive octagon abstract domain, approximating integer
+ * values through constraints of the form {@code ±x ±y <= c} (see Antoine Miné,
+ * "The octagon abstract domain", HOSC 2006). Each {@link Identifier} tracked by
+ * an octagon is given an index {@code v}, and it is represented by the two
+ * rows {@code 2v} (standing for {@code +x}) and {@code 2v+1} (standing for
+ * {@code -x}) of a difference bound matrix (DBM), where the element in row
+ * {@code i} and column {@code j} is an upper bound of {@code V_j - V_i}. Since
+ * the element {@code (i, j)} is always equal to {@code (j^1, i^1)}, only the
+ * lower half of the matrix is stored, row after row, in a flat {@code long}
+ * array, with {@link Long#MAX_VALUE} standing for {@code +Inf}: an octagon
+ * over {@code n} identifiers thus occupies {@code 2n(n+1)} longs.<br>
+ * <br>
+ * Identifiers are added to the matrix only once they are constrained (e.g.,
+ * when they are assigned or when a guard involving them is assumed), and they
+ * are dropped as soon as they are forgotten or they lose all of their
+ * constraints: identifiers that are not tracked are unconstrained. The matrix
+ * is kept strongly closed (and tightened, since values are integers) after
+ * each operation: assignments and guards close it incrementally, only through
+ * the identifier that they modify, in {@code O(n^2)}, while the greatest lower
+ * bound requires a full closure in {@code O(n^3)}. The result of the widening
+ * is instead left as-is, to ensure termination of the fixpoint.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class Octagon implements ValueDomain<Octagon>, BaseLattice<Octagon> {
+
+	/**
+	 * The value representing {@code +Inf} inside the matrix
+	 */
+	private static final long INF = Long.MAX_VALUE;
+
+	private static final Octagon TOP = new Octagon(new Identifier[0], new long[0]);
+
+	private static final Octagon BOTTOM = new Octagon(new Identifier[0], null);
+
+	/**
+	 * The identifiers tracked by this octagon, where the one in position
+	 * {@code v} is represented by rows {@code 2v} and {@code 2v+1}
+	 */
+	private final Identifier[] vars;
+
+	/**
+	 * The position of each identifier inside {@link #vars}
+	 */
+	private final Map<Identifier, Integer> index;
+
+	/**
+	 * The lower half of the matrix, or {@code null} if this is the bottom
+	 * element
+	 */
+	private final long[] dbm;
+
+	/**
+	 * Builds the top octagon.
+	 */
+	public Octagon() {
+		this(new Identifier[0], new long[0]);
+	}
+
+	private Octagon(Identifier[] vars, long[] dbm) {
+		this.vars = vars;
+		this.dbm = dbm;
+		this.index = new HashMap<>(vars.length * 2);
+		for (int i = 0; i < vars.length; i++)
+			index.put(vars[i], i);
+	}
+
+	@Override
+	public Octagon top() {
+		return TOP;
+	}
+
+	@Override
+	public boolean isTop() {
+		return dbm != null && vars.length == 0;
+	}
+
+	@Override
+	public Octagon bottom() {
+		return BOTTOM;
+	}
+
+	@Override
+	public boolean isBottom() {
+		return dbm == null;
+	}
+
+	/**
+	 * Yields the interval of values that the given identifier can assume in
+	 * this octagon.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the interval of values of {@code id}
+	 */
+	public Interval getIntervalOf(Identifier id) {
+		if (isBottom())
+			return Interval.BOTTOM;
+		Integer v = index.get(id);
+		if (v == null)
+			return Interval.TOP;
+
+		long high = dbm[pos(2 * v + 1, 2 * v)];
+		long low = dbm[pos(2 * v, 2 * v + 1)];
+		if (high == INF && low == INF)
+			return Interval.TOP;
+		return new Interval(
+				low == INF ? MathNumber.MINUS_INFINITY : new MathNumber(-Math.floorDiv(low, 2)),
+				high == INF ? MathNumber.PLUS_INFINITY : new MathNumber(Math.floorDiv(high, 2)));
+	}
+
+	// matrix access
+
+	private static int pos(int i, int j) {
+		return j + ((i + 1) * (i + 1)) / 2;
+	}
+
+	private static int size(int n) {
+		return 2 * n * (n + 1);
+	}
+
+	private static long get(long[] m, int i, int j) {
+		return j <= (i | 1) ? m[pos(i, j)] : m[pos(j ^ 1, i ^ 1)];
+	}
+
+	private static void set(long[] m, int i, int j, long value) {
+		if (j <= (i | 1))
+			m[pos(i, j)] = value;
+		else
+			m[pos(j ^ 1, i ^ 1)] = value;
+	}
+
+	private static long add(long a, long b) {
+		if (a == INF || b == INF)
+			return INF;
+		long r = a + b;
+		// on overflow, we saturate to the weakest bound
+		if (((a ^ r) & (b ^ r)) < 0)
+			return a > 0 ? INF : Long.MIN_VALUE;
+		return r;
+	}
+
+	private static long twice(long c) {
+		if (c > INF / 2)
+			return INF;
+		if (c < Long.MIN_VALUE / 2)
+			return Long.MIN_VALUE;
+		return 2 * c;
+	}
+
+	/**
+	 * Yields the given bound of an interval as a long, or {@code null} if it is
+	 * infinite or it does not fit in a long.
+	 */
+	private static Long toLong(MathNumber bound) {
+		if (bound.isInfinite() || bound.isNaN())
+			return null;
+		try {
+			return bound.getNumber().longValueExact();
+		} catch (ArithmeticException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Refines the matrix with {@code V_t + V_u <= c}.
+	 */
+	private static void meet(long[] m, int t, int u, long c) {
+		if (c < get(m, t ^ 1, u))
+			set(m, t ^ 1, u, c);
+	}
+
+	// closure
+
+	/**
+	 * Updates the elements of row {@code i}, from column {@code 0} to column
+	 * {@code last}, with the paths going through the {@code w}-th identifier.
+	 * Since the matrix is coherent, both the rows of {@code w} have to be
+	 * considered together (see Miné's closure algorithm).
+	 */
+	private static void pivot(long[] m, int i, int last, int w) {
+		int c = 2 * w, d = c + 1;
+		long ic = get(m, i, c);
+		long id = get(m, i, d);
+		// paths reaching the other row of w passing through the first one
+		long icd = Math.min(ic, add(id, get(m, d, c)));
+		long idc = Math.min(id, add(ic, get(m, c, d)));
+		if (icd == INF && idc == INF)
+			return;
+		for (int j = 0; j <= last; j++) {
+			long path = Math.min(add(icd, get(m, c, j)), add(idc, get(m, d, j)));
+			if (path < get(m, i, j))
+				set(m, i, j, path);
+		}
+	}
+
+	/**
+	 * Updates every element of the matrix with the paths going through the
+	 * {@code w}-th identifier.
+	 */
+	private static void pivot(long[] m, int rows, int w) {
+		for (int i = 0; i < rows; i++)
+			pivot(m, i, i | 1, w);
+	}
+
+	/**
+	 * Tightens and strengthens a matrix where all shortest paths have been
+	 * computed, yielding {@code false} if it turns out to be empty.
+	 */
+	private static boolean strengthen(long[] m, int rows) {
+		for (int i = 0; i < rows; i++) {
+			int p = pos(i, i ^ 1);
+			if (m[p] != INF)
+				m[p] = 2 * Math.floorDiv(m[p], 2);
+		}
+
+		for (int i = 0; i < rows; i++) {
+			long a = m[pos(i, i ^ 1)];
+			if (a == INF)
+				continue;
+			int last = i | 1;
+			for (int j = 0; j <= last; j++) {
+				long b = m[pos(j ^ 1, j)];
+				if (b == INF)
+					continue;
+				// both bounds are even after the tightening
+				long bound = add(a / 2, b / 2);
+				int p = pos(i, j);
+				if (bound < m[p])
+					m[p] = bound;
+			}
+		}
+
+		for (int i = 0; i < rows; i++) {
+			int p = pos(i, i);
+			if (m[p] < 0)
+				return false;
+			m[p] = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the strong closure of the given matrix over {@code n}
+	 * identifiers, yielding {@code false} if it turns out to be empty.
+	 */
+	private static boolean close(long[] m, int n) {
+		for (int w = 0; w < n; w++)
+			pivot(m, 2 * n, w);
+		return strengthen(m, 2 * n);
+	}
+
+	/**
+	 * Computes the strong closure of the given matrix over {@code n}
+	 * identifiers, assuming that it was closed before the rows and columns of
+	 * the {@code v}-th identifier were modified. Yields {@code false} if the
+	 * matrix turns out to be empty.
+	 */
+	private static boolean close(long[] m, int n, int v) {
+		int rows = 2 * n;
+		// first, we update the rows of v (and thus, by coherence, its
+		// columns) with the paths going through all other identifiers
+		for (int w = 0; w < n; w++)
+			if (w != v) {
+				pivot(m, 2 * v, rows - 1, w);
+				pivot(m, 2 * v + 1, rows - 1, w);
+			}
+
+		// then, the paths going through v can improve any other element
+		pivot(m, rows, v);
+		return strengthen(m, rows);
+	}
+
+	// identifiers management
+
+	/**
+	 * Yields a fresh copy of this octagon that also tracks the given
+	 * identifiers, if they are not {@code null}, unconstrained.
+	 */
+	private Octagon extend(Identifier... ids) {
+		Identifier[] newVars = vars;
+		for (Identifier id : ids)
+			if (id != null && !index.containsKey(id) && !Arrays.asList(newVars).contains(id)) {
+				newVars = Arrays.copyOf(newVars, newVars.length + 1);
+				newVars[newVars.length - 1] = id;
+			}
+
+		// the matrix of the first n identifiers is a prefix of the new one
+		long[] m = Arrays.copyOf(dbm, size(newVars.length));
+		Arrays.fill(m, dbm.length, m.length, INF);
+		for (int i = 2 * vars.length; i < 2 * newVars.length; i++)
+			m[pos(i, i)] = 0;
+		return new Octagon(newVars, m);
+	}
+
+	/**
+	 * Yields an octagon that no longer tracks the identifiers whose position
+	 * is marked in {@code drop}, and where the remaining ones are replaced by
+	 * the ones in {@code renamed}, if it is not {@code null}. This amounts to
+	 * the projection of the matrix, that is sound since the matrix is closed.
+	 */
+	private Octagon project(boolean[] drop, Identifier[] renamed) {
+		int[] old = new int[vars.length];
+		List<Identifier> kept = new ArrayList<>(vars.length);
+		for (int v = 0; v < vars.length; v++)
+			if (!drop[v]) {
+				old[kept.size()] = v;
+				kept.add(renamed == null ? vars[v] : renamed[v]);
+			}
+
+		if (kept.isEmpty())
+			return top();
+		if (kept.size() == vars.length && renamed == null)
+			return this;
+
+		int rows = 2 * kept.size();
+		long[] m = new long[size(kept.size())];
+		for (int i = 0; i < rows; i++) {
+			int oi = 2 * old[i >> 1] + (i & 1);
+			int last = i | 1;
+			for (int j = 0; j <= last; j++)
+				m[pos(i, j)] = get(dbm, oi, 2 * old[j >> 1] + (j & 1));
+		}
+		return new Octagon(kept.toArray(Identifier[]::new), m);
+	}
+
+	/**
+	 * Drops the identifiers that have no constraints.
+	 */
+	private Octagon trim() {
+		boolean[] drop = new boolean[vars.length];
+		boolean any = false;
+		int rows = 2 * vars.length;
+		for (int v = 0; v < vars.length; v++) {
+			drop[v] = true;
+			for (int j = 0; j < rows && drop[v]; j++)
+				if (j != 2 * v && get(dbm, 2 * v, j) != INF || j != 2 * v + 1 && get(dbm, 2 * v + 1, j) != INF)
+					drop[v] = false;
+			any |= drop[v];
+		}
+		return any ? project(drop, null) : this;
+	}
+
+	/**
+	 * Yields the identifiers of this octagon followed by the ones of
+	 * {@code other} that are not tracked by this octagon.
+	 */
+	private Identifier[] union(Octagon other) {
+		if (Arrays.equals(vars, other.vars))
+			return vars;
+		List<Identifier> result = new ArrayList<>(Arrays.asList(vars));
+		for (Identifier id : other.vars)
+			if (!index.containsKey(id))
+				result.add(id);
+		return result.toArray(Identifier[]::new);
+	}
+
+	/**
+	 * Yields a copy of the matrix of {@code o} over the given identifiers,
+	 * that must contain all the ones tracked by {@code o}.
+	 */
+	private static long[] embed(Octagon o, Identifier[] ids) {
+		if (Arrays.equals(o.vars, ids))
+			return o.dbm.clone();
+
+		long[] m = new long[size(ids.length)];
+		Arrays.fill(m, INF);
+		for (int i = 0; i < 2 * ids.length; i++)
+			m[pos(i, i)] = 0;
+		int[] map = new int[o.vars.length];
+		for (int v = 0; v < ids.length; v++) {
+			Integer old = o.index.get(ids[v]);
+			if (old != null)
+				map[old] = v;
+		}
+		for (int i = 0; i < 2 * o.vars.length; i++) {
+			int ni = 2 * map[i >> 1] + (i & 1);
+			int last = i | 1;
+			for (int j = 0; j <= last; j++)
+				set(m, ni, 2 * map[j >> 1] + (j & 1), o.dbm[pos(i, j)]);
+		}
+		return m;
+	}
+
+	// lattice operations
+
+	@Override
+	public Octagon lubAux(Octagon other) throws SemanticException {
+		Identifier[] ids = union(other);
+		long[] m = embed(this, ids);
+		long[] o = embed(other, ids);
+		for (int p = 0; p < m.length; p++)
+			m[p] = Math.max(m[p], o[p]);
+		// the element-wise maximum of closed matrices is closed
+		return new Octagon(ids, m).trim();
+	}
+
+	@Override
+	public Octagon glbAux(Octagon other) throws SemanticException {
+		Identifier[] ids = union(other);
+		long[] m = embed(this, ids);
+		long[] o = embed(other, ids);
+		for (int p = 0; p < m.length; p++)
+			m[p] = Math.min(m[p], o[p]);
+		return close(m, ids.length) ? new Octagon(ids, m) : bottom();
+	}
+
+	@Override
+	public Octagon wideningAux(Octagon other) throws SemanticException {
+		Identifier[] ids = union(other);
+		long[] m = embed(this, ids);
+		long[] o = embed(other, ids);
+		for (int p = 0; p < m.length; p++)
+			if (o[p] > m[p])
+				m[p] = INF;
+		return new Octagon(ids, m).trim();
+	}
+
+	@Override
+	public Octagon narrowingAux(Octagon other) throws SemanticException {
+		Identifier[] ids = union(other);
+		long[] m = embed(this, ids);
+		long[] o = embed(other, ids);
+		for (int p = 0; p < m.length; p++)
+			if (m[p] == INF)
+				m[p] = o[p];
+		return new Octagon(ids, m);
+	}
+
+	@Override
+	public boolean lessOrEqualAux(Octagon other) throws SemanticException {
+		// every constraint of other must hold in this octagon
+		for (int i = 0; i < 2 * other.vars.length; i++) {
+			Integer vi = index.get(other.vars[i >> 1]);
+			int last = i | 1;
+			for (int j = 0; j <= last; j++) {
+				long bound = other.dbm[pos(i, j)];
+				if (bound == INF)
+					continue;
+				Integer vj = index.get(other.vars[j >> 1]);
+				long mine;
+				if (vi != null && vj != null)
+					mine = get(dbm, 2 * vi + (i & 1), 2 * vj + (j & 1));
+				else
+					mine = i == j ? 0 : INF;
+				if (mine > bound)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	// semantics
+
+	@Override
+	public Octagon assign(Identifier id, ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		if (isBottom())
+			return this;
+
+		// we can track relations only for x = +-y + c
+		Linear linear = Linear.of(expression);
+		Identifier other = null;
+		long coefficient = 0;
+		if (linear != null && linear.terms.size() == 1) {
+			Map.Entry<Identifier, Long> term = linear.terms.entrySet().iterator().next();
+			other = term.getKey();
+			coefficient = term.getValue();
+			if (coefficient == 1 && other.equals(id)) {
+				// x = x + c is invertible
+				Integer v = index.get(id);
+				return v == null ? this : shift(v, linear.constant);
+			} else if ((coefficient != 1 && coefficient != -1) || other.equals(id))
+				linear = null;
+		} else if (linear != null && !linear.terms.isEmpty())
+			linear = null;
+
+		Interval eval = null;
+		if (linear == null) {
+			eval = interval(expression, pp);
+			if (eval.isBottom())
+				return bottom();
+		}
+
+		Octagon result = forgetIdentifier(id);
+		if (linear == null && eval.isTop())
+			return result;
+
+		result = result.extend(id, linear == null ? null : other);
+		long[] m = result.dbm;
+		int x = 2 * result.index.get(id);
+		if (linear == null) {
+			Long high = toLong(eval.interval.getHigh());
+			Long low = toLong(eval.interval.getLow());
+			if (high != null)
+				meet(m, x, x, twice(high));
+			if (low != null)
+				meet(m, x ^ 1, x ^ 1, twice(-low));
+		} else if (other == null) {
+			meet(m, x, x, twice(linear.constant));
+			meet(m, x ^ 1, x ^ 1, twice(-linear.constant));
+		} else {
+			// x - (+-y) <= c and (+-y) - x <= -c
+			int y = 2 * result.index.get(other) + (coefficient == 1 ? 0 : 1);
+			meet(m, x, y ^ 1, linear.constant);
+			meet(m, x ^ 1, y, -linear.constant);
+		}
+
+		return close(m, result.vars.length, x >> 1) ? result : bottom();
+	}
+
+	/**
+	 * Translates the {@code v}-th identifier by {@code c}. Since this
+	 * preserves the closure, no closure is needed.
+	 */
+	private Octagon shift(int v, long c) {
+		long[] m = dbm.clone();
+		int rows = 2 * vars.length;
+		for (int j = 0; j < rows; j++)
+			if (j >> 1 != v) {
+				set(m, 2 * v, j, add(get(m, 2 * v, j), -c));
+				set(m, 2 * v + 1, j, add(get(m, 2 * v + 1, j), c));
+			}
+		int p = pos(2 * v, 2 * v + 1);
+		m[p] = add(m[p], twice(-c));
+		p = pos(2 * v + 1, 2 * v);
+		m[p] = add(m[p], twice(c));
+		return new Octagon(vars, m);
+	}
+
+	@Override
+	public Octagon smallStepSemantics(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		return this;
+	}
+
+	@Override
+	public Octagon assume(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		if (isBottom())
+			return this;
+
+		if (expression instanceof UnaryExpression) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			if (unary.getOperator() == LogicalNegation.INSTANCE) {
+				ValueExpression rewritten = unary.removeNegations();
+				// It is possible that the expression cannot be rewritten (e.g.,
+				// !true) hence we recursively call assume iff something changed
+				if (rewritten != unary)
+					return assume(rewritten, pp);
+			}
+			return this;
+		}
+
+		if (!(expression instanceof BinaryExpression))
+			return this;
+
+		BinaryExpression binary = (BinaryExpression) expression;
+		BinaryOperator operator = binary.getOperator();
+		ValueExpression left = (ValueExpression) binary.getLeft();
+		ValueExpression right = (ValueExpression) binary.getRight();
+		if (operator == LogicalAnd.INSTANCE)
+			return assume(left, pp).assume(right, pp);
+		else if (operator == LogicalOr.INSTANCE)
+			return assume(left, pp).lub(assume(right, pp));
+		else if (operator == ComparisonLe.INSTANCE)
+			return assumeLeq(left, right, 0, pp);
+		else if (operator == ComparisonLt.INSTANCE)
+			return assumeLeq(left, right, -1, pp);
+		else if (operator == ComparisonGe.INSTANCE)
+			return assumeLeq(right, left, 0, pp);
+		else if (operator == ComparisonGt.INSTANCE)
+			return assumeLeq(right, left, -1, pp);
+		else if (operator == ComparisonEq.INSTANCE)
+			return assumeLeq(left, right, 0, pp).assumeLeq(right, left, 0, pp);
+		return this;
+	}
+
+	/**
+	 * Assumes that {@code left - right <= k}. Sides that are not linear are
+	 * approximated by the bound of their interval that is relevant for the
+	 * constraint.
+	 */
+	private Octagon assumeLeq(ValueExpression left, ValueExpression right, long k, ProgramPoint pp)
+			throws SemanticException {
+		if (isBottom())
+			return this;
+
+		Linear l = Linear.of(left);
+		if (l == null) {
+			Interval eval = interval(left, pp);
+			if (eval.isBottom())
+				return bottom();
+			Long low = toLong(eval.interval.getLow());
+			if (low == null)
+				return this;
+			l = Linear.constant(low);
+		}
+
+		Linear r = Linear.of(right);
+		if (r == null) {
+			Interval eval = interval(right, pp);
+			if (eval.isBottom())
+				return bottom();
+			Long high = toLong(eval.interval.getHigh());
+			if (high == null)
+				return this;
+			r = Linear.constant(high);
+		}
+
+		// terms <= k - constant
+		Linear diff;
+		long c;
+		try {
+			diff = l.plus(r.times(-1));
+			c = Math.subtractExact(k, diff.constant);
+		} catch (ArithmeticException e) {
+			return this;
+		}
+
+		if (diff.terms.isEmpty())
+			return c >= 0 ? this : bottom();
+		if (diff.terms.size() > 2)
+			// not an octagonal constraint
+			return this;
+
+		Identifier[] ids = diff.terms.keySet().toArray(Identifier[]::new);
+		long a = diff.terms.get(ids[0]);
+		long b = ids.length == 1 ? 0 : diff.terms.get(ids[1]);
+		if (b != 0 && (Math.abs(a) != 1 || Math.abs(b) != 1))
+			return this;
+
+		Octagon result = extend(ids);
+		long[] m = result.dbm;
+		int t = 2 * result.index.get(ids[0]) + (a > 0 ? 0 : 1);
+		if (b == 0)
+			// a*x <= c, that on integers means +-x <= floor(c / |a|)
+			meet(m, t, t, twice(Math.floorDiv(c, Math.abs(a))));
+		else
+			meet(m, t, 2 * result.index.get(ids[1]) + (b > 0 ? 0 : 1), c);
+
+		return close(m, result.vars.length, t >> 1) ? result : bottom();
+	}
+
+	@Override
+	public Satisfiability satisfies(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		if (isBottom())
+			return Satisfiability.BOTTOM;
+
+		if (expression instanceof UnaryExpression
+				&& ((UnaryExpression) expression).getOperator() == LogicalNegation.INSTANCE)
+			return satisfies((ValueExpression) ((UnaryExpression) expression).getExpression(), pp).negate();
+
+		if (expression instanceof BinaryExpression) {
+			BinaryExpression binary = (BinaryExpression) expression;
+			if (binary.getOperator() == LogicalAnd.INSTANCE)
+				return satisfies((ValueExpression) binary.getLeft(), pp)
+						.and(satisfies((ValueExpression) binary.getRight(), pp));
+			else if (binary.getOperator() == LogicalOr.INSTANCE)
+				return satisfies((ValueExpression) binary.getLeft(), pp)
+						.or(satisfies((ValueExpression) binary.getRight(), pp));
+		}
+
+		if (assume(expression, pp).isBottom())
+			return Satisfiability.NOT_SATISFIED;
+
+		ValueExpression negated = new UnaryExpression(expression.getStaticType(), expression,
+				LogicalNegation.INSTANCE, expression.getCodeLocation()).removeNegations();
+		if (assume(negated, pp).isBottom())
+			return Satisfiability.SATISFIED;
+		return Satisfiability.UNKNOWN;
+	}
+
+	/**
+	 * Evaluates the given expression to the interval of values that it can
+	 * assume in this octagon.
+	 */
+	private Interval interval(SymbolicExpression expression, ProgramPoint pp) throws SemanticException {
+		if (expression instanceof Identifier)
+			return getIntervalOf((Identifier) expression);
+
+		if (expression instanceof Constant)
+			return Interval.TOP.evalNonNullConstant((Constant) expression, pp);
+
+		if (expression instanceof UnaryExpression) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			Interval arg = interval(unary.getExpression(), pp);
+			if (arg.isBottom())
+				return arg;
+			return Interval.TOP.evalUnaryExpression(unary.getOperator(), arg, pp);
+		}
+
+		if (expression instanceof BinaryExpression) {
+			BinaryExpression binary = (BinaryExpression) expression;
+			Interval left = interval(binary.getLeft(), pp);
+			if (left.isBottom())
+				return left;
+			Interval right = interval(binary.getRight(), pp);
+			if (right.isBottom())
+				return right;
+			return Interval.TOP.evalBinaryExpression(binary.getOperator(), left, right, pp);
+		}
+
+		return Interval.TOP;
+	}
+
+	@Override
+	public Octagon forgetIdentifier(Identifier id) throws SemanticException {
+		if (isBottom() || isTop() || !index.containsKey(id))
+			return this;
+
+		boolean[] drop = new boolean[vars.length];
+		drop[index.get(id)] = true;
+		return project(drop, null);
+	}
+
+	@Override
+	public Octagon forgetIdentifiersIf(Predicate<Identifier> test) throws SemanticException {
+		if (isBottom() || isTop())
+			return this;
+
+		boolean[] drop = new boolean[vars.length];
+		for (int v = 0; v < vars.length; v++)
+			drop[v] = test.test(vars[v]);
+		return project(drop, null);
+	}
+
+	@Override
+	public Octagon pushScope(ScopeToken token) throws SemanticException {
+		if (isBottom() || isTop())
+			return this;
+
+		Identifier[] renamed = new Identifier[vars.length];
+		for (int v = 0; v < vars.length; v++)
+			renamed[v] = (Identifier) vars[v].pushScope(token);
+		return rename(renamed);
+	}
+
+	@Override
+	public Octagon popScope(ScopeToken token) throws SemanticException {
+		if (isBottom() || isTop())
+			return this;
+
+		Identifier[] renamed = new Identifier[vars.length];
+		for (int v = 0; v < vars.length; v++)
+			renamed[v] = (Identifier) vars[v].popScope(token);
+		return rename(renamed);
+	}
+
+	/**
+	 * Renames the identifiers of this octagon, dropping the ones that are
+	 * renamed to {@code null} and the ones that collide with others, since we
+	 * cannot tell which constraints apply to them.
+	 */
+	private Octagon rename(Identifier[] renamed) {
+		boolean[] drop = new boolean[vars.length];
+		Set<Identifier> seen = new HashSet<>();
+		Set<Identifier> colliding = new HashSet<>();
+		for (Identifier id : renamed)
+			if (id != null && !seen.add(id))
+				colliding.add(id);
+		for (int v = 0; v < vars.length; v++)
+			drop[v] = renamed[v] == null || colliding.contains(renamed[v]);
+		return project(drop, renamed);
+	}
+
+	@Override
+	public DomainRepresentation representation() {
+		if (isBottom())
+			return Lattice.bottomRepresentation();
+		if (isTop())
+			return Lattice.topRepresentation();
+
+		Set<String> constraints = new HashSet<>();
+		for (int v = 0; v < vars.length; v++) {
+			Interval bounds = getIntervalOf(vars[v]);
+			if (bounds.interval.isSingleton())
+				constraints.add(vars[v] + " = " + bounds.interval.getLow());
+			else {
+				if (!bounds.interval.getLow().isInfinite())
+					constraints.add(vars[v] + " >= " + bounds.interval.getLow());
+				if (!bounds.interval.getHigh().isInfinite())
+					constraints.add(vars[v] + " <= " + bounds.interval.getHigh());
+			}
+
+			// the block of v and w, with w < v, holds V_j - V_i <= c
+			for (int i = 2 * v; i <= 2 * v + 1; i++)
+				for (int j = 0; j < 2 * v; j++) {
+					long c = dbm[pos(i, j)];
+					if (c != INF)
+						constraints.add(((i & 1) == 0 ? "-" : "") + vars[v]
+								+ ((j & 1) == 0 ? " + " : " - ") + vars[j >> 1] + " <= " + c);
+				}
+		}
+		return new SetRepresentation(constraints, StringRepresentation::new);
+	}
+
+	@Override
+	public int hashCode() {
+		// the hash must not depend on the order of the identifiers: both
+		// the set of identifiers and the multiset of bounds are
+		// independent from it
+		int result = 0;
+		if (vars != null)
+			for (Identifier id : vars)
+				result += Objects.hashCode(id);
+		result *= 31;
+		if (dbm != null)
+			for (long bound : dbm)
+				result += Long.hashCode(bound);
+		else
+			result++;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Octagon other = (Octagon) obj;
+		if (Arrays.equals(vars, other.vars))
+			return Arrays.equals(dbm, other.dbm);
+		if (vars == null || other.vars == null || dbm == null || other.dbm == null
+				|| vars.length != other.vars.length || dbm.length != other.dbm.length)
+			return false;
+
+		// same identifiers, in a different order
+		int[] map = new int[vars.length];
+		for (int v = 0; v < vars.length; v++) {
+			Integer o = other.index.get(vars[v]);
+			if (o == null)
+				return false;
+			map[v] = o;
+		}
+		for (int i = 0; i < 2 * vars.length; i++) {
+			int oi = 2 * map[i >> 1] + (i & 1);
+			int last = i | 1;
+			for (int j = 0; j <= last; j++)
+				if (dbm[pos(i, j)] != get(other.dbm, oi, 2 * map[j >> 1] + (j & 1)))
+					return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return representation().toString();
+	}
+
+	/**
+	 * A linear expression of the form {@code a1*x1 + ... + an*xn + c}, where
+	 * only non-zero coefficients are stored.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private static final class Linear {
+
+		private final Map<Identifier, Long> terms;
+
+		private final long constant;
+
+		private Linear(Map<Identifier, Long> terms, long constant) {
+			this.terms = terms;
+			this.constant = constant;
+		}
+
+		private static Linear constant(long constant) {
+			return new Linear(Map.of(), constant);
+		}
+
+		private Linear plus(Linear other) {
+			Map<Identifier, Long> result = new LinkedHashMap<>(terms);
+			for (Map.Entry<Identifier, Long> term : other.terms.entrySet()) {
+				long coefficient = Math.addExact(result.getOrDefault(term.getKey(), 0L), term.getValue());
+				if (coefficient == 0)
+					result.remove(term.getKey());
+				else
+					result.put(term.getKey(), coefficient);
+			}
+			return new Linear(result, Math.addExact(constant, other.constant));
+		}
+
+		private Linear times(long k) {
+			if (k == 0)
+				return constant(0);
+			Map<Identifier, Long> result = new LinkedHashMap<>();
+			for (Map.Entry<Identifier, Long> term : terms.entrySet())
+				result.put(term.getKey(), Math.multiplyExact(term.getValue(), k));
+			return new Linear(result, Math.multiplyExact(constant, k));
+		}
+
+		/**
+		 * Yields the linear form of the given expression, or {@code null} if
+		 * it has none.
+		 */
+		private static Linear of(SymbolicExpression expression) {
+			try {
+				return linearize(expression);
+			} catch (ArithmeticException e) {
+				return null;
+			}
+		}
+
+		private static Linear linearize(SymbolicExpression expression) {
+			if (expression instanceof Identifier)
+				return new Linear(Map.of((Identifier) expression, 1L), 0);
+
+			if (expression instanceof Constant) {
+				Object value = ((Constant) expression).getValue();
+				return value instanceof Integer ? constant((Integer) value) : null;
+			}
+
+			if (expression instanceof UnaryExpression) {
+				UnaryExpression unary = (UnaryExpression) expression;
+				if (unary.getOperator() != NumericNegation.INSTANCE)
+					return null;
+				Linear arg = linearize(unary.getExpression());
+				return arg == null ? null : arg.times(-1);
+			}
+
+			if (expression instanceof BinaryExpression) {
+				BinaryExpression binary = (BinaryExpression) expression;
+				BinaryOperator operator = binary.getOperator();
+				if (!(operator instanceof AdditionOperator)
+						&& !(operator instanceof SubtractionOperator)
+						&& !(operator instanceof MultiplicationOperator))
+					return null;
+				Linear left = linearize(binary.getLeft());
+				if (left == null)
+					return null;
+				Linear right = linearize(binary.getRight());
+				if (right == null)
+					return null;
+
+				if (operator instanceof AdditionOperator)
+					return left.plus(right);
+				if (operator instanceof SubtractionOperator)
+					return left.plus(right.times(-1));
+				if (left.terms.isEmpty())
+					return right.times(left.constant);
+				if (right.terms.isEmpty())
+					return left.times(right.constant);
+				return null;
+			}
+
+			return null;
+		}
+	}
+}
@@ -4,6 +4,7 @@ import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
+import it.unive.lisa.analysis.nonrelational.value.PackableValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
@@ -33,7 +34,7 @@ import it.unive.lisa.symbolic.value.operator.unary.UnaryOperator;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Parity implements BaseNonRelationalValueDomain<Parity> {
+public class Parity implements BaseNonRelationalValueDomain<Parity>, PackableValueDomain<Parity> {
 
 	/**
 	 * The abstract even element.
@@ -176,6 +177,37 @@ public class Parity implements BaseNonRelationalValueDomain<Parity> {
 		return false;
 	}
 
+	@Override
+	public int bitWidth() {
+		return 2;
+	}
+
+	@Override
+	public long pack() {
+		// one bit for each of even and odd
+		switch (parity) {
+		case 1:
+			return 0b00;
+		case 2:
+			return 0b01;
+		case 3:
+			return 0b10;
+		default:
+			return 0b11;
+		}
+	}
+
+	@Override
+	public Parity unpack(long bits) {
+		if (bits == 0b00)
+			return BOTTOM;
+		if (bits == 0b01)
+			return ODD;
+		if (bits == 0b10)
+			return EVEN;
+		return TOP;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
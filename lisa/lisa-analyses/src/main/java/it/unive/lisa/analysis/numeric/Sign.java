@@ -5,10 +5,12 @@ import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
+import it.unive.lisa.analysis.nonrelational.value.PackableValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.Interning;
 import it.unive.lisa.symbolic.value.Constant;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
@@ -40,7 +42,7 @@ import it.unive.lisa.symbolic.value.operator.unary.UnaryOperator;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Sign implements BaseNonRelationalValueDomain<Sign> {
+public class Sign implements BaseNonRelationalValueDomain<Sign>, PackableValueDomain<Sign> {
 
 	/**
 	 * The abstract positive element.
@@ -240,6 +242,53 @@ public class Sign implements BaseNonRelationalValueDomain<Sign> {
 		return false;
 	}
 
+	@Override
+	public int bitWidth() {
+		return 3;
+	}
+
+	@Override
+	public long pack() {
+		// one bit for each of zero, positive and negative
+		switch (sign) {
+		case 1:
+			return 0b000;
+		case 2:
+			return 0b001;
+		case 3:
+			return 0b100;
+		case 4:
+			return 0b010;
+		default:
+			return 0b111;
+		}
+	}
+
+	@Override
+	public Sign unpack(long bits) {
+		if (bits == 0b000)
+			return BOTTOM;
+		if (bits == 0b001)
+			return ZERO;
+		if (bits == 0b010)
+			return POS;
+		if (bits == 0b100)
+			return NEG;
+		return TOP;
+	}
+
+	@Override
+	public long closeLub(long word) {
+		// the lub of two different signs is top: encodings with at least two
+		// bits set become 0b111
+		long low = 0x1249249249249249L;
+		long first = word & low;
+		long second = (word >>> 1) & low;
+		long third = (word >>> 2) & low;
+		long many = (first & second) | (first & third) | (second & third);
+		return word | (many * 0b111);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -367,13 +416,13 @@ public class Sign implements BaseNonRelationalValueDomain<Sign> {
 				if (rightSign.isNegative() || rightSign.isZero())
 					// x < 0/-
 					environment = environment.assign((Identifier) left,
-							new Constant(right.getStaticType(), -1, right.getCodeLocation()), pp);
+							Interning.intern(new Constant(right.getStaticType(), -1, right.getCodeLocation())), pp);
 			} else if (right instanceof Identifier) {
 				Sign leftSign = eval(left, environment, pp);
 				if (leftSign.isPositive() || leftSign.isZero())
 					// 0/+ < x
 					environment = environment.assign((Identifier) right,
-							new Constant(left.getStaticType(), 1, left.getCodeLocation()), pp);
+							Interning.intern(new Constant(left.getStaticType(), 1, left.getCodeLocation())), pp);
 			} else
 				return environment;
 		else if (operator == ComparisonGt.INSTANCE)
@@ -382,13 +431,13 @@ public class Sign implements BaseNonRelationalValueDomain<Sign> {
 				if (rightSign.isPositive() || rightSign.isZero())
 					// x > +/0
 					environment = environment.assign((Identifier) left,
-							new Constant(right.getStaticType(), 1, right.getCodeLocation()), pp);
+							Interning.intern(new Constant(right.getStaticType(), 1, right.getCodeLocation())), pp);
 			} else if (right instanceof Identifier) {
 				Sign leftSign = eval(left, environment, pp);
 				if (leftSign.isNegative() || leftSign.isZero())
 					// -/0 > x
 					environment = environment.assign((Identifier) right,
-							new Constant(left.getStaticType(), -1, right.getCodeLocation()), pp);
+							Interning.intern(new Constant(left.getStaticType(), -1, right.getCodeLocation())), pp);
 			} else
 				return environment;
 
@@ -0,0 +1,241 @@
+package it.unive.lisa.analysis.string.fsa;
+
+import it.unive.lisa.util.datastructures.automaton.Transition;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Operations on the character classes (see
+ * {@link StringSymbol#isCharacterClass()}) read by the transitions of a
+ * {@link SimpleAutomaton}. Classes are described through <i>cuts</i>: a cut
+ * {@code c} separates character {@code c - 1} from character {@code c}, and
+ * each class {@code [from-to]} contributes with cuts {@code from} and
+ * {@code to + 1}. Splitting all classes at all cuts yields classes that are
+ * pairwise either equal or disjoint, which is what the algorithms of
+ * {@link SimpleAutomaton} rely on to compare symbols through equality.<br>
+ * <br>
+ * Symbols that are not character classes (that is, epsilon and sequences of
+ * characters) are left untouched by all operations.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class CharacterClasses {
+
+	private CharacterClasses() {
+		// utility class
+	}
+
+	/**
+	 * Yields the sorted cuts of the character classes read by the given
+	 * transitions.
+	 *
+	 * @param transitions the transitions
+	 *
+	 * @return the cuts
+	 */
+	static int[] cuts(Collection<Transition<StringSymbol>> transitions) {
+		int[] cuts = new int[transitions.size() * 2];
+		int size = 0;
+		for (Transition<StringSymbol> t : transitions) {
+			StringSymbol symbol = t.getSymbol();
+			if (symbol.isCharacterClass()) {
+				cuts[size++] = symbol.getFrom();
+				cuts[size++] = symbol.getTo() + 1;
+			}
+		}
+		Arrays.sort(cuts, 0, size);
+
+		int distinct = 0;
+		for (int i = 0; i < size; i++)
+			if (distinct == 0 || cuts[distinct - 1] != cuts[i])
+				cuts[distinct++] = cuts[i];
+		return Arrays.copyOf(cuts, distinct);
+	}
+
+	/**
+	 * Yields {@code true} if and only if all the character classes read by the
+	 * given transitions contain a single character. Such transitions are
+	 * trivially pairwise either equal or disjoint.
+	 *
+	 * @param transitions the transitions
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	static boolean onlySingleCharacters(Collection<Transition<StringSymbol>> transitions) {
+		for (Transition<StringSymbol> t : transitions)
+			if (t.getSymbol().isCharacterClass() && t.getSymbol().getFrom() != t.getSymbol().getTo())
+				return false;
+		return true;
+	}
+
+	/**
+	 * Splits the character classes read by the given transitions at the given
+	 * cuts. If no class contains a cut other than its first character,
+	 * {@code transitions} itself is returned.
+	 *
+	 * @param transitions the transitions
+	 * @param cuts        the sorted cuts
+	 *
+	 * @return the transitions reading the split classes
+	 */
+	static SortedSet<Transition<StringSymbol>> split(SortedSet<Transition<StringSymbol>> transitions, int[] cuts) {
+		SortedSet<Transition<StringSymbol>> result = null;
+		for (Transition<StringSymbol> t : transitions) {
+			StringSymbol symbol = t.getSymbol();
+			int next = symbol.isCharacterClass() ? firstCutAfter(cuts, symbol.getFrom()) : cuts.length;
+			if (next == cuts.length || cuts[next] > symbol.getTo()) {
+				// nothing to split
+				if (result != null)
+					result.add(t);
+				continue;
+			}
+
+			if (result == null) {
+				result = new TreeSet<>();
+				for (Transition<StringSymbol> previous : transitions)
+					if (previous == t)
+						break;
+					else
+						result.add(previous);
+			}
+
+			int from = symbol.getFrom();
+			for (; next < cuts.length && cuts[next] <= symbol.getTo(); next++) {
+				result.add(new Transition<>(t.getSource(), t.getDestination(),
+						new StringSymbol((char) from, (char) (cuts[next] - 1))));
+				from = cuts[next];
+			}
+			result.add(new Transition<>(t.getSource(), t.getDestination(),
+					new StringSymbol((char) from, symbol.getTo())));
+		}
+
+		return result == null ? transitions : result;
+	}
+
+	private static int firstCutAfter(int[] cuts, char c) {
+		int pos = Arrays.binarySearch(cuts, c + 1);
+		return pos >= 0 ? pos : -pos - 1;
+	}
+
+	/**
+	 * Merges adjacent character classes that, from every source, lead to the
+	 * same destinations. The classes read by {@code transitions} must be
+	 * pairwise either equal or disjoint. The result is the coarsest set of
+	 * classes that does not change the language recognized by the automaton
+	 * owning {@code transitions}. If no class can be merged,
+	 * {@code transitions} itself is returned.
+	 *
+	 * @param transitions the transitions
+	 *
+	 * @return the transitions reading the merged classes
+	 */
+	static SortedSet<Transition<StringSymbol>> merge(SortedSet<Transition<StringSymbol>> transitions) {
+		// the (source, destination) pairs of each class, sorted by class
+		TreeMap<StringSymbol, Set<List<Integer>>> pairs = new TreeMap<>();
+		for (Transition<StringSymbol> t : transitions)
+			if (t.getSymbol().isCharacterClass())
+				pairs.computeIfAbsent(t.getSymbol(), s -> new HashSet<>())
+						.add(List.of(t.getSource().getId(), t.getDestination().getId()));
+
+		Map<StringSymbol, StringSymbol> merged = new HashMap<>();
+		List<StringSymbol> group = new ArrayList<>();
+		Set<List<Integer>> groupPairs = null;
+		for (Map.Entry<StringSymbol, Set<List<Integer>>> entry : pairs.entrySet()) {
+			StringSymbol c = entry.getKey();
+			if (!group.isEmpty()
+					&& (group.get(group.size() - 1).getTo() + 1 != c.getFrom()
+							|| !groupPairs.equals(entry.getValue()))) {
+				close(group, merged);
+				group.clear();
+			}
+			group.add(c);
+			groupPairs = entry.getValue();
+		}
+		close(group, merged);
+
+		if (merged.isEmpty())
+			return transitions;
+
+		SortedSet<Transition<StringSymbol>> result = new TreeSet<>();
+		for (Transition<StringSymbol> t : transitions) {
+			StringSymbol c = merged.get(t.getSymbol());
+			result.add(c == null ? t : new Transition<>(t.getSource(), t.getDestination(), c));
+		}
+		return result;
+	}
+
+	private static void close(List<StringSymbol> group, Map<StringSymbol, StringSymbol> merged) {
+		if (group.size() < 2)
+			return;
+		StringSymbol c = new StringSymbol(group.get(0).getFrom(), group.get(group.size() - 1).getTo());
+		for (StringSymbol s : group)
+			merged.put(s, c);
+	}
+
+	/**
+	 * Yields the symbols of {@code universe} that are not contained in any of
+	 * the ones in {@code covered}. Character classes of {@code universe} are
+	 * first joined into maximal intervals, and then the characters read by the
+	 * classes in {@code covered} are removed from them, yielding disjoint
+	 * classes. Epsilon never belongs to the result.
+	 *
+	 * @param universe the symbols to filter
+	 * @param covered  the symbols to remove
+	 *
+	 * @return the symbols of {@code universe} not in {@code covered}
+	 */
+	static SortedSet<StringSymbol> difference(Collection<StringSymbol> universe, Collection<StringSymbol> covered) {
+		SortedSet<StringSymbol> result = new TreeSet<>();
+		List<int[]> remaining = intervals(universe, result);
+		List<int[]> removed = intervals(covered, new TreeSet<>());
+		result.removeAll(covered);
+
+		int j = 0;
+		for (int[] interval : remaining) {
+			int from = interval[0];
+			while (j < removed.size() && removed.get(j)[1] < from)
+				j++;
+			for (int k = j; k < removed.size() && removed.get(k)[0] <= interval[1]; k++) {
+				if (removed.get(k)[0] > from)
+					result.add(new StringSymbol((char) from, (char) (removed.get(k)[0] - 1)));
+				from = Math.max(from, removed.get(k)[1] + 1);
+			}
+			if (from <= interval[1])
+				result.add(new StringSymbol((char) from, (char) interval[1]));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Yields the maximal intervals of characters read by the character classes
+	 * in {@code symbols}, sorted by their first character, adding the symbols
+	 * that are neither character classes nor epsilon to {@code others}.
+	 */
+	private static List<int[]> intervals(Collection<StringSymbol> symbols, SortedSet<StringSymbol> others) {
+		List<int[]> classes = new ArrayList<>();
+		for (StringSymbol s : symbols)
+			if (s.isCharacterClass())
+				classes.add(new int[] { s.getFrom(), s.getTo() });
+			else if (!s.isEpsilon())
+				others.add(s);
+		classes.sort((l, r) -> Integer.compare(l[0], r[0]));
+
+		List<int[]> result = new ArrayList<>();
+		for (int[] c : classes)
+			if (!result.isEmpty() && result.get(result.size() - 1)[1] + 1 >= c[0])
+				result.get(result.size() - 1)[1] = Math.max(result.get(result.size() - 1)[1], c[1]);
+			else
+				result.add(c.clone());
+		return result;
+	}
+}
@@ -12,12 +12,14 @@ import it.unive.lisa.symbolic.value.Constant;
 import it.unive.lisa.symbolic.value.operator.binary.BinaryOperator;
 import it.unive.lisa.symbolic.value.operator.binary.StringConcat;
 import it.unive.lisa.symbolic.value.operator.binary.StringContains;
+import it.unive.lisa.util.datastructures.automaton.AutomatonCache;
 import it.unive.lisa.util.datastructures.automaton.CyclicAutomatonException;
 import it.unive.lisa.util.datastructures.automaton.State;
-import java.util.Objects;
+import it.unive.lisa.util.datastructures.automaton.TransitionSymbol;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * A class that represent the Finite State Automaton domain for strings,
@@ -38,6 +40,14 @@ public class FSA implements BaseNonRelationalValueDomain<FSA> {
 	 */
 	public static final int WIDENING_TH = 3;
 
+	/**
+	 * The maximum number of results of each kind kept in the cache of the
+	 * results of the binary operations on automata. The cache is created for
+	 * each execution of LiSA through
+	 * {@link AutomatonCache#current(Object, int)}.
+	 */
+	public static final int CACHE_SIZE = 4096;
+
 	/**
 	 * Used to store the string representation
 	 */
@@ -60,19 +70,30 @@ public class FSA implements BaseNonRelationalValueDomain<FSA> {
 		this.a = a;
 	}
 
+	/**
+	 * Yields the cache of the results of the binary operations on automata of
+	 * the running analysis.
+	 * 
+	 * @return the cache
+	 */
+	private static AutomatonCache<SimpleAutomaton> cache() {
+		return AutomatonCache.current(FSA.class, CACHE_SIZE);
+	}
+
 	@Override
 	public FSA lubAux(FSA other) throws SemanticException {
-		return new FSA(this.a.union(other.a).minimize());
+		return new FSA(cache().apply("lub", 0, this.a, other.a, (l, r) -> l.union(r).minimize()));
 	}
 
 	@Override
 	public FSA wideningAux(FSA other) throws SemanticException {
-		return new FSA(this.a.union(other.a).widening(WIDENING_TH));
+		return new FSA(cache().apply("widening", WIDENING_TH, this.a, other.a,
+				(l, r) -> l.union(r).widening(WIDENING_TH)));
 	}
 
 	@Override
 	public boolean lessOrEqualAux(FSA other) throws SemanticException {
-		return this.a.isContained(other.a);
+		return cache().test("lessOrEqual", this.a, other.a, SimpleAutomaton::isContained);
 	}
 
 	@Override
@@ -82,12 +103,13 @@ public class FSA implements BaseNonRelationalValueDomain<FSA> {
 		if (o == null || getClass() != o.getClass())
 			return false;
 		FSA fsa = (FSA) o;
-		return Objects.equals(a, fsa.a);
+		// automata recognizing the same language represent the same value
+		return a.isCanonicallyEqualTo(fsa.a);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(a);
+		return Long.hashCode(a.fingerprint());
 	}
 
 	@Override
@@ -130,7 +152,7 @@ public class FSA implements BaseNonRelationalValueDomain<FSA> {
 	public FSA evalBinaryExpression(BinaryOperator operator, FSA left, FSA right, ProgramPoint pp)
 			throws SemanticException {
 		if (operator == StringConcat.INSTANCE)
-			return new FSA(left.a.concat(right.a));
+			return new FSA(cache().apply("concat", 0, left.a, right.a, SimpleAutomaton::concat));
 		return top();
 	}
 
@@ -144,6 +166,10 @@ public class FSA implements BaseNonRelationalValueDomain<FSA> {
 				// right accepts only the empty string
 				if (rightLang.size() == 1 && rightLang.contains(""))
 					return SemanticDomain.Satisfiability.SATISFIED;
+				// characters of large classes are unknown
+				if (Stream.concat(leftLang.stream(), rightLang.stream())
+						.anyMatch(s -> s.contains(TransitionSymbol.UNKNOWN_SYMBOL)))
+					return SemanticDomain.Satisfiability.UNKNOWN;
 
 				// we can compare languages
 				boolean atLeastOne = false, all = true;
@@ -1,9 +1,10 @@
 package it.unive.lisa.analysis.string.fsa;
 
 import it.unive.lisa.util.datastructures.automaton.Automaton;
+import it.unive.lisa.util.datastructures.automaton.CyclicAutomatonException;
 import it.unive.lisa.util.datastructures.automaton.State;
 import it.unive.lisa.util.datastructures.automaton.Transition;
-import it.unive.lisa.util.datastructures.regex.Atom;
+import it.unive.lisa.util.datastructures.automaton.TransitionSymbol;
 import it.unive.lisa.util.datastructures.regex.RegularExpression;
 import java.util.Collections;
 import java.util.Optional;
@@ -14,7 +15,13 @@ import java.util.stream.Collectors;
 
 /**
  * A class that describes an generic automaton(dfa, nfa, epsilon nfa) using a
- * standard alphabet of single characters.
+ * standard alphabet of single characters. Transitions can read character
+ * classes (see {@link StringSymbol#isCharacterClass()}): automata are kept
+ * such that any two classes they read are either equal or disjoint, splitting
+ * overlapping classes upon construction, and minimization merges adjacent
+ * classes that always lead to the same states. This way, the number of
+ * transitions depends on the number of distinct guards instead of on the size
+ * of the alphabet.
  *
  * @author <a href="mailto:simone.leoni2@studenti.unipr.it">Simone Leoni</a>
  * @author <a href="mailto:vincenzo.arceri@unipr.it">Vincenzo Arceri</a>
@@ -22,6 +29,13 @@ import java.util.stream.Collectors;
  */
 public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymbol> {
 
+	/**
+	 * The maximum number of characters of a character class that is expanded
+	 * to the characters it contains when computing regular expressions and
+	 * languages. Larger classes are treated as unknown characters.
+	 */
+	public static final int MAX_EXPANDED_CLASS = 16;
+
 	@Override
 	public SimpleAutomaton singleString(String string) {
 		return new SimpleAutomaton(string);
@@ -35,8 +49,8 @@ public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymb
 
 		newStates.add(initialState);
 
-		for (char alphabet = '!'; alphabet <= '~'; ++alphabet)
-			newGamma.add(new Transition<>(initialState, initialState, new StringSymbol(alphabet)));
+		newGamma.add(new Transition<>(initialState, initialState,
+				new StringSymbol(Character.MIN_VALUE, Character.MAX_VALUE)));
 
 		return new SimpleAutomaton(newStates, newGamma);
 	}
@@ -72,17 +86,93 @@ public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymb
 
 	@Override
 	public RegularExpression symbolToRegex(StringSymbol symbol) {
-		return new Atom(symbol.getSymbol());
+		return symbol.toRegex(MAX_EXPANDED_CLASS);
+	}
+
+	@Override
+	protected SimpleAutomaton splitSymbols(SimpleAutomaton other) {
+		if (CharacterClasses.onlySingleCharacters(transitions))
+			return this;
+		SortedSet<Transition<StringSymbol>> split = CharacterClasses.split(transitions,
+				CharacterClasses.cuts(other.transitions));
+		if (split == transitions)
+			return this;
+		SimpleAutomaton result = new SimpleAutomaton(new TreeSet<>(states), split);
+		result.deterministic = deterministic;
+		return result;
+	}
+
+	@Override
+	protected SimpleAutomaton mergeSymbols() {
+		SortedSet<Transition<StringSymbol>> merged = CharacterClasses.merge(transitions);
+		return merged == transitions ? this : new SimpleAutomaton(states, merged);
+	}
+
+	@Override
+	public SimpleAutomaton totalize(Set<StringSymbol> sigma) {
+		SortedSet<State> newStates = new TreeSet<>(states);
+		SortedSet<Transition<StringSymbol>> newTransitions = new TreeSet<>(transitions);
+
+		int code = 1 + states.stream().map(State::getId).max(Integer::compare).orElseGet(() -> -1);
+
+		// add a new "garbage" state
+		State garbage = new State(code, false, false);
+		newStates.add(garbage);
+
+		// add transitions towards the garbage state for the characters of
+		// sigma that cannot be read
+		for (State s : states)
+			for (StringSymbol c : CharacterClasses.difference(sigma, getReadableSymbolsFromState(s)))
+				newTransitions.add(new Transition<>(s, garbage, c));
+
+		// self loops over garbage state
+		for (StringSymbol c : CharacterClasses.difference(sigma, Collections.emptySet()))
+			newTransitions.add(new Transition<>(garbage, garbage, c));
+
+		return from(newStates, newTransitions);
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Character classes containing at most {@link #MAX_EXPANDED_CLASS}
+	 * characters are expanded to the characters they contain, while larger
+	 * ones are encoded using {@link TransitionSymbol#UNKNOWN_SYMBOL}.
+	 */
+	@Override
+	public SortedSet<String> getLanguage() throws CyclicAutomatonException {
+		if (CharacterClasses.onlySingleCharacters(transitions))
+			return super.getLanguage();
+		if (hasCycle())
+			throw new CyclicAutomatonException();
+
+		// small classes are expanded to the characters they contain
+		SortedSet<Transition<StringSymbol>> expanded = new TreeSet<>();
+		for (Transition<StringSymbol> t : transitions) {
+			StringSymbol symbol = t.getSymbol();
+			if (!symbol.isCharacterClass())
+				expanded.add(t);
+			else if (symbol.getTo() - symbol.getFrom() >= MAX_EXPANDED_CLASS)
+				expanded.add(new Transition<>(t.getSource(), t.getDestination(),
+						new StringSymbol(TransitionSymbol.UNKNOWN_SYMBOL)));
+			else
+				for (int c = symbol.getFrom(); c <= symbol.getTo(); c++)
+					expanded.add(new Transition<>(t.getSource(), t.getDestination(), new StringSymbol((char) c)));
+		}
+		return new SimpleAutomaton(states, expanded).getLanguage();
 	}
 
 	/**
 	 * Builds a new automaton with given {@code states} and {@code transitions}.
+	 * Character classes that overlap without being equal are split into
+	 * disjoint ones.
 	 *
 	 * @param states      the set of states of the new automaton
 	 * @param transitions the set of the transitions of the new automaton
 	 */
 	public SimpleAutomaton(SortedSet<State> states, SortedSet<Transition<StringSymbol>> transitions) {
-		super(states, transitions);
+		super(states, CharacterClasses.onlySingleCharacters(transitions) ? transitions
+				: CharacterClasses.split(transitions, CharacterClasses.cuts(transitions)));
 	}
 
 	/**
@@ -130,7 +220,7 @@ public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymb
 		Set<State> currentStates = epsilonClosure(getInitialStates());
 
 		for (int i = 0; i < str.length(); ++i) {
-			String c = "" + str.charAt(i);
+			char c = str.charAt(i);
 
 			// stores temporally the new currentStates
 			Set<State> newCurr = new TreeSet<>();
@@ -138,7 +228,7 @@ public final class SimpleAutomaton extends Automaton<SimpleAutomaton, StringSymb
 
 				// stores all the states reached after char computation
 				Set<State> dest = transitions.stream()
-						.filter(t -> t.getSource().equals(s) && t.getSymbol().getSymbol().equals(c))
+						.filter(t -> t.getSource().equals(s) && t.getSymbol().contains(c))
 						.map(Transition::getDestination).collect(Collectors.toSet());
 				if (!dest.isEmpty()) {
 					dest = epsilonClosure(dest);
@@ -1,11 +1,24 @@
 package it.unive.lisa.analysis.string.fsa;
 
 import it.unive.lisa.util.datastructures.automaton.TransitionSymbol;
+import it.unive.lisa.util.datastructures.regex.Atom;
+import it.unive.lisa.util.datastructures.regex.RegularExpression;
+import it.unive.lisa.util.datastructures.regex.TopAtom;
+import java.util.Objects;
 
 /**
  * A {@link TransitionSymbol} for single characters, represented as strings for
- * simple modeling of epsilon.
- * 
+ * simple modeling of epsilon. A symbol can also be a <i>character class</i>,
+ * that is, a guard reading any single character within an interval (e.g.,
+ * {@code [a-z]}), so that automata reading large alphabets need a single
+ * transition for each interval instead of one for each character.<br>
+ * <br>
+ * Internally, a symbol is a sequence of intervals of characters, where plain
+ * characters are intervals containing a single character: the order between
+ * symbols is the lexicographic order between such sequences, that coincides
+ * with the lexicographic order between strings for symbols that do not
+ * contain classes.
+ *
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
 public class StringSymbol implements TransitionSymbol<StringSymbol> {
@@ -15,49 +28,148 @@ public class StringSymbol implements TransitionSymbol<StringSymbol> {
 	 */
 	public static final StringSymbol EPSILON = new StringSymbol("");
 
+	/**
+	 * The textual representation of this symbol, that is the represented
+	 * string for symbols that do not contain classes.
+	 */
 	private final String symbol;
 
+	/**
+	 * The bounds of the intervals of this symbol, stored as pairs of lower
+	 * and upper bounds (both inclusive).
+	 */
+	private final String bounds;
+
 	/**
 	 * Builds the symbol for the given string. Note that, even if instances of
 	 * this class should represent single characters, having a string enables
 	 * modeling of epsilon.
-	 * 
+	 *
 	 * @param symbol the string
 	 */
 	public StringSymbol(String symbol) {
 		this.symbol = symbol;
+		StringBuilder bounds = new StringBuilder(symbol.length() * 2);
+		for (int i = 0; i < symbol.length(); i++)
+			bounds.append(symbol.charAt(i)).append(symbol.charAt(i));
+		this.bounds = bounds.toString();
 	}
 
 	/**
 	 * Builds the symbol for the given character.
-	 * 
+	 *
 	 * @param symbol the character
 	 */
 	public StringSymbol(char symbol) {
-		this.symbol = Character.toString(symbol);
+		this(Character.toString(symbol));
+	}
+
+	/**
+	 * Builds the character class reading any character between {@code from}
+	 * and {@code to}, both inclusive.
+	 *
+	 * @param from the first character of the class
+	 * @param to   the last character of the class
+	 *
+	 * @throws IllegalArgumentException if {@code from} follows {@code to}
+	 */
+	public StringSymbol(char from, char to) {
+		if (from > to)
+			throw new IllegalArgumentException("Empty character class: " + from + "-" + to);
+		this.bounds = new String(new char[] { from, to });
+		this.symbol = display(bounds);
+	}
+
+	private StringSymbol(String symbol, String bounds) {
+		this.symbol = symbol;
+		this.bounds = bounds;
+	}
+
+	private static String display(String bounds) {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < bounds.length(); i += 2) {
+			char from = bounds.charAt(i), to = bounds.charAt(i + 1);
+			if (from == to)
+				result.append(from);
+			else
+				result.append('[').append(escape(from)).append('-').append(escape(to)).append(']');
+		}
+		return result.toString();
+	}
+
+	private static String escape(char c) {
+		if (c >= ' ' && c <= '~')
+			return String.valueOf(c);
+		return String.format("\\u%04x", (int) c);
 	}
 
 	@Override
 	public int compareTo(StringSymbol o) {
-		return symbol.compareTo(o.symbol);
+		return bounds.compareTo(o.bounds);
 	}
 
 	@Override
 	public boolean isEpsilon() {
-		return this == EPSILON || symbol.isEmpty();
+		return this == EPSILON || bounds.isEmpty();
+	}
+
+	/**
+	 * Yields {@code true} if and only if this symbol reads exactly one
+	 * character, that is, if it is either a single character or a character
+	 * class.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isCharacterClass() {
+		return bounds.length() == 2;
+	}
+
+	/**
+	 * Yields the first character of this symbol, that must be a character
+	 * class (see {@link #isCharacterClass()}).
+	 *
+	 * @return the first character of the class
+	 */
+	public char getFrom() {
+		return bounds.charAt(0);
+	}
+
+	/**
+	 * Yields the last character of this symbol, that must be a character
+	 * class (see {@link #isCharacterClass()}).
+	 *
+	 * @return the last character of the class
+	 */
+	public char getTo() {
+		return bounds.charAt(1);
+	}
+
+	/**
+	 * Yields {@code true} if and only if this symbol is a character class (see
+	 * {@link #isCharacterClass()}) containing {@code c}.
+	 *
+	 * @param c the character
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean contains(char c) {
+		return isCharacterClass() && getFrom() <= c && c <= getTo();
 	}
 
 	@Override
 	public StringSymbol reverse() {
-		return isEpsilon() ? this : new StringSymbol(new StringBuilder(symbol).reverse().toString());
+		if (isEpsilon())
+			return this;
+		StringBuilder reversed = new StringBuilder(bounds.length());
+		for (int i = bounds.length() - 2; i >= 0; i -= 2)
+			reversed.append(bounds.charAt(i)).append(bounds.charAt(i + 1));
+		String rev = reversed.toString();
+		return new StringSymbol(display(rev), rev);
 	}
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((symbol == null) ? 0 : symbol.hashCode());
-		return result;
+		return Objects.hashCode(bounds);
 	}
 
 	@Override
@@ -69,12 +181,7 @@ public class StringSymbol implements TransitionSymbol<StringSymbol> {
 		if (getClass() != obj.getClass())
 			return false;
 		StringSymbol other = (StringSymbol) obj;
-		if (symbol == null) {
-			if (other.symbol != null)
-				return false;
-		} else if (!symbol.equals(other.symbol))
-			return false;
-		return true;
+		return Objects.equals(bounds, other.bounds);
 	}
 
 	@Override
@@ -83,19 +190,60 @@ public class StringSymbol implements TransitionSymbol<StringSymbol> {
 	}
 
 	/**
-	 * Yields the string represented by this symbol.
-	 * 
+	 * Yields the string represented by this symbol. Character classes are
+	 * represented as {@code [from-to]}.
+	 *
 	 * @return the concrete string
 	 */
 	public String getSymbol() {
 		return symbol;
 	}
 
+	/**
+	 * Yields a {@link RegularExpression} recognizing the strings read by this
+	 * symbol. Character classes containing at most {@code maxClassSize}
+	 * characters are rendered as the alternation of their characters, while
+	 * larger ones are over-approximated by {@link TopAtom}.
+	 *
+	 * @param maxClassSize the maximum number of characters of a class that is
+	 *                         rendered precisely
+	 *
+	 * @return the regular expression
+	 */
+	public RegularExpression toRegex(int maxClassSize) {
+		RegularExpression result = Atom.EPSILON;
+		StringBuilder plain = new StringBuilder();
+		for (int i = 0; i < bounds.length(); i += 2) {
+			char from = bounds.charAt(i), to = bounds.charAt(i + 1);
+			if (from == to) {
+				plain.append(from);
+				continue;
+			}
+
+			if (plain.length() > 0) {
+				result = result.comp(new Atom(plain.toString()));
+				plain.setLength(0);
+			}
+			if (to - from >= maxClassSize)
+				result = result.comp(TopAtom.INSTANCE);
+			else {
+				RegularExpression cls = new Atom(String.valueOf(from));
+				// an int is used to not overflow when to is the last char
+				for (int c = from + 1; c <= to; c++)
+					cls = cls.or(new Atom(String.valueOf((char) c)));
+				result = result.comp(cls);
+			}
+		}
+		if (plain.length() > 0)
+			result = result.comp(new Atom(plain.toString()));
+		return result;
+	}
+
 	/**
 	 * Merges the two symbols in a unique one by joining the two inner strings.
-	 * 
+	 *
 	 * @param other the other symbol
-	 * 
+	 *
 	 * @return the merged (joined) symbol
 	 */
 	public StringSymbol concat(StringSymbol other) {
@@ -103,16 +251,16 @@ public class StringSymbol implements TransitionSymbol<StringSymbol> {
 			return other;
 		if (other.isEpsilon())
 			return this;
-		return new StringSymbol(symbol + other.symbol);
+		return new StringSymbol(symbol + other.symbol, bounds + other.bounds);
 	}
 
 	@Override
 	public int maxLength() {
-		return symbol.length();
+		return bounds.length() / 2;
 	}
 
 	@Override
 	public int minLength() {
-		return symbol.length();
+		return bounds.length() / 2;
 	}
 }
@@ -13,8 +13,8 @@ import it.unive.lisa.symbolic.value.Constant;
 import it.unive.lisa.symbolic.value.operator.binary.BinaryOperator;
 import it.unive.lisa.symbolic.value.operator.binary.StringConcat;
 import it.unive.lisa.symbolic.value.operator.binary.StringContains;
+import it.unive.lisa.util.datastructures.automaton.AutomatonCache;
 import it.unive.lisa.util.datastructures.automaton.CyclicAutomatonException;
-import java.util.Objects;
 import java.util.SortedSet;
 
 /**
@@ -41,6 +41,14 @@ public class Tarsis implements BaseNonRelationalValueDomain<Tarsis> {
 	 */
 	public static final int WIDENING_CAP = 5;
 
+	/**
+	 * The maximum number of results of each kind kept in the cache of the
+	 * results of the binary operations on automata. The cache is created for
+	 * each execution of LiSA through
+	 * {@link AutomatonCache#current(Object, int)}.
+	 */
+	public static final int CACHE_SIZE = 4096;
+
 	/**
 	 * Used to store the string representation
 	 */
@@ -63,14 +71,24 @@ public class Tarsis implements BaseNonRelationalValueDomain<Tarsis> {
 		this.a = a;
 	}
 
+	/**
+	 * Yields the cache of the results of the binary operations on automata of
+	 * the running analysis.
+	 * 
+	 * @return the cache
+	 */
+	private static AutomatonCache<RegexAutomaton> cache() {
+		return AutomatonCache.current(Tarsis.class, CACHE_SIZE);
+	}
+
 	@Override
 	public Tarsis lubAux(Tarsis other) throws SemanticException {
-		return new Tarsis(this.a.union(other.a).minimize());
+		return new Tarsis(cache().apply("lub", 0, this.a, other.a, (l, r) -> l.union(r).minimize()));
 	}
 
 	@Override
 	public Tarsis glbAux(Tarsis other) throws SemanticException {
-		return new Tarsis(this.a.intersection(other.a).minimize());
+		return new Tarsis(cache().apply("glb", 0, this.a, other.a, (l, r) -> l.intersection(r).minimize()));
 	}
 
 	/**
@@ -96,12 +114,14 @@ public class Tarsis implements BaseNonRelationalValueDomain<Tarsis> {
 
 	@Override
 	public Tarsis wideningAux(Tarsis other) throws SemanticException {
-		return new Tarsis(this.a.union(other.a).widening(getSizeDiffCapped(other)));
+		int threshold = getSizeDiffCapped(other);
+		return new Tarsis(cache().apply("widening", threshold, this.a, other.a,
+				(l, r) -> l.union(r).widening(threshold)));
 	}
 
 	@Override
 	public boolean lessOrEqualAux(Tarsis other) throws SemanticException {
-		return this.a.isContained(other.a);
+		return cache().test("lessOrEqual", this.a, other.a, RegexAutomaton::isContained);
 	}
 
 	@Override
@@ -111,12 +131,13 @@ public class Tarsis implements BaseNonRelationalValueDomain<Tarsis> {
 		if (o == null || getClass() != o.getClass())
 			return false;
 		Tarsis fsa = (Tarsis) o;
-		return Objects.equals(a, fsa.a);
+		// automata recognizing the same language represent the same value
+		return a.isCanonicallyEqualTo(fsa.a);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(a);
+		return Long.hashCode(a.fingerprint());
 	}
 
 	@Override
@@ -151,7 +172,7 @@ public class Tarsis implements BaseNonRelationalValueDomain<Tarsis> {
 	public Tarsis evalBinaryExpression(BinaryOperator operator, Tarsis left, Tarsis right, ProgramPoint pp)
 			throws SemanticException {
 		if (operator == StringConcat.INSTANCE)
-			return new Tarsis(left.a.concat(right.a));
+			return new Tarsis(cache().apply("concat", 0, left.a, right.a, RegexAutomaton::concat));
 		return top();
 	}
 
@@ -2,6 +2,7 @@ package it.unive.lisa.analysis.taint;
 
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.nonrelational.value.PackableValueDomain;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
 
@@ -12,7 +13,7 @@ import it.unive.lisa.analysis.representation.StringRepresentation;
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class Taint extends BaseTaint<Taint> {
+public class Taint extends BaseTaint<Taint> implements PackableValueDomain<Taint> {
 
 	private static final Taint TAINTED = new Taint(true);
 
@@ -84,6 +85,26 @@ public class Taint extends BaseTaint<Taint> {
 		return false; // should never happen
 	}
 
+	@Override
+	public int bitWidth() {
+		return 2;
+	}
+
+	@Override
+	public long pack() {
+		// clean and tainted form a chain
+		return taint == null ? 0b00 : taint ? 0b11 : 0b01;
+	}
+
+	@Override
+	public Taint unpack(long bits) {
+		if (bits == 0b00)
+			return BOTTOM;
+		if (bits == 0b01)
+			return CLEAN;
+		return TAINTED;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -2,6 +2,7 @@ package it.unive.lisa.analysis.taint;
 
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.nonrelational.value.PackableValueDomain;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
@@ -15,7 +16,7 @@ import it.unive.lisa.symbolic.value.operator.ternary.TernaryOperator;
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class ThreeLevelsTaint extends BaseTaint<ThreeLevelsTaint> {
+public class ThreeLevelsTaint extends BaseTaint<ThreeLevelsTaint> implements PackableValueDomain<ThreeLevelsTaint> {
 
 	private static final ThreeLevelsTaint TOP = new ThreeLevelsTaint((byte) 3);
 	private static final ThreeLevelsTaint TAINTED = new ThreeLevelsTaint((byte) 2);
@@ -114,6 +115,28 @@ public class ThreeLevelsTaint extends BaseTaint<ThreeLevelsTaint> {
 		return false;
 	}
 
+	@Override
+	public int bitWidth() {
+		return 2;
+	}
+
+	@Override
+	public long pack() {
+		// one bit for each of clean and tainted
+		return taint;
+	}
+
+	@Override
+	public ThreeLevelsTaint unpack(long bits) {
+		if (bits == 0b00)
+			return BOTTOM;
+		if (bits == 0b01)
+			return CLEAN;
+		if (bits == 0b10)
+			return TAINTED;
+		return TOP;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,641 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.StatementStore;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.analysis.value.TypeDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.interprocedural.callgraph.BaseCallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
+import it.unive.lisa.logging.IterationLogger;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.OpenCall;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.program.language.parameterassignment.ParameterAssigningStrategy;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.PushAny;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.StronglyConnectedComponents;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A bottom-up, summary-based interprocedural analysis. The analysis proceeds in
+ * three phases:
+ * <ol>
+ * <li>all {@link CFG}s of the program are analyzed once, treating calls to
+ * other {@link CFG}s as {@link OpenCall}s, to discover the edges of the
+ * {@link CallGraph} (that is built lazily while resolving calls);</li>
+ * <li>the {@link CallGraph} is condensed into its strongly connected
+ * components, that are sorted in reverse topological order (callees
+ * first);</li>
+ * <li>a summary, that is, the exit state of the {@link CFG} analyzed from a top
+ * entry state, is computed for each {@link CFG}, one component at a time. Calls
+ * to {@link CFG}s of already processed components are evaluated by applying
+ * their summaries at the call site, while non-recursive components are analyzed
+ * exactly once. Only components containing recursion are iterated until their
+ * summaries stabilize, switching from {@link AnalysisState#lub(AnalysisState)}
+ * to {@link AnalysisState#widening(AnalysisState)} after
+ * {@link FixpointConfiguration#wideningThreshold} iterations.</li>
+ * </ol>
+ * Components that do not depend on each other are processed concurrently when
+ * {@link FixpointConfiguration#fixpointParallelism} is greater than 1. If
+ * {@link FixpointConfiguration#incremental} is set, the summaries computed by
+ * the previous execution of this analysis are reused for components that did
+ * not change and whose callees yield the same summaries.<br>
+ * <br>
+ * Summaries are context-insensitive: each {@link CFG} is analyzed exactly once
+ * from an entry state where all of its parameters are unknown. At each call
+ * site, the state of the caller is kept as-is, the return value of the call is
+ * assigned from the expressions computed by the summary, and the facts of the
+ * summary about the heap are joined with the ones of the caller, while the
+ * local variables of the callee are discarded. The precision of the side
+ * effects propagated back to callers thus depends on how the heap domain
+ * represents them. This analysis requires a {@link BaseCallGraph}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the abstract state of the analysis
+ * @param <H> the heap domain
+ * @param <V> the value domain
+ * @param <T> the type domain
+ */
+public class BottomUpAnalysis<A extends AbstractState<A, H, V, T>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>,
+		T extends TypeDomain<T>> extends CallGraphBasedAnalysis<A, H, V, T> {
+
+	private static final Logger LOG = LogManager.getLogger(BottomUpAnalysis.class);
+
+	/**
+	 * The results of the fixpoints computed over each {@link CFG}.
+	 */
+	private final Map<CFG, CFGWithAnalysisResults<A, H, V, T>> results;
+
+	/**
+	 * The summaries computed for each {@link CFG}. A missing summary stands for
+	 * a {@link CFG} that has not been analyzed yet.
+	 */
+	private final Map<CFG, AnalysisState<A, H, V, T>> summaries;
+
+	/**
+	 * The index of the component (in {@link #dependencies}) containing each
+	 * {@link CFG}.
+	 */
+	private final Map<CFG, Integer> components;
+
+	/**
+	 * For each component, the indexes of the other components containing
+	 * {@link CFG}s called by its members.
+	 */
+	private final List<Set<Integer>> dependencies;
+
+	/**
+	 * The indexes of the components (in {@link #dependencies}) that are
+	 * recursive, computed before the summaries so that they can be queried
+	 * while the call graph is modified by other components.
+	 */
+	private final Set<Integer> recursive;
+
+	/**
+	 * The structural hash of each {@link CFG}, computed only when
+	 * {@link FixpointConfiguration#incremental} is set.
+	 */
+	private final Map<CFG, String> hashes;
+
+	/**
+	 * The summaries of previous executions, reused when
+	 * {@link FixpointConfiguration#incremental} is set.
+	 */
+	private final IncrementalResults<SummaryEntry<A, H, V, T>> previous;
+
+	/**
+	 * Whether or not the analysis is discovering the edges of the call graph.
+	 */
+	private volatile boolean discovering;
+
+	/**
+	 * Builds the interprocedural analysis.
+	 */
+	public BottomUpAnalysis() {
+		results = new ConcurrentHashMap<>();
+		summaries = new ConcurrentHashMap<>();
+		components = new HashMap<>();
+		dependencies = new ArrayList<>();
+		recursive = new HashSet<>();
+		hashes = new HashMap<>();
+		previous = new IncrementalResults<>();
+	}
+
+	/**
+	 * The information about a {@link CFG} that is retained across executions,
+	 * to decide if its summary can be reused.
+	 *
+	 * @param <A> the abstract state of the analysis
+	 * @param <H> the heap domain
+	 * @param <V> the value domain
+	 * @param <T> the type domain
+	 */
+	private static final class SummaryEntry<A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> {
+
+		/**
+		 * The results of the fixpoint over the {@link CFG}.
+		 */
+		private final CFGWithAnalysisResults<A, H, V, T> result;
+
+		/**
+		 * The summary of the {@link CFG}.
+		 */
+		private final AnalysisState<A, H, V, T> summary;
+
+		/**
+		 * The structural hashes of the members of the component containing the
+		 * {@link CFG}.
+		 */
+		private final Set<String> component;
+
+		/**
+		 * The summaries of the callees of the {@link CFG} outside of its
+		 * component, indexed by their structural hash.
+		 */
+		private final Map<String, AnalysisState<A, H, V, T>> callees;
+
+		private SummaryEntry(CFGWithAnalysisResults<A, H, V, T> result,
+				AnalysisState<A, H, V, T> summary,
+				Set<String> component,
+				Map<String, AnalysisState<A, H, V, T>> callees) {
+			this.result = result;
+			this.summary = summary;
+			this.component = component;
+			this.callees = callees;
+		}
+	}
+
+	@Override
+	public void init(Application app, CallGraph callgraph, OpenCallPolicy policy)
+			throws InterproceduralAnalysisException {
+		if (!(callgraph instanceof BaseCallGraph))
+			throw new InterproceduralAnalysisException(
+					getClass().getSimpleName() + " requires a " + BaseCallGraph.class.getSimpleName());
+		super.init(app, callgraph, policy);
+	}
+
+	@Override
+	public Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing)
+			throws CallResolutionException {
+		synchronized (callgraph) {
+			return super.resolve(call, types, aliasing);
+		}
+	}
+
+	@Override
+	public void fixpoint(AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		results.clear();
+		summaries.clear();
+		components.clear();
+		dependencies.clear();
+		recursive.clear();
+		hashes.clear();
+		previous.begin(entryState, fixpointWorkingSet, conf, policy);
+		if (conf.incremental)
+			for (CFG cfg : app.getAllCFGs())
+				hashes.put(cfg, cfg.getStructuralHash());
+
+		ForkJoinPool pool = conf.fixpointParallelism > 1 ? new ForkJoinPool(conf.fixpointParallelism) : null;
+		try {
+			discovering = true;
+			discover(entryState, fixpointWorkingSet, conf, pool);
+			discovering = false;
+
+			List<List<CFG>> sccs = condensate();
+			if (pool == null)
+				for (int i : IterationLogger.iterate(LOG, indexes(sccs.size()), "Computing summaries",
+						"components"))
+					summarize(i, sccs.get(i), entryState, fixpointWorkingSet, conf);
+			else
+				parallelSummarize(sccs, entryState, fixpointWorkingSet, conf, pool);
+			previous.commit();
+		} finally {
+			discovering = false;
+			if (pool != null)
+				pool.shutdownNow();
+		}
+	}
+
+	private static List<Integer> indexes(int size) {
+		List<Integer> res = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			res.add(i);
+		return res;
+	}
+
+	/**
+	 * Analyzes each {@link CFG} of the program once, treating all calls to
+	 * other {@link CFG}s as open calls, to populate the call graph. The results
+	 * of this phase are kept for {@link CFG}s that do not call other
+	 * {@link CFG}s, as they would not change in later phases.
+	 */
+	private void discover(AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf,
+			ForkJoinPool pool)
+			throws FixpointException {
+		Collection<CFG> cfgs = app.getAllCFGs();
+		if (pool == null) {
+			for (CFG cfg : IterationLogger.iterate(LOG, cfgs, "Discovering the call graph", "cfgs"))
+				results.put(cfg, analyze(cfg, entryState, fixpointWorkingSet, conf));
+			return;
+		}
+
+		Counter counter = new Counter(LOG, Level.INFO, "Discovering the call graph", "cfgs", cfgs.size(), 0.025);
+		List<Pair<CFG, CompletableFuture<Void>>> tasks = new ArrayList<>(cfgs.size());
+		counter.on();
+		try {
+			for (CFG cfg : cfgs)
+				tasks.add(Pair.of(cfg, CompletableFuture.runAsync(() -> {
+					try {
+						results.put(cfg, analyze(cfg, entryState, fixpointWorkingSet, conf));
+					} catch (FixpointException e) {
+						throw new CompletionException(e);
+					}
+					counter.count();
+				}, pool)));
+
+			for (Pair<CFG, CompletableFuture<Void>> task : tasks)
+				join(task.getLeft(), task.getRight());
+		} finally {
+			counter.off();
+		}
+	}
+
+	/**
+	 * Condenses the call graph into its strongly connected components, filling
+	 * {@link #components}, {@link #dependencies} and {@link #recursive}.
+	 * {@link CFG}s that are not part of the call graph form a component on
+	 * their own.
+	 *
+	 * @return the components, in reverse topological order, with their members
+	 *             sorted as in {@link Application#getAllCFGs()}
+	 */
+	private List<List<CFG>> condensate() {
+		BaseCallGraph graph = (BaseCallGraph) callgraph;
+		Map<CFG, Integer> order = new HashMap<>();
+		for (CFG cfg : app.getAllCFGs())
+			order.put(cfg, order.size());
+		Comparator<CFG> byOrder = Comparator.comparing(order::get);
+
+		List<List<CFG>> sccs = new ArrayList<>();
+		Set<CFG> unseen = new TreeSet<>(byOrder);
+		unseen.addAll(order.keySet());
+		for (Set<CallGraphNode> scc : new StronglyConnectedComponents<BaseCallGraph, CallGraphNode,
+				CallGraphEdge>().build(graph)) {
+			List<CFG> members = new ArrayList<>(scc.size());
+			for (CallGraphNode node : scc)
+				if (node.getCodeMember() instanceof CFG && order.containsKey(node.getCodeMember()))
+					members.add((CFG) node.getCodeMember());
+			if (members.isEmpty())
+				continue;
+			members.sort(byOrder);
+			unseen.removeAll(members);
+			sccs.add(members);
+		}
+
+		// these are not involved in any call, thus their position is irrelevant
+		for (CFG cfg : unseen)
+			sccs.add(Collections.singletonList(cfg));
+
+		for (int i = 0; i < sccs.size(); i++)
+			for (CFG cfg : sccs.get(i))
+				components.put(cfg, i);
+
+		for (int i = 0; i < sccs.size(); i++) {
+			Set<Integer> deps = new TreeSet<>();
+			for (CFG cfg : sccs.get(i))
+				for (CodeMember callee : callgraph.getCallees(cfg)) {
+					Integer idx = components.get(callee);
+					if (idx != null && idx != i)
+						deps.add(idx);
+					else if (idx != null)
+						// either a self loop or a call within the component
+						recursive.add(i);
+				}
+			dependencies.add(deps);
+		}
+
+		return sccs;
+	}
+
+	/**
+	 * Computes the summaries of all the {@link CFG}s of the given component. If
+	 * {@link FixpointConfiguration#incremental} is set, the summaries of the
+	 * previous execution are reused if no member of the component changed and
+	 * if the summaries of all the callees outside of the component are the same
+	 * of the previous execution.
+	 */
+	private void summarize(int index, List<CFG> scc,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		if (!conf.incremental) {
+			compute(index, scc, entryState, fixpointWorkingSet, conf);
+			return;
+		}
+
+		Set<String> members = new HashSet<>();
+		for (CFG cfg : scc)
+			members.add(hashes.get(cfg));
+
+		List<SummaryEntry<A, H, V, T>> entries = new ArrayList<>(scc.size());
+		List<CFGWithAnalysisResults<A, H, V, T>> relocated = new ArrayList<>(scc.size());
+		for (CFG cfg : scc) {
+			SummaryEntry<A, H, V, T> entry = previous.previous(hashes.get(cfg));
+			// the code of the cfg might have been moved
+			CFGWithAnalysisResults<A, H, V, T> result = entry == null ? null : entry.result.relocate(cfg);
+			if (result == null || !entry.component.equals(members) || !entry.callees.equals(callees(index, cfg))) {
+				entries = null;
+				break;
+			}
+			entries.add(entry);
+			relocated.add(result);
+		}
+
+		if (entries == null)
+			compute(index, scc, entryState, fixpointWorkingSet, conf);
+		else {
+			LOG.debug("Reusing the summaries of {} from a previous execution", scc);
+			for (int i = 0; i < scc.size(); i++) {
+				results.put(scc.get(i), relocated.get(i));
+				summaries.put(scc.get(i), entries.get(i).summary);
+			}
+		}
+
+		for (CFG cfg : scc)
+			previous.store(hashes.get(cfg),
+					new SummaryEntry<>(results.get(cfg), summaries.get(cfg), members, callees(index, cfg)));
+	}
+
+	/**
+	 * Yields the summaries of the callees of the given {@link CFG} that are not
+	 * part of the component with the given index, indexed by their structural
+	 * hash.
+	 */
+	private Map<String, AnalysisState<A, H, V, T>> callees(int index, CFG cfg) {
+		Collection<CodeMember> callees;
+		synchronized (callgraph) {
+			callees = callgraph.getCallees(cfg);
+		}
+
+		Map<String, AnalysisState<A, H, V, T>> res = new HashMap<>();
+		for (CodeMember callee : callees) {
+			Integer idx = components.get(callee);
+			if (idx != null && idx != index)
+				res.put(hashes.get(callee), summaries.get(callee));
+		}
+		return res;
+	}
+
+	/**
+	 * Computes the summaries of all the {@link CFG}s of the given component.
+	 * Components that do not call other {@link CFG}s keep the results computed
+	 * while discovering the call graph.
+	 */
+	private void compute(int index, List<CFG> scc,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		try {
+			if (!recursive.contains(index)) {
+				CFG cfg = scc.get(0);
+				if (!dependencies.get(index).isEmpty())
+					results.put(cfg, analyze(cfg, entryState, fixpointWorkingSet, conf));
+				summaries.put(cfg, results.get(cfg).getExitState());
+				return;
+			}
+
+			boolean changed;
+			int iter = 0;
+			do {
+				changed = false;
+				for (CFG cfg : scc) {
+					CFGWithAnalysisResults<A, H, V, T> result = analyze(cfg, entryState, fixpointWorkingSet, conf);
+					results.put(cfg, result);
+
+					AnalysisState<A, H, V, T> exit = result.getExitState();
+					AnalysisState<A, H, V, T> previous = summaries.get(cfg);
+					if (previous == null) {
+						summaries.put(cfg, exit);
+						changed = true;
+					} else if (!exit.lessOrEqual(previous)) {
+						summaries.put(cfg, iter < conf.wideningThreshold ? previous.lub(exit)
+								: previous.widening(exit));
+						changed = true;
+					}
+				}
+				iter++;
+			} while (changed);
+		} catch (SemanticException e) {
+			throw new FixpointException("Error while computing the summaries of " + scc, e);
+		}
+	}
+
+	/**
+	 * Computes the summaries of all the given components using the given pool,
+	 * processing each component as soon as all the components it depends on
+	 * have been processed. If more than one component fails, the exception
+	 * raised by the first failing one (in reverse topological order) is the one
+	 * that is propagated.
+	 */
+	private void parallelSummarize(List<List<CFG>> sccs,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf,
+			ForkJoinPool pool)
+			throws FixpointException {
+		Counter counter = new Counter(LOG, Level.INFO, "Computing summaries", "components", sccs.size(), 0.025);
+		List<CompletableFuture<Void>> tasks = new ArrayList<>(sccs.size());
+		counter.on();
+		try {
+			for (int i = 0; i < sccs.size(); i++) {
+				int index = i;
+				CompletableFuture<?>[] deps = dependencies.get(i).stream().map(tasks::get)
+						.toArray(CompletableFuture[]::new);
+				tasks.add(CompletableFuture.allOf(deps).thenRunAsync(() -> {
+					try {
+						summarize(index, sccs.get(index), entryState, fixpointWorkingSet, conf);
+					} catch (FixpointException e) {
+						throw new CompletionException(e);
+					}
+					counter.count();
+				}, pool));
+			}
+
+			for (int i = 0; i < sccs.size(); i++)
+				join(sccs.get(i), tasks.get(i));
+		} finally {
+			counter.off();
+		}
+	}
+
+	private static void join(Object target, CompletableFuture<Void> task) throws FixpointException {
+		try {
+			task.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof FixpointException)
+				throw (FixpointException) e.getCause();
+			throw new FixpointException("Unexpected error while computing the fixpoint of " + target, e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FixpointException("Interrupted while computing the fixpoint of " + target, e);
+		}
+	}
+
+	private CFGWithAnalysisResults<A, H, V, T> analyze(CFG cfg,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		try {
+			return cfg.fixpoint(prepareEntryStateOfEntryPoint(entryState, cfg), this,
+					WorkingSet.of(fixpointWorkingSet), conf);
+		} catch (SemanticException | AnalysisSetupException e) {
+			throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+		}
+	}
+
+	@Override
+	public Collection<CFGWithAnalysisResults<A, H, V, T>> getAnalysisResultsOf(CFG cfg) {
+		CFGWithAnalysisResults<A, H, V, T> result = results.get(cfg);
+		if (result == null)
+			return Collections.emptySet();
+		return Collections.singleton(result);
+	}
+
+	@Override
+	public AnalysisState<A, H, V, T> getAbstractResultOf(
+			CFGCall call,
+			AnalysisState<A, H, V, T> entryState,
+			ExpressionSet<SymbolicExpression>[] parameters,
+			StatementStore<A, H, V, T> expressions)
+			throws SemanticException {
+		synchronized (callgraph) {
+			callgraph.registerCall(call);
+		}
+
+		OpenCall open = new OpenCall(call.getCFG(), call.getLocation(), call.getCallType(), call.getQualifier(),
+				call.getTargetName(), call.getStaticType(), call.getParameters());
+		if (discovering)
+			return policy.apply(open, entryState, parameters);
+
+		if (entryState.isBottom())
+			return entryState;
+
+		ScopeToken scope = new ScopeToken(call);
+		AnalysisState<A, H, V, T> result = entryState.bottom();
+		Integer caller = components.get(call.getCFG());
+		for (CFG cfg : call.getTargetedCFGs()) {
+			Integer callee = components.get(cfg);
+			AnalysisState<A, H, V, T> summary = summaries.get(cfg);
+			if (callee == null || caller == null
+					|| (!callee.equals(caller) && !dependencies.get(caller).contains(callee))) {
+				// this edge is not part of the call graph: we cannot rely
+				// on the summary being available
+				result = result.lub(policy.apply(open, entryState, parameters));
+				continue;
+			}
+
+			if (summary == null)
+				// a recursive call whose summary is still bottom
+				continue;
+
+			// prepare the state for the call: hide the visible variables
+			AnalysisState<A, H, V, T> callState = entryState.pushScope(scope);
+
+			Parameter[] formals = cfg.getDescriptor().getFormals();
+			@SuppressWarnings("unchecked")
+			ExpressionSet<SymbolicExpression>[] actuals = (ExpressionSet<
+					SymbolicExpression>[]) new ExpressionSet<?>[parameters.length];
+
+			for (int i = 0; i < parameters.length; i++)
+				actuals[i] = parameters[i].pushScope(scope);
+
+			ParameterAssigningStrategy strategy = call.getProgram().getFeatures().getAssigningStrategy();
+			Pair<AnalysisState<A, H, V, T>,
+					ExpressionSet<SymbolicExpression>[]> prepared = strategy.prepare(call, callState,
+							this, expressions, formals, actuals);
+
+			// bind the meta variable in the caller to an unknown value of the
+			// type returned by the callee, so that an unknown caller state
+			// does not absorb the facts about the returned values
+			TypeDomain<?> typeDomain = summary.getDomainInstance(TypeDomain.class);
+			Type returnedType = typeDomain == null ? call.getStaticType() : typeDomain.getInferredDynamicType();
+			Identifier meta = (Identifier) call.getMetaVariable().pushScope(scope);
+			AnalysisState<A, H, V, T> exitState = prepared.getLeft().assign(meta,
+					new PushAny(returnedType, call.getLocation()), call);
+
+			// apply the heap effects of the callee, together with the facts
+			// about its returned values: all other identifiers of the callee
+			// are not visible to the caller
+			ExpressionSet<SymbolicExpression> returned = summary.getComputedExpressions();
+			exitState = exitState.lub(summary.forgetIdentifiersIf(id -> id instanceof Variable
+					&& !returned.contains(id)));
+
+			// store the return value of the call inside the meta variable
+			AnalysisState<A, H, V, T> tmp = callState.bottom();
+			for (SymbolicExpression ret : returned)
+				tmp = tmp.lub(exitState.assign(meta, ret, call));
+
+			// save the resulting state: popping the scope also forgets the
+			// formals and the returned values of the callee
+			result = result.lub(tmp.popScope(scope));
+		}
+
+		return result;
+	}
+}
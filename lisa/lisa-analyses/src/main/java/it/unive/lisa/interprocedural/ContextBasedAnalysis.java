@@ -3,7 +3,7 @@ package it.unive.lisa.interprocedural;
 import it.unive.lisa.AnalysisExecutionException;
 import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.DefaultParameters;
-import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.FixpointConfiguration;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
@@ -14,31 +14,57 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
 import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.ResolvedCall;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.program.language.parameterassignment.ParameterAssigningStrategy;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * A context sensitive interprocedural analysis. The context sensitivity is
- * tuned by the kind of {@link ContextSensitivityToken} used.
+ * tuned by the kind of {@link ContextSensitivityToken} used.<br>
+ * <br>
+ * If {@link FixpointConfiguration#incremental} is set, the results computed for
+ * each {@link CFG} and {@link ContextSensitivityToken} are retained after the
+ * execution, indexed by {@link CFG#getStructuralHash()}. Later executions reuse
+ * them, instead of computing a new fixpoint, whenever the entry state of a call
+ * is less or equal than the one of the retained result, and neither the
+ * {@link CFG} nor the ones it transitively calls have changed. Retained
+ * results are {@link CFGWithAnalysisResults#relocate(CFG) relocated} onto
+ * {@link CFG}s whose code has been moved, while tokens are retained as-is:
+ * tokens that contain call sites (e.g., call strings) thus refer to the
+ * original locations of moved calls, and do not match the ones of calls that
+ * are analyzed again. Call resolution is assumed not to be affected by the
+ * code of other {@link CFG}s.
  * 
  * @param <A> the abstract state of the analysis
  * @param <H> the heap domain
@@ -67,11 +93,62 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 
 	private Class<? extends WorkingSet<Statement>> fixpointWorkingSet;
 
-	private int wideningThreshold;
+	private FixpointConfiguration conf;
 
-	private DescendingPhaseType descendingPhase;
+	/**
+	 * The results of previous executions, reused when
+	 * {@link FixpointConfiguration#incremental} is set.
+	 */
+	private final IncrementalResults<SummaryEntry<A, H, V, T>> previous;
+
+	/**
+	 * The structural hash of each {@link CFG} of the application, computed only
+	 * when {@link FixpointConfiguration#incremental} is set.
+	 */
+	private final Map<CFG, String> hashes;
+
+	/**
+	 * The {@link CFG}s of the application, indexed by their structural hash,
+	 * computed only when {@link FixpointConfiguration#incremental} is set.
+	 */
+	private final Map<String, CFG> byHash;
 
-	private int descendingGlbThreshold;
+	/**
+	 * The {@link CFG}s called by each {@link CFG} during the current execution,
+	 * tracked only when {@link FixpointConfiguration#incremental} is set.
+	 */
+	private final Map<CFG, Set<CFG>> calls;
+
+	/**
+	 * The results of a {@link CFG} that are retained across executions.
+	 *
+	 * @param <A> the abstract state of the analysis
+	 * @param <H> the heap domain
+	 * @param <V> the value domain
+	 * @param <T> the type domain
+	 */
+	private static final class SummaryEntry<A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> {
+
+		/**
+		 * The results of the {@link CFG}, for each context.
+		 */
+		private final Map<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> results;
+
+		/**
+		 * The structural hashes of the {@link CFG}s transitively called by the
+		 * {@link CFG}, including itself.
+		 */
+		private final Set<String> dependencies;
+
+		private SummaryEntry(Map<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> results,
+				Set<String> dependencies) {
+			this.results = results;
+			this.dependencies = dependencies;
+		}
+	}
 
 	/**
 	 * Builds the analysis, using {@link SingleScopeToken}s.
@@ -89,28 +166,180 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 	public ContextBasedAnalysis(ContextSensitivityToken token) {
 		this.token = token.empty();
 		fixpointTriggers = new HashSet<>();
+		previous = new IncrementalResults<>();
+		hashes = new HashMap<>();
+		byHash = new HashMap<>();
+		calls = new HashMap<>();
 	}
 
 	@Override
 	public void fixpoint(
 			AnalysisState<A, H, V, T> entryState,
 			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
-			int wideningThreshold,
-			DescendingPhaseType descendingPhase,
-			int descendingGlbThreshold)
+			FixpointConfiguration conf)
 			throws FixpointException {
 		this.results = null;
 		this.fixpointWorkingSet = fixpointWorkingSet;
-		this.wideningThreshold = wideningThreshold;
-		this.descendingPhase = descendingPhase;
-		this.descendingGlbThreshold = descendingGlbThreshold;
+		this.conf = conf;
 
 		if (app.getEntryPoints().isEmpty())
 			throw new NoEntryPointException();
 
+		previous.begin(entryState, fixpointWorkingSet, conf, policy);
+		hashes.clear();
+		byHash.clear();
+		calls.clear();
+		if (conf.incremental)
+			for (CFG cfg : app.getAllCFGs()) {
+				String hash = cfg.getStructuralHash();
+				hashes.put(cfg, hash);
+				byHash.put(hash, cfg);
+			}
+
 		TimerLogger.execAction(LOG, "Computing fixpoint over the whole program",
-				() -> this.fixpointAux(entryState, fixpointWorkingSet, wideningThreshold,
-						descendingPhase, descendingGlbThreshold));
+				() -> this.fixpointAux(entryState, fixpointWorkingSet, conf));
+
+		if (conf.incremental)
+			for (CFG cfg : results.getKeys()) {
+				CFGResults<A, H, V, T> res = results.getState(cfg);
+				if (res.getMap() != null)
+					previous.store(hashes.get(cfg),
+							new SummaryEntry<>(new HashMap<>(res.getMap()), dependencies(cfg)));
+			}
+		previous.commit();
+	}
+
+	/**
+	 * Yields the structural hashes of the {@link CFG}s that are transitively
+	 * called by the given one, including itself.
+	 */
+	private Set<String> dependencies(CFG cfg) {
+		Set<String> deps = new HashSet<>();
+		VisitOnceWorkingSet<CFG> ws = VisitOnceWorkingSet.mk(FIFOWorkingSet.mk());
+		ws.push(cfg);
+		while (!ws.isEmpty()) {
+			CFG current = ws.pop();
+			deps.add(hashes.get(current));
+			calls.getOrDefault(current, Collections.emptySet()).forEach(ws::push);
+		}
+		return deps;
+	}
+
+	/**
+	 * Yields the result that a previous execution computed for the given
+	 * {@link CFG} and token, if it can be reused for the given entry state.
+	 * When this happens, the results of all the {@link CFG}s transitively
+	 * called by the given one are also reused, since they are the ones computed
+	 * while producing the returned result.
+	 */
+	private CFGWithAnalysisResults<A, H, V, T> reuse(CFG cfg, ContextSensitivityToken localToken,
+			AnalysisState<A, H, V, T> computedEntryState)
+			throws SemanticException {
+		if (!conf.incremental)
+			return null;
+
+		SummaryEntry<A, H, V, T> summary = previous.previous(hashes.get(cfg));
+		if (summary == null)
+			return null;
+		CFGWithAnalysisResults<A, H, V, T> result = summary.results.get(localToken);
+		if (result == null || !computedEntryState.lessOrEqual(result.getEntryState()))
+			return null;
+		// the code of the cfgs might have been moved
+		Map<String, Map<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>>> relocated = new HashMap<>();
+		for (String dep : summary.dependencies) {
+			CFG target = byHash.get(dep);
+			SummaryEntry<A, H, V, T> entry = previous.previous(dep);
+			if (target == null || entry == null)
+				return null;
+			Map<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> moved = new HashMap<>();
+			for (Entry<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> res : entry.results.entrySet()) {
+				CFGWithAnalysisResults<A, H, V, T> m = res.getValue().relocate(target);
+				if (m == null)
+					return null;
+				moved.put(res.getKey(), m);
+			}
+			relocated.put(dep, moved);
+		}
+
+		// the call graph is built while resolving calls: the calls of the
+		// reused cfgs are resolved again, ensuring that they still target
+		// the same cfgs
+		for (String dep : summary.dependencies)
+			for (CFGWithAnalysisResults<A, H, V, T> res : relocated.get(dep).values())
+				if (!replayCalls(byHash.get(dep), res, summary.dependencies))
+					return null;
+
+		LOG.debug("Reusing the results of {} from a previous execution", cfg);
+		for (String dep : summary.dependencies) {
+			CFG target = byHash.get(dep);
+			SummaryEntry<A, H, V, T> entry = previous.previous(dep);
+			for (Entry<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> res : relocated.get(dep)
+					.entrySet())
+				if (Boolean.TRUE.equals(results.putResult(target, res.getKey(), res.getValue()).getLeft()))
+					fixpointTriggers.add(target);
+			Set<CFG> callees = calls.computeIfAbsent(target, c -> new HashSet<>());
+			entry.dependencies.forEach(d -> callees.add(byHash.get(d)));
+		}
+		return results.getState(cfg).getState(localToken);
+	}
+
+	/**
+	 * Resolves all the {@link UnresolvedCall}s of the given {@link CFG} using
+	 * the runtime types of their parameters stored in the given result,
+	 * yielding {@code false} if one of them targets a {@link CFG} whose
+	 * structural hash is not part of the given dependencies.
+	 */
+	private boolean replayCalls(CFG cfg, CFGWithAnalysisResults<A, H, V, T> result, Set<String> dependencies)
+			throws SemanticException {
+		Collection<UnresolvedCall> unresolved = new LinkedList<>();
+		cfg.accept(new GraphVisitor<CFG, Statement, Edge, Void>() {
+
+			@Override
+			public boolean visit(Void tool, CFG graph) {
+				return true;
+			}
+
+			@Override
+			public boolean visit(Void tool, CFG graph, Statement node) {
+				if (node instanceof UnresolvedCall)
+					unresolved.add((UnresolvedCall) node);
+				return true;
+			}
+
+			@Override
+			public boolean visit(Void tool, CFG graph, Edge edge) {
+				return true;
+			}
+		}, null);
+
+		for (UnresolvedCall call : unresolved) {
+			AnalysisState<A, H, V, T> after = result.getAnalysisStateAfter(call);
+			if (after.isBottom())
+				// the call is not reachable
+				continue;
+
+			Expression[] params = call.getParameters();
+			@SuppressWarnings("unchecked")
+			Set<Type>[] types = (Set<Type>[]) new Set<?>[params.length];
+			for (int i = 0; i < params.length; i++) {
+				TypeDomain<?> typeDomain = result.getAnalysisStateAfter(params[i]).getDomainInstance(TypeDomain.class);
+				types[i] = typeDomain.getInferredRuntimeTypes();
+			}
+
+			Call resolved;
+			try {
+				resolved = resolve(call, types, after.getAliasing());
+			} catch (CallResolutionException e) {
+				return false;
+			}
+
+			if (resolved instanceof ResolvedCall)
+				for (CodeMember target : ((ResolvedCall) resolved).getTargets())
+					if (target instanceof CFG && !dependencies.contains(hashes.get(target)))
+						return false;
+		}
+
+		return true;
 	}
 
 	private static String ordinal(int i) {
@@ -129,9 +358,7 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 
 	private void fixpointAux(AnalysisState<A, H, V, T> entryState,
 			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
-			int wideningThreshold,
-			DescendingPhaseType descendingPhase,
-			int descendingGlbThreshold)
+			FixpointConfiguration conf)
 			throws AnalysisExecutionException {
 		int iter = 0;
 		do {
@@ -143,9 +370,9 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 					AnalysisState<A, H, V, T> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
 					if (results == null)
 						this.results = new FixpointResults<>(value.top());
-					results.putResult(cfg, token.empty(),
-							cfg.fixpoint(entryStateCFG, this, WorkingSet.of(fixpointWorkingSet), wideningThreshold,
-									descendingPhase, descendingGlbThreshold));
+					if (reuse(cfg, token.empty(), entryStateCFG) == null)
+						results.putResult(cfg, token.empty(),
+								cfg.fixpoint(entryStateCFG, this, WorkingSet.of(fixpointWorkingSet), conf));
 				} catch (SemanticException | AnalysisSetupException e) {
 					throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
 				} catch (FixpointException e) {
@@ -194,6 +421,9 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 			ExpressionSet<SymbolicExpression>[] parameters,
 			StatementStore<A, H, V, T> expressions)
 			throws SemanticException {
+		if (conf.incremental)
+			calls.computeIfAbsent(call.getCFG(), c -> new HashSet<>()).addAll(call.getTargetedCFGs());
+
 		ScopeToken scope = new ScopeToken(call);
 		token = token.pushToken(scope);
 		AnalysisState<A, H, V, T> result = entryState.bottom();
@@ -206,7 +436,8 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 
 			Parameter[] formals = cfg.getDescriptor().getFormals();
 			@SuppressWarnings("unchecked")
-			ExpressionSet<SymbolicExpression>[] actuals = new ExpressionSet[parameters.length];
+			ExpressionSet<SymbolicExpression>[] actuals = (ExpressionSet<
+					SymbolicExpression>[]) new ExpressionSet<?>[parameters.length];
 
 			for (int i = 0; i < parameters.length; i++)
 				actuals[i] = parameters[i].pushScope(scope);
@@ -223,12 +454,13 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 				exitState = states.getRight();
 			else {
 				// compute the result
-				CFGWithAnalysisResults<A, H, V, T> fixpointResult = null;
-				try {
-					fixpointResult = computeFixpoint(cfg, token, prepared.getLeft());
-				} catch (FixpointException | AnalysisSetupException e) {
-					throw new SemanticException("Exception during the interprocedural analysis", e);
-				}
+				CFGWithAnalysisResults<A, H, V, T> fixpointResult = reuse(cfg, token, prepared.getLeft());
+				if (fixpointResult == null)
+					try {
+						fixpointResult = computeFixpoint(cfg, token, prepared.getLeft());
+					} catch (FixpointException | AnalysisSetupException e) {
+						throw new SemanticException("Exception during the interprocedural analysis", e);
+					}
 
 				exitState = fixpointResult.getExitState();
 			}
@@ -254,7 +486,7 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 			AnalysisState<A, H, V, T> computedEntryState)
 			throws FixpointException, SemanticException, AnalysisSetupException {
 		CFGWithAnalysisResults<A, H, V, T> fixpointResult = cfg.fixpoint(computedEntryState, this,
-				WorkingSet.of(fixpointWorkingSet), wideningThreshold, descendingPhase, descendingGlbThreshold);
+				WorkingSet.of(fixpointWorkingSet), conf);
 		fixpointResult.setId(localToken.toString());
 		Pair<Boolean, CFGWithAnalysisResults<A, H, V, T>> res = results.putResult(cfg, localToken, fixpointResult);
 		if (Boolean.TRUE.equals(res.getLeft()))
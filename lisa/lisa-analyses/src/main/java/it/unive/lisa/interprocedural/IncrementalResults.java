@@ -0,0 +1,114 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A store of the results computed by an {@link InterproceduralAnalysis} during
+ * one execution, that can be reused by the next one when
+ * {@link FixpointConfiguration#incremental} is set. Entries are indexed by the
+ * {@link CFG#getStructuralHash()} of the {@link CFG} they refer to. Each
+ * execution must be delimited by calls to
+ * {@link #begin(AnalysisState, Class, FixpointConfiguration, OpenCallPolicy)}
+ * and {@link #commit()}: entries of the previous execution can be retrieved
+ * through {@link #previous(String)}, while the ones of the current execution
+ * are stored through {@link #store(String, Object)}, and replace the previous
+ * ones only when the execution is committed. When
+ * {@link FixpointConfiguration#incremental} is not set, nothing is stored. This
+ * class is thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <E> the type of entries stored for each {@link CFG}
+ */
+public class IncrementalResults<E> {
+
+	private Map<String, E> previous;
+
+	private volatile Map<String, E> current;
+
+	private volatile boolean enabled;
+
+	private AnalysisState<?, ?, ?, ?> entryState;
+
+	private List<Object> setup;
+
+	/**
+	 * Builds an empty store.
+	 */
+	public IncrementalResults() {
+		previous = Collections.emptyMap();
+		current = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Starts a new execution. Entries of the previous execution are kept only
+	 * if {@link FixpointConfiguration#incremental} is set and if the given
+	 * parameters, that determine the results of the fixpoints, are the same of
+	 * the previous execution.
+	 *
+	 * @param entryState         the entry state of the execution
+	 * @param fixpointWorkingSet the concrete class of {@link WorkingSet} used
+	 *                               in fixpoints
+	 * @param conf               the {@link FixpointConfiguration} tuning the
+	 *                               fixpoints
+	 * @param policy             the {@link OpenCallPolicy} used for open calls
+	 */
+	public synchronized void begin(AnalysisState<?, ?, ?, ?> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf,
+			OpenCallPolicy policy) {
+		// parallelism does not affect the results
+		List<Object> setup = Arrays.asList(fixpointWorkingSet, conf.wideningThreshold, conf.descendingPhaseType,
+				conf.descendingGlbThreshold, conf.useWeakTopologicalOrder, conf.useBasicBlocks,
+				policy == null ? null : policy.getClass());
+		if (!conf.incremental || !entryState.equals(this.entryState) || !setup.equals(this.setup))
+			previous = Collections.emptyMap();
+		this.entryState = entryState;
+		this.setup = setup;
+		enabled = conf.incremental;
+		current = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Yields the entry stored by the previous execution for the {@link CFG}
+	 * with the given structural hash, if any.
+	 *
+	 * @param hash the structural hash of the {@link CFG}
+	 *
+	 * @return the entry, or {@code null} if no such entry exists
+	 */
+	public synchronized E previous(String hash) {
+		return previous.get(hash);
+	}
+
+	/**
+	 * Stores the entry computed by the current execution for the {@link CFG}
+	 * with the given structural hash. This is a no-op if the current execution
+	 * is not incremental.
+	 *
+	 * @param hash  the structural hash of the {@link CFG}
+	 * @param entry the entry to store
+	 */
+	public void store(String hash, E entry) {
+		if (enabled)
+			current.put(hash, entry);
+	}
+
+	/**
+	 * Completes the current execution, making its entries available to the next
+	 * one.
+	 */
+	public synchronized void commit() {
+		previous = current;
+		current = new ConcurrentHashMap<>();
+	}
+}
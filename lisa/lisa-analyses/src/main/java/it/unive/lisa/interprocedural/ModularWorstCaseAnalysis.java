@@ -2,7 +2,7 @@ package it.unive.lisa.interprocedural;
 
 import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.FallbackImplementation;
-import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.FixpointConfiguration;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
@@ -15,10 +15,13 @@ import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.CFGCall;
 import it.unive.lisa.program.cfg.statement.call.Call;
@@ -29,18 +32,29 @@ import it.unive.lisa.symbolic.value.PushAny;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * A worst case modular analysis were all cfg calls are treated as open calls.
+ * Calls are still resolved through the {@link CallGraph}, that thus contains
+ * the edges between the {@link CFG}s of the application, but their results
+ * are always computed through the {@link OpenCallPolicy}.
  * 
  * @param <A> the abstract state of the analysis
  * @param <H> the heap domain
@@ -60,6 +74,11 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A, H, V, T>,
 	 */
 	private Application app;
 
+	/**
+	 * The call graph used to register the calls of each cfg.
+	 */
+	private CallGraph callgraph;
+
 	/**
 	 * The policy used for computing the result of cfg calls.
 	 */
@@ -73,38 +92,188 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A, H, V, T>,
 	 */
 	private final Map<CFG, Optional<CFGWithAnalysisResults<A, H, V, T>>> results;
 
+	/**
+	 * The results of previous executions, reused for unchanged cfgs when
+	 * {@link FixpointConfiguration#incremental} is set.
+	 */
+	private final IncrementalResults<CFGWithAnalysisResults<A, H, V, T>> previous;
+
 	/**
 	 * Builds the interprocedural analysis.
 	 */
 	public ModularWorstCaseAnalysis() {
 		this.results = new ConcurrentHashMap<>();
+		this.previous = new IncrementalResults<>();
 	}
 
 	@Override
 	public void fixpoint(AnalysisState<A, H, V, T> entryState,
 			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
-			int wideningThreshold,
-			DescendingPhaseType descendingPhase,
-			int descendingGlbThreshold)
+			FixpointConfiguration conf)
+			throws FixpointException {
+		results.clear();
+		previous.begin(entryState, fixpointWorkingSet, conf, policy);
+		if (conf.fixpointParallelism > 1)
+			parallelFixpoint(entryState, fixpointWorkingSet, conf);
+		else
+			for (CFG cfg : IterationLogger.iterate(LOG, app.getAllCFGs(), "Computing fixpoint over the whole program",
+					"cfgs"))
+				results.put(cfg, Optional.of(analyzeOrReuse(cfg, entryState, fixpointWorkingSet, conf)));
+		previous.commit();
+	}
+
+	/**
+	 * Computes the fixpoints of all the {@link CFG}s of the application using
+	 * up to {@link FixpointConfiguration#fixpointParallelism} worker threads.
+	 * Since each {@link CFG} is analyzed in isolation (all calls are treated as
+	 * {@link OpenCall}s), the results are the same as the ones of the
+	 * sequential computation. If more than one fixpoint fails, the exception
+	 * raised by the first failing {@link CFG} (in the order given by
+	 * {@link Application#getAllCFGs()}) is the one that is propagated.
+	 * 
+	 * @param entryState         the entry state for the {@link CFG}s
+	 * @param fixpointWorkingSet the concrete class of {@link WorkingSet} to be
+	 *                               used in fixpoints
+	 * @param conf               the {@link FixpointConfiguration} tuning the
+	 *                               fixpoints
+	 * 
+	 * @throws FixpointException if something goes wrong while evaluating one of
+	 *                               the fixpoints
+	 */
+	private void parallelFixpoint(AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
 			throws FixpointException {
-		for (CFG cfg : IterationLogger.iterate(LOG, app.getAllCFGs(), "Computing fixpoint over the whole program",
-				"cfgs"))
-			try {
-				AnalysisState<A, H, V, T> prepared = entryState;
-
-				for (Parameter arg : cfg.getDescriptor().getFormals()) {
-					Variable id = new Variable(arg.getStaticType(), arg.getName(), arg.getAnnotations(),
-							arg.getLocation());
-					prepared = prepared.assign(id, new PushAny(arg.getStaticType(), arg.getLocation()),
-							cfg.getGenericProgramPoint());
+		Collection<CFG> cfgs = app.getAllCFGs();
+		Counter counter = new Counter(LOG, Level.INFO, "Computing fixpoint over the whole program", "cfgs",
+				cfgs.size(), 0.025);
+		ForkJoinPool pool = new ForkJoinPool(conf.fixpointParallelism);
+		Map<CFG, Future<CFGWithAnalysisResults<A, H, V, T>>> tasks = new LinkedHashMap<>(cfgs.size());
+
+		counter.on();
+		try {
+			for (CFG cfg : cfgs)
+				tasks.put(cfg, pool.submit(() -> {
+					CFGWithAnalysisResults<A, H, V, T> result = analyzeOrReuse(cfg, entryState, fixpointWorkingSet,
+							conf);
+					counter.count();
+					return result;
+				}));
+
+			for (Entry<CFG, Future<CFGWithAnalysisResults<A, H, V, T>>> task : tasks.entrySet())
+				try {
+					results.put(task.getKey(), Optional.of(task.getValue().get()));
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof FixpointException)
+						throw (FixpointException) e.getCause();
+					throw new FixpointException("Unexpected error while computing the fixpoint of " + task.getKey(),
+							e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new FixpointException("Interrupted while computing the fixpoint of " + task.getKey(), e);
 				}
+		} finally {
+			pool.shutdownNow();
+			counter.off();
+		}
+	}
 
-				results.put(cfg, Optional
-						.of(cfg.fixpoint(prepared, this, WorkingSet.of(fixpointWorkingSet),
-								wideningThreshold, descendingPhase, descendingGlbThreshold)));
-			} catch (SemanticException | AnalysisSetupException e) {
-				throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+	/**
+	 * Yields the results of the given cfg, reusing the ones of the previous
+	 * execution if {@link FixpointConfiguration#incremental} is set and the cfg
+	 * did not change. Since all calls are treated as {@link OpenCall}s, the
+	 * results of a cfg only depend on its own code. The calls of reused cfgs
+	 * are replayed against the {@link CallGraph}, so that it contains the same
+	 * edges that a full execution would produce.
+	 */
+	private CFGWithAnalysisResults<A, H, V, T> analyzeOrReuse(CFG cfg,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		if (!conf.incremental)
+			return analyze(cfg, entryState, fixpointWorkingSet, conf);
+
+		String hash = cfg.getStructuralHash();
+		CFGWithAnalysisResults<A, H, V, T> result = previous.previous(hash);
+		if (result != null)
+			// the code of the cfg might have been moved
+			result = result.relocate(cfg);
+		if (result == null)
+			result = analyze(cfg, entryState, fixpointWorkingSet, conf);
+		else {
+			LOG.debug("Reusing the results of {} from a previous execution", cfg);
+			replayCalls(cfg, result);
+		}
+		previous.store(hash, result);
+		return result;
+	}
+
+	/**
+	 * Resolves all the reachable {@link UnresolvedCall}s of the given
+	 * {@link CFG} against the {@link CallGraph}, using the runtime types of
+	 * their parameters stored in the given result, without executing its
+	 * fixpoint.
+	 */
+	private void replayCalls(CFG cfg, CFGWithAnalysisResults<A, H, V, T> result) {
+		Collection<UnresolvedCall> unresolved = new LinkedList<>();
+		cfg.accept(new GraphVisitor<CFG, Statement, Edge, Void>() {
+
+			@Override
+			public boolean visit(Void tool, CFG graph) {
+				return true;
+			}
+
+			@Override
+			public boolean visit(Void tool, CFG graph, Statement node) {
+				if (node instanceof UnresolvedCall)
+					unresolved.add((UnresolvedCall) node);
+				return true;
+			}
+
+			@Override
+			public boolean visit(Void tool, CFG graph, Edge edge) {
+				return true;
+			}
+		}, null);
+
+		for (UnresolvedCall call : unresolved) {
+			AnalysisState<A, H, V, T> after = result.getAnalysisStateAfter(call);
+			if (after.isBottom())
+				// the call is not reachable
+				continue;
+
+			Expression[] params = call.getParameters();
+			@SuppressWarnings("unchecked")
+			Set<Type>[] types = (Set<Type>[]) new Set<?>[params.length];
+			for (int i = 0; i < params.length; i++) {
+				TypeDomain<?> typeDomain = result.getAnalysisStateAfter(params[i]).getDomainInstance(TypeDomain.class);
+				types[i] = typeDomain.getInferredRuntimeTypes();
 			}
+
+			resolve(call, types, after.getAliasing());
+		}
+	}
+
+	private CFGWithAnalysisResults<A, H, V, T> analyze(CFG cfg,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		try {
+			AnalysisState<A, H, V, T> prepared = entryState;
+
+			for (Parameter arg : cfg.getDescriptor().getFormals()) {
+				Variable id = new Variable(arg.getStaticType(), arg.getName(), arg.getAnnotations(),
+						arg.getLocation());
+				prepared = prepared.assign(id, new PushAny(arg.getStaticType(), arg.getLocation()),
+						cfg.getGenericProgramPoint());
+			}
+
+			return cfg.fixpoint(prepared, this, WorkingSet.of(fixpointWorkingSet), conf);
+		} catch (SemanticException | AnalysisSetupException e) {
+			throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+		}
 	}
 
 	@Override
@@ -138,12 +307,21 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A, H, V, T>,
 	public void init(Application app, CallGraph callgraph, OpenCallPolicy policy)
 			throws InterproceduralAnalysisException {
 		this.app = app;
+		this.callgraph = callgraph;
 		this.policy = policy;
 	}
 
 	@Override
-	public Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing)
-			throws CallResolutionException {
+	public Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing) {
+		try {
+			// fixpoints of different cfgs might run in parallel
+			synchronized (callgraph) {
+				callgraph.resolve(call, types, aliasing);
+			}
+		} catch (CallResolutionException e) {
+			// the call is treated as an open call anyway
+			LOG.debug("Unable to register " + call + " in the call graph", e);
+		}
 		return new OpenCall(call);
 	}
 }
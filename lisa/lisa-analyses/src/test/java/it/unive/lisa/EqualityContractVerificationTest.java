@@ -7,6 +7,7 @@ import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.ScopeToken;
 import it.unive.lisa.analysis.SemanticDomain;
+import it.unive.lisa.analysis.combination.VariablePacking;
 import it.unive.lisa.analysis.dataflow.DataflowElement;
 import it.unive.lisa.analysis.heap.HeapSemanticOperation.HeapReplacement;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
@@ -15,12 +16,16 @@ import it.unive.lisa.analysis.lattices.SetLattice;
 import it.unive.lisa.analysis.nonInterference.NonInterference;
 import it.unive.lisa.analysis.nonrelational.NonRelationalElement;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
+import it.unive.lisa.analysis.nonrelational.value.PackedValueEnvironment;
 import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.numeric.Octagon;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
+import it.unive.lisa.analysis.string.fsa.FSA;
 import it.unive.lisa.analysis.string.fsa.SimpleAutomaton;
 import it.unive.lisa.analysis.string.fsa.StringSymbol;
 import it.unive.lisa.analysis.string.tarsis.RegexAutomaton;
+import it.unive.lisa.analysis.string.tarsis.Tarsis;
 import it.unive.lisa.analysis.symbols.Symbol;
 import it.unive.lisa.analysis.types.StaticTypes;
 import it.unive.lisa.imp.IMPFeatures;
@@ -72,19 +77,31 @@ import it.unive.lisa.program.cfg.statement.call.Call.CallType;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.program.type.Int32Type;
 import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapDereference;
+import it.unive.lisa.symbolic.heap.HeapReference;
+import it.unive.lisa.symbolic.value.BinaryExpression;
 import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.TernaryExpression;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingAdd;
+import it.unive.lisa.symbolic.value.operator.ternary.StringReplace;
+import it.unive.lisa.symbolic.value.operator.unary.NumericNegation;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeTokenType;
 import it.unive.lisa.type.Untyped;
 import it.unive.lisa.util.collections.IterableArray;
 import it.unive.lisa.util.collections.externalSet.BitExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import it.unive.lisa.util.collections.externalSet.UniversalExternalSet;
 import it.unive.lisa.util.collections.workset.ConcurrentFIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.ConcurrentLIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.LIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.ReversePostorderWorkingSet;
 import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.datastructures.automaton.Automaton;
 import it.unive.lisa.util.datastructures.automaton.State;
@@ -111,6 +128,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -162,6 +180,21 @@ public class EqualityContractVerificationTest {
 	private static final UnresolvedCall uc2 = new UnresolvedCall(cfg2, loc, CallType.STATIC, "bar", "bar");
 	private static final Set<Type> s1 = Collections.singleton(Untyped.INSTANCE);
 	private static final Set<Type> s2 = Collections.singleton(Int32Type.INSTANCE);
+	private static final ExternalSetCache<Type> cache = new ExternalSetCache<>();
+	private static final ExternalSet<Type> es1 = cache.mkSet(s1);
+	private static final ExternalSet<Type> es2 = cache.mkSet(s2);
+
+	private static final Variable var1 = new Variable(Int32Type.INSTANCE, "x", loc);
+	private static final Variable var2 = new Variable(Int32Type.INSTANCE, "y", loc);
+	private static final Map<Class<?>, SymbolicExpression> CACHED_HASH_EXAMPLES = Map.of(
+			UnaryExpression.class, new UnaryExpression(Int32Type.INSTANCE, var1, NumericNegation.INSTANCE, loc),
+			BinaryExpression.class,
+			new BinaryExpression(Int32Type.INSTANCE, var1, var2, NumericNonOverflowingAdd.INSTANCE, loc),
+			TernaryExpression.class,
+			new TernaryExpression(Untyped.INSTANCE, var1, var2, var1, StringReplace.INSTANCE, loc),
+			AccessChild.class, new AccessChild(Untyped.INSTANCE, var1, var2, loc),
+			HeapDereference.class, new HeapDereference(Untyped.INSTANCE, var1, loc),
+			HeapReference.class, new HeapReference(Untyped.INSTANCE, var1, loc));
 
 	private static final Collection<Class<?>> tested = new HashSet<>();
 
@@ -244,6 +277,7 @@ public class EqualityContractVerificationTest {
 				.withPrefabValues(NonInterference.class, new NonInterference().top(), new NonInterference().bottom())
 				.withPrefabValues(UnresolvedCall.class, uc1, uc2)
 				.withPrefabValues(Set.class, s1, s2)
+				.withPrefabValues(ExternalSet.class, es1, es2)
 				.withPrefabValues(org.graphstream.graph.Graph.class, g1, g2)
 				.withPrefabValues(BaseNonRelationalValueDomain.class, int1, int2);
 
@@ -287,6 +321,7 @@ public class EqualityContractVerificationTest {
 		verify(ConcurrentLIFOWorkingSet.class);
 		verify(FIFOWorkingSet.class);
 		verify(LIFOWorkingSet.class);
+		verify(ReversePostorderWorkingSet.class, verifier -> verifier.withIgnoredFields("priorities", "size"));
 		verify(VisitOnceWorkingSet.class);
 	}
 
@@ -310,7 +345,8 @@ public class EqualityContractVerificationTest {
 
 		verify(RegexAutomaton.class, Warning.ALL_FIELDS_SHOULD_BE_USED);
 		verify(SimpleAutomaton.class, Warning.ALL_FIELDS_SHOULD_BE_USED);
-		verify(StringSymbol.class);
+		// the textual representation is derived from the bounds
+		verify(StringSymbol.class, verifier -> verifier.withIgnoredFields("symbol"));
 	}
 
 	@Test
@@ -337,12 +373,23 @@ public class EqualityContractVerificationTest {
 			else if (Identifier.class.isAssignableFrom(expr))
 				// identifiers use only their name for equality
 				verify(expr, verifier -> verifier.withOnlyTheseFields("name"));
+			else if (CACHED_HASH_EXAMPLES.containsKey(expr))
+				// compound expressions cache their hash code
+				verifyCachedHash(expr);
 			else
 				// location is excluded on purpose: it only brings syntactic
 				// information
 				verify(expr, verifier -> verifier.withIgnoredFields("location", "types"));
 	}
 
+	private static <T extends SymbolicExpression> void verifyCachedHash(Class<T> expr) {
+		T example = expr.cast(CACHED_HASH_EXAMPLES.get(expr));
+		// the example must have its hash code already cached
+		example.hashCode();
+		verify(expr, verifier -> verifier.withIgnoredFields("location", "types")
+				.withCachedHashCode("hash", "computeHashCode", example));
+	}
+
 	@Test
 	public void testStatements() {
 		// suppress nullity: the verifier will try to pass in a code location
@@ -420,6 +467,15 @@ public class EqualityContractVerificationTest {
 			if (subject.getName().contains("Test"))
 				// some testing domain that we do not care about end up here
 				continue;
+			else if (subject == PackedValueEnvironment.class)
+				// the index only numbers the identifiers
+				verify(subject, verifier -> verifier.withIgnoredFields("index"), Warning.NONFINAL_FIELDS);
+			else if (subject == Octagon.class)
+				// the index only locates the identifiers in the matrix
+				verify(subject, verifier -> verifier.withIgnoredFields("index"));
+			else if (subject == VariablePacking.class)
+				// the index only locates the packs, and the cache is shared
+				verify(subject, verifier -> verifier.withIgnoredFields("index", "cache"));
 			else if (FunctionalLattice.class.isAssignableFrom(subject)
 					|| SetLattice.class.isAssignableFrom(subject)
 					|| InverseSetLattice.class.isAssignableFrom(subject))
@@ -427,6 +483,14 @@ public class EqualityContractVerificationTest {
 				verify(subject, Warning.NONFINAL_FIELDS);
 			else if (subject == StaticTypes.class)
 				verify(subject, verifier -> verifier.withIgnoredFields("types"));
+			else if (subject == FSA.class)
+				// automata are compared by language, and they are never null
+				verify(subject, verifier -> verifier.withPrefabValues(SimpleAutomaton.class,
+						new SimpleAutomaton("a"), new SimpleAutomaton("b")), Warning.NULL_FIELDS);
+			else if (subject == Tarsis.class)
+				// automata are compared by language, and they are never null
+				verify(subject, verifier -> verifier.withPrefabValues(RegexAutomaton.class,
+						RegexAutomaton.string("a"), RegexAutomaton.string("b")), Warning.NULL_FIELDS);
 			else if (subject != CFGWithAnalysisResults.class)
 				// we test the cfg separately
 				verify(subject);
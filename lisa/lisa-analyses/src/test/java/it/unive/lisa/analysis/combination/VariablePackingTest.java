@@ -0,0 +1,188 @@
+package it.unive.lisa.analysis.combination;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.numeric.Octagon;
+import it.unive.lisa.imp.IMPFeatures;
+import it.unive.lisa.imp.types.IMPTypeSystem;
+import it.unive.lisa.program.ClassUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeLocation;
+import it.unive.lisa.program.cfg.CodeMemberDescriptor;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.cfg.edge.FalseEdge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.edge.TrueEdge;
+import it.unive.lisa.program.cfg.statement.Assignment;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.program.cfg.statement.comparison.LessThan;
+import it.unive.lisa.program.cfg.statement.literal.Int32Literal;
+import it.unive.lisa.program.cfg.statement.numeric.Addition;
+import it.unive.lisa.program.type.BoolType;
+import it.unive.lisa.program.type.Int32Type;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.symbolic.value.operator.binary.BinaryOperator;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLt;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingAdd;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingSub;
+import it.unive.lisa.util.numeric.MathNumber;
+import java.util.Set;
+import org.junit.Test;
+
+public class VariablePackingTest {
+
+	private static final CodeLocation loc = new SourceCodeLocation("fake", 0, 0);
+
+	private final CFG cfg = mkCFG();
+	private final ProgramPoint pp = new ProgramPoint() {
+
+		@Override
+		public CodeLocation getLocation() {
+			return loc;
+		}
+
+		@Override
+		public CFG getCFG() {
+			return cfg;
+		}
+	};
+	private final Variable x = new Variable(Int32Type.INSTANCE, "x", loc);
+	private final Variable y = new Variable(Int32Type.INSTANCE, "y", loc);
+	private final Variable z = new Variable(Int32Type.INSTANCE, "z", loc);
+	private final Variable w = new Variable(Int32Type.INSTANCE, "w", loc);
+	private final VariablePacking<Octagon> top = new VariablePacking<>(new Octagon());
+
+	private static CodeLocation loc(int line) {
+		return new SourceCodeLocation("fake", line, 0);
+	}
+
+	// x = y + 1; z = 0; if (w < z) v = 2; else u = 3;
+	private static CFG mkCFG() {
+		ClassUnit unit = new ClassUnit(loc, new Program(new IMPFeatures(), new IMPTypeSystem()), "Testing", false);
+		CFG cfg = new CFG(new CodeMemberDescriptor(loc, unit, false, "packs"));
+		Statement first = new Assignment(cfg, loc(1), new VariableRef(cfg, loc(1), "x"),
+				new Addition(cfg, loc(1), new VariableRef(cfg, loc(1), "y"), new Int32Literal(cfg, loc(1), 1)));
+		Statement second = new Assignment(cfg, loc(2), new VariableRef(cfg, loc(2), "z"),
+				new Int32Literal(cfg, loc(2), 0));
+		Statement guard = new LessThan(cfg, loc(3), new VariableRef(cfg, loc(3), "w"),
+				new VariableRef(cfg, loc(3), "z"));
+		Statement then = new Assignment(cfg, loc(4), new VariableRef(cfg, loc(4), "v"),
+				new Int32Literal(cfg, loc(4), 2));
+		Statement otherwise = new Assignment(cfg, loc(5), new VariableRef(cfg, loc(5), "u"),
+				new Int32Literal(cfg, loc(5), 3));
+		cfg.addNode(first, true);
+		cfg.addNode(second);
+		cfg.addNode(guard);
+		cfg.addNode(then);
+		cfg.addNode(otherwise);
+		cfg.addEdge(new SequentialEdge(first, second));
+		cfg.addEdge(new SequentialEdge(second, guard));
+		cfg.addEdge(new TrueEdge(guard, then));
+		cfg.addEdge(new FalseEdge(guard, otherwise));
+		return cfg;
+	}
+
+	private Constant c(int value) {
+		return new Constant(Int32Type.INSTANCE, value, loc);
+	}
+
+	private BinaryExpression bin(ValueExpression left, BinaryOperator op, ValueExpression right) {
+		return new BinaryExpression(Int32Type.INSTANCE, left, right, op, loc);
+	}
+
+	private BinaryExpression cmp(ValueExpression left, BinaryOperator op, ValueExpression right) {
+		return new BinaryExpression(BoolType.INSTANCE, left, right, op, loc);
+	}
+
+	@Test
+	public void testPreAnalysis() {
+		VariablePacks packs = new VariablePacks(cfg);
+		assertEquals(Set.of("x", "y"), packs.getPack("x"));
+		assertEquals(Set.of("x", "y"), packs.getPack("y"));
+		assertEquals(Set.of("w", "z"), packs.getPack("z"));
+		assertEquals(Set.of("v"), packs.getPack("v"));
+		assertEquals(Set.of("u"), packs.getPack("u"));
+		assertNull(packs.getPack("k"));
+		assertEquals(4, packs.getPacks().size());
+	}
+
+	@Test
+	public void testPacks() throws SemanticException {
+		VariablePacking<Octagon> state = top.assign(x, c(0), pp).assign(z, c(5), pp);
+		assertEquals(Set.of(Set.of(x), Set.of(z)), Set.copyOf(state.getPacks()));
+
+		// y and x belong to the same syntactic pack
+		state = state.assign(y, c(1), pp);
+		assertEquals(Set.of(Set.of(x, y), Set.of(z)), Set.copyOf(state.getPacks()));
+		assertEquals(new Interval(1, 1), state.getPack(y).getIntervalOf(y));
+
+		state = state.assume(cmp(w, ComparisonLt.INSTANCE, z), pp);
+		assertEquals(Set.of(Set.of(x, y), Set.of(z, w)), Set.copyOf(state.getPacks()));
+		assertEquals(new Interval(MathNumber.MINUS_INFINITY, new MathNumber(4)), state.getPack(w).getIntervalOf(w));
+		assertEquals(Satisfiability.SATISFIED, state.satisfies(cmp(x, ComparisonLt.INSTANCE, y), pp));
+		assertEquals(Satisfiability.UNKNOWN, state.satisfies(cmp(w, ComparisonLt.INSTANCE, y), pp));
+		assertEquals(2, state.getPacks().size());
+
+		// packs are joined lazily when an expression spans several of them
+		VariablePacking<Octagon> joined = state.assume(cmp(z, ComparisonLe.INSTANCE, x), pp);
+		assertTrue(joined.isBottom());
+		joined = state.assume(cmp(x, ComparisonLe.INSTANCE, z), pp);
+		assertEquals(Set.of(Set.of(x, y, z, w)), Set.copyOf(joined.getPacks()));
+		assertEquals(Satisfiability.SATISFIED, joined.satisfies(cmp(x, ComparisonLe.INSTANCE, z), pp));
+		assertEquals(new Interval(5, 5), joined.getPack(z).getIntervalOf(z));
+
+		VariablePacking<Octagon> forgotten = state.forgetIdentifier(z);
+		assertEquals(Set.of(Set.of(x, y), Set.of(w)), Set.copyOf(forgotten.getPacks()));
+		assertTrue(forgotten.getPack(z).isTop());
+		assertEquals(Set.of(w), forgotten.getPacks().stream().filter(pack -> pack.contains(w)).findAny().get());
+		// derived elements do not affect the ones they are computed from
+		assertEquals(Set.of(Set.of(x, y), Set.of(z, w)), Set.copyOf(state.getPacks()));
+		assertEquals(new Interval(5, 5), state.getPack(z).getIntervalOf(z));
+		assertTrue(state.forgetIdentifiersIf(id -> true).isTop());
+	}
+
+	@Test
+	public void testLattice() throws SemanticException {
+		// different partitions: {x} {z} against {x, z}
+		VariablePacking<Octagon> first = top.assign(x, c(0), pp).assign(z, c(0), pp);
+		VariablePacking<Octagon> second = top.assign(x, c(1), pp).assign(z, x, pp);
+		assertEquals(2, first.getPacks().size());
+		assertEquals(1, second.getPacks().size());
+
+		VariablePacking<Octagon> lub = first.lub(second);
+		assertEquals(Set.of(Set.of(x, z)), Set.copyOf(lub.getPacks()));
+		assertEquals(new Interval(0, 1), lub.getPack(x).getIntervalOf(x));
+		assertEquals(Satisfiability.SATISFIED,
+				lub.satisfies(cmp(bin(z, NumericNonOverflowingSub.INSTANCE, x), ComparisonLe.INSTANCE, c(0)), pp));
+		assertTrue(first.lessOrEqual(lub));
+		assertTrue(second.lessOrEqual(lub));
+		assertFalse(lub.lessOrEqual(first));
+		assertTrue(first.glb(second).isBottom());
+		assertTrue(lub.glb(first).lessOrEqual(first));
+		assertTrue(first.lessOrEqual(lub.glb(first)));
+
+		VariablePacking<Octagon> widening = first.widening(lub);
+		assertEquals(new Interval(MathNumber.ZERO, MathNumber.PLUS_INFINITY), widening.getPack(x).getIntervalOf(x));
+		assertTrue(lub.lessOrEqual(widening));
+
+		// elements tracking different identifiers
+		VariablePacking<Octagon> onlyY = top.assign(y, bin(y, NumericNonOverflowingAdd.INSTANCE, c(1)), pp)
+				.assign(y, c(3), pp);
+		assertTrue(first.glb(onlyY).lessOrEqual(first));
+		assertEquals(new Interval(3, 3), first.glb(onlyY).getPack(y).getIntervalOf(y));
+		assertTrue(first.lub(onlyY).isTop());
+	}
+}
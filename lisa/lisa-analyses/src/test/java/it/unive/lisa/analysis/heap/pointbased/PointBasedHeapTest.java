@@ -2,6 +2,8 @@ package it.unive.lisa.analysis.heap.pointbased;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.analysis.ScopeToken;
@@ -474,4 +476,24 @@ public class PointBasedHeapTest {
 		expectedRewritten = new ExpressionSet<>(expectedUnknownAlloc);
 		assertEquals(expectedRewritten, xAssign.rewrite(deref, fakeProgramPoint));
 	}
+
+	@Test
+	public void testSitesCaches() throws SemanticException {
+		AllocationSites first = new AllocationSites();
+		AllocationSites second = new AllocationSites();
+		// each top owns its cache, that is shared by derived instances
+		assertNotSame(first.getCache(), second.getCache());
+		AllocationSites x = first.mk(Collections.singleton(alloc1));
+		AllocationSites y = first.eval(alloc2, null, pp1);
+		assertSame(first.getCache(), x.getCache());
+		assertSame(first.getCache(), y.getCache());
+		assertSame(first.getCache(), x.lub(y).getCache());
+		assertSame(first.getCache(), first.bottom().getCache());
+
+		// instances with different caches can still be compared
+		AllocationSites z = second.mk(Collections.singleton(alloc2));
+		assertEquals(x.lub(y), x.lub(z));
+		assertTrue(z.lessOrEqual(y));
+		assertFalse(z.lessOrEqual(x));
+	}
 }
@@ -0,0 +1,157 @@
+package it.unive.lisa.analysis.nonrelational.value;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.numeric.Parity;
+import it.unive.lisa.analysis.numeric.Sign;
+import it.unive.lisa.analysis.taint.Taint;
+import it.unive.lisa.analysis.taint.ThreeLevelsTaint;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.symbolic.value.HeapLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class PackedValueEnvironmentTest {
+
+	private static <T extends PackableValueDomain<T>> List<T> elements(T domain) {
+		Set<T> result = new LinkedHashSet<>();
+		for (long bits = 0; bits < 1L << domain.bitWidth(); bits++)
+			result.add(domain.unpack(bits));
+		return new ArrayList<>(result);
+	}
+
+	private static <T extends PackableValueDomain<T>> void checkEncoding(T domain) throws SemanticException {
+		List<T> elements = elements(domain);
+		assertEquals(0, domain.bottom().pack());
+		for (T x : elements) {
+			assertEquals(x, domain.unpack(x.pack()));
+			for (T y : elements) {
+				String pair = x + ", " + y;
+				assertEquals(pair, x.lessOrEqual(y), (x.pack() & ~y.pack()) == 0);
+				assertEquals(pair, x.glb(y).pack(), x.pack() & y.pack());
+				assertEquals(pair, x.lub(y).pack(), domain.closeLub(x.pack() | y.pack()));
+				assertEquals(pair, x.lub(y), x.widening(y));
+			}
+		}
+	}
+
+	@Test
+	public void testEncodings() throws SemanticException {
+		checkEncoding(new Sign());
+		checkEncoding(new Parity());
+		checkEncoding(new Taint());
+		checkEncoding(new ThreeLevelsTaint());
+	}
+
+	@Test
+	public void testCloseLubOnFullWords() {
+		Sign sign = new Sign();
+		List<Sign> elements = elements(sign);
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			long first = 0, second = 0, expected = 0;
+			for (int f = 0; f < 64 / sign.bitWidth(); f++) {
+				Sign x = elements.get(random.nextInt(elements.size()));
+				Sign y = elements.get(random.nextInt(elements.size()));
+				first |= x.pack() << (f * sign.bitWidth());
+				second |= y.pack() << (f * sign.bitWidth());
+				expected |= sign.closeLub(x.pack() | y.pack()) << (f * sign.bitWidth());
+			}
+			assertEquals(expected, sign.closeLub(first | second));
+		}
+	}
+
+	private static <T extends PackableValueDomain<T>> void checkAgainstValueEnvironment(T domain)
+			throws SemanticException {
+		List<T> elements = elements(domain);
+		List<Identifier> ids = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			ids.add(new Variable(Untyped.INSTANCE, "x" + i, SyntheticLocation.INSTANCE));
+		for (int i = 0; i < 5; i++) {
+			ids.add(new HeapLocation(Untyped.INSTANCE, "h" + i, false, SyntheticLocation.INSTANCE));
+			ids.add(new HeapLocation(Untyped.INSTANCE, "h" + i, true, SyntheticLocation.INSTANCE));
+		}
+
+		Random random = new Random(42);
+		PackedValueEnvironment<T> packedStart = new PackedValueEnvironment<>(domain);
+		ValueEnvironment<T> plainStart = new ValueEnvironment<>(domain);
+		List<ValueEnvironment<T>> packed = new ArrayList<>();
+		List<ValueEnvironment<T>> plain = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			ValueEnvironment<T> p = packedStart;
+			ValueEnvironment<T> q = plainStart;
+			// only some environments can contain homonyms
+			int bound = i % 5 == 0 ? ids.size() : 100;
+			for (int j = random.nextInt(80); j > 0; j--) {
+				Identifier id = ids.get(random.nextInt(bound));
+				T value = elements.get(random.nextInt(elements.size()));
+				p = p.putState(id, value);
+				q = q.putState(id, value);
+			}
+			packed.add(p);
+			plain.add(q);
+		}
+
+		for (int i = 0; i < packed.size(); i++)
+			for (int j = 0; j < packed.size(); j++) {
+				ValueEnvironment<T> p1 = packed.get(i), p2 = packed.get(j);
+				ValueEnvironment<T> q1 = plain.get(i), q2 = plain.get(j);
+				assertEquals(q1.lessOrEqual(q2), p1.lessOrEqual(p2));
+				assertEquals(asMap(q1.lub(q2)), asMap(p1.lub(p2)));
+				assertEquals(asMap(q1.glb(q2)), asMap(p1.glb(p2)));
+				assertEquals(asMap(q1.widening(q2)), asMap(p1.widening(p2)));
+				assertEquals(asMap(q1.narrowing(q2)), asMap(p1.narrowing(p2)));
+				assertEquals(p1.lub(p2), p1.lub(p2));
+			}
+	}
+
+	private static <T extends PackableValueDomain<T>> Map<Identifier, T> asMap(ValueEnvironment<T> env) {
+		Map<Identifier, T> result = new HashMap<>();
+		for (Map.Entry<Identifier, T> entry : env)
+			result.put(entry.getKey(), entry.getValue());
+		return result;
+	}
+
+	@Test
+	public void testAgainstValueEnvironment() throws SemanticException {
+		checkAgainstValueEnvironment(new Sign());
+		checkAgainstValueEnvironment(new Parity());
+		checkAgainstValueEnvironment(new Taint());
+		checkAgainstValueEnvironment(new ThreeLevelsTaint());
+	}
+
+	private static int capacity(ValueEnvironment<Sign> env) {
+		return ((PackedValueMap<Sign>) env.function).capacity();
+	}
+
+	@Test
+	public void testCapacity() throws SemanticException {
+		PackedValueEnvironment<Sign> start = new PackedValueEnvironment<>(new Sign());
+		ValueEnvironment<Sign> large = start;
+		for (int i = 0; i < 1000; i++)
+			large = large.putState(new Variable(Untyped.INSTANCE, "x" + i, SyntheticLocation.INSTANCE), Sign.POS);
+		assertEquals(1000, large.function.size());
+
+		// identifiers numbered after the ones of large do not make derived
+		// maps grow with them
+		Identifier y = new Variable(Untyped.INSTANCE, "y", SyntheticLocation.INSTANCE);
+		Identifier z = new Variable(Untyped.INSTANCE, "z", SyntheticLocation.INSTANCE);
+		ValueEnvironment<Sign> small = start.putState(y, Sign.POS);
+		ValueEnvironment<Sign> other = start.putState(z, Sign.NEG);
+		assertEquals(64, capacity(small));
+		assertEquals(64, capacity(small.lub(other)));
+		assertEquals(64, capacity(small.glb(small.putState(z, Sign.ZERO))));
+		assertEquals(capacity(large), capacity(large.lub(small)));
+		assertEquals(Sign.POS, small.lub(other).getState(y));
+	}
+}
@@ -0,0 +1,157 @@
+package it.unive.lisa.analysis.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeLocation;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.type.BoolType;
+import it.unive.lisa.program.type.Int32Type;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.symbolic.value.operator.binary.BinaryOperator;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonGe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonGt;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLe;
+import it.unive.lisa.symbolic.value.operator.binary.ComparisonLt;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingAdd;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingMul;
+import it.unive.lisa.symbolic.value.operator.binary.NumericNonOverflowingSub;
+import it.unive.lisa.symbolic.value.operator.unary.LogicalNegation;
+import it.unive.lisa.util.numeric.MathNumber;
+import org.junit.Test;
+
+public class OctagonTest {
+
+	private final ProgramPoint pp = new ProgramPoint() {
+
+		@Override
+		public CodeLocation getLocation() {
+			return new SourceCodeLocation("fake", 0, 0);
+		}
+
+		@Override
+		public CFG getCFG() {
+			return null;
+		}
+	};
+	private final Variable x = new Variable(Int32Type.INSTANCE, "x", pp.getLocation());
+	private final Variable y = new Variable(Int32Type.INSTANCE, "y", pp.getLocation());
+	private final Variable z = new Variable(Int32Type.INSTANCE, "z", pp.getLocation());
+	private final Octagon top = new Octagon();
+
+	private Constant c(int value) {
+		return new Constant(Int32Type.INSTANCE, value, pp.getLocation());
+	}
+
+	private BinaryExpression bin(ValueExpression left, BinaryOperator op, ValueExpression right) {
+		return new BinaryExpression(Int32Type.INSTANCE, left, right, op, pp.getLocation());
+	}
+
+	private BinaryExpression cmp(ValueExpression left, BinaryOperator op, ValueExpression right) {
+		return new BinaryExpression(BoolType.INSTANCE, left, right, op, pp.getLocation());
+	}
+
+	@Test
+	public void testAssignments() throws SemanticException {
+		Octagon o = top.assign(x, c(0), pp)
+				.assign(y, bin(x, NumericNonOverflowingAdd.INSTANCE, c(1)), pp)
+				.assign(x, bin(x, NumericNonOverflowingAdd.INSTANCE, c(3)), pp);
+		assertEquals(new Interval(3, 3), o.getIntervalOf(x));
+		assertEquals(new Interval(1, 1), o.getIntervalOf(y));
+		assertEquals(Interval.TOP, o.getIntervalOf(z));
+
+		// non-linear expressions are evaluated as intervals
+		o = o.assign(z, bin(x, NumericNonOverflowingMul.INSTANCE, y), pp);
+		assertEquals(new Interval(3, 3), o.getIntervalOf(z));
+		o = o.assign(z, bin(z, NumericNonOverflowingMul.INSTANCE, new Variable(Int32Type.INSTANCE, "w",
+				pp.getLocation())), pp);
+		assertEquals(Interval.TOP, o.getIntervalOf(z));
+	}
+
+	@Test
+	public void testRelationalGuards() throws SemanticException {
+		// y = x + 1, x < 10 implies y <= 10
+		Octagon o = top.assign(y, bin(x, NumericNonOverflowingAdd.INSTANCE, c(1)), pp);
+		assertEquals(Interval.TOP, o.getIntervalOf(y));
+		o = o.assume(cmp(x, ComparisonLt.INSTANCE, c(10)), pp);
+		assertEquals(new Interval(MathNumber.MINUS_INFINITY, new MathNumber(10)), o.getIntervalOf(y));
+
+		// x + y <= 10 and x >= 3 implies y <= 7
+		o = top.assume(cmp(bin(x, NumericNonOverflowingAdd.INSTANCE, y), ComparisonLe.INSTANCE, c(10)), pp)
+				.assume(cmp(x, ComparisonGe.INSTANCE, c(3)), pp);
+		assertEquals(new Interval(MathNumber.MINUS_INFINITY, new MathNumber(7)), o.getIntervalOf(y));
+
+		// x <= z, z <= y, y <= 5 implies x <= 5
+		o = top.assume(cmp(x, ComparisonLe.INSTANCE, z), pp)
+				.assume(cmp(z, ComparisonLe.INSTANCE, y), pp)
+				.assume(cmp(y, ComparisonLe.INSTANCE, c(5)), pp);
+		assertEquals(new Interval(MathNumber.MINUS_INFINITY, new MathNumber(5)), o.getIntervalOf(x));
+
+		// values are integers: 2x <= 5 implies x <= 2
+		o = top.assume(cmp(bin(x, NumericNonOverflowingAdd.INSTANCE, x), ComparisonLe.INSTANCE, c(5)), pp);
+		assertEquals(new Interval(MathNumber.MINUS_INFINITY, new MathNumber(2)), o.getIntervalOf(x));
+
+		// x - y > 0 and y - x >= 0 is unsatisfiable
+		o = top.assume(cmp(bin(x, NumericNonOverflowingSub.INSTANCE, y), ComparisonGt.INSTANCE, c(0)), pp)
+				.assume(cmp(bin(y, NumericNonOverflowingSub.INSTANCE, x), ComparisonGe.INSTANCE, c(0)), pp);
+		assertTrue(o.isBottom());
+	}
+
+	@Test
+	public void testSatisfies() throws SemanticException {
+		Octagon o = top.assign(y, bin(x, NumericNonOverflowingAdd.INSTANCE, c(1)), pp);
+		assertEquals(Satisfiability.SATISFIED, o.satisfies(cmp(x, ComparisonLt.INSTANCE, y), pp));
+		assertEquals(Satisfiability.NOT_SATISFIED, o.satisfies(cmp(y, ComparisonLe.INSTANCE, x), pp));
+		assertEquals(Satisfiability.SATISFIED, o.satisfies(new UnaryExpression(BoolType.INSTANCE,
+				cmp(y, ComparisonLe.INSTANCE, x), LogicalNegation.INSTANCE, pp.getLocation()), pp));
+		assertEquals(Satisfiability.UNKNOWN, o.satisfies(cmp(x, ComparisonLt.INSTANCE, c(0)), pp));
+	}
+
+	@Test
+	public void testLattice() throws SemanticException {
+		Octagon first = top.assign(x, c(0), pp).assign(y, bin(x, NumericNonOverflowingAdd.INSTANCE, c(1)), pp);
+		Octagon second = top.assign(x, c(5), pp).assign(y, bin(x, NumericNonOverflowingAdd.INSTANCE, c(1)), pp);
+
+		Octagon lub = first.lub(second);
+		assertEquals(new Interval(0, 5), lub.getIntervalOf(x));
+		assertEquals(new Interval(1, 6), lub.getIntervalOf(y));
+		assertEquals(Satisfiability.SATISFIED,
+				lub.satisfies(cmp(bin(y, NumericNonOverflowingSub.INSTANCE, x), ComparisonLe.INSTANCE, c(1)), pp));
+		assertTrue(first.lessOrEqual(lub));
+		assertTrue(second.lessOrEqual(lub));
+		assertFalse(lub.lessOrEqual(first));
+		assertTrue(first.glb(second).isBottom());
+		assertEquals(first, lub.glb(first));
+
+		Octagon widening = first.widening(lub);
+		assertEquals(new Interval(MathNumber.ZERO, MathNumber.PLUS_INFINITY), widening.getIntervalOf(x));
+		assertTrue(lub.lessOrEqual(widening));
+		assertEquals(Satisfiability.SATISFIED,
+				widening.satisfies(cmp(x, ComparisonLt.INSTANCE, y), pp));
+
+		// identifiers that are not tracked are unconstrained
+		Octagon onlyX = top.assign(x, c(0), pp);
+		assertTrue(first.lessOrEqual(onlyX));
+		assertFalse(onlyX.lessOrEqual(first));
+		assertEquals(onlyX, first.forgetIdentifier(y));
+	}
+
+	@Test
+	public void testIdentifiersOrder() throws SemanticException {
+		Octagon first = top.assign(x, c(0), pp).assign(y, c(1), pp)
+				.assume(cmp(x, ComparisonLe.INSTANCE, z), pp);
+		Octagon second = top.assume(cmp(x, ComparisonLe.INSTANCE, z), pp).assign(y, c(1), pp)
+				.assign(x, c(0), pp).assume(cmp(x, ComparisonLe.INSTANCE, z), pp);
+		assertEquals(first, second);
+		assertEquals(first.hashCode(), second.hashCode());
+	}
+}
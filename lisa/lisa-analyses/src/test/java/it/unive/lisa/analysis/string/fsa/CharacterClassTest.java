@@ -0,0 +1,192 @@
+package it.unive.lisa.analysis.string.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.symbolic.value.operator.binary.StringContains;
+import it.unive.lisa.util.datastructures.automaton.CyclicAutomatonException;
+import it.unive.lisa.util.datastructures.automaton.State;
+import it.unive.lisa.util.datastructures.automaton.Transition;
+import it.unive.lisa.util.datastructures.automaton.TransitionSymbol;
+import it.unive.lisa.util.datastructures.regex.Atom;
+import it.unive.lisa.util.datastructures.regex.RegularExpression;
+import it.unive.lisa.util.datastructures.regex.TopAtom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.junit.Test;
+
+public class CharacterClassTest {
+
+	private static SimpleAutomaton single(StringSymbol... symbols) {
+		State q0 = new State(0, true, false);
+		State q1 = new State(1, false, true);
+		SortedSet<State> states = new TreeSet<>(List.of(q0, q1));
+		SortedSet<Transition<StringSymbol>> delta = new TreeSet<>();
+		for (StringSymbol symbol : symbols)
+			delta.add(new Transition<>(q0, q1, symbol));
+		return new SimpleAutomaton(states, delta);
+	}
+
+	@Test
+	public void testSymbols() {
+		StringSymbol c = new StringSymbol('a', 'z');
+		assertTrue(c.isCharacterClass());
+		assertTrue(c.contains('q'));
+		assertFalse(c.contains('A'));
+		assertEquals("[a-z]", c.getSymbol());
+		assertEquals(1, c.maxLength());
+		assertEquals(new StringSymbol('x'), new StringSymbol('x', 'x'));
+		assertEquals("a[b-c]", new StringSymbol('a').concat(new StringSymbol('b', 'c')).getSymbol());
+		assertEquals("[b-c]a", new StringSymbol('a').concat(new StringSymbol('b', 'c')).reverse().getSymbol());
+		assertTrue(new StringSymbol("a").compareTo(c) < 0);
+		assertTrue(new StringSymbol("ab").compareTo(new StringSymbol("b")) < 0);
+	}
+
+	@Test
+	public void testUnknownString() {
+		SimpleAutomaton top = new SimpleAutomaton("").unknownString();
+		assertEquals(1, top.getTransitions().size());
+		assertTrue(top.validateString(""));
+		assertTrue(top.validateString("hello world"));
+		assertTrue(top.validateString("è世￿"));
+		assertTrue(new SimpleAutomaton("世").isContained(top));
+		assertFalse(top.isContained(new SimpleAutomaton("a")));
+		assertEquals(1, top.minimize().getTransitions().size());
+		assertTrue(top.intersection(new SimpleAutomaton("abc")).isEqualTo(new SimpleAutomaton("abc")));
+	}
+
+	@Test
+	public void testOverlappingClassesAreSplit() {
+		SimpleAutomaton a = single(new StringSymbol('a', 'm'), new StringSymbol('f', 'z'));
+		// [a-e], [f-m], [n-z]
+		assertEquals(3, a.getTransitions().size());
+		assertTrue(a.validateString("a"));
+		assertTrue(a.validateString("h"));
+		assertTrue(a.validateString("z"));
+		assertFalse(a.validateString("A"));
+		assertEquals(single(new StringSymbol('a', 'z')), a.minimize());
+	}
+
+	@Test
+	public void testMinimizationMergesClasses() {
+		SimpleAutomaton a = new SimpleAutomaton("a").union(new SimpleAutomaton("b"))
+				.union(new SimpleAutomaton("c")).minimize();
+		assertEquals(single(new StringSymbol('a', 'c')), a);
+		assertEquals(a, single(new StringSymbol('a', 'b'), new StringSymbol('c')).minimize());
+		assertEquals(a.fingerprint(), single(new StringSymbol('a', 'b'), new StringSymbol('c')).fingerprint());
+
+		// b leads elsewhere, so it cannot be merged with a and c
+		SimpleAutomaton b = new SimpleAutomaton("a").union(new SimpleAutomaton("bb"))
+				.union(new SimpleAutomaton("c")).minimize();
+		assertEquals(4, b.getTransitions().size());
+	}
+
+	@Test
+	public void testLanguage() throws CyclicAutomatonException {
+		SimpleAutomaton a = single(new StringSymbol('a', 'c')).concat(new SimpleAutomaton("x"));
+		assertEquals(Set.of("ax", "bx", "cx"), a.getLanguage());
+
+		// large classes are not expanded
+		SimpleAutomaton b = single(new StringSymbol(Character.MIN_VALUE, Character.MAX_VALUE));
+		assertEquals(Set.of(TransitionSymbol.UNKNOWN_SYMBOL), b.getLanguage());
+	}
+
+	@Test
+	public void testContainsWithLargeClasses() throws SemanticException {
+		FSA any = new FSA(single(new StringSymbol(Character.MIN_VALUE, Character.MAX_VALUE)));
+		FSA small = new FSA(single(new StringSymbol('a', 'c')));
+		FSA x = new FSA(new SimpleAutomaton("x"));
+		FSA a = new FSA(new SimpleAutomaton("a"));
+		assertEquals(Satisfiability.UNKNOWN, any.satisfiesBinaryExpression(StringContains.INSTANCE, any, x, null));
+		assertEquals(Satisfiability.NOT_SATISFIED,
+				small.satisfiesBinaryExpression(StringContains.INSTANCE, small, x, null));
+		assertEquals(Satisfiability.UNKNOWN, small.satisfiesBinaryExpression(StringContains.INSTANCE, small, a, null));
+	}
+
+	@Test
+	public void testRegex() {
+		assertEquals(new Atom("a").or(new Atom("b")).or(new Atom("c")), new StringSymbol('a', 'c').toRegex(16));
+		assertEquals(new Atom("x").comp(new Atom("a").or(new Atom("b"))).comp(new Atom("yz")),
+				new StringSymbol("x").concat(new StringSymbol('a', 'b')).concat(new StringSymbol("yz")).toRegex(16));
+		assertEquals(TopAtom.INSTANCE, new StringSymbol('a', 'z').toRegex(16));
+		assertEquals(new Atom("ab"), new StringSymbol("ab").toRegex(16));
+		assertEquals(new Atom("\ufffe").or(new Atom("\uffff")),
+				new StringSymbol('\ufffe', Character.MAX_VALUE).toRegex(16));
+
+		RegularExpression regex = single(new StringSymbol('a', 'c')).concat(new SimpleAutomaton("x")).toRegex();
+		SimpleAutomaton back = regex.toAutomaton(new SimpleAutomaton(""));
+		assertTrue(back.validateString("bx"));
+		assertFalse(back.validateString("[a-c]x"));
+	}
+
+	@Test
+	public void testComplement() {
+		Set<StringSymbol> sigma = Set.of(new StringSymbol(Character.MIN_VALUE, Character.MAX_VALUE));
+		SimpleAutomaton a = new SimpleAutomaton("ab");
+		SimpleAutomaton complement = a.complement(sigma);
+		assertFalse(complement.validateString("ab"));
+		assertTrue(complement.validateString(""));
+		assertTrue(complement.validateString("a"));
+		assertTrue(complement.validateString("a世"));
+		assertTrue(complement.validateString("abb"));
+		assertTrue(complement.intersection(a).acceptsEmptyLanguage());
+		assertTrue(complement.union(a).minimize().isEqualTo(new SimpleAutomaton("").unknownString()));
+	}
+
+	@Test
+	public void testRandomAutomata() {
+		Random random = new Random(42);
+		List<String> words = words("abcde", 4);
+		for (int round = 0; round < 300; round++) {
+			SimpleAutomaton a = random(random), b = random(random);
+			SimpleAutomaton union = a.union(b), intersection = a.intersection(b);
+			SimpleAutomaton minimal = a.minimize();
+			boolean contained = true;
+			for (String word : words) {
+				boolean inA = a.validateString(word), inB = b.validateString(word);
+				assertEquals(inA || inB, union.validateString(word));
+				assertEquals(inA && inB, intersection.validateString(word));
+				assertEquals(inA, minimal.validateString(word));
+				contained &= !inA || inB;
+			}
+			if (!contained)
+				assertFalse(a.isContained(b));
+			assertTrue(a.isContained(union));
+			assertTrue(intersection.isContained(b));
+			assertEquals(minimal, a.union(a).minimize());
+			assertTrue(a.isCanonicallyEqualTo(minimal));
+		}
+	}
+
+	private static SimpleAutomaton random(Random random) {
+		int size = 2 + random.nextInt(4);
+		State[] st = new State[size];
+		for (int i = 0; i < size; i++)
+			st[i] = new State(i, i == 0, random.nextInt(3) == 0);
+		SortedSet<Transition<StringSymbol>> delta = new TreeSet<>();
+		for (int i = 0; i < size * 2; i++) {
+			char from = (char) ('a' + random.nextInt(5));
+			char to = (char) (from + random.nextInt('e' - from + 1));
+			StringSymbol symbol = random.nextInt(6) == 0 ? StringSymbol.EPSILON : new StringSymbol(from, to);
+			delta.add(new Transition<>(st[random.nextInt(size)], st[random.nextInt(size)], symbol));
+		}
+		return new SimpleAutomaton(new TreeSet<>(List.of(st)), delta);
+	}
+
+	private static List<String> words(String alphabet, int maxLength) {
+		List<String> words = new ArrayList<>();
+		words.add("");
+		for (int i = 0; i < words.size(); i++)
+			if (words.get(i).length() < maxLength)
+				for (char c : alphabet.toCharArray())
+					words.add(words.get(i) + c);
+		return words;
+	}
+}
@@ -13,6 +13,7 @@ import it.unive.lisa.analysis.numeric.Interval;
 import it.unive.lisa.analysis.numeric.Parity;
 import it.unive.lisa.analysis.numeric.Sign;
 import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.util.collections.workset.ReversePostorderWorkingSet;
 import org.junit.Test;
 
 public class NumericAnalysesTest extends AnalysisTestExecutor {
@@ -44,6 +45,26 @@ public class NumericAnalysesTest extends AnalysisTestExecutor {
 		perform("interval", "program.imp", conf);
 	}
 
+	@Test
+	public void testIntervalWTO() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval(),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.useWeakTopologicalOrder = true;
+		perform("interval", "wto", "program.imp", conf);
+	}
+
+	@Test
+	public void testIntervalRPO() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval(),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.fixpointWorkingSet = ReversePostorderWorkingSet.class;
+		perform("interval", "rpo", "program.imp", conf);
+	}
+
 	@Test
 	public void testIntegerConstantPropagation() throws AnalysisSetupException {
 		LiSAConfiguration conf = new LiSAConfiguration();
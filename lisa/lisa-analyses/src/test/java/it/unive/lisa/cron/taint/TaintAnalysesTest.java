@@ -9,6 +9,7 @@ import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.SimpleAbstractState;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.nonrelational.value.PackedValueEnvironment;
 import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.taint.BaseTaint;
@@ -65,6 +66,38 @@ public class TaintAnalysesTest extends AnalysisTestExecutor {
 		perform("taint", "3val", "taint.imp", conf);
 	}
 
+	@Test
+	public void testPackedTaint() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = LiSAFactory.getDefaultFor(AbstractState.class,
+				LiSAFactory.getDefaultFor(HeapDomain.class),
+				new PackedValueEnvironment<>(new Taint()),
+				LiSAFactory.getDefaultFor(TypeDomain.class));
+		conf.jsonOutput = true;
+		conf.openCallPolicy = ReturnTopPolicy.INSTANCE;
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>();
+		conf.semanticChecks.add(new TaintCheck<>());
+		// same results of the unpacked environment
+		perform("taint", "2val", "taint.imp", conf);
+	}
+
+	@Test
+	public void testPackedThreeLevelsTaint() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = LiSAFactory.getDefaultFor(AbstractState.class,
+				LiSAFactory.getDefaultFor(HeapDomain.class),
+				new PackedValueEnvironment<>(new ThreeLevelsTaint()),
+				LiSAFactory.getDefaultFor(TypeDomain.class));
+		conf.jsonOutput = true;
+		conf.openCallPolicy = ReturnTopPolicy.INSTANCE;
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>();
+		conf.semanticChecks.add(new TaintCheck<>());
+		// same results of the unpacked environment
+		perform("taint", "3val", "taint.imp", conf);
+	}
+
 	private static class TaintCheck<T extends BaseTaint<T>> implements
 			SemanticCheck<SimpleAbstractState<MonolithicHeap, ValueEnvironment<T>, TypeEnvironment<InferredTypes>>,
 					MonolithicHeap, ValueEnvironment<T>, TypeEnvironment<InferredTypes>> {
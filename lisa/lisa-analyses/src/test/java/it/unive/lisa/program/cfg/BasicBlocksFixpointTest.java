@@ -0,0 +1,175 @@
+package it.unive.lisa.program.cfg;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.imp.IMPFeatures;
+import it.unive.lisa.imp.types.IMPTypeSystem;
+import it.unive.lisa.program.ClassUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.edge.FalseEdge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.edge.TrueEdge;
+import it.unive.lisa.program.cfg.statement.Assignment;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.NaryExpression;
+import it.unive.lisa.program.cfg.statement.NaryStatement;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.program.cfg.statement.comparison.LessThan;
+import it.unive.lisa.program.cfg.statement.literal.Int32Literal;
+import it.unive.lisa.program.cfg.statement.numeric.Addition;
+import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.numeric.MathNumber;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class BasicBlocksFixpointTest {
+
+	private static SourceCodeLocation loc(int line) {
+		return loc(line, 0);
+	}
+
+	private static SourceCodeLocation loc(int line, int col) {
+		return new SourceCodeLocation("fake", line, col);
+	}
+
+	private static Assignment assign(CFG cfg, int line, String target, Expression value) {
+		return new Assignment(cfg, loc(line), new VariableRef(cfg, loc(line), target), value);
+	}
+
+	private static Addition add(CFG cfg, int line, String left, Expression right) {
+		return new Addition(cfg, loc(line, 4), new VariableRef(cfg, loc(line, 4), left), right);
+	}
+
+	// i = 0; s = 0;
+	// while (i < 10) {
+	// j = 0;
+	// while (j < i) { s = s + j; j = j + 1; }
+	// i = i + 1;
+	// }
+	// return s;
+	private static CFG mkCFG() {
+		ClassUnit unit = new ClassUnit(loc(0), new Program(new IMPFeatures(), new IMPTypeSystem()), "Testing", false);
+		CFG cfg = new CFG(new CodeMemberDescriptor(loc(0), unit, false, "loops"));
+		Statement i0 = assign(cfg, 1, "i", new Int32Literal(cfg, loc(1), 0));
+		Statement s0 = assign(cfg, 2, "s", new Int32Literal(cfg, loc(2), 0));
+		Statement outer = new LessThan(cfg, loc(3), new VariableRef(cfg, loc(3), "i"),
+				new Int32Literal(cfg, loc(3, 4), 10));
+		Statement j0 = assign(cfg, 4, "j", new Int32Literal(cfg, loc(4), 0));
+		Statement inner = new LessThan(cfg, loc(5), new VariableRef(cfg, loc(5), "j"),
+				new VariableRef(cfg, loc(5, 4), "i"));
+		Statement sum = assign(cfg, 6, "s", add(cfg, 6, "s", new VariableRef(cfg, loc(6, 8), "j")));
+		Statement jinc = assign(cfg, 7, "j", add(cfg, 7, "j", new Int32Literal(cfg, loc(7, 8), 1)));
+		Statement iinc = assign(cfg, 8, "i", add(cfg, 8, "i", new Int32Literal(cfg, loc(8, 8), 1)));
+		Statement ret = new Return(cfg, loc(9), new VariableRef(cfg, loc(9), "s"));
+		cfg.addNode(i0, true);
+		cfg.addNode(s0);
+		cfg.addNode(outer);
+		cfg.addNode(j0);
+		cfg.addNode(inner);
+		cfg.addNode(sum);
+		cfg.addNode(jinc);
+		cfg.addNode(iinc);
+		cfg.addNode(ret);
+		cfg.addEdge(new SequentialEdge(i0, s0));
+		cfg.addEdge(new SequentialEdge(s0, outer));
+		cfg.addEdge(new TrueEdge(outer, j0));
+		cfg.addEdge(new FalseEdge(outer, ret));
+		cfg.addEdge(new SequentialEdge(j0, inner));
+		cfg.addEdge(new TrueEdge(inner, sum));
+		cfg.addEdge(new FalseEdge(inner, iinc));
+		cfg.addEdge(new SequentialEdge(sum, jinc));
+		cfg.addEdge(new SequentialEdge(jinc, inner));
+		cfg.addEdge(new SequentialEdge(iinc, outer));
+		return cfg;
+	}
+
+	private static void collect(Statement st, List<Statement> result) {
+		result.add(st);
+		Expression[] subs = st instanceof NaryExpression ? ((NaryExpression) st).getSubExpressions()
+				: st instanceof NaryStatement ? ((NaryStatement) st).getSubExpressions() : new Expression[0];
+		for (Expression sub : subs)
+			collect(sub, result);
+	}
+
+	private static CFGWithAnalysisResults<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>> run(CFG cfg, LiSAConfiguration conf) throws FixpointException {
+		AnalysisState<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> entry = new AnalysisState<>(
+						new SimpleAbstractState<>(
+								new MonolithicHeap(),
+								new ValueEnvironment<>(new Interval()),
+								new TypeEnvironment<>(new InferredTypes())),
+						new ExpressionSet<>(), new SymbolAliasing());
+		return cfg.fixpoint(entry, null, FIFOWorkingSet.mk(), new FixpointConfiguration(conf));
+	}
+
+	private static void check(LiSAConfiguration conf) throws FixpointException {
+		CFG cfg = mkCFG();
+		List<Statement> all = new ArrayList<>();
+		for (Statement node : cfg.getNodes())
+			collect(node, all);
+
+		conf.useBasicBlocks = false;
+		CFGWithAnalysisResults<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> statements = run(cfg, conf);
+		conf.useBasicBlocks = true;
+		CFGWithAnalysisResults<?, ?, ?, ?> blocks = run(cfg, conf);
+
+		// widening has been applied
+		Statement ret = cfg.getNormalExitpoints().iterator().next();
+		assertEquals(new Interval(MathNumber.ZERO, MathNumber.PLUS_INFINITY),
+				statements.getAnalysisStateAfter(ret).getState().getValueState().getValueOnStack());
+
+		// results of statements inside blocks are materialized one at a time,
+		// starting from the ones of the nested expressions
+		for (int i = all.size() - 1; i >= 0; i--)
+			assertEquals(all.get(i) + " at " + all.get(i).getLocation(),
+					statements.getAnalysisStateAfter(all.get(i)),
+					blocks.getAnalysisStateAfter(all.get(i)));
+
+		// comparisons also consider results that have not been queried yet
+		assertEquals(statements, run(cfg, conf));
+	}
+
+	@Test
+	public void testWorkingSet() throws FixpointException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		check(conf);
+	}
+
+	@Test
+	public void testWeakTopologicalOrder() throws FixpointException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.useWeakTopologicalOrder = true;
+		check(conf);
+		conf.descendingPhaseType = DescendingPhaseType.NARROWING;
+		check(conf);
+	}
+}
@@ -1,8 +1,14 @@
 package it.unive.lisa.program.cfg;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.SimpleAbstractState;
@@ -17,18 +23,28 @@ import it.unive.lisa.imp.IMPFeatures;
 import it.unive.lisa.imp.IMPFrontend;
 import it.unive.lisa.imp.ParsingException;
 import it.unive.lisa.imp.types.IMPTypeSystem;
+import it.unive.lisa.interprocedural.BottomUpAnalysis;
+import it.unive.lisa.interprocedural.ContextBasedAnalysis;
+import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
 import it.unive.lisa.interprocedural.ModularWorstCaseAnalysis;
 import it.unive.lisa.interprocedural.WorstCasePolicy;
 import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
 import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.Call.CallType;
 import it.unive.lisa.program.cfg.statement.call.OpenCall;
 import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import org.junit.Test;
 
 public class CFGFixpointTest {
@@ -125,4 +141,221 @@ public class CFGFixpointTest {
 
 		assertTrue(result.getAnalysisStateAfter(call).getState().getValueState().getKeys().isEmpty());
 	}
+
+	private static Map<String, CFG> bySignature(Program p) {
+		Map<String, CFG> res = new HashMap<>();
+		for (CFG cfg : p.getAllCFGs())
+			res.put(cfg.getDescriptor().getName(), cfg);
+		return res;
+	}
+
+	@Test
+	public void testStructuralHash() throws ParsingException {
+		String code = "class A { f() { def x = 1; return x; } g() { def y = 2; return y; } }";
+		Map<String, CFG> first = bySignature(IMPFrontend.processText(code));
+		Map<String, CFG> second = bySignature(IMPFrontend.processText(code));
+		Map<String, CFG> changed = bySignature(IMPFrontend.processText(code.replace("2", "3")));
+
+		assertEquals(first.get("f").getStructuralHash(), second.get("f").getStructuralHash());
+		assertEquals(first.get("g").getStructuralHash(), second.get("g").getStructuralHash());
+		assertEquals(first.get("f").getDescriptor().getStructuralHash(),
+				second.get("f").getDescriptor().getStructuralHash());
+		assertNotEquals(first.get("f").getStructuralHash(), first.get("g").getStructuralHash());
+		assertEquals(first.get("f").getStructuralHash(), changed.get("f").getStructuralHash());
+		assertNotEquals(first.get("g").getStructuralHash(), changed.get("g").getStructuralHash());
+
+		// moving code to different lines does not change the hash
+		Map<String, CFG> moved = bySignature(IMPFrontend.processText("\n\n" + code.replace("g() {", "\ng() {")));
+		assertEquals(first.get("f").getStructuralHash(), moved.get("f").getStructuralHash());
+		assertEquals(first.get("g").getStructuralHash(), moved.get("g").getStructuralHash());
+		Map<String, CFG> split = bySignature(IMPFrontend.processText(code.replace("return x;", "\nreturn x;")));
+		assertNotEquals(first.get("f").getStructuralHash(), split.get("f").getStructuralHash());
+	}
+
+	private static Object exitState(Object result) {
+		CFGWithAnalysisResults<?, ?, ?, ?> res = (CFGWithAnalysisResults<?, ?, ?, ?>) result;
+		return res.getAnalysisStateAfter(res.getNormalExitpoints().iterator().next());
+	}
+
+	private static <I extends InterproceduralAnalysis<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Sign>,
+			TypeEnvironment<InferredTypes>>> Map<String,
+					CFGWithAnalysisResults<
+							SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+							MonolithicHeap,
+							ValueEnvironment<Sign>,
+							TypeEnvironment<InferredTypes>>> runIncremental(I analysis, Program p)
+									throws ParsingException, InterproceduralAnalysisException,
+									CallGraphConstructionException,
+									FixpointException {
+		return run(analysis, p, new RTACallGraph(), true);
+	}
+
+	private static <I extends InterproceduralAnalysis<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Sign>,
+			TypeEnvironment<InferredTypes>>> Map<String,
+					CFGWithAnalysisResults<
+							SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+							MonolithicHeap,
+							ValueEnvironment<Sign>,
+							TypeEnvironment<InferredTypes>>> run(I analysis, Program p, RTACallGraph callgraph,
+									boolean incremental)
+									throws ParsingException, InterproceduralAnalysisException,
+									CallGraphConstructionException,
+									FixpointException {
+		Application app = new Application(p);
+		callgraph.init(app);
+		analysis.init(app, callgraph, WorstCasePolicy.INSTANCE);
+
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.incremental = incremental;
+		AnalysisState<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> entry = new AnalysisState<>(
+						new SimpleAbstractState<>(
+								new MonolithicHeap(),
+								new ValueEnvironment<>(new Sign()),
+								new TypeEnvironment<>(new InferredTypes())).top(),
+						new ExpressionSet<>(), new SymbolAliasing());
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Class<? extends WorkingSet<Statement>> ws = (Class) FIFOWorkingSet.class;
+		analysis.fixpoint(entry, ws, new FixpointConfiguration(conf));
+
+		Map<String, CFGWithAnalysisResults<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>>> res = new HashMap<>();
+		for (CFG cfg : p.getAllCFGs())
+			res.put(cfg.getDescriptor().getName(), analysis.getAnalysisResultsOf(cfg).iterator().next());
+		return res;
+	}
+
+	@Test
+	public void testIncrementalModularAnalysis() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException {
+		String code = "class A { f() { def x = 1; return x; } g() { def y = 2; return y; } }";
+		ModularWorstCaseAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> analysis = new ModularWorstCaseAnalysis<>();
+
+		Map<String, ?> first = runIncremental(analysis, IMPFrontend.processText(code));
+		Map<String, ?> second = runIncremental(analysis, IMPFrontend.processText(code.replace("2", "3")));
+		assertSame(first.get("f"), second.get("f"));
+		assertNotSame(first.get("g"), second.get("g"));
+
+		// moved code: results are relocated on the new statements
+		Map<String, ?> moved = runIncremental(analysis, IMPFrontend.processText("\n" + code.replace("2", "3")));
+		assertNotSame(second.get("f"), moved.get("f"));
+		assertSame(exitState(second.get("f")), exitState(moved.get("f")));
+		assertSame(exitState(second.get("g")), exitState(moved.get("g")));
+	}
+
+	private static Set<String> edges(RTACallGraph callgraph) {
+		Set<String> edges = new HashSet<>();
+		for (CallGraphEdge edge : callgraph.getEdges())
+			edges.add(edge.getSource().getCodeMember().getDescriptor().getName() + " -> "
+					+ edge.getDestination().getCodeMember().getDescriptor().getName());
+		return edges;
+	}
+
+	@Test
+	public void testIncrementalModularCallGraph() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException {
+		String code = "class A { f() { def x = 1; return x; } g() { def y = this.f(); return y; } "
+				+ "h() { def z = this.g(); return z; } }";
+		String changed = code.replace("z", "w");
+
+		RTACallGraph full = new RTACallGraph();
+		run(new ModularWorstCaseAnalysis<>(), IMPFrontend.processText(changed), full, false);
+		assertEquals(Set.of("g -> f", "h -> g"), edges(full));
+
+		// g is reused, but its call to f must still be part of the call graph
+		ModularWorstCaseAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> analysis = new ModularWorstCaseAnalysis<>();
+		Map<String, ?> first = runIncremental(analysis, IMPFrontend.processText(code));
+		RTACallGraph incremental = new RTACallGraph();
+		Map<String, ?> second = run(analysis, IMPFrontend.processText(changed), incremental, true);
+		assertSame(first.get("g"), second.get("g"));
+		assertNotSame(first.get("h"), second.get("h"));
+		assertEquals(edges(full), edges(incremental));
+	}
+
+	@Test
+	public void testIncrementalBottomUpAnalysis() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException {
+		String code = "class A { f() { def x = 1; return x; } g() { def y = this.f(); return y; } }";
+		BottomUpAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> analysis = new BottomUpAnalysis<>();
+
+		Map<String, ?> first = runIncremental(analysis, IMPFrontend.processText(code));
+		Map<String, ?> same = runIncremental(analysis, IMPFrontend.processText(code));
+		assertSame(first.get("f"), same.get("f"));
+		assertSame(first.get("g"), same.get("g"));
+
+		// only g changes: f can be reused
+		Map<String, ?> caller = runIncremental(analysis, IMPFrontend.processText(code.replace("y", "z")));
+		assertSame(same.get("f"), caller.get("f"));
+		assertNotSame(same.get("g"), caller.get("g"));
+
+		// f changes, and its summary is different: g must be recomputed
+		Map<String, ?> callee = runIncremental(analysis,
+				IMPFrontend.processText(code.replace("y", "z").replace("1", "-2")));
+		assertNotSame(caller.get("f"), callee.get("f"));
+		assertNotSame(caller.get("g"), callee.get("g"));
+
+		// moved code: results are relocated on the new statements
+		Map<String, ?> moved = runIncremental(analysis,
+				IMPFrontend.processText("\n" + code.replace("y", "z").replace("1", "-2")));
+		assertSame(exitState(callee.get("f")), exitState(moved.get("f")));
+		assertSame(exitState(callee.get("g")), exitState(moved.get("g")));
+	}
+
+	@Test
+	public void testIncrementalContextBasedAnalysis() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException {
+		String code = "class A { f(a) { def x = a + 1; return x; } "
+				+ "main() { def y = 1; def z = this.f(y); return z; } }";
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> analysis = new ContextBasedAnalysis<>();
+
+		Map<String, ?> first = runIncremental(analysis, IMPFrontend.processText(code, true));
+		Map<String, ?> second = runIncremental(analysis, IMPFrontend.processText(code, true));
+		assertSame(first.get("main"), second.get("main"));
+		assertSame(first.get("f"), second.get("f"));
+
+		// only main changes, and f is called with a compatible entry state
+		Map<String, ?> caller = runIncremental(analysis, IMPFrontend.processText(code.replace("y = 1", "y = 2"), true));
+		assertNotSame(second.get("main"), caller.get("main"));
+		assertSame(second.get("f"), caller.get("f"));
+
+		// f changes: both have to be recomputed
+		Map<String, ?> callee = runIncremental(analysis,
+				IMPFrontend.processText(code.replace("y = 1", "y = 2").replace("+ 1", "- 1"), true));
+		assertNotSame(caller.get("main"), callee.get("main"));
+		assertNotSame(caller.get("f"), callee.get("f"));
+
+		// moved code: results are relocated on the new statements
+		Map<String, ?> moved = runIncremental(analysis,
+				IMPFrontend.processText("\n" + code.replace("y = 1", "y = 2").replace("+ 1", "- 1"), true));
+		assertSame(exitState(callee.get("main")), exitState(moved.get("main")));
+		assertSame(exitState(callee.get("f")), exitState(moved.get("f")));
+	}
 }
@@ -25,6 +25,7 @@ import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
 import it.unive.lisa.analysis.nonrelational.heap.NonRelationalHeapDomain;
 import it.unive.lisa.analysis.nonrelational.inference.InferenceSystem;
 import it.unive.lisa.analysis.nonrelational.inference.InferredValue.InferredPair;
+import it.unive.lisa.analysis.nonrelational.value.PackedValueEnvironment;
 import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.numeric.Sign;
@@ -329,6 +330,8 @@ public class SemanticsSanityTest {
 	private Object domainFor(Class<?> root, Class<?> param) {
 		if (root == ValueEnvironment.class)
 			return new Sign();
+		if (root == PackedValueEnvironment.class)
+			return new Sign();
 		if (root == HeapEnvironment.class)
 			return new NRHeap();
 		if (root == TypeEnvironment.class)
@@ -0,0 +1,122 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.BaseCallGraph;
+import it.unive.lisa.interprocedural.callgraph.CHACallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for
+ * {@link BaseCallGraph#resolve(UnresolvedCall, Set[], SymbolAliasing)} on
+ * synthetic IMP programs, where a hierarchy of {@link #classes} classes
+ * overrides the same method, and a single method invokes it {@link #calls}
+ * times on a receiver of unknown type. Since call graphs cache resolved calls,
+ * each invocation resolves all calls on a fresh {@link CHACallGraph}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallGraphBenchmark {
+
+	/**
+	 * The number of classes in the hierarchy.
+	 */
+	@Param({ "4", "32" })
+	public int classes;
+
+	/**
+	 * The number of calls to resolve.
+	 */
+	@Param({ "16", "256" })
+	public int calls;
+
+	private Application app;
+
+	private List<UnresolvedCall> unresolved;
+
+	private List<Set<Type>[]> types;
+
+	/**
+	 * Generates and parses the program, collecting the calls to resolve
+	 * together with the runtime types of their parameters.
+	 *
+	 * @throws ParsingException if the generated code cannot be parsed
+	 */
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() throws ParsingException {
+		StringBuilder code = new StringBuilder("class C0 { m(x) { return x; } } ");
+		for (int i = 1; i < classes; i++)
+			code.append("class C").append(i).append(" extends C").append(i - 1)
+					.append(" { m(x) { return x + ").append(i).append("; } } ");
+		code.append("class main { calls(o) { ");
+		for (int i = 0; i < calls; i++)
+			code.append("o.m(").append(i).append("); ");
+		code.append("} }");
+
+		Program program = IMPFrontend.processText(code.toString());
+		app = new Application(program);
+		unresolved = new ArrayList<>();
+		types = new ArrayList<>();
+		for (CFG cfg : program.getAllCFGs())
+			for (Statement st : cfg.getNodes())
+				if (st instanceof UnresolvedCall) {
+					UnresolvedCall call = (UnresolvedCall) st;
+					Expression[] params = call.getParameters();
+					Set<Type>[] paramTypes = new Set[params.length];
+					for (int i = 0; i < params.length; i++)
+						paramTypes[i] = new HashSet<>(params[i].getStaticType().allInstances(program.getTypes()));
+					unresolved.add(call);
+					types.add(paramTypes);
+				}
+	}
+
+	/**
+	 * Benchmarks the resolution of all the calls of the program.
+	 *
+	 * @param blackhole the blackhole consuming the resolved calls
+	 *
+	 * @throws CallGraphConstructionException if the call graph cannot be built
+	 * @throws CallResolutionException        if a call cannot be resolved
+	 */
+	@Benchmark
+	public void resolve(Blackhole blackhole) throws CallGraphConstructionException, CallResolutionException {
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(app);
+		SymbolAliasing aliasing = new SymbolAliasing();
+		for (int i = 0; i < unresolved.size(); i++)
+			blackhole.consume(callgraph.resolve(unresolved.get(i), types.get(i), aliasing));
+	}
+}
@@ -0,0 +1,128 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.numeric.Sign;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.type.Int32Type;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the lattice operations of {@link ValueEnvironment}s mapping
+ * identifiers to {@link Sign}s and to {@link Interval}s. The two environments
+ * that are combined share most of their keys, while their values are chosen
+ * randomly (with a fixed seed).
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentBenchmark {
+
+	/**
+	 * The number of identifiers in each environment.
+	 */
+	@Param({ "16", "256", "4096" })
+	public int size;
+
+	private ValueEnvironment<Sign> signs1, signs2;
+
+	private ValueEnvironment<Interval> intervals1, intervals2;
+
+	/**
+	 * Builds the environments to combine.
+	 *
+	 * @throws SemanticException if something goes wrong while building the
+	 *                               environments
+	 */
+	@Setup
+	public void setup() throws SemanticException {
+		Random random = new Random(42);
+		Sign[] signs = { Sign.BOTTOM, Sign.NEG, Sign.ZERO, Sign.POS, Sign.TOP };
+
+		signs1 = signs2 = new ValueEnvironment<>(new Sign());
+		intervals1 = intervals2 = new ValueEnvironment<>(new Interval());
+		for (int i = 0; i < size; i++) {
+			Identifier id = new Variable(Int32Type.INSTANCE, "x" + i, SyntheticLocation.INSTANCE);
+			// a tenth of the identifiers is tracked by only one environment
+			boolean first = i % 10 != 0 || random.nextBoolean();
+			boolean second = i % 10 != 0 || !first;
+			int low = random.nextInt(100);
+			if (first) {
+				signs1 = signs1.putState(id, signs[random.nextInt(signs.length)]);
+				intervals1 = intervals1.putState(id, new Interval(low, low + random.nextInt(10)));
+			}
+			if (second) {
+				signs2 = signs2.putState(id, signs[random.nextInt(signs.length)]);
+				intervals2 = intervals2.putState(id, new Interval(low - random.nextInt(10), low + random.nextInt(20)));
+			}
+		}
+	}
+
+	/**
+	 * Benchmarks the least upper bound of two sign environments.
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if something goes wrong during the operation
+	 */
+	@Benchmark
+	public ValueEnvironment<Sign> signLub() throws SemanticException {
+		return signs1.lub(signs2);
+	}
+
+	/**
+	 * Benchmarks the widening of two sign environments.
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if something goes wrong during the operation
+	 */
+	@Benchmark
+	public ValueEnvironment<Sign> signWidening() throws SemanticException {
+		return signs1.widening(signs2);
+	}
+
+	/**
+	 * Benchmarks the least upper bound of two interval environments.
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if something goes wrong during the operation
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> intervalLub() throws SemanticException {
+		return intervals1.lub(intervals2);
+	}
+
+	/**
+	 * Benchmarks the widening of two interval environments.
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if something goes wrong during the operation
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> intervalWidening() throws SemanticException {
+		return intervals1.widening(intervals2);
+	}
+}
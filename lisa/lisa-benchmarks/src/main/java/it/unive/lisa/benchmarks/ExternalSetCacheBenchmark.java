@@ -0,0 +1,160 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the contention on an {@link ExternalSetCache} shared among 1 to
+ * 64 threads. Each operation tests the membership of an element in an
+ * {@link ExternalSet}, adds an element that is already in the cache to a
+ * fresh set and iterates over a small set, thus exercising all the lookups
+ * that the cache serves during a fixpoint computation. Since the cache is
+ * populated during the setup, a scalable cache should exhibit a roughly
+ * constant time per operation as the number of threads grows.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExternalSetCacheBenchmark {
+
+	/**
+	 * The cache shared among all threads.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	@State(Scope.Benchmark)
+	public static class Shared {
+
+		/**
+		 * The number of elements in the cache.
+		 */
+		@Param({ "64", "4096" })
+		public int size;
+
+		private ExternalSetCache<String> cache;
+
+		private List<String> elements;
+
+		/**
+		 * Populates the cache.
+		 */
+		@Setup
+		public void setup() {
+			cache = new ExternalSetCache<>();
+			elements = new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				elements.add("e" + i);
+			cache.mkSet(elements);
+		}
+	}
+
+	/**
+	 * The sets and the random generator of each thread.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	@State(Scope.Thread)
+	public static class Local {
+
+		private Random random;
+
+		private ExternalSet<String> half, small;
+
+		/**
+		 * Builds the sets used by the thread.
+		 *
+		 * @param shared the shared cache
+		 */
+		@Setup
+		public void setup(Shared shared) {
+			random = new Random(42);
+			half = shared.cache.mkEmptySet();
+			small = shared.cache.mkEmptySet();
+			for (int i = 0; i < shared.size; i += 2)
+				half.add(shared.elements.get(i));
+			for (int i = 0; i < 8; i++)
+				small.add(shared.elements.get(random.nextInt(shared.size)));
+		}
+	}
+
+	private static void operation(Shared shared, Local local, Blackhole bh) {
+		String element = shared.elements.get(local.random.nextInt(shared.size));
+		bh.consume(local.half.contains(element));
+		bh.consume(shared.cache.mkSingletonSet(element));
+		for (String e : local.small)
+			bh.consume(e);
+	}
+
+	/**
+	 * Benchmarks the lookups on the cache with a single thread.
+	 *
+	 * @param shared the shared cache
+	 * @param local  the sets of the thread
+	 * @param bh     the blackhole consuming the results
+	 */
+	@Benchmark
+	@Threads(1)
+	public void threads01(Shared shared, Local local, Blackhole bh) {
+		operation(shared, local, bh);
+	}
+
+	/**
+	 * Benchmarks the lookups on the cache with 4 threads.
+	 *
+	 * @param shared the shared cache
+	 * @param local  the sets of the thread
+	 * @param bh     the blackhole consuming the results
+	 */
+	@Benchmark
+	@Threads(4)
+	public void threads04(Shared shared, Local local, Blackhole bh) {
+		operation(shared, local, bh);
+	}
+
+	/**
+	 * Benchmarks the lookups on the cache with 16 threads.
+	 *
+	 * @param shared the shared cache
+	 * @param local  the sets of the thread
+	 * @param bh     the blackhole consuming the results
+	 */
+	@Benchmark
+	@Threads(16)
+	public void threads16(Shared shared, Local local, Blackhole bh) {
+		operation(shared, local, bh);
+	}
+
+	/**
+	 * Benchmarks the lookups on the cache with 64 threads.
+	 *
+	 * @param shared the shared cache
+	 * @param local  the sets of the thread
+	 * @param bh     the blackhole consuming the results
+	 */
+	@Benchmark
+	@Threads(64)
+	public void threads64(Shared shared, Local local, Blackhole bh) {
+		operation(shared, local, bh);
+	}
+}
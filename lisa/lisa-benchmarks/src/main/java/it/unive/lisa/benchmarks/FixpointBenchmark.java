@@ -0,0 +1,141 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.ModularWorstCaseAnalysis;
+import it.unive.lisa.interprocedural.WorstCasePolicy;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for
+ * {@link CFG#fixpoint(AnalysisState, it.unive.lisa.interprocedural.InterproceduralAnalysis, it.unive.lisa.util.collections.workset.WorkingSet, int)}
+ * on synthetic IMP methods, running an interval analysis. Each method is a
+ * sequence of {@link #nests} loop nests, each {@link #depth} loops deep, where
+ * every loop increments a counter and an accumulator.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixpointBenchmark {
+
+	/**
+	 * The number of loops in each nest.
+	 */
+	@Param({ "1", "3", "5" })
+	public int depth;
+
+	/**
+	 * The number of loop nests in the method.
+	 */
+	@Param({ "1", "10" })
+	public int nests;
+
+	private CFG cfg;
+
+	private ModularWorstCaseAnalysis<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>> analysis;
+
+	private AnalysisState<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>> entry;
+
+	/**
+	 * Generates, parses and prepares the method to analyze.
+	 *
+	 * @throws ParsingException                 if the generated code cannot be
+	 *                                              parsed
+	 * @throws InterproceduralAnalysisException if the interprocedural analysis
+	 *                                              cannot be initialized
+	 * @throws CallGraphConstructionException   if the call graph cannot be
+	 *                                              built
+	 */
+	@Setup
+	public void setup()
+			throws ParsingException, InterproceduralAnalysisException, CallGraphConstructionException {
+		Program program = IMPFrontend.processText("class bench { loops() { " + loops() + " } }");
+		cfg = program.getAllCFGs().iterator().next();
+
+		RTACallGraph callgraph = new RTACallGraph();
+		Application app = new Application(program);
+		callgraph.init(app);
+		analysis = new ModularWorstCaseAnalysis<>();
+		analysis.init(app, callgraph, WorstCasePolicy.INSTANCE);
+
+		entry = new AnalysisState<>(
+				new SimpleAbstractState<>(
+						new MonolithicHeap(),
+						new ValueEnvironment<>(new Interval()),
+						new TypeEnvironment<>(new InferredTypes())),
+				new ExpressionSet<>(), new SymbolAliasing());
+	}
+
+	private String loops() {
+		StringBuilder code = new StringBuilder("def acc = 0; ");
+		for (int n = 0; n < nests; n++) {
+			for (int d = 0; d < depth; d++)
+				code.append("def i").append(n).append('_').append(d).append(" = 0; ")
+						.append("while (i").append(n).append('_').append(d).append(" < ").append(10 * (d + 1))
+						.append(") { ");
+			code.append("acc = acc + 1; ");
+			for (int d = depth - 1; d >= 0; d--)
+				code.append("i").append(n).append('_').append(d).append(" = i").append(n).append('_').append(d)
+						.append(" + 1; } ");
+		}
+		return code.append("return acc;").toString();
+	}
+
+	/**
+	 * Benchmarks the fixpoint computation over the generated method.
+	 *
+	 * @return the result of the fixpoint
+	 *
+	 * @throws FixpointException if something goes wrong during the fixpoint
+	 */
+	@Benchmark
+	public CFGWithAnalysisResults<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>> fixpoint() throws FixpointException {
+		return cfg.fixpoint(entry, analysis, FIFOWorkingSet.mk(), 5);
+	}
+}
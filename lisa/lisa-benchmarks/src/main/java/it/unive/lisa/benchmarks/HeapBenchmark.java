@@ -0,0 +1,119 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeLocation;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapDereference;
+import it.unive.lisa.symbolic.heap.HeapReference;
+import it.unive.lisa.symbolic.heap.MemoryAllocation;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the rewriting of heap expressions performed by
+ * {@link PointBasedHeap}. The heap tracks {@link #variables} variables, each
+ * pointing to two of {@link #sites} allocation sites, and each benchmark
+ * invocation rewrites a field access for every variable.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeapBenchmark {
+
+	/**
+	 * The number of variables tracked by the heap.
+	 */
+	@Param({ "16", "256", "1024" })
+	public int variables;
+
+	/**
+	 * The number of allocation sites the variables can point to.
+	 */
+	@Param({ "8", "64" })
+	public int sites;
+
+	private PointBasedHeap heap;
+
+	private SymbolicExpression[] accesses;
+
+	private ProgramPoint pp;
+
+	/**
+	 * Builds the heap and the expressions to rewrite.
+	 *
+	 * @throws SemanticException if something goes wrong while building the heap
+	 */
+	@Setup
+	public void setup() throws SemanticException {
+		pp = new ProgramPoint() {
+
+			@Override
+			public CodeLocation getLocation() {
+				return SyntheticLocation.INSTANCE;
+			}
+
+			@Override
+			public CFG getCFG() {
+				return null;
+			}
+		};
+
+		CodeLocation[] locations = new CodeLocation[sites];
+		for (int i = 0; i < sites; i++)
+			locations[i] = new SourceCodeLocation("bench", i, 0);
+
+		PointBasedHeap first = new PointBasedHeap(), second = new PointBasedHeap();
+		accesses = new SymbolicExpression[variables];
+		for (int i = 0; i < variables; i++) {
+			Variable var = new Variable(Untyped.INSTANCE, "x" + i, SyntheticLocation.INSTANCE);
+			first = first.assign(var, allocation(locations[i % sites]), pp);
+			second = second.assign(var, allocation(locations[(i + 1) % sites]), pp);
+			Variable field = new Variable(Untyped.INSTANCE, "f" + (i % 4), SyntheticLocation.INSTANCE);
+			accesses[i] = new AccessChild(Untyped.INSTANCE,
+					new HeapDereference(Untyped.INSTANCE, var, SyntheticLocation.INSTANCE),
+					field, SyntheticLocation.INSTANCE);
+		}
+		heap = first.lub(second);
+	}
+
+	private static HeapReference allocation(CodeLocation location) {
+		return new HeapReference(Untyped.INSTANCE, new MemoryAllocation(Untyped.INSTANCE, location), location);
+	}
+
+	/**
+	 * Benchmarks the rewriting of the field accesses.
+	 *
+	 * @param blackhole the blackhole consuming the rewritten expressions
+	 *
+	 * @throws SemanticException if something goes wrong during the rewriting
+	 */
+	@Benchmark
+	public void rewrite(Blackhole blackhole) throws SemanticException {
+		for (SymbolicExpression access : accesses)
+			blackhole.consume(heap.rewrite(access, pp));
+	}
+}
@@ -0,0 +1,152 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.string.fsa.SimpleAutomaton;
+import it.unive.lisa.analysis.string.fsa.StringSymbol;
+import it.unive.lisa.analysis.string.tarsis.RegexAutomaton;
+import it.unive.lisa.util.datastructures.automaton.Automaton;
+import it.unive.lisa.util.datastructures.automaton.State;
+import it.unive.lisa.util.datastructures.automaton.Transition;
+import it.unive.lisa.util.datastructures.automaton.TransitionSymbol;
+import it.unive.lisa.util.datastructures.regex.Atom;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks comparing {@link Automaton#minimize()}, based on Hopcroft's
+ * partition refinement, with {@link Automaton#brzozowskiMinimize()} on the
+ * automata of the Tarsis ({@link RegexAutomaton}) and FSA
+ * ({@link SimpleAutomaton}) string domains. Operands are deterministic but not
+ * minimal automata recognizing {@link #strings} random strings, each
+ * {@link #length} characters long.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinimizationBenchmark {
+
+	/**
+	 * The length of the recognized strings.
+	 */
+	@Param({ "4", "16" })
+	public int length;
+
+	/**
+	 * The number of recognized strings.
+	 */
+	@Param({ "4", "16", "64" })
+	public int strings;
+
+	private RegexAutomaton tarsis;
+
+	private SimpleAutomaton fsa;
+
+	/**
+	 * Builds the operands.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		String[] words = new String[strings];
+		for (int i = 0; i < strings; i++) {
+			StringBuilder builder = new StringBuilder();
+			for (int j = 0; j < length; j++)
+				builder.append((char) ('a' + random.nextInt(4)));
+			words[i] = builder.toString();
+		}
+
+		tarsis = union(RegexAutomaton.emptyLang(), words, c -> new Atom(String.valueOf(c))).determinize();
+		fsa = union(new SimpleAutomaton(""), words, StringSymbol::new).determinize();
+	}
+
+	/**
+	 * Builds an automaton recognizing the given words, made of one chain of
+	 * states for each word, all reachable from the initial state through
+	 * epsilon transitions.
+	 */
+	private static <A extends Automaton<A, T>, T extends TransitionSymbol<T>> A union(
+			A factory,
+			String[] words,
+			Function<Character, T> symbol) {
+		SortedSet<State> states = new TreeSet<>();
+		SortedSet<Transition<T>> transitions = new TreeSet<>();
+		State initial = new State(0, true, false);
+		states.add(initial);
+
+		int id = 1;
+		for (String word : words) {
+			State last = new State(id++, false, word.isEmpty());
+			states.add(last);
+			transitions.add(new Transition<>(initial, last, factory.epsilon()));
+			for (int i = 0; i < word.length(); i++) {
+				State next = new State(id++, false, i == word.length() - 1);
+				states.add(next);
+				transitions.add(new Transition<>(last, next, symbol.apply(word.charAt(i))));
+				last = next;
+			}
+		}
+
+		return factory.from(states, transitions);
+	}
+
+	/**
+	 * Benchmarks the minimization of a {@link RegexAutomaton} through
+	 * Hopcroft's algorithm.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public RegexAutomaton tarsisHopcroft() {
+		return tarsis.minimize();
+	}
+
+	/**
+	 * Benchmarks the minimization of a {@link RegexAutomaton} through
+	 * Brzozowski's algorithm.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public RegexAutomaton tarsisBrzozowski() {
+		return tarsis.brzozowskiMinimize();
+	}
+
+	/**
+	 * Benchmarks the minimization of a {@link SimpleAutomaton} through
+	 * Hopcroft's algorithm.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public SimpleAutomaton fsaHopcroft() {
+		return fsa.minimize();
+	}
+
+	/**
+	 * Benchmarks the minimization of a {@link SimpleAutomaton} through
+	 * Brzozowski's algorithm.
+	 *
+	 * @return the minimal automaton
+	 */
+	@Benchmark
+	public SimpleAutomaton fsaBrzozowski() {
+		return fsa.brzozowskiMinimize();
+	}
+}
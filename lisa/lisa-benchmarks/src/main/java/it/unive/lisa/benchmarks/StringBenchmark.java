@@ -0,0 +1,135 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.string.fsa.FSA;
+import it.unive.lisa.analysis.string.tarsis.Tarsis;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.type.StringType;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.operator.binary.StringConcat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the concatenation and the widening of the automata-based
+ * string domains, {@link Tarsis} and {@link FSA}. Operands are the least upper
+ * bounds of {@link #strings} random strings, each {@link #length} characters
+ * long, and widenings are computed as in a loop appending the second operand to
+ * the first one.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringBenchmark {
+
+	/**
+	 * The length of the strings joined in each operand.
+	 */
+	@Param({ "4", "16" })
+	public int length;
+
+	/**
+	 * The number of strings joined in each operand.
+	 */
+	@Param({ "1", "4", "16" })
+	public int strings;
+
+	private Tarsis tarsis1, tarsis2, tarsisConcat;
+
+	private FSA fsa1, fsa2, fsaConcat;
+
+	/**
+	 * Builds the operands.
+	 *
+	 * @throws SemanticException if something goes wrong while building the
+	 *                               operands
+	 */
+	@Setup
+	public void setup() throws SemanticException {
+		Random random = new Random(42);
+		tarsis1 = tarsis2 = new Tarsis().bottom();
+		fsa1 = fsa2 = new FSA().bottom();
+		for (int i = 0; i < strings; i++) {
+			Constant first = randomString(random), second = randomString(random);
+			tarsis1 = tarsis1.lub(new Tarsis().evalNonNullConstant(first, null));
+			tarsis2 = tarsis2.lub(new Tarsis().evalNonNullConstant(second, null));
+			fsa1 = fsa1.lub(new FSA().evalNonNullConstant(first, null));
+			fsa2 = fsa2.lub(new FSA().evalNonNullConstant(second, null));
+		}
+		tarsisConcat = tarsisConcat();
+		fsaConcat = fsaConcat();
+	}
+
+	private Constant randomString(Random random) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < length; i++)
+			builder.append((char) ('a' + random.nextInt(4)));
+		return new Constant(StringType.INSTANCE, builder.toString(), SyntheticLocation.INSTANCE);
+	}
+
+	/**
+	 * Benchmarks the concatenation of two {@link Tarsis} elements.
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if something goes wrong during the operation
+	 */
+	@Benchmark
+	public Tarsis tarsisConcat() throws SemanticException {
+		return tarsis1.evalBinaryExpression(StringConcat.INSTANCE, tarsis1, tarsis2, null);
+	}
+
+	/**
+	 * Benchmarks the widening of a {@link Tarsis} element with its
+	 * concatenation with another one.
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if something goes wrong during the operation
+	 */
+	@Benchmark
+	public Tarsis tarsisWidening() throws SemanticException {
+		return tarsis1.widening(tarsisConcat);
+	}
+
+	/**
+	 * Benchmarks the concatenation of two {@link FSA} elements.
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if something goes wrong during the operation
+	 */
+	@Benchmark
+	public FSA fsaConcat() throws SemanticException {
+		return fsa1.evalBinaryExpression(StringConcat.INSTANCE, fsa1, fsa2, null);
+	}
+
+	/**
+	 * Benchmarks the widening of an {@link FSA} element with its concatenation
+	 * with another one.
+	 *
+	 * @return the result of the operation
+	 *
+	 * @throws SemanticException if something goes wrong during the operation
+	 */
+	@Benchmark
+	public FSA fsaWidening() throws SemanticException {
+		return fsa1.widening(fsaConcat);
+	}
+}
@@ -0,0 +1,94 @@
+package it.unive.lisa;
+
+import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.interprocedural.InterproceduralAnalysis;
+import it.unive.lisa.program.cfg.CFG;
+
+/**
+ * An immutable view of the parameters of a {@link LiSAConfiguration} that are
+ * needed by an {@link InterproceduralAnalysis} to compute fixpoints over the
+ * {@link CFG}s of the program.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class FixpointConfiguration {
+
+	/**
+	 * The number of fixpoint iteration on a given node after which calls to
+	 * {@link Lattice#lub(Lattice)} gets replaced with
+	 * {@link Lattice#widening(Lattice)}.
+	 */
+	public final int wideningThreshold;
+
+	/**
+	 * The type of descending phase algorithm that will be used during fixpoint
+	 * calculation.
+	 */
+	public final DescendingPhaseType descendingPhaseType;
+
+	/**
+	 * The number of fixpoint iteration on a given node during descending phase
+	 * after which calls to {@link Lattice#glb(Lattice)} does not do anything.
+	 */
+	public final int descendingGlbThreshold;
+
+	/**
+	 * The maximum number of {@link CFG}s whose fixpoints can be computed at the
+	 * same time, for those {@link InterproceduralAnalysis}s that analyze
+	 * {@link CFG}s independently of each other. This is always a positive
+	 * number.
+	 */
+	public final int fixpointParallelism;
+
+	/**
+	 * Whether or not fixpoints over {@link CFG}s should follow a weak
+	 * topological ordering of their statements, applying widening only at the
+	 * heads of loops, instead of using a working set.
+	 */
+	public final boolean useWeakTopologicalOrder;
+
+	/**
+	 * Whether or not fixpoints over {@link CFG}s should iterate over their
+	 * basic blocks instead of their statements, storing only the results of
+	 * the last statement of each block.
+	 */
+	public final boolean useBasicBlocks;
+
+	/**
+	 * Whether or not the results computed by previous executions over
+	 * {@link CFG}s that did not change should be reused.
+	 */
+	public final boolean incremental;
+
+	/**
+	 * Builds the configuration, copying the relevant values from the given
+	 * {@link LiSAConfiguration}. If
+	 * {@link LiSAConfiguration#fixpointParallelism} is not a positive number,
+	 * {@link Runtime#availableProcessors()} will be used instead.
+	 *
+	 * @param parent the configuration to copy values from
+	 */
+	public FixpointConfiguration(LiSAConfiguration parent) {
+		this.wideningThreshold = parent.wideningThreshold;
+		this.descendingPhaseType = parent.descendingPhaseType;
+		this.descendingGlbThreshold = parent.descendingGlbThreshold;
+		this.fixpointParallelism = parent.fixpointParallelism > 0
+				? parent.fixpointParallelism
+				: Runtime.getRuntime().availableProcessors();
+		this.useWeakTopologicalOrder = parent.useWeakTopologicalOrder;
+		this.useBasicBlocks = parent.useBasicBlocks;
+		this.incremental = parent.incremental;
+	}
+
+	@Override
+	public String toString() {
+		return "wideningThreshold: " + wideningThreshold
+				+ ", descendingPhaseType: " + descendingPhaseType
+				+ ", descendingGlbThreshold: " + descendingGlbThreshold
+				+ ", fixpointParallelism: " + fixpointParallelism
+				+ ", useWeakTopologicalOrder: " + useWeakTopologicalOrder
+				+ ", useBasicBlocks: " + useBasicBlocks
+				+ ", incremental: " + incremental;
+	}
+}
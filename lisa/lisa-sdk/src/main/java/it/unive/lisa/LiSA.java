@@ -9,6 +9,7 @@ import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.outputs.json.JsonReport;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.Program;
+import it.unive.lisa.util.collections.CacheScope;
 import it.unive.lisa.util.file.FileManager;
 import java.io.IOException;
 import java.util.Collection;
@@ -88,14 +89,19 @@ public class LiSA {
 		LiSARunner runner = new LiSARunner(conf, interproc, callGraph, conf.abstractState);
 		Application app = new Application(programs);
 		Collection<Warning> warnings;
+		long hits, misses;
 
-		try {
+		// the caches of this execution are discarded when it terminates
+		try (CacheScope scope = CacheScope.open(conf.interning)) {
 			warnings = TimerLogger.execSupplier(LOG, "Analysis time", () -> runner.run(app, fileManager));
+			hits = scope.hits();
+			misses = scope.misses();
 		} catch (AnalysisExecutionException e) {
 			throw new AnalysisException("LiSA has encountered an exception while executing the analysis", e);
 		}
 
-		LiSARunInfo stats = new LiSARunInfo(warnings, fileManager.createdFiles(), app, start, new DateTime());
+		LiSARunInfo stats = new LiSARunInfo(warnings, fileManager.createdFiles(), app, start, new DateTime(),
+				hits, misses);
 		LOG.info("LiSA statistics:\n" + stats);
 
 		LiSAReport report = new LiSAReport(conf, stats, warnings, fileManager.createdFiles());
@@ -12,7 +12,9 @@ import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.OpenCall;
+import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.ReversePostorderWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.file.FileManager;
 import java.lang.reflect.Field;
@@ -120,6 +122,13 @@ public class LiSAConfiguration {
 	 */
 	public static final int DEFAULT_DESCENDING_GLB_THRESHOLD = 5;
 
+	/**
+	 * The default number of {@link CFG}s whose fixpoint can be computed in
+	 * parallel by {@link InterproceduralAnalysis}s that support it. A value of
+	 * {@code 1} means that fixpoints are computed sequentially.
+	 */
+	public static final int DEFAULT_FIXPOINT_PARALLELISM = 1;
+
 	/**
 	 * The collection of {@link SyntacticCheck}s to execute. These checks will
 	 * be immediately executed after LiSA is started, as they do not require any
@@ -239,11 +248,68 @@ public class LiSAConfiguration {
 	public DescendingPhaseType descendingPhaseType = DescendingPhaseType.NONE;
 
 	/**
-	 * The concrete class of {@link WorkingSet} to be used in fixpoints.
-	 * Defaults to {@link FIFOWorkingSet}.
+	 * The concrete class of {@link WorkingSet} to be used in fixpoints. Using
+	 * {@link ReversePostorderWorkingSet} causes statements to be processed in
+	 * reverse-postorder w.r.t. their {@link CFG}. Defaults to
+	 * {@link FIFOWorkingSet}.
 	 */
 	public Class<?> fixpointWorkingSet = FIFOWorkingSet.class;
 
+	/**
+	 * The maximum number of worker threads that {@link InterproceduralAnalysis}
+	 * instances analyzing {@link CFG}s independently of each other can use to
+	 * compute fixpoints over different {@link CFG}s at the same time. A value
+	 * of {@code 1} causes fixpoints to be computed sequentially, while a value
+	 * lower than {@code 1} causes the number of available processors to be
+	 * used. Analyses that do not support parallel execution ignore this value.
+	 * Defaults to {@link #DEFAULT_FIXPOINT_PARALLELISM}.
+	 */
+	public int fixpointParallelism = DEFAULT_FIXPOINT_PARALLELISM;
+
+	/**
+	 * Whether or not fixpoints over {@link CFG}s should iterate following a
+	 * weak topological ordering of their statements (Bourdoncle's recursive
+	 * strategy) instead of using {@link #fixpointWorkingSet}. When set,
+	 * widening is applied only at the heads of loops, and
+	 * {@link #fixpointWorkingSet} is ignored. Defaults to {@code false}.
+	 */
+	public boolean useWeakTopologicalOrder = false;
+
+	/**
+	 * Whether or not fixpoints over {@link CFG}s should iterate over the basic
+	 * blocks of each {@link CFG} (i.e., maximal chains of statements connected
+	 * by sequential edges) instead of over single statements. When set, only
+	 * the results of the last statement of each block are stored at the end
+	 * of the fixpoint, while the ones of the other statements are recomputed
+	 * when first queried. Results coincide with the ones computed over single
+	 * statements during the ascending phase, while the descending phase (see
+	 * {@link #descendingPhaseType}) refines the results of the inner
+	 * statements of each block only through the ones of its entry, and they
+	 * might thus differ. Defaults to {@code false}.
+	 */
+	public boolean useBasicBlocks = false;
+
+	/**
+	 * Whether or not {@link InterproceduralAnalysis}es supporting it should
+	 * reuse, across different executions of LiSA, the results computed for
+	 * {@link CFG}s that did not change. {@link CFG}s are recognized through
+	 * {@link CFG#getStructuralHash()}, and results are retained by the
+	 * {@link InterproceduralAnalysis} instance: the same instance must thus be
+	 * set as {@link #interproceduralAnalysis} in all executions. Results are
+	 * discarded whenever the entry state or any of the fixpoint parameters
+	 * change between executions. Defaults to {@code false}.
+	 */
+	public boolean incremental = false;
+
+	/**
+	 * Whether or not the {@link Type}s and the immutable symbolic leaves (that
+	 * is, constants and variables) built by the analysis should be interned, so
+	 * that equal objects share the same instance. The canonicalization tables
+	 * are created when the analysis starts and discarded when it terminates.
+	 * Defaults to {@code false}.
+	 */
+	public boolean interning = false;
+
 	/**
 	 * The {@link OpenCallPolicy} to be used for computing the result of
 	 * {@link OpenCall}s. Defaults to {@link WorstCasePolicy}.
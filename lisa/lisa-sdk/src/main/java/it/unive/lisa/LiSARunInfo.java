@@ -12,6 +12,8 @@ import it.unive.lisa.program.cfg.CodeMember;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.collections.BoundedCache;
+import it.unive.lisa.util.collections.CacheScope;
 import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.file.FileManager;
 import java.lang.reflect.Field;
@@ -150,17 +152,31 @@ public class LiSARunInfo {
 	 */
 	public final String duration;
 
+	/**
+	 * The number of lookups in the {@link BoundedCache}s of the
+	 * {@link CacheScope} of the analysis that found a cached value.
+	 */
+	public final long cacheHits;
+
+	/**
+	 * The number of lookups in the {@link BoundedCache}s of the
+	 * {@link CacheScope} of the analysis that had to compute their value.
+	 */
+	public final long cacheMisses;
+
 	/**
 	 * Builds the run info.
 	 * 
-	 * @param warnings the warnings generated by the analysis
-	 * @param files    the files generated by the analysis
-	 * @param app      the {@link Application} under analysis
-	 * @param start    the start time
-	 * @param end      the end time
+	 * @param warnings    the warnings generated by the analysis
+	 * @param files       the files generated by the analysis
+	 * @param app         the {@link Application} under analysis
+	 * @param start       the start time
+	 * @param end         the end time
+	 * @param cacheHits   the number of cache hits during the analysis
+	 * @param cacheMisses the number of cache misses during the analysis
 	 */
 	public LiSARunInfo(Collection<Warning> warnings, Collection<String> files, Application app, DateTime start,
-			DateTime end) {
+			DateTime end, long cacheHits, long cacheMisses) {
 		this.version = VersionInfo.VERSION;
 		this.warnings = warnings.size();
 		this.files = files.size();
@@ -177,6 +193,8 @@ public class LiSARunInfo {
 		this.start = start.toString();
 		this.end = end.toString();
 		this.duration = PERIOD_FORMAT.print(new Period(start, end)).trim();
+		this.cacheHits = cacheHits;
+		this.cacheMisses = cacheMisses;
 
 		StatementCounter counter = new StatementCounter();
 		app.getAllCFGs().forEach(c -> c.accept(counter, null));
@@ -225,7 +243,8 @@ public class LiSARunInfo {
 	 * Checks whether the given run information match this one in terms of
 	 * analyzed code and analysis results. This corresponds to calling
 	 * {@link #equals(Object)}, but ignoring {@link #version},
-	 * {@link #duration}, {@link #end}, and {@link #start}.
+	 * {@link #duration}, {@link #end}, {@link #start}, {@link #cacheHits},
+	 * and {@link #cacheMisses}.
 	 * 
 	 * @param other the other run info
 	 * 
@@ -270,7 +289,9 @@ public class LiSARunInfo {
 				"\nStatements: " + statements +
 				"\nExpressions: " + expressions +
 				"\nGenerated Warnings: " + warnings +
-				"\nGenerated Files: " + files;
+				"\nGenerated Files: " + files +
+				"\nCache Hits: " + cacheHits +
+				"\nCache Misses: " + cacheMisses;
 	}
 
 	/**
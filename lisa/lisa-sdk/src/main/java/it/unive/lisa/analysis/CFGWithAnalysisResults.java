@@ -9,7 +9,9 @@ import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 /**
  * A control flow graph, that has {@link Statement}s as nodes and {@link Edge}s
@@ -56,6 +58,61 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 	 */
 	private String id;
 
+	/**
+	 * The source of the results that are not stored in {@link #results}, or
+	 * {@code null} if all results are stored
+	 */
+	private LazyResults<A, H, V, T> lazy;
+
+	/**
+	 * A source of analysis results that are not stored by a
+	 * {@link CFGWithAnalysisResults}, but that are rather computed when first
+	 * queried. This is used by fixpoints that only keep track of the results
+	 * of some statements (e.g., the last ones of each basic block), since the
+	 * ones of the remaining statements can be recomputed starting from them.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 * 
+	 * @param <A> the type of {@link AbstractState} contained into the analysis
+	 *                state
+	 * @param <H> the type of {@link HeapDomain} contained into the computed
+	 *                abstract state
+	 * @param <V> the type of {@link ValueDomain} contained into the computed
+	 *                abstract state
+	 * @param <T> the type of {@link TypeDomain} embedded into the computed
+	 *                abstract state
+	 */
+	public interface LazyResults<A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> {
+
+		/**
+		 * Computes the results of the given statement and of its nested
+		 * expressions, storing them into {@code results}. Results of other
+		 * statements might be stored as well. Results that have already been
+		 * computed by a previous call are not computed again.
+		 * 
+		 * @param st      the statement, that is a node of the cfg
+		 * @param results the store where results are to be placed
+		 * 
+		 * @throws SemanticException if an error occurs while computing the
+		 *                               results
+		 */
+		void materialize(Statement st, StatementStore<A, H, V, T> results) throws SemanticException;
+
+		/**
+		 * Computes the results of all statements that have not been computed
+		 * yet, storing them into {@code results}.
+		 * 
+		 * @param results the store where results are to be placed
+		 * 
+		 * @throws SemanticException if an error occurs while computing the
+		 *                               results
+		 */
+		void materializeAll(StatementStore<A, H, V, T> results) throws SemanticException;
+	}
+
 	/**
 	 * Builds the control flow graph, storing the given mapping between nodes
 	 * and fixpoint computation results.
@@ -90,6 +147,29 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 		entryStates.forEach(this.entryStates::put);
 	}
 
+	/**
+	 * Builds the control flow graph, storing the given mapping between nodes
+	 * and fixpoint computation results. Results of statements that are not
+	 * contained in {@code results} are computed when first needed through
+	 * {@code lazy}.
+	 * 
+	 * @param cfg         the original control flow graph
+	 * @param singleton   an instance of the {@link AnalysisState} containing
+	 *                        the abstract state of the analysis that was
+	 *                        executed, used to retrieve top and bottom values
+	 * @param entryStates the entry state for each entry point of the cfg
+	 * @param results     the results of the fixpoint computation
+	 * @param lazy        the source of the results that are not contained in
+	 *                        {@code results}
+	 */
+	public CFGWithAnalysisResults(CFG cfg, AnalysisState<A, H, V, T> singleton,
+			Map<Statement, AnalysisState<A, H, V, T>> entryStates,
+			Map<Statement, AnalysisState<A, H, V, T>> results,
+			LazyResults<A, H, V, T> lazy) {
+		this(cfg, singleton, entryStates, results);
+		this.lazy = lazy;
+	}
+
 	/**
 	 * Builds the control flow graph, storing the given mapping between nodes
 	 * and fixpoint computation results.
@@ -154,9 +234,91 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 	 * @return the result computed at the given statement
 	 */
 	public AnalysisState<A, H, V, T> getAnalysisStateAfter(Statement st) {
+		materialize(st);
 		return results.getState(st);
 	}
 
+	private synchronized void materialize(Statement st) {
+		if (lazy == null)
+			return;
+
+		Statement target = st instanceof Expression ? ((Expression) st).getRootStatement() : st;
+		try {
+			lazy.materialize(target, results);
+		} catch (SemanticException e) {
+			throw new SemanticExceptionWrapper(e);
+		}
+	}
+
+	/**
+	 * Computes and stores all the results that are computed lazily, if any.
+	 * This is needed before any operation that involves all the results of
+	 * this graph, like lattice operations and comparisons.
+	 */
+	private synchronized void materializeAll() {
+		if (lazy == null)
+			return;
+
+		try {
+			lazy.materializeAll(results);
+		} catch (SemanticException e) {
+			throw new SemanticExceptionWrapper(e);
+		}
+		lazy = null;
+	}
+
+	/**
+	 * Yields the results of this graph moved onto {@code cfg}, that is a graph
+	 * with the same {@link CFG#getStructuralHash() structural hash} coming
+	 * from a different parsing of the same code. Since the structural hash
+	 * does not depend on the absolute locations of statements, the code of
+	 * {@code cfg} might have been moved to different lines: statements of the
+	 * two graphs are thus matched through their
+	 * {@link CFG#getStructuralKeys() structural keys}. If the two graphs are
+	 * placed at the same location, this graph is returned as-is, since their
+	 * statements are equal. Note that the abstract states are moved without
+	 * modifications: abstractions whose names contain locations (e.g.,
+	 * allocation sites) keep referring to the original ones.
+	 * 
+	 * @param cfg the graph to move the results onto
+	 * 
+	 * @return the results of this graph on {@code cfg}, or {@code null} if the
+	 *             statements of the two graphs cannot be matched
+	 */
+	public CFGWithAnalysisResults<A, H, V, T> relocate(CFG cfg) {
+		if (getDescriptor().getLocation().equals(cfg.getDescriptor().getLocation()))
+			return this;
+
+		materializeAll();
+		Map<String, Statement> targets = new HashMap<>();
+		for (Entry<Statement, String> key : cfg.getStructuralKeys().entrySet())
+			if (targets.put(key.getValue(), key.getKey()) != null)
+				// ambiguous key
+				return null;
+
+		Map<Statement, String> keys = getStructuralKeys();
+		StatementStore<A, H, V, T> movedEntries = relocate(entryStates, keys, targets);
+		StatementStore<A, H, V, T> movedResults = relocate(results, keys, targets);
+		if (movedEntries == null || movedResults == null)
+			return null;
+
+		CFGWithAnalysisResults<A, H, V, T> moved = new CFGWithAnalysisResults<>(cfg, movedEntries, movedResults);
+		moved.setId(id);
+		return moved;
+	}
+
+	private StatementStore<A, H, V, T> relocate(StatementStore<A, H, V, T> store, Map<Statement, String> keys,
+			Map<String, Statement> targets) {
+		StatementStore<A, H, V, T> moved = new StatementStore<>(store.lattice);
+		for (Entry<Statement, AnalysisState<A, H, V, T>> entry : store) {
+			Statement target = targets.get(keys.get(entry.getKey()));
+			if (target == null)
+				return null;
+			moved.put(target, entry.getValue());
+		}
+		return moved;
+	}
+
 	/**
 	 * Yields the entry state.
 	 * 
@@ -198,6 +360,8 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 	 * @throws SemanticException if something goes wrong during the join
 	 */
 	public CFGWithAnalysisResults<A, H, V, T> join(CFGWithAnalysisResults<A, H, V, T> other) throws SemanticException {
+		materializeAll();
+		other.materializeAll();
 		if (!getDescriptor().equals(other.getDescriptor()))
 			throw new SemanticException(CANNOT_LUB_ERROR);
 
@@ -207,6 +371,8 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 
 	@Override
 	public CFGWithAnalysisResults<A, H, V, T> lub(CFGWithAnalysisResults<A, H, V, T> other) throws SemanticException {
+		materializeAll();
+		other.materializeAll();
 		if (!getDescriptor().equals(other.getDescriptor()))
 			throw new SemanticException(CANNOT_LUB_ERROR);
 
@@ -218,6 +384,8 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 
 	@Override
 	public CFGWithAnalysisResults<A, H, V, T> glb(CFGWithAnalysisResults<A, H, V, T> other) throws SemanticException {
+		materializeAll();
+		other.materializeAll();
 		if (!getDescriptor().equals(other.getDescriptor()))
 			throw new SemanticException(CANNOT_GLB_ERROR);
 
@@ -230,6 +398,8 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 	@Override
 	public CFGWithAnalysisResults<A, H, V, T> widening(CFGWithAnalysisResults<A, H, V, T> other)
 			throws SemanticException {
+		materializeAll();
+		other.materializeAll();
 		if (!getDescriptor().equals(other.getDescriptor()))
 			throw new SemanticException(CANNOT_LUB_ERROR);
 
@@ -261,6 +431,8 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 
 	@Override
 	public boolean lessOrEqual(CFGWithAnalysisResults<A, H, V, T> other) throws SemanticException {
+		materializeAll();
+		other.materializeAll();
 		if (!getDescriptor().equals(other.getDescriptor()))
 			throw new SemanticException(CANNOT_LUB_ERROR);
 
@@ -274,6 +446,7 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 
 	@Override
 	public boolean isTop() {
+		materializeAll();
 		return entryStates.isTop() && results.isTop();
 	}
 
@@ -284,11 +457,13 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 
 	@Override
 	public boolean isBottom() {
+		materializeAll();
 		return entryStates.isBottom() && results.isBottom();
 	}
 
 	@Override
 	public int hashCode() {
+		materializeAll();
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((entryStates == null) ? 0 : entryStates.hashCode());
@@ -306,6 +481,8 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 		if (getClass() != obj.getClass())
 			return false;
 		CFGWithAnalysisResults<?, ?, ?, ?> other = (CFGWithAnalysisResults<?, ?, ?, ?>) obj;
+		materializeAll();
+		other.materializeAll();
 		if (entryStates == null) {
 			if (other.entryStates != null)
 				return false;
@@ -9,8 +9,9 @@ import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Set;
 import java.util.function.BooleanSupplier;
@@ -19,7 +20,13 @@ import java.util.function.Predicate;
 /**
  * A dataflow domain that collects instances of {@link DataflowElement}. A
  * dataflow domain is a value domain that is represented as a set of elements,
- * that can be retrieved through {@link #getDataflowElements()}.
+ * that can be retrieved through {@link #getDataflowElements()}. Elements are
+ * stored in {@link ExternalSet}s, so that sets of elements are represented as
+ * bit vectors. An instance built from a set that is not an {@link ExternalSet}
+ * (e.g., the empty top element provided to the analysis) owns a fresh
+ * {@link ExternalSetCache}, that is then shared by all the instances derived
+ * from it: the cache is thus discarded together with the domain instances of
+ * the analysis that created it.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -34,7 +41,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 
 	private final boolean isBottom;
 
-	private final Set<E> elements;
+	private final ExternalSet<E> elements;
 
 	/**
 	 * The underlying domain.
@@ -52,12 +59,29 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 	 * @param isBottom whether or not this domain is the bottom of the lattice
 	 */
 	public DataflowDomain(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
-		this.elements = elements;
+		this.elements = elements instanceof ExternalSet ? (ExternalSet<E>) elements
+				: new ExternalSetCache<E>().mkSet(elements);
 		this.domain = domain;
 		this.isTop = isTop;
 		this.isBottom = isBottom;
 	}
 
+	/**
+	 * Yields the elements of {@code other}, stored in the same
+	 * {@link ExternalSetCache} used by this domain instance. This is needed
+	 * when operating on instances that did not originate from the same top
+	 * element, since set operations between {@link ExternalSet}s require them
+	 * to share their cache.
+	 * 
+	 * @param other the other domain instance
+	 * 
+	 * @return the elements of {@code other}, drawn from the cache of this
+	 *             instance
+	 */
+	protected final ExternalSet<E> sameCache(D other) {
+		return elements.getCache().asExternalSet(other.getDataflowElements());
+	}
+
 	/**
 	 * Utility for creating a concrete instance of {@link DataflowDomain} given
 	 * its core fields.
@@ -105,7 +129,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (guard.getAsBoolean())
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(getDataflowElements());
+		ExternalSet<E> updated = elements.copy();
 		for (E killed : kill.get())
 			updated.remove(killed);
 		for (E generated : gen.get())
@@ -135,8 +159,9 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (toRemove.isEmpty())
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(elements);
-		updated.removeAll(toRemove);
+		ExternalSet<E> updated = elements.copy();
+		for (E e : toRemove)
+			updated.remove(e);
 		return mk(domain, updated, false, false);
 	}
 
@@ -154,8 +179,9 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (toRemove.isEmpty())
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(elements);
-		updated.removeAll(toRemove);
+		ExternalSet<E> updated = elements.copy();
+		for (E e : toRemove)
+			updated.remove(e);
 		return mk(domain, updated, false, false);
 	}
 
@@ -209,7 +235,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 
 	@Override
 	public D top() {
-		return mk(domain, new HashSet<>(), true, false);
+		return mk(domain, elements.getCache().mkEmptySet(), true, false);
 	}
 
 	@Override
@@ -219,7 +245,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 
 	@Override
 	public D bottom() {
-		return mk(domain, new HashSet<>(), false, true);
+		return mk(domain, elements.getCache().mkEmptySet(), false, true);
 	}
 
 	@Override
@@ -232,7 +258,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 	 * 
 	 * @return the elements
 	 */
-	public final Set<E> getDataflowElements() {
+	public final ExternalSet<E> getDataflowElements() {
 		return elements;
 	}
 
@@ -242,7 +268,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (isTop() || isBottom())
 			return (D) this;
 
-		Set<E> result = new HashSet<>();
+		ExternalSet<E> result = elements.getCache().mkEmptySet();
 		E pushed;
 		for (E element : this.elements)
 			if ((pushed = element.pushScope(scope)) != null)
@@ -257,7 +283,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (isTop() || isBottom())
 			return (D) this;
 
-		Set<E> result = new HashSet<>();
+		ExternalSet<E> result = elements.getCache().mkEmptySet();
 		E popped;
 		for (E element : this.elements)
 			if ((popped = element.popScope(scope)) != null)
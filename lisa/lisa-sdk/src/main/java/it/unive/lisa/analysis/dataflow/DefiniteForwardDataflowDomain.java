@@ -4,7 +4,6 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.lattices.InverseSetLattice;
 import java.util.HashSet;
 import java.util.Set;
-import org.apache.commons.collections4.SetUtils;
 
 /**
  * A {@link DataflowDomain} for <b>forward</b> and <b>definite</b> dataflow
@@ -40,18 +39,18 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> lubAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
-		Set<E> intersection = SetUtils.intersection(this.getDataflowElements(), other.getDataflowElements());
+		Set<E> intersection = this.getDataflowElements().intersection(sameCache(other));
 		return new DefiniteForwardDataflowDomain<>(domain, intersection, false, false);
 	}
 
 	@Override
 	public boolean lessOrEqualAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
-		return this.getDataflowElements().containsAll(other.getDataflowElements());
+		return this.getDataflowElements().contains(sameCache(other));
 	}
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> glbAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
-		Set<E> intersection = SetUtils.union(this.getDataflowElements(), other.getDataflowElements());
+		Set<E> intersection = this.getDataflowElements().union(sameCache(other));
 		return new DefiniteForwardDataflowDomain<>(domain, intersection, false, false);
 	}
 }
@@ -0,0 +1,72 @@
+package it.unive.lisa.analysis.lattices;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+
+/**
+ * A {@link SetLattice} whose elements are stored in an {@link ExternalSet}.
+ * All instances built from the same {@link ExternalSetCache} represent their
+ * elements as bit vectors over that cache, and lattice operations are
+ * performed directly on the bits:
+ * <ul>
+ * <li>the lub is the bitwise or</li>
+ * <li>the glb is the bitwise and</li>
+ * <li>the &le; is a subset test on the bits</li>
+ * </ul>
+ * Subclasses are expected to build all their instances over the same cache
+ * (see {@link ExternalSetCache#asExternalSet(java.util.Set)}): if two
+ * instances with different caches are compared, the elements of the second
+ * one are first copied into the cache of the first one.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <S> the concrete instance of {@link ExternalSetLattice}
+ * @param <E> the type of elements of the domain of this lattice
+ */
+public abstract class ExternalSetLattice<S extends ExternalSetLattice<S, E>, E> extends SetLattice<S, E> {
+
+	/**
+	 * Builds the lattice.
+	 *
+	 * @param elements the elements that are contained in the lattice
+	 * @param isTop    whether or not this is the top or bottom element of the
+	 *                     lattice, valid only if the set of elements is empty
+	 */
+	public ExternalSetLattice(ExternalSet<E> elements, boolean isTop) {
+		super(elements, isTop);
+	}
+
+	@Override
+	public ExternalSet<E> elements() {
+		return (ExternalSet<E>) elements;
+	}
+
+	/**
+	 * Yields the cache that the elements of this lattice are drawn from.
+	 *
+	 * @return the cache
+	 */
+	public ExternalSetCache<E> getCache() {
+		return elements().getCache();
+	}
+
+	private ExternalSet<E> sameCache(S other) {
+		return getCache().asExternalSet(other.elements);
+	}
+
+	@Override
+	public S lubAux(S other) throws SemanticException {
+		return mk(elements().union(sameCache(other)));
+	}
+
+	@Override
+	public S glbAux(S other) throws SemanticException {
+		return mk(elements().intersection(sameCache(other)));
+	}
+
+	@Override
+	public boolean lessOrEqualAux(S other) throws SemanticException {
+		return sameCache(other).contains(elements());
+	}
+}
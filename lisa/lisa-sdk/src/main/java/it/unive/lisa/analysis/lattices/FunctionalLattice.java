@@ -3,9 +3,9 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.PersistentMap;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -14,7 +14,12 @@ import java.util.Set;
 
 /**
  * A generic functional abstract domain that performs the functional lifting of
- * the lattice on the elements of the co-domain.
+ * the lattice on the elements of the co-domain. Functions are, by default,
+ * {@link PersistentMap}s: copying them is constant-time, and their structure is
+ * shared among all the instances derived from the same one. Operations between
+ * such instances skip the mappings that they share, exploiting the reflexivity
+ * of {@link Lattice#lessOrEqual(Lattice)} and the idempotence of the other
+ * lattice operations.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -58,7 +63,9 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	/**
 	 * Creates a new instance of the underlying function. The purpose of this
 	 * method is to provide a common function implementation to every subclass
-	 * that does not have implementation-specific requirements.
+	 * that does not have implementation-specific requirements. The returned
+	 * function is a {@link PersistentMap}, sharing its structure with
+	 * {@code other} if it is also a {@link PersistentMap}.
 	 * 
 	 * @param other        an optional function to copy, can be {@code null}
 	 * @param preserveNull whether a null {@code other} should cause a
@@ -68,8 +75,8 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 */
 	public Map<K, V> mkNewFunction(Map<K, V> other, boolean preserveNull) {
 		if (other == null)
-			return preserveNull ? null : new HashMap<>();
-		return new HashMap<>(other);
+			return preserveNull ? null : new PersistentMap<>();
+		return new PersistentMap<>(other);
 	}
 
 	/**
@@ -111,12 +118,8 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 */
 	public F putState(K key, V state) {
 		// we are only adding elements here, so it is fine to not preserve null
-		Map<K, V> result = mkNewFunction(null, false);
-
+		Map<K, V> result = mkNewFunction(function, false);
 		result.put(key, state);
-		for (K k : getKeys())
-			if (!k.equals(key))
-				result.put(k, getState(k));
 		return mk(lattice, result);
 	}
 
@@ -135,22 +138,22 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 
 	@Override
 	public F lubAux(F other) throws SemanticException {
-		return functionalLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
+		return idempotentLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
 	}
 
 	@Override
 	public F glbAux(F other) throws SemanticException {
-		return functionalLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
+		return idempotentLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
 	}
 
 	@Override
 	public F wideningAux(F other) throws SemanticException {
-		return functionalLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
+		return idempotentLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
 	}
 
 	@Override
 	public F narrowingAux(F other) throws SemanticException {
-		return functionalLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
+		return idempotentLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
 	}
 
 	/**
@@ -226,6 +229,67 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 		return mk(lattice.lub(other.lattice), function);
 	}
 
+	/**
+	 * Yields the functional lift between {@code this} and {@code other}, like
+	 * {@link #functionalLift(FunctionalLattice, KeyFunctionalLift, FunctionalLift)},
+	 * assuming that {@code valueLifter} is idempotent (that is, that lifting
+	 * a value with itself yields the value itself), as it happens for lub,
+	 * glb, widening and narrowing. Under this assumption, keys that are mapped
+	 * to the very same value in both functions keep their mapping, and
+	 * {@code valueLifter} is only applied to the ones whose mapping differs.
+	 * 
+	 * @param other       the other functional lattice
+	 * @param keyLifter   the key lifter
+	 * @param valueLifter the value lifter, that must be idempotent
+	 * 
+	 * @return the lift of {@code this} and {@code other}
+	 * 
+	 * @throws SemanticException if something goes wrong while lifting the
+	 *                               lattice elements
+	 */
+	protected F idempotentLift(F other, KeyFunctionalLift<K> keyLifter, FunctionalLift<V> valueLifter)
+			throws SemanticException {
+		Set<K> keys = keyLifter.keyLift(this.getKeys(), other.getKeys());
+		Set<K> changed = differences(other);
+		// we start from this function and only update what changes
+		Map<K, V> function = mkNewFunction(this.function, false);
+		function.keySet().retainAll(keys);
+		for (K key : keys)
+			if (changed.contains(key) || !function.containsKey(key))
+				try {
+					function.put(key, valueLifter.lift(getState(key), other.getState(key)));
+				} catch (SemanticException e) {
+					throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
+				}
+		return mk(lattice.lub(other.lattice), function);
+	}
+
+	/**
+	 * Yields the keys whose mapping differs between this function and the one
+	 * of {@code other}, comparing values through pointer equality. Keys that
+	 * are not part of the result are mapped to the very same value in both
+	 * functions (or to none). If both functions are {@link PersistentMap}s, the
+	 * structure they share is not visited.
+	 * 
+	 * @param other the other functional lattice
+	 * 
+	 * @return the keys whose mapping differs
+	 */
+	private Set<K> differences(F other) {
+		if (function instanceof PersistentMap && other.function instanceof PersistentMap)
+			return ((PersistentMap<K, V>) function).differences((PersistentMap<K, V>) other.function);
+
+		Set<K> result = new HashSet<>();
+		for (K key : getKeys())
+			if (other.function == null || !other.function.containsKey(key)
+					|| function.get(key) != other.function.get(key))
+				result.add(key);
+		for (K key : other.getKeys())
+			if (function == null || !function.containsKey(key))
+				result.add(key);
+		return result;
+	}
+
 	/**
 	 * Yields the union of the keys between {@code k1} and {@code k2}.
 	 * 
@@ -261,9 +325,11 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 
 	@Override
 	public boolean lessOrEqualAux(F other) throws SemanticException {
-		for (K key : function.keySet())
-			if (getState(key) != null && (!getState(key).lessOrEqual(other.getState(key))))
-				return false;
+		// shared mappings are trivially in relation
+		for (K key : differences(other))
+			if (function != null && function.containsKey(key))
+				if (getState(key) != null && (!getState(key).lessOrEqual(other.getState(key))))
+					return false;
 
 		return true;
 	}
@@ -12,8 +12,10 @@ import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.util.collections.CollectionsDiffBuilder;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
@@ -279,8 +281,16 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 	@Override
 	public Set<Identifier> lubKeys(Set<Identifier> k1, Set<Identifier> k2) throws SemanticException {
 		Set<Identifier> keys = new HashSet<>();
-		CollectionsDiffBuilder<Identifier> builder = new CollectionsDiffBuilder<>(Identifier.class, k1,
-				k2);
+		// homonyms are paired in a fixed order, that does not depend on the
+		// iteration order of the sets
+		Comparator<Identifier> order = Comparator.comparing(Identifier::getName)
+				.thenComparing(Identifier::toString);
+		List<Identifier> l1 = new ArrayList<>(k1);
+		List<Identifier> l2 = new ArrayList<>(k2);
+		l1.sort(order);
+		l2.sort(order);
+		CollectionsDiffBuilder<Identifier> builder = new CollectionsDiffBuilder<>(Identifier.class, l1,
+				l2);
 		builder.compute(Comparator.comparing(Identifier::getName));
 		keys.addAll(builder.getOnlyFirst());
 		keys.addAll(builder.getOnlySecond());
@@ -139,27 +139,27 @@ public class InferenceSystem<T extends InferredValue<T>>
 	@Override
 	public InferenceSystem<T> lubAux(InferenceSystem<T> other)
 			throws SemanticException {
-		InferenceSystem<T> newEnv = functionalLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
+		InferenceSystem<T> newEnv = idempotentLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
 		return new InferenceSystem<>(newEnv.lattice, newEnv.function, inferred.lub(other.inferred));
 	}
 
 	@Override
 	public InferenceSystem<T> wideningAux(InferenceSystem<T> other) throws SemanticException {
 		InferenceSystem<
-				T> newEnv = functionalLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
+				T> newEnv = idempotentLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
 		return new InferenceSystem<>(newEnv.lattice, newEnv.function, inferred.widening(other.inferred));
 	}
 
 	@Override
 	public InferenceSystem<T> glbAux(InferenceSystem<T> other) throws SemanticException {
-		InferenceSystem<T> newEnv = functionalLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
+		InferenceSystem<T> newEnv = idempotentLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
 		return new InferenceSystem<>(newEnv.lattice, newEnv.function, inferred.glb(other.inferred));
 	}
 
 	@Override
 	public InferenceSystem<T> narrowingAux(InferenceSystem<T> other) throws SemanticException {
 		InferenceSystem<
-				T> newEnv = functionalLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
+				T> newEnv = idempotentLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
 		return new InferenceSystem<>(newEnv.lattice, newEnv.function, inferred.narrowing(other.inferred));
 	}
 
@@ -0,0 +1,96 @@
+package it.unive.lisa.analysis.nonrelational.value;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A numbering of {@link Identifier}s shared by {@link PackedValueMap}s, in the
+ * style of {@link it.unive.lisa.util.collections.externalSet.ExternalSetCache}.
+ * Identifiers are numbered progressively, in the order they are first seen. The
+ * index also tracks the numbers of identifiers that share their name with other
+ * ones (e.g., strong and weak versions of the same heap location), since these
+ * need to be merged when joining environments. Lookups of identifiers that are
+ * already numbered do not acquire any lock, so that environments used by
+ * concurrent fixpoints can be read in parallel: only numbering new identifiers
+ * is serialized.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class IdentifierIndex {
+
+	/**
+	 * A map from the identifiers to their index
+	 */
+	private final Map<Identifier, Integer> indexes = new ConcurrentHashMap<>();
+
+	/**
+	 * A map from the names of the identifiers to the index of the first one
+	 * having that name, only accessed while holding the lock on this index
+	 */
+	private final Map<String, Integer> names = new HashMap<>();
+
+	/**
+	 * The bits representing the indexes of identifiers sharing their name with
+	 * other ones. This array is replaced, and never modified, when new indexes
+	 * have to be added.
+	 */
+	private volatile long[] ambiguous = new long[0];
+
+	/**
+	 * Yields the index of the given identifier.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the index of {@code id}, or {@code -1}
+	 */
+	int indexOf(Identifier id) {
+		Integer result = indexes.get(id);
+		return result == null ? -1 : result;
+	}
+
+	/**
+	 * Yields the index of the given identifier, numbering it if it is not
+	 * already part of this index.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the index of {@code id}
+	 */
+	int indexOfOrAdd(Identifier id) {
+		Integer result = indexes.get(id);
+		if (result != null)
+			return result;
+
+		synchronized (this) {
+			result = indexes.get(id);
+			if (result != null)
+				return result;
+
+			int index = indexes.size();
+			Integer homonym = names.putIfAbsent(id.getName(), index);
+			if (homonym != null) {
+				long[] updated = Arrays.copyOf(ambiguous, Math.max(ambiguous.length, (index >> 6) + 1));
+				updated[homonym >> 6] |= 1L << homonym;
+				updated[index >> 6] |= 1L << index;
+				ambiguous = updated;
+			}
+			// published last, so that readers finding the index also see
+			// whether it is ambiguous
+			indexes.put(id, index);
+			return index;
+		}
+	}
+
+	/**
+	 * Yields the bits representing the indexes of identifiers that share their
+	 * name with other ones. The returned array must not be modified.
+	 *
+	 * @return the bits of the ambiguous indexes
+	 */
+	long[] ambiguous() {
+		return ambiguous;
+	}
+}
@@ -0,0 +1,72 @@
+package it.unive.lisa.analysis.nonrelational.value;
+
+import it.unive.lisa.analysis.Lattice;
+
+/**
+ * A {@link NonRelationalValueDomain} with finitely many elements, each of which
+ * can be encoded in a few bits. Encodings enable
+ * {@link PackedValueEnvironment}s to store several elements in a single
+ * {@code long}, and to compute lattice operations on all of them at once
+ * through bitwise operations. To this end, encodings must satisfy the following
+ * properties:
+ * <ul>
+ * <li>the bottom element is encoded as {@code 0};</li>
+ * <li>{@code x.lessOrEqual(y)} holds if and only if
+ * {@code (x.pack() & ~y.pack()) == 0};</li>
+ * <li>{@code x.glb(y).pack() == (x.pack() & y.pack())};</li>
+ * <li>{@code x.lub(y).pack()} is the result of {@link #closeLub(long)} on
+ * {@code x.pack() | y.pack()};</li>
+ * <li>{@link Lattice#widening(Lattice)} coincides with
+ * {@link Lattice#lub(Lattice)}.</li>
+ * </ul>
+ * Distributive lattices satisfy these properties by encoding each element as
+ * the set of join-irreducible elements below it, one per bit.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the concrete type of the domain
+ */
+public interface PackableValueDomain<T extends PackableValueDomain<T>> extends NonRelationalValueDomain<T> {
+
+	/**
+	 * Yields the number of bits used by the encodings of the elements of this
+	 * domain. This must be a number between {@code 1} and {@code 8}.
+	 *
+	 * @return the number of bits of each encoding
+	 */
+	int bitWidth();
+
+	/**
+	 * Yields the encoding of this element, that uses at most
+	 * {@link #bitWidth()} bits.
+	 *
+	 * @return the encoding of this element
+	 */
+	long pack();
+
+	/**
+	 * Yields the element of this domain with the given encoding.
+	 *
+	 * @param bits the encoding, as returned by {@link #pack()}
+	 *
+	 * @return the element
+	 */
+	T unpack(long bits);
+
+	/**
+	 * Given a word holding {@code 64 / bitWidth()} encodings, stored starting
+	 * from the least significant bit, where each one is the bitwise or of the
+	 * encodings of two elements, yields the word holding the encodings of their
+	 * least upper bounds. Encodings that are {@code 0} must be left untouched.
+	 * The default implementation returns {@code word}, and is thus correct
+	 * whenever the bitwise or of two encodings is the encoding of their least
+	 * upper bound.
+	 *
+	 * @param word the word containing the encodings to close
+	 *
+	 * @return the word containing the encodings of the least upper bounds
+	 */
+	default long closeLub(long word) {
+		return word;
+	}
+}
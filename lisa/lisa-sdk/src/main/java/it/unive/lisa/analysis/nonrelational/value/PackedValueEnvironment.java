@@ -0,0 +1,116 @@
+package it.unive.lisa.analysis.nonrelational.value;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.symbolic.value.Identifier;
+import java.util.Map;
+
+/**
+ * A {@link ValueEnvironment} for {@link PackableValueDomain}s, that stores the
+ * encodings of the values of several identifiers inside each {@code long}.
+ * Identifiers are numbered through an index that is shared by all the
+ * environments derived from the same one, and whose functions can thus be
+ * joined, met and compared through word-wide bitwise operations instead of one
+ * identifier at a time. Operations between environments that do not share the
+ * index, or that involve distinct identifiers with the same name (that have to
+ * be merged by {@link #lubKeys(java.util.Set, java.util.Set)}), fall back to
+ * the ones of {@link ValueEnvironment}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the concrete instance of the {@link PackableValueDomain} whose
+ *                instances are mapped in this environment
+ */
+public class PackedValueEnvironment<T extends PackableValueDomain<T>> extends ValueEnvironment<T> {
+
+	private final IdentifierIndex index;
+
+	/**
+	 * Builds an empty environment.
+	 *
+	 * @param domain a singleton instance to be used during semantic operations
+	 *                   to retrieve top and bottom values
+	 */
+	public PackedValueEnvironment(T domain) {
+		super(domain);
+		this.index = new IdentifierIndex();
+	}
+
+	private PackedValueEnvironment(T domain, Map<Identifier, T> function, T stack, IdentifierIndex index) {
+		super(domain, function, stack);
+		this.index = index;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<Identifier, T> mkNewFunction(Map<Identifier, T> other, boolean preserveNull) {
+		if (other == null)
+			return preserveNull ? null : new PackedValueMap<>(index, lattice);
+		if (other instanceof PackedValueMap && ((PackedValueMap<T>) other).isIndexedBy(index))
+			return new PackedValueMap<>((PackedValueMap<T>) other);
+		PackedValueMap<T> result = new PackedValueMap<>(index, lattice);
+		result.putAll(other);
+		return result;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public ValueEnvironment<T> mk(T lattice, Map<Identifier, T> function, T stack) {
+		Map<Identifier, T> func = function;
+		if (func != null && !(func instanceof PackedValueMap && ((PackedValueMap<T>) func).isIndexedBy(index)))
+			func = mkNewFunction(func, false);
+		return new PackedValueEnvironment<>(lattice, func, stack, index);
+	}
+
+	@SuppressWarnings("unchecked")
+	private PackedValueMap<T> packedFunction() {
+		return (PackedValueMap<T>) function;
+	}
+
+	@SuppressWarnings("unchecked")
+	private PackedValueMap<T> packed(ValueEnvironment<T> other) {
+		// only non-empty functions of environments sharing the index can be
+		// combined word by word
+		if (!(other instanceof PackedValueEnvironment) || ((PackedValueEnvironment<T>) other).index != index)
+			return null;
+		if (!(function instanceof PackedValueMap) || !(other.function instanceof PackedValueMap))
+			return null;
+		PackedValueMap<T> theirs = (PackedValueMap<T>) other.function;
+		return packedFunction().isCompatible(theirs) ? theirs : null;
+	}
+
+	@Override
+	public ValueEnvironment<T> lubAux(ValueEnvironment<T> other) throws SemanticException {
+		PackedValueMap<T> theirs = packed(other);
+		if (theirs == null || packedFunction().hasHomonyms(theirs))
+			return super.lubAux(other);
+		return mk(lattice.lub(other.lattice), packedFunction().lub(theirs),
+				getValueOnStack().lub(other.getValueOnStack()));
+	}
+
+	@Override
+	public ValueEnvironment<T> wideningAux(ValueEnvironment<T> other) throws SemanticException {
+		PackedValueMap<T> theirs = packed(other);
+		if (theirs == null || packedFunction().hasHomonyms(theirs))
+			return super.wideningAux(other);
+		// widening coincides with the lub on packable domains
+		return mk(lattice.lub(other.lattice), packedFunction().lub(theirs),
+				getValueOnStack().widening(other.getValueOnStack()));
+	}
+
+	@Override
+	public ValueEnvironment<T> glbAux(ValueEnvironment<T> other) throws SemanticException {
+		PackedValueMap<T> theirs = packed(other);
+		if (theirs == null)
+			return super.glbAux(other);
+		return mk(lattice.lub(other.lattice), packedFunction().glb(theirs),
+				getValueOnStack().glb(other.getValueOnStack()));
+	}
+
+	@Override
+	public boolean lessOrEqualAux(ValueEnvironment<T> other) throws SemanticException {
+		PackedValueMap<T> theirs = packed(other);
+		if (theirs == null)
+			return super.lessOrEqualAux(other);
+		return packedFunction().lessOrEqual(theirs);
+	}
+}
@@ -0,0 +1,487 @@
+package it.unive.lisa.analysis.nonrelational.value;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map from {@link Identifier}s to elements of a {@link PackableValueDomain},
+ * where identifiers are numbered through an {@link IdentifierIndex} and the
+ * encodings of their values are packed inside {@code long}s. Since the index is
+ * shared by all the environments of an analysis, numbers are not dense within a
+ * single map: entries are thus stored in pages of {@value #PAGE} consecutive
+ * numbers, and only the pages holding at least one key are allocated. Maps
+ * sharing the same index can be joined, met and compared word by word, merging
+ * their sorted pages.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the type of values of this map
+ */
+final class PackedValueMap<T extends PackableValueDomain<T>> extends AbstractMap<Identifier, T> {
+
+	/**
+	 * The number of identifiers stored in each page
+	 */
+	private static final int PAGE = Long.SIZE;
+
+	private final IdentifierIndex index;
+
+	private final T domain;
+
+	private final int width;
+
+	private final int perWord;
+
+	private final long mask;
+
+	/**
+	 * The numbers of the allocated pages, sorted in ascending order. Only the
+	 * first {@link #pageCount} elements are meaningful.
+	 */
+	private int[] pageIds;
+
+	/**
+	 * The allocated pages, in the same order of {@link #pageIds}
+	 */
+	private Page[] pages;
+
+	private int pageCount;
+
+	private int size;
+
+	/**
+	 * A page of the map, holding the identifiers whose numbers range from
+	 * {@code n * PAGE} to {@code (n + 1) * PAGE - 1}, where {@code n} is the
+	 * number of the page.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private static final class Page {
+
+		/**
+		 * The bits representing the keys of the map in this page
+		 */
+		private long present;
+
+		/**
+		 * The encodings of the values, {@link PackedValueMap#perWord} in each
+		 * {@code long}
+		 */
+		private final long[] values;
+
+		/**
+		 * The keys of the map in this page, stored at their offset
+		 */
+		private final Identifier[] keys;
+
+		private Page(int words) {
+			this.values = new long[words];
+			this.keys = new Identifier[PAGE];
+		}
+
+		private Page(Page other) {
+			this.present = other.present;
+			this.values = other.values.clone();
+			this.keys = other.keys.clone();
+		}
+	}
+
+	/**
+	 * Builds an empty map.
+	 *
+	 * @param index  the index numbering the identifiers
+	 * @param domain an instance of the domain, used to decode values
+	 */
+	PackedValueMap(IdentifierIndex index, T domain) {
+		this.index = index;
+		this.domain = domain;
+		this.width = domain.bitWidth();
+		this.perWord = Long.SIZE / width;
+		this.mask = (1L << width) - 1;
+		this.pageIds = new int[0];
+		this.pages = new Page[0];
+		this.pageCount = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Builds a copy of the given map.
+	 *
+	 * @param other the map to copy
+	 */
+	PackedValueMap(PackedValueMap<T> other) {
+		this.index = other.index;
+		this.domain = other.domain;
+		this.width = other.width;
+		this.perWord = other.perWord;
+		this.mask = other.mask;
+		this.pageIds = Arrays.copyOf(other.pageIds, other.pageCount);
+		this.pages = new Page[other.pageCount];
+		for (int i = 0; i < other.pageCount; i++)
+			this.pages[i] = new Page(other.pages[i]);
+		this.pageCount = other.pageCount;
+		this.size = other.size;
+	}
+
+	/**
+	 * Yields whether or not this map and the given one number their keys
+	 * through the same index, and can thus be combined word by word.
+	 *
+	 * @param other the other map
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	boolean isCompatible(PackedValueMap<?> other) {
+		return index == other.index && width == other.width;
+	}
+
+	/**
+	 * Yields whether or not this map numbers its keys through the given index.
+	 *
+	 * @param index the index
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	boolean isIndexedBy(IdentifierIndex index) {
+		return this.index == index;
+	}
+
+	/**
+	 * Yields the number of identifiers that can be stored in this map without
+	 * allocating new pages.
+	 *
+	 * @return the capacity of this map
+	 */
+	int capacity() {
+		return pageCount * PAGE;
+	}
+
+	private int words() {
+		return (PAGE + perWord - 1) / perWord;
+	}
+
+	private Page pageOf(int pos) {
+		if (pos < 0)
+			return null;
+		int i = Arrays.binarySearch(pageIds, 0, pageCount, pos / PAGE);
+		return i < 0 ? null : pages[i];
+	}
+
+	private Page pageForUpdate(int pos) {
+		int i = Arrays.binarySearch(pageIds, 0, pageCount, pos / PAGE);
+		if (i >= 0)
+			return pages[i];
+
+		i = -i - 1;
+		if (pageCount == pages.length) {
+			int capacity = Math.max(1, pages.length * 2);
+			pageIds = Arrays.copyOf(pageIds, capacity);
+			pages = Arrays.copyOf(pages, capacity);
+		}
+		System.arraycopy(pageIds, i, pageIds, i + 1, pageCount - i);
+		System.arraycopy(pages, i, pages, i + 1, pageCount - i);
+		pageIds[i] = pos / PAGE;
+		pages[i] = new Page(words());
+		pageCount++;
+		return pages[i];
+	}
+
+	private void append(int id, Page page) {
+		if (pageCount == pages.length) {
+			int capacity = Math.max(1, pages.length * 2);
+			pageIds = Arrays.copyOf(pageIds, capacity);
+			pages = Arrays.copyOf(pages, capacity);
+		}
+		pageIds[pageCount] = id;
+		pages[pageCount++] = page;
+		size += Long.bitCount(page.present);
+	}
+
+	private static boolean isPresent(Page page, int offset) {
+		return page != null && (page.present & (1L << offset)) != 0;
+	}
+
+	private long code(Page page, int offset) {
+		return (page.values[offset / perWord] >>> ((offset % perWord) * width)) & mask;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (!(key instanceof Identifier))
+			return false;
+		int pos = index.indexOf((Identifier) key);
+		return isPresent(pageOf(pos), pos % PAGE);
+	}
+
+	@Override
+	public T get(Object key) {
+		if (!(key instanceof Identifier))
+			return null;
+		int pos = index.indexOf((Identifier) key);
+		Page page = pageOf(pos);
+		return isPresent(page, pos % PAGE) ? domain.unpack(code(page, pos % PAGE)) : null;
+	}
+
+	@Override
+	public T put(Identifier key, T value) {
+		int pos = index.indexOfOrAdd(key);
+		Page page = pageForUpdate(pos);
+		int offset = pos % PAGE;
+		T previous = null;
+		if (isPresent(page, offset))
+			previous = domain.unpack(code(page, offset));
+		else {
+			page.present |= 1L << offset;
+			size++;
+		}
+		page.keys[offset] = key;
+		int word = offset / perWord, shift = (offset % perWord) * width;
+		page.values[word] = (page.values[word] & ~(mask << shift)) | ((value.pack() & mask) << shift);
+		return previous;
+	}
+
+	@Override
+	public T remove(Object key) {
+		if (!(key instanceof Identifier))
+			return null;
+		int pos = index.indexOf((Identifier) key);
+		Page page = pageOf(pos);
+		if (!isPresent(page, pos % PAGE))
+			return null;
+		T previous = domain.unpack(code(page, pos % PAGE));
+		removeAt(pos);
+		return previous;
+	}
+
+	private void removeAt(int pos) {
+		int i = Arrays.binarySearch(pageIds, 0, pageCount, pos / PAGE);
+		Page page = pages[i];
+		int offset = pos % PAGE;
+		page.present &= ~(1L << offset);
+		page.keys[offset] = null;
+		page.values[offset / perWord] &= ~(mask << ((offset % perWord) * width));
+		size--;
+		if (page.present == 0) {
+			// empty pages are released
+			System.arraycopy(pageIds, i + 1, pageIds, i, pageCount - i - 1);
+			System.arraycopy(pages, i + 1, pages, i, pageCount - i - 1);
+			pages[--pageCount] = null;
+		}
+	}
+
+	@Override
+	public void clear() {
+		pageIds = new int[0];
+		pages = new Page[0];
+		pageCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * Yields whether or not the union of the keys of this map and of the given
+	 * one contains identifiers sharing their name.
+	 *
+	 * @param other the other map
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	boolean hasHomonyms(PackedValueMap<T> other) {
+		long[] ambiguous = index.ambiguous();
+		return hasHomonyms(ambiguous) || other.hasHomonyms(ambiguous);
+	}
+
+	private boolean hasHomonyms(long[] ambiguous) {
+		// pages have the same size of the words of ambiguous
+		for (int i = 0; i < pageCount && pageIds[i] < ambiguous.length; i++)
+			if ((ambiguous[pageIds[i]] & pages[i].present) != 0)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Yields the least upper bound of this map and the given one, that must be
+	 * compatible and must not have homonym keys. Keys of this map are preferred
+	 * to equal ones of {@code other}.
+	 *
+	 * @param other the other map
+	 *
+	 * @return the least upper bound
+	 */
+	PackedValueMap<T> lub(PackedValueMap<T> other) {
+		PackedValueMap<T> result = new PackedValueMap<>(index, domain);
+		int i = 0, j = 0;
+		while (i < pageCount || j < other.pageCount) {
+			int mine = i < pageCount ? pageIds[i] : Integer.MAX_VALUE;
+			int theirs = j < other.pageCount ? other.pageIds[j] : Integer.MAX_VALUE;
+			Page left = mine <= theirs ? pages[i++] : null;
+			Page right = theirs <= mine ? other.pages[j++] : null;
+			Page page = new Page(words());
+			page.present = present(left) | present(right);
+			for (int w = 0; w < page.values.length; w++)
+				page.values[w] = domain.closeLub(word(left, w) | word(right, w));
+			for (int k = 0; k < PAGE; k++)
+				page.keys[k] = left != null && left.keys[k] != null ? left.keys[k]
+						: right != null ? right.keys[k] : null;
+			result.append(Math.min(mine, theirs), page);
+		}
+		return result;
+	}
+
+	/**
+	 * Yields the greatest lower bound of this map and the given one, that must
+	 * be compatible.
+	 *
+	 * @param other the other map
+	 *
+	 * @return the greatest lower bound
+	 */
+	PackedValueMap<T> glb(PackedValueMap<T> other) {
+		PackedValueMap<T> result = new PackedValueMap<>(index, domain);
+		int i = 0, j = 0;
+		while (i < pageCount && j < other.pageCount)
+			if (pageIds[i] < other.pageIds[j])
+				i++;
+			else if (pageIds[i] > other.pageIds[j])
+				j++;
+			else {
+				Page left = pages[i], right = other.pages[j];
+				Page page = new Page(words());
+				page.present = left.present & right.present;
+				if (page.present != 0) {
+					for (int w = 0; w < page.values.length; w++)
+						page.values[w] = left.values[w] & right.values[w];
+					for (int k = 0; k < PAGE; k++)
+						if (isPresent(page, k))
+							page.keys[k] = left.keys[k];
+					result.append(pageIds[i], page);
+				}
+				i++;
+				j++;
+			}
+		return result;
+	}
+
+	/**
+	 * Yields whether or not each value of this map is less or equal than the
+	 * one of the same key in the given map, that must be compatible. Missing
+	 * values are considered to be bottom.
+	 *
+	 * @param other the other map
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	boolean lessOrEqual(PackedValueMap<T> other) {
+		int j = 0;
+		for (int i = 0; i < pageCount; i++) {
+			while (j < other.pageCount && other.pageIds[j] < pageIds[i])
+				j++;
+			Page theirs = j < other.pageCount && other.pageIds[j] == pageIds[i] ? other.pages[j] : null;
+			for (int w = 0; w < pages[i].values.length; w++)
+				if ((pages[i].values[w] & ~word(theirs, w)) != 0)
+					return false;
+		}
+		return true;
+	}
+
+	private static long present(Page page) {
+		return page == null ? 0 : page.present;
+	}
+
+	private static long word(Page page, int i) {
+		return page == null ? 0 : page.values[i];
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (o instanceof PackedValueMap && isCompatible((PackedValueMap<?>) o)) {
+			PackedValueMap<?> other = (PackedValueMap<?>) o;
+			// empty pages are released, so equal maps have the same pages
+			if (size != other.size || pageCount != other.pageCount)
+				return false;
+			for (int i = 0; i < pageCount; i++)
+				if (pageIds[i] != other.pageIds[i] || pages[i].present != other.pages[i].present
+						|| !Arrays.equals(pages[i].values, other.pages[i].values))
+					return false;
+			return true;
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	@Override
+	public Set<Map.Entry<Identifier, T>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public Iterator<Map.Entry<Identifier, T>> iterator() {
+				return new EntryIterator();
+			}
+		};
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<Identifier, T>> {
+
+		private int next = advance(0);
+
+		private int last = -1;
+
+		private int advance(int from) {
+			// pages are searched by number, since removals can release them
+			int i = Arrays.binarySearch(pageIds, 0, pageCount, from / PAGE);
+			if (i < 0)
+				i = -i - 1;
+			for (; i < pageCount; i++) {
+				int first = pageIds[i] == from / PAGE ? from % PAGE : 0;
+				long bits = pages[i].present & (-1L << first);
+				if (bits != 0)
+					return pageIds[i] * PAGE + Long.numberOfTrailingZeros(bits);
+			}
+			return -1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != -1;
+		}
+
+		@Override
+		public Map.Entry<Identifier, T> next() {
+			if (next == -1)
+				throw new NoSuchElementException();
+			last = next;
+			next = advance(next + 1);
+			Page page = pageOf(last);
+			return new SimpleImmutableEntry<>(page.keys[last % PAGE], domain.unpack(code(page, last % PAGE)));
+		}
+
+		@Override
+		public void remove() {
+			if (last == -1)
+				throw new IllegalStateException();
+			removeAt(last);
+			last = -1;
+		}
+	}
+}
@@ -98,28 +98,28 @@ public class TypeEnvironment<T extends NonRelationalTypeDomain<T>>
 	@Override
 	public TypeEnvironment<T> lubAux(TypeEnvironment<T> other)
 			throws SemanticException {
-		TypeEnvironment<T> newEnv = functionalLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
+		TypeEnvironment<T> newEnv = idempotentLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
 		return new TypeEnvironment<>(newEnv.lattice, newEnv.function, stack.lub(other.stack));
 	}
 
 	@Override
 	public TypeEnvironment<T> wideningAux(TypeEnvironment<T> other) throws SemanticException {
 		TypeEnvironment<
-				T> newEnv = functionalLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
+				T> newEnv = idempotentLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
 		return new TypeEnvironment<>(newEnv.lattice, newEnv.function, stack.widening(other.stack));
 	}
 
 	@Override
 	public TypeEnvironment<T> glbAux(TypeEnvironment<T> other)
 			throws SemanticException {
-		TypeEnvironment<T> newEnv = functionalLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
+		TypeEnvironment<T> newEnv = idempotentLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
 		return new TypeEnvironment<>(newEnv.lattice, newEnv.function, stack.glb(other.stack));
 	}
 
 	@Override
 	public TypeEnvironment<T> narrowingAux(TypeEnvironment<T> other) throws SemanticException {
 		TypeEnvironment<
-				T> newEnv = functionalLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
+				T> newEnv = idempotentLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
 		return new TypeEnvironment<>(newEnv.lattice, newEnv.function, stack.narrowing(other.stack));
 	}
 
@@ -76,6 +76,23 @@ public class ValueEnvironment<T extends NonRelationalValueDomain<T>>
 
 	@Override
 	public ValueEnvironment<T> mk(T lattice, Map<Identifier, T> function) {
+		return mk(lattice, function, stack);
+	}
+
+	/**
+	 * Builds an instance of this class from the given lattice instance, the
+	 * given mapping and the given value for the last computed expression.
+	 * 
+	 * @param lattice  an instance of lattice to be used during semantic
+	 *                     operations to retrieve top and bottom values
+	 * @param function the function representing the mapping contained in the
+	 *                     new environment; can be {@code null}
+	 * @param stack    the abstract value for the last computed expression, that
+	 *                     is left on the top of the stack
+	 * 
+	 * @return a new instance of this class
+	 */
+	public ValueEnvironment<T> mk(T lattice, Map<Identifier, T> function, T stack) {
 		return new ValueEnvironment<>(lattice, function, stack);
 	}
 
@@ -88,7 +105,7 @@ public class ValueEnvironment<T extends NonRelationalValueDomain<T>>
 	@Override
 	public ValueEnvironment<T> assignAux(Identifier id, ValueExpression expression, Map<Identifier, T> function,
 			T value, T eval, ProgramPoint pp) {
-		return new ValueEnvironment<>(lattice, function, value);
+		return mk(lattice, function, value);
 	}
 
 	@Override
@@ -96,7 +113,7 @@ public class ValueEnvironment<T extends NonRelationalValueDomain<T>>
 			throws SemanticException {
 		if (isBottom())
 			return this;
-		return new ValueEnvironment<>(lattice, function, lattice.eval(expression, this, pp));
+		return mk(lattice, function, lattice.eval(expression, this, pp));
 	}
 
 	@Override
@@ -107,39 +124,39 @@ public class ValueEnvironment<T extends NonRelationalValueDomain<T>>
 	@Override
 	public ValueEnvironment<T> lubAux(ValueEnvironment<T> other)
 			throws SemanticException {
-		ValueEnvironment<T> newEnv = functionalLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
-		return new ValueEnvironment<>(newEnv.lattice, newEnv.function, stack.lub(other.stack));
+		ValueEnvironment<T> newEnv = idempotentLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
+		return mk(newEnv.lattice, newEnv.function, stack.lub(other.stack));
 	}
 
 	@Override
 	public ValueEnvironment<T> wideningAux(ValueEnvironment<T> other) throws SemanticException {
 		ValueEnvironment<
-				T> newEnv = functionalLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
-		return new ValueEnvironment<>(newEnv.lattice, newEnv.function, stack.widening(other.stack));
+				T> newEnv = idempotentLift(other, this::lubKeys, (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
+		return mk(newEnv.lattice, newEnv.function, stack.widening(other.stack));
 	}
 
 	@Override
 	public ValueEnvironment<T> glbAux(ValueEnvironment<T> other)
 			throws SemanticException {
-		ValueEnvironment<T> newEnv = functionalLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
-		return new ValueEnvironment<>(newEnv.lattice, newEnv.function, stack.glb(other.stack));
+		ValueEnvironment<T> newEnv = idempotentLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
+		return mk(newEnv.lattice, newEnv.function, stack.glb(other.stack));
 	}
 
 	@Override
 	public ValueEnvironment<T> narrowingAux(ValueEnvironment<T> other) throws SemanticException {
 		ValueEnvironment<
-				T> newEnv = functionalLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
-		return new ValueEnvironment<>(newEnv.lattice, newEnv.function, stack.narrowing(other.stack));
+				T> newEnv = idempotentLift(other, this::glbKeys, (o1, o2) -> o1 == null ? o2 : o1.narrowing(o2));
+		return mk(newEnv.lattice, newEnv.function, stack.narrowing(other.stack));
 	}
 
 	@Override
 	public ValueEnvironment<T> top() {
-		return isTop() ? this : new ValueEnvironment<>(lattice.top(), null, lattice.top());
+		return isTop() ? this : mk(lattice.top(), null, lattice.top());
 	}
 
 	@Override
 	public ValueEnvironment<T> bottom() {
-		return isBottom() ? this : new ValueEnvironment<>(lattice.bottom(), null, lattice.bottom());
+		return isBottom() ? this : mk(lattice.bottom(), null, lattice.bottom());
 	}
 
 	@Override
@@ -1,10 +1,9 @@
 package it.unive.lisa.interprocedural;
 
-import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.FixpointConfiguration;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
-import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
@@ -68,30 +67,19 @@ public interface InterproceduralAnalysis<A extends AbstractState<A, H, V, T>,
 	 * or one of its overloads. Results of individual cfgs are then available
 	 * through {@link #getAnalysisResultsOf(CFG)}.
 	 * 
-	 * @param entryState             the entry state for the {@link CFG}s that
-	 *                                   are the entrypoints of the computation
-	 * @param fixpointWorkingSet     the concrete class of {@link WorkingSet} to
-	 *                                   be used in fixpoints.
-	 * @param wideningThreshold      the number of fixpoint iteration on a given
-	 *                                   node after which calls to
-	 *                                   {@link Lattice#lub(Lattice)} gets
-	 *                                   replaced with
-	 *                                   {@link Lattice#widening(Lattice)}.
-	 * @param descendingPhase        the type of descending phase algorithm that
-	 *                                   will be used during fixpoint
-	 *                                   calculation
-	 * @param descendingGlbThreshold the number of fixpoint iteration on a given
-	 *                                   node during descending phase after
-	 *                                   which calls to
-	 *                                   {@link Lattice#glb(Lattice)} does not
-	 *                                   do anything
+	 * @param entryState         the entry state for the {@link CFG}s that are
+	 *                               the entrypoints of the computation
+	 * @param fixpointWorkingSet the concrete class of {@link WorkingSet} to be
+	 *                               used in fixpoints.
+	 * @param conf               the {@link FixpointConfiguration} containing
+	 *                               the parameters tuning fixpoint behavior
 	 * 
 	 * @throws FixpointException if something goes wrong while evaluating the
 	 *                               fixpoint
 	 */
 	void fixpoint(AnalysisState<A, H, V, T> entryState,
 			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
-			int wideningThreshold, DescendingPhaseType descendingPhase, int descendingGlbThreshold)
+			FixpointConfiguration conf)
 			throws FixpointException;
 
 	/**
@@ -5,6 +5,8 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * A counter that logs to a given logger while progressing during the count.
+ * Instances of this class are thread-safe, and can thus be shared among
+ * different threads that contribute to the same count.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -86,7 +88,7 @@ public final class Counter {
 	 * 
 	 * @return the current count
 	 */
-	public int getCurrentCount() {
+	public synchronized int getCurrentCount() {
 		return count;
 	}
 
@@ -95,7 +97,7 @@ public final class Counter {
 	 * 
 	 * @throws IllegalStateException if the counter is already logging
 	 */
-	public void on() {
+	public synchronized void on() {
 		if (logging)
 			throw new IllegalStateException("This counter is already logging");
 		logging = true;
@@ -108,7 +110,7 @@ public final class Counter {
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
-	public boolean isLogging() {
+	public synchronized boolean isLogging() {
 		return logging;
 	}
 
@@ -124,7 +126,7 @@ public final class Counter {
 	/**
 	 * Turns off the counter, logging the event.
 	 */
-	public void off() {
+	public synchronized void off() {
 		if (!logging)
 			return;
 
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.TreeSet;
 import java.util.function.Predicate;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -266,16 +267,18 @@ public class JsonReportComparer {
 				reporter, (key, fvalue, svalue) -> reporter.configurationDiff(key, fvalue, svalue), key -> false);
 	}
 
-	private static final Set<String> INFO_BLACKLIST = Set.of("duration", "start", "end", "version");
+	private static final Set<String> INFO_BLACKLIST = Set.of("duration", "start", "end", "version", "cacheHits",
+			"cacheMisses");
 
 	private static boolean compareInfos(JsonReport first, JsonReport second,
 			DiffReporter reporter) {
 		return compareBags(REPORTED_COMPONENT.INFO, first.getInfo(), second.getInfo(), reporter,
 				(key, fvalue, svalue) -> reporter.infoDiff(key, fvalue, svalue),
 				// we are really only interested in code metrics here,
-				// information like timestamps and version are not useful for
-				// the test system - we still use a blacklist approach to ensure
-				// that new fields are tested by default
+				// information like timestamps, version and cache statistics
+				// are not useful for the test system, and they can be omitted
+				// from expected reports - we still use a blacklist approach to
+				// ensure that new fields are tested by default
 				key -> INFO_BLACKLIST.contains(key));
 	}
 
@@ -286,10 +289,19 @@ public class JsonReportComparer {
 				String> builder = new CollectionsDiffBuilder<>(String.class, first.keySet(), second.keySet());
 		builder.compute(String::compareTo);
 
-		if (!builder.getOnlyFirst().isEmpty())
-			reporter.report(component, REPORT_TYPE.ONLY_FIRST, builder.getOnlyFirst());
-		if (!builder.getOnlySecond().isEmpty())
-			reporter.report(component, REPORT_TYPE.ONLY_SECOND, builder.getOnlySecond());
+		// ignored keys are allowed to be missing from one of the bags
+		Collection<String> onlyFirst = new TreeSet<>(), onlySecond = new TreeSet<>();
+		for (String key : builder.getOnlyFirst())
+			if (!ignore.test(key))
+				onlyFirst.add(key);
+		for (String key : builder.getOnlySecond())
+			if (!ignore.test(key))
+				onlySecond.add(key);
+
+		if (!onlyFirst.isEmpty())
+			reporter.report(component, REPORT_TYPE.ONLY_FIRST, onlyFirst);
+		if (!onlySecond.isEmpty())
+			reporter.report(component, REPORT_TYPE.ONLY_SECOND, onlySecond);
 
 		Collection<Pair<String, String>> same = new HashSet<>();
 		if (!builder.getCommons().isEmpty()) {
@@ -307,7 +319,7 @@ public class JsonReportComparer {
 		if (!same.isEmpty())
 			reporter.report(component, REPORT_TYPE.COMMON, same);
 
-		return builder.sameContent() && same.size() == builder.getCommons().size();
+		return onlyFirst.isEmpty() && onlySecond.isEmpty() && same.size() == builder.getCommons().size();
 	}
 
 	private static boolean compareWarnings(JsonReport first, JsonReport second,
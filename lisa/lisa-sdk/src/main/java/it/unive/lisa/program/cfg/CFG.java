@@ -1,9 +1,12 @@
 package it.unive.lisa.program.cfg;
 
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.FixpointConfiguration;
 import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.CFGWithAnalysisResults.LazyResults;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
@@ -15,6 +18,9 @@ import it.unive.lisa.outputs.serializableGraph.SerializableCFG;
 import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
 import it.unive.lisa.outputs.serializableGraph.SerializableValue;
 import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.blocks.BasicBlock;
+import it.unive.lisa.program.cfg.blocks.BasicBlockEdge;
+import it.unive.lisa.program.cfg.blocks.BasicBlockGraph;
 import it.unive.lisa.program.cfg.controlFlow.ControlFlowExtractor;
 import it.unive.lisa.program.cfg.controlFlow.ControlFlowStructure;
 import it.unive.lisa.program.cfg.controlFlow.IfThenElse;
@@ -29,11 +35,15 @@ import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint.FixpointImplementation;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Element;
 import it.unive.lisa.util.datastructures.graph.code.CodeGraph;
 import it.unive.lisa.util.datastructures.graph.code.NodeList;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -198,6 +208,78 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		return descriptor.toString();
 	}
 
+	/**
+	 * Yields a hash of the structure of this cfg, that is, of its
+	 * {@link CodeMemberDescriptor#getStructuralHash() descriptor}, of its
+	 * entrypoints, of each {@link Statement} (including the ones nested inside
+	 * other statements) and of each {@link Edge}, each described through the
+	 * {@link #getStructuralKeys() structural keys} of the statements involved.
+	 * Two cfgs coming from different parsings of the same code have the same
+	 * structural hash, even if the code has been moved to different lines,
+	 * while any change in the code of the cfg is reflected by a different
+	 * hash. Note that the hash does not consider the code of other
+	 * {@link CodeMember}s, even if they are targeted by calls in this cfg.
+	 * 
+	 * @return the structural hash, as an hexadecimal string
+	 */
+	public String getStructuralHash() {
+		Map<Statement, String> keys = getStructuralKeys();
+		List<String> edges = new LinkedList<>();
+		for (Edge edge : getEdges())
+			edges.add(edge.getClass().getName() + " [ " + keys.get(edge.getSource()) + " ] ---> [ "
+					+ keys.get(edge.getDestination()) + " ]");
+
+		// nodes, edges and entrypoints are not guaranteed to be iterated in
+		// the same order across different parsings
+		List<String> nodes = new ArrayList<>(keys.values());
+		Collections.sort(nodes);
+		Collections.sort(edges);
+		List<String> entries = entrypoints.stream().map(keys::get).sorted().collect(Collectors.toList());
+
+		StringBuilder structure = new StringBuilder(descriptor.getStructuralHash()).append("\n");
+		structure.append("entrypoints: ").append(entries).append("\n");
+		nodes.forEach(n -> structure.append(n).append("\n"));
+		edges.forEach(e -> structure.append(e).append("\n"));
+		return CodeMemberDescriptor.digest(structure.toString());
+	}
+
+	/**
+	 * Yields the structural key of each {@link Statement} of this cfg,
+	 * including the ones nested inside other statements. The key of a
+	 * statement is made of its kind, its textual representation and its
+	 * {@link CodeMemberDescriptor#getRelativePosition(CodeLocation) position
+	 * relative} to the descriptor of this cfg, and does not depend on the
+	 * absolute location of the statement. Keys can be used to match the
+	 * statements of two cfgs with the same {@link #getStructuralHash()
+	 * structural hash}, whose absolute locations are instead stored in the
+	 * statements themselves.
+	 * 
+	 * @return a map from each statement to its structural key
+	 */
+	public Map<Statement, String> getStructuralKeys() {
+		Map<Statement, String> keys = new HashMap<>();
+		accept(new GraphVisitor<CFG, Statement, Edge, Void>() {
+
+			@Override
+			public boolean visit(Void tool, CFG graph) {
+				return true;
+			}
+
+			@Override
+			public boolean visit(Void tool, CFG graph, Statement node) {
+				keys.put(node, node.getClass().getName() + " " + node + " [at "
+						+ descriptor.getRelativePosition(node.getLocation()) + "]");
+				return true;
+			}
+
+			@Override
+			public boolean visit(Void tool, CFG graph, Edge edge) {
+				return true;
+			}
+		}, null);
+		return keys;
+	}
+
 	/**
 	 * Simplifies this cfg, removing all {@link NoOp}s and rewriting the edge
 	 * set accordingly. This method will throw an
@@ -214,6 +296,171 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		cfStructs.forEach(ControlFlowStructure::simplify);
 	}
 
+	/**
+	 * Computes a fixpoint over this control flow graph, tuned by the given
+	 * {@link FixpointConfiguration}. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The computation starts
+	 * at the statements returned by {@link #getEntrypoints()}, using
+	 * {@code entryState} as entry state for all of them.
+	 * {@code interprocedural} will be invoked to get the approximation of all
+	 * invoked cfgs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <T>             the type of {@link TypeDomain} contained into the
+	 *                            computed abstract state
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} returned by
+	 *                            {@link #getEntrypoints()}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param ws              the {@link WorkingSet} instance to use for this
+	 *                            computation, if
+	 *                            {@link FixpointConfiguration#useWeakTopologicalOrder}
+	 *                            is not set
+	 * @param conf            the {@link FixpointConfiguration} tuning the
+	 *                            fixpoint
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 * 
+	 * @see #fixpoint(AnalysisState, Map, InterproceduralAnalysis, WorkingSet,
+	 *          FixpointConfiguration)
+	 */
+	public <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> fixpoint(
+					AnalysisState<A, H, V, T> entryState,
+					InterproceduralAnalysis<A, H, V, T> interprocedural,
+					WorkingSet<Statement> ws,
+					FixpointConfiguration conf) throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V, T>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(entryState, start, interprocedural, ws, conf);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, tuned by the given
+	 * {@link FixpointConfiguration}. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The computation starts
+	 * at the statements in {@code startingPoints}, using as its entry state
+	 * their respective value. {@code interprocedural} will be invoked to get
+	 * the approximation of all invoked cfgs.<br>
+	 * <br>
+	 * If {@link FixpointConfiguration#useWeakTopologicalOrder} is not set, this
+	 * is equivalent to
+	 * {@link #fixpoint(AnalysisState, Map, InterproceduralAnalysis, WorkingSet, int, DescendingPhaseType, int)}.
+	 * Otherwise, {@code ws} is ignored and statements are processed following a
+	 * {@link WeakTopologicalOrder} of this cfg: loops are iterated, innermost
+	 * first, until the state of their heads stabilizes, and
+	 * {@link Lattice#widening(Lattice)} (or the descending phase operator) is
+	 * applied only on such heads. This usually requires fewer evaluations of
+	 * each statement than a working set-based iteration, and avoids the
+	 * precision loss caused by widening statements that are not part of a
+	 * cycle.<br>
+	 * <br>
+	 * If {@link FixpointConfiguration#useBasicBlocks} is set, the iteration
+	 * (following either {@code ws} or the weak topological order) happens on
+	 * the {@link BasicBlockGraph} of this cfg instead: each block is evaluated
+	 * as a whole, and lattice operations are applied only on the last
+	 * statement of each block. Only the results of such statements are stored
+	 * when the fixpoint terminates, while the ones of the other statements are
+	 * recomputed from the entry state of their block when first queried
+	 * through the returned {@link CFGWithAnalysisResults}.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <T>             the type of {@link TypeDomain} contained into the
+	 *                            computed abstract state
+	 * @param singleton       an instance of the {@link AnalysisState}
+	 *                            containing the abstract state of the analysis
+	 *                            to run, used to retrieve top and bottom values
+	 * @param startingPoints  a map between {@link Statement}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this cfg) and the entry states to
+	 *                            apply on it
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param ws              the {@link WorkingSet} instance to use for this
+	 *                            computation, if
+	 *                            {@link FixpointConfiguration#useWeakTopologicalOrder}
+	 *                            is not set
+	 * @param conf            the {@link FixpointConfiguration} tuning the
+	 *                            fixpoint
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	public <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> fixpoint(
+					AnalysisState<A, H, V, T> singleton,
+					Map<Statement, AnalysisState<A, H, V, T>> startingPoints,
+					InterproceduralAnalysis<A, H, V, T> interprocedural,
+					WorkingSet<Statement> ws,
+					FixpointConfiguration conf) throws FixpointException {
+		if (conf.useBasicBlocks)
+			return blocksFixpoint(singleton, startingPoints, interprocedural, ws, conf);
+
+		if (!conf.useWeakTopologicalOrder)
+			return fixpoint(singleton, startingPoints, interprocedural, ws, conf.wideningThreshold,
+					conf.descendingPhaseType, conf.descendingGlbThreshold);
+
+		// we visit the starting points following the order of the nodes
+		List<Statement> roots = getNodes().stream().filter(startingPoints::containsKey).collect(Collectors.toList());
+		List<Element<Statement>> order = new WeakTopologicalOrder<CFG, Statement, Edge>().build(this, roots);
+
+		Fixpoint<CFG, Statement, Edge,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> fix = new Fixpoint<>(this);
+		Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> starting = new HashMap<>();
+		startingPoints.forEach((st, state) -> starting.put(st, Pair.of(state, new StatementStore<>(state.bottom()))));
+		Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> ascendingResult = fix.fixpoint(
+				starting,
+				order,
+				new CFGFixpoint<>(conf.wideningThreshold, interprocedural, DescendingPhaseType.NONE));
+
+		Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> fixpoint;
+
+		if (conf.descendingPhaseType != DescendingPhaseType.NONE) {
+			starting.clear();
+			startingPoints.forEach((st, state) -> starting.put(st, ascendingResult.get(st)));
+
+			fixpoint = fix.fixpoint(starting,
+					order,
+					new CFGFixpoint<>(conf.descendingGlbThreshold, interprocedural, conf.descendingPhaseType),
+					ascendingResult);
+		} else
+			fixpoint = ascendingResult;
+
+		return toResults(singleton, startingPoints, fixpoint);
+	}
+
 	/**
 	 * Computes a fixpoint over this control flow graph. This method returns a
 	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
@@ -514,6 +761,103 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		} else
 			fixpoint = ascendingResult;
 
+		return toResults(singleton, startingPoints, fixpoint);
+	}
+
+	private <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> blocksFixpoint(
+					AnalysisState<A, H, V, T> singleton,
+					Map<Statement, AnalysisState<A, H, V, T>> startingPoints,
+					InterproceduralAnalysis<A, H, V, T> interprocedural,
+					WorkingSet<Statement> ws,
+					FixpointConfiguration conf) throws FixpointException {
+		BasicBlockGraph blocks = new BasicBlockGraph(this, startingPoints.keySet());
+		Map<BasicBlock, AnalysisState<A, H, V, T>> entries = new HashMap<>();
+
+		Fixpoint<BasicBlockGraph, BasicBlock, BasicBlockEdge,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> fix = new Fixpoint<>(blocks);
+		Map<BasicBlock, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> starting = new HashMap<>();
+		startingPoints.forEach((st, state) -> starting.put(blocks.getBlockOf(st),
+				Pair.of(state, new StatementStore<>(state.bottom()))));
+
+		List<Element<BasicBlock>> order = null;
+		WorkingSet<BasicBlock> blocksWs = null;
+		if (conf.useWeakTopologicalOrder) {
+			// we visit the starting points following the order of the nodes
+			List<BasicBlock> roots = getNodes().stream().filter(startingPoints::containsKey)
+					.map(blocks::getBlockOf).collect(Collectors.toList());
+			order = new WeakTopologicalOrder<BasicBlockGraph, BasicBlock, BasicBlockEdge>().build(blocks, roots);
+		} else
+			blocksWs = workingSetFor(ws);
+
+		CFGFixpoint<A, H, V, T> widening = new CFGFixpoint<>(conf.wideningThreshold, interprocedural,
+				DescendingPhaseType.NONE);
+		BlockFixpoint<A, H, V, T> ascending = new BlockFixpoint<>(widening, entries);
+		Map<BasicBlock, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> ascendingResult = order == null
+				? fix.fixpoint(starting, blocksWs, ascending)
+				: fix.fixpoint(starting, order, ascending);
+
+		Map<BasicBlock, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> fixpoint;
+
+		if (conf.descendingPhaseType != DescendingPhaseType.NONE) {
+			starting.clear();
+			for (Statement st : startingPoints.keySet()) {
+				// as in the statement-based fixpoint, the descending phase
+				// starts from the ascending result of the starting points,
+				// that lead their blocks
+				BasicBlock block = blocks.getBlockOf(st);
+				AnalysisState<A, H, V, T> entry = entries.get(block);
+				try {
+					starting.put(block, entry == null ? ascendingResult.get(block)
+							: widening.evaluate(block, Pair.of(entry, new StatementStore<>(entry.bottom())), 1, null));
+				} catch (SemanticException e) {
+					throw new FixpointException("Error while computing the descending entry state of " + st, e);
+				}
+			}
+
+			BlockFixpoint<A, H, V, T> descending = new BlockFixpoint<>(
+					new CFGFixpoint<>(conf.descendingGlbThreshold, interprocedural, conf.descendingPhaseType),
+					entries);
+			if (order == null) {
+				for (BasicBlock block : blocks.getNodes())
+					blocksWs.push(block);
+				fixpoint = fix.fixpoint(starting, blocksWs, descending, ascendingResult);
+			} else
+				fixpoint = fix.fixpoint(starting, order, descending, ascendingResult);
+		} else
+			fixpoint = ascendingResult;
+
+		HashMap<Statement, AnalysisState<A, H, V, T>> finalResults = new HashMap<>(fixpoint.size());
+		for (Entry<BasicBlock, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> e : fixpoint.entrySet()) {
+			finalResults.put(e.getKey().getLast(), e.getValue().getLeft());
+			for (Entry<Statement, AnalysisState<A, H, V, T>> ee : e.getValue().getRight())
+				finalResults.put(ee.getKey(), ee.getValue());
+		}
+
+		return new CFGWithAnalysisResults<>(this, singleton, startingPoints, finalResults,
+				new BlockResults<>(blocks, entries,
+						new CFGFixpoint<>(conf.wideningThreshold, interprocedural, DescendingPhaseType.NONE)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static WorkingSet<BasicBlock> workingSetFor(WorkingSet<Statement> ws) throws FixpointException {
+		// we use a fresh working set of the same kind of the given one
+		try {
+			return WorkingSet.of((Class<? extends WorkingSet<BasicBlock>>) ws.getClass());
+		} catch (AnalysisSetupException e) {
+			throw new FixpointException("Unable to create a working set for basic blocks", e);
+		}
+	}
+
+	private <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> toResults(
+					AnalysisState<A, H, V, T> singleton,
+					Map<Statement, AnalysisState<A, H, V, T>> startingPoints,
+					Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> fixpoint) {
 		HashMap<Statement, AnalysisState<A, H, V, T>> finalResults = new HashMap<>(fixpoint.size());
 		for (Entry<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> e : fixpoint.entrySet()) {
 			finalResults.put(e.getKey(), e.getValue().getLeft());
@@ -554,6 +898,32 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			return Pair.of(approx, expressions);
 		}
 
+		/**
+		 * Evaluates the first {@code count} statements of the given block,
+		 * starting from the given entry state and traversing the edges
+		 * between them. If {@code results} is not {@code null}, the state
+		 * computed for each evaluated statement, together with the ones of its
+		 * nested expressions, is stored into it.
+		 */
+		private Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> evaluate(BasicBlock block,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> entrystate,
+				int count,
+				StatementStore<A, H, V, T> results) throws SemanticException {
+			Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> current = entrystate;
+			for (int i = 0; i < count; i++) {
+				if (i > 0)
+					current = traverse(block.getInnerEdges().get(i - 1), current);
+				Statement st = block.getStatements().get(i);
+				current = semantics(st, current);
+				if (results != null) {
+					results.put(st, current.getLeft());
+					for (Entry<Statement, AnalysisState<A, H, V, T>> e : current.getRight())
+						results.put(e.getKey(), e.getValue());
+				}
+			}
+			return current;
+		}
+
 		@Override
 		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> traverse(Edge edge,
 				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> entrystate) throws SemanticException {
@@ -585,6 +955,19 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			return Pair.of(left.getLeft().lub(right.getLeft()), left.getRight().lub(right.getRight()));
 		}
 
+		@Override
+		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> unionAll(Statement node,
+				List<Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> states) throws SemanticException {
+			// states and stores are joined separately, building a single pair
+			AnalysisState<A, H, V, T> state = states.get(0).getLeft();
+			StatementStore<A, H, V, T> store = states.get(0).getRight();
+			for (int i = 1; i < states.size(); i++) {
+				state = state.lub(states.get(i).getLeft());
+				store = store.lub(states.get(i).getRight());
+			}
+			return Pair.of(state, store);
+		}
+
 		@Override
 		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> operation(Statement node,
 				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> approx,
@@ -669,6 +1052,126 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		}
 	}
 
+	private class BlockFixpoint<A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>>
+			implements FixpointImplementation<BasicBlock, BasicBlockEdge,
+					Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> {
+
+		private final CFGFixpoint<A, H, V, T> statements;
+		private final Map<BasicBlock, AnalysisState<A, H, V, T>> entries;
+
+		private BlockFixpoint(CFGFixpoint<A, H, V, T> statements,
+				Map<BasicBlock, AnalysisState<A, H, V, T>> entries) {
+			this.statements = statements;
+			this.entries = entries;
+		}
+
+		@Override
+		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> semantics(BasicBlock node,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> entrystate) throws SemanticException {
+			// the entry state of the last evaluation is the one that is
+			// used to recompute the results of the inner statements
+			if (node.size() > 1)
+				entries.put(node, entrystate.getLeft());
+			return statements.evaluate(node, entrystate, node.size(), null);
+		}
+
+		@Override
+		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> traverse(BasicBlockEdge edge,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> entrystate) throws SemanticException {
+			return statements.traverse(edge.getEdge(), entrystate);
+		}
+
+		@Override
+		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> union(BasicBlock node,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> left,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> right) throws SemanticException {
+			return statements.union(node.getLeader(), left, right);
+		}
+
+		@Override
+		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> unionAll(BasicBlock node,
+				List<Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> states) throws SemanticException {
+			return statements.unionAll(node.getLeader(), states);
+		}
+
+		@Override
+		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> operation(BasicBlock node,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> approx,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> old) throws SemanticException {
+			// the predecessors of the leader are the last statements of the
+			// predecessors of the block, so thresholds are not affected
+			return statements.operation(node.getLeader(), approx, old);
+		}
+
+		@Override
+		public boolean equality(BasicBlock node, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> approx,
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> old) throws SemanticException {
+			return statements.equality(node.getLeader(), approx, old);
+		}
+	}
+
+	/**
+	 * The results of the statements of a {@link BasicBlockGraph} fixpoint that
+	 * are not stored, computed upon request. For each block containing more
+	 * than one statement that has not been materialized yet, only the entry
+	 * state of its last evaluation is retained. The fixpoint implementation
+	 * (and thus the interprocedural analysis it refers to) and the blocks
+	 * themselves are released as soon as all blocks have been materialized.
+	 */
+	private class BlockResults<A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> implements LazyResults<A, H, V, T> {
+
+		private final Map<BasicBlock, AnalysisState<A, H, V, T>> entries;
+		private BasicBlockGraph blocks;
+		private CFGFixpoint<A, H, V, T> statements;
+
+		private BlockResults(BasicBlockGraph blocks,
+				Map<BasicBlock, AnalysisState<A, H, V, T>> entries,
+				CFGFixpoint<A, H, V, T> statements) {
+			this.blocks = blocks;
+			this.entries = entries;
+			this.statements = statements;
+			release();
+		}
+
+		private void release() {
+			if (entries.isEmpty()) {
+				blocks = null;
+				statements = null;
+			}
+		}
+
+		@Override
+		public void materialize(Statement st, StatementStore<A, H, V, T> results) throws SemanticException {
+			if (entries.isEmpty())
+				return;
+			BasicBlock block = blocks.getBlockOf(st);
+			if (block == null)
+				return;
+
+			// blocks whose results have already been computed, or that have
+			// not been reached by the fixpoint, have no entry state
+			AnalysisState<A, H, V, T> entry = entries.remove(block);
+			if (entry != null) {
+				// the result of the last statement is the one of the block
+				statements.evaluate(block, Pair.of(entry, new StatementStore<>(entry.bottom())),
+						block.size() - 1, results);
+				release();
+			}
+		}
+
+		@Override
+		public void materializeAll(StatementStore<A, H, V, T> results) throws SemanticException {
+			for (BasicBlock block : new ArrayList<>(entries.keySet()))
+				materialize(block.getLeader(), results);
+		}
+	}
+
 	@Override
 	public SerializableGraph toSerializableGraph(Function<Statement, SerializableValue> descriptionGenerator) {
 		return SerializableCFG.fromCFG(this, descriptionGenerator);
@@ -1,11 +1,16 @@
 package it.unive.lisa.program.cfg;
 
 import it.unive.lisa.program.CodeElement;
+import it.unive.lisa.program.SourceCodeLocation;
 import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.annotations.Annotation;
 import it.unive.lisa.program.annotations.Annotations;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.Untyped;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -437,6 +442,75 @@ public class CodeMemberDescriptor implements CodeElement {
 		return location;
 	}
 
+	/**
+	 * Yields a hash of the structure of this descriptor, that is, of its
+	 * signature, annotations and variables. Differently from
+	 * {@link #hashCode()}, the structural hash does not depend on the identity
+	 * of the {@link Unit} containing this descriptor, nor on the location of
+	 * the descriptor itself: the locations of parameters and variables are
+	 * considered {@link #getRelativePosition(CodeLocation) relatively} to it.
+	 * The structural hash can thus be used to recognize the same descriptor
+	 * across different parsings of the same program, even if its code has been
+	 * moved.
+	 * 
+	 * @return the structural hash, as an hexadecimal string
+	 */
+	public String getStructuralHash() {
+		StringBuilder structure = new StringBuilder()
+				.append(instance ? "instance " : "")
+				.append(overridable ? "overridable " : "")
+				.append(getFullSignatureWithParNames()).append(" ")
+				.append(annotations).append("\n");
+		for (Parameter formal : formals)
+			structure.append(formal).append(" [at ").append(getRelativePosition(formal.getLocation())).append("] ")
+					.append(formal.getAnnotations()).append("\n");
+		for (VariableTableEntry variable : variables)
+			structure.append(variable).append(" [at ").append(getRelativePosition(variable.getLocation()))
+					.append("] ").append(variable.getAnnotations()).append("\n");
+		return digest(structure.toString());
+	}
+
+	/**
+	 * Yields the position of the given location relative to the one of this
+	 * descriptor. If both are {@link SourceCodeLocation}s of the same source
+	 * file, the result is made of the distance, in lines, between the two
+	 * locations, followed by the column of {@code location}: this is stable if
+	 * the whole code of the descriptor is moved to different lines.
+	 * Otherwise, the result is the string representation of {@code location}.
+	 * 
+	 * @param location the location
+	 * 
+	 * @return the relative position of {@code location}
+	 */
+	public String getRelativePosition(CodeLocation location) {
+		if (!(this.location instanceof SourceCodeLocation) || !(location instanceof SourceCodeLocation))
+			return String.valueOf(location);
+
+		SourceCodeLocation base = (SourceCodeLocation) this.location;
+		SourceCodeLocation loc = (SourceCodeLocation) location;
+		if (!Objects.equals(base.getSourceFile(), loc.getSourceFile()))
+			return loc.toString();
+		return "+" + (loc.getLine() - base.getLine()) + ":" + loc.getCol();
+	}
+
+	/**
+	 * Yields the SHA-256 digest of the given string, as an hexadecimal string.
+	 * 
+	 * @param structure the string to digest
+	 * 
+	 * @return the digest
+	 * 
+	 * @throws IllegalStateException if SHA-256 is not supported by the platform
+	 */
+	static String digest(String structure) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(structure.getBytes(StandardCharsets.UTF_8));
+			return String.format("%064x", new BigInteger(1, hash));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this platform", e);
+		}
+	}
+
 	/**
 	 * Yields the annotations of this descriptor.
 	 * 
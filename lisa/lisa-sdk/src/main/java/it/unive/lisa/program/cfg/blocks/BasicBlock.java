@@ -0,0 +1,121 @@
+package it.unive.lisa.program.cfg.blocks;
+
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A basic block of a {@link BasicBlockGraph}, that is, a maximal chain of
+ * statements connected by {@link SequentialEdge}s, where each statement but
+ * the first has a single predecessor and each statement but the last has a
+ * single follower. Statements of a block are always executed in order, one
+ * after the other.<br>
+ * <br>
+ * Note that this class does not redefine {@link #equals(Object)} since all
+ * blocks are unique, while {@link #hashCode()} yields the position of the block
+ * in its graph to keep the iteration order over blocks stable across runs.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class BasicBlock implements Node<BasicBlockGraph, BasicBlock, BasicBlockEdge> {
+
+	private final BasicBlockGraph graph;
+
+	private final int index;
+
+	private final List<Statement> statements;
+
+	private final List<Edge> edges;
+
+	/**
+	 * Builds the block.
+	 *
+	 * @param graph      the graph containing this block
+	 * @param index      the position of this block in {@code graph}
+	 * @param statements the statements of this block, in execution order
+	 * @param edges      the edges connecting the statements of this block,
+	 *                       where the {@code i}-th edge connects the
+	 *                       {@code i}-th statement with the following one
+	 */
+	BasicBlock(BasicBlockGraph graph, int index, List<Statement> statements, List<Edge> edges) {
+		this.graph = graph;
+		this.index = index;
+		this.statements = Collections.unmodifiableList(statements);
+		this.edges = Collections.unmodifiableList(edges);
+	}
+
+	/**
+	 * Yields the graph containing this block.
+	 *
+	 * @return the graph
+	 */
+	public BasicBlockGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Yields the statements of this block, in execution order.
+	 *
+	 * @return the statements
+	 */
+	public List<Statement> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * Yields the edges connecting the statements of this block, in execution
+	 * order: the {@code i}-th edge connects the {@code i}-th statement with the
+	 * following one.
+	 *
+	 * @return the inner edges
+	 */
+	public List<Edge> getInnerEdges() {
+		return edges;
+	}
+
+	/**
+	 * Yields the first statement of this block.
+	 *
+	 * @return the first statement
+	 */
+	public Statement getLeader() {
+		return statements.get(0);
+	}
+
+	/**
+	 * Yields the last statement of this block.
+	 *
+	 * @return the last statement
+	 */
+	public Statement getLast() {
+		return statements.get(statements.size() - 1);
+	}
+
+	/**
+	 * Yields the number of statements in this block.
+	 *
+	 * @return the number of statements
+	 */
+	public int size() {
+		return statements.size();
+	}
+
+	@Override
+	public <V> boolean accept(GraphVisitor<BasicBlockGraph, BasicBlock, BasicBlockEdge, V> visitor, V tool) {
+		return visitor.visit(tool, graph, this);
+	}
+
+	@Override
+	public int hashCode() {
+		return index;
+	}
+
+	@Override
+	public String toString() {
+		return statements.toString();
+	}
+}
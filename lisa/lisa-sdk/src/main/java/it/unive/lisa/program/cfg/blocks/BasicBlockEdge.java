@@ -0,0 +1,77 @@
+package it.unive.lisa.program.cfg.blocks;
+
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+
+/**
+ * An edge of a {@link BasicBlockGraph}, connecting the last statement of a
+ * {@link BasicBlock} to the first one of another block through an {@link Edge}
+ * of the original cfg.<br>
+ * <br>
+ * Note that this class does not redefine {@link #equals(Object)} since all
+ * edges between blocks are unique, while {@link #hashCode()} only depends on
+ * the connected blocks and on the original edge.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class BasicBlockEdge implements it.unive.lisa.util.datastructures.graph.Edge<BasicBlockGraph, BasicBlock,
+		BasicBlockEdge> {
+
+	private final BasicBlock source, destination;
+
+	private final Edge edge;
+
+	/**
+	 * Builds the edge.
+	 *
+	 * @param source      the source block
+	 * @param destination the destination block
+	 * @param edge        the edge of the original cfg, connecting the last
+	 *                        statement of {@code source} with the first
+	 *                        statement of {@code destination}
+	 */
+	BasicBlockEdge(BasicBlock source, BasicBlock destination, Edge edge) {
+		this.source = source;
+		this.destination = destination;
+		this.edge = edge;
+	}
+
+	@Override
+	public BasicBlock getSource() {
+		return source;
+	}
+
+	@Override
+	public BasicBlock getDestination() {
+		return destination;
+	}
+
+	/**
+	 * Yields the edge of the original cfg that this edge represents.
+	 *
+	 * @return the original edge
+	 */
+	public Edge getEdge() {
+		return edge;
+	}
+
+	@Override
+	public <V> boolean accept(GraphVisitor<BasicBlockGraph, BasicBlock, BasicBlockEdge, V> visitor, V tool) {
+		return visitor.visit(tool, source.getGraph(), this);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + destination.hashCode();
+		result = prime * result + source.hashCode();
+		result = prime * result + edge.hashCode();
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return edge.toString();
+	}
+}
@@ -0,0 +1,142 @@
+package it.unive.lisa.program.cfg.blocks;
+
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.util.datastructures.graph.BaseGraph;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The graph of the {@link BasicBlock}s of a {@link CFG}. A statement of the
+ * cfg starts a new block (i.e., it is a <i>leader</i>) if:
+ * <ul>
+ * <li>it is an entrypoint of the cfg, or one of the given roots;</li>
+ * <li>it does not have exactly one predecessor;</li>
+ * <li>its predecessor does not have exactly one follower;</li>
+ * <li>the edge reaching it is not a {@link SequentialEdge};</li>
+ * <li>its predecessor contains a {@link Call}.</li>
+ * </ul>
+ * Each block then extends from its leader up to the statement preceding the
+ * next leader. Blocks are connected by {@link BasicBlockEdge}s, one for each
+ * edge of the cfg leaving the last statement of a block. Ending blocks after
+ * calls ensures that each call is the last statement of its block. Statements
+ * that are not reachable from any leader are not part of any block.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class BasicBlockGraph extends BaseGraph<BasicBlockGraph, BasicBlock, BasicBlockEdge> {
+
+	private final CFG cfg;
+
+	private final Map<Statement, BasicBlock> blocks;
+
+	/**
+	 * Builds the graph of the basic blocks of the given cfg.
+	 *
+	 * @param cfg   the cfg
+	 * @param roots additional statements that must start a block (e.g., the
+	 *                  starting points of a fixpoint computation)
+	 */
+	public BasicBlockGraph(CFG cfg, Collection<Statement> roots) {
+		this.cfg = cfg;
+		this.blocks = new HashMap<>(cfg.getNodesCount());
+
+		for (Statement st : cfg.getNodes())
+			if (isLeader(st, roots)) {
+				List<Statement> statements = new ArrayList<>();
+				List<Edge> edges = new ArrayList<>();
+				statements.add(st);
+				Statement current = st;
+				Collection<Edge> outgoing = cfg.getOutgoingEdges(current);
+				while (outgoing.size() == 1) {
+					Edge edge = outgoing.iterator().next();
+					Statement next = edge.getDestination();
+					if (isLeader(next, roots))
+						break;
+					edges.add(edge);
+					statements.add(next);
+					current = next;
+					outgoing = cfg.getOutgoingEdges(current);
+				}
+
+				BasicBlock block = new BasicBlock(this, getNodesCount(), statements, edges);
+				addNode(block, cfg.getEntrypoints().contains(st));
+				for (Statement member : statements)
+					blocks.put(member, block);
+			}
+
+		for (BasicBlock block : getNodes())
+			for (Edge edge : cfg.getOutgoingEdges(block.getLast()))
+				addEdge(new BasicBlockEdge(block, blocks.get(edge.getDestination()), edge));
+	}
+
+	private boolean isLeader(Statement st, Collection<Statement> roots) {
+		if (cfg.getEntrypoints().contains(st) || roots.contains(st))
+			return true;
+
+		Collection<Edge> ingoing = cfg.getIngoingEdges(st);
+		if (ingoing.size() != 1)
+			return true;
+
+		Edge edge = ingoing.iterator().next();
+		return !(edge instanceof SequentialEdge)
+				|| cfg.getOutgoingEdges(edge.getSource()).size() != 1
+				|| containsCall(edge.getSource());
+	}
+
+	private static boolean containsCall(Statement st) {
+		CallFinder finder = new CallFinder();
+		st.accept(finder, null);
+		return finder.found;
+	}
+
+	/**
+	 * Yields the cfg whose blocks are represented by this graph.
+	 *
+	 * @return the cfg
+	 */
+	public CFG getCFG() {
+		return cfg;
+	}
+
+	/**
+	 * Yields the block containing the given statement.
+	 *
+	 * @param st the statement, that must be a node of the cfg
+	 *
+	 * @return the block containing {@code st}, or {@code null} if the
+	 *             statement is not part of any block
+	 */
+	public BasicBlock getBlockOf(Statement st) {
+		return blocks.get(st);
+	}
+
+	private static class CallFinder implements GraphVisitor<CFG, Statement, Edge, Void> {
+
+		private boolean found = false;
+
+		@Override
+		public boolean visit(Void tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Void tool, CFG graph, Statement node) {
+			if (node instanceof Call)
+				found = true;
+			return !found;
+		}
+
+		@Override
+		public boolean visit(Void tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
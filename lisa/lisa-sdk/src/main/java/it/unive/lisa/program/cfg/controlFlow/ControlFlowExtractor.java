@@ -11,7 +11,7 @@ import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.GraphVisitor;
-import it.unive.lisa.util.datastructures.graph.algorithms.Dominators;
+import it.unive.lisa.util.datastructures.graph.algorithms.DominatorTree;
 import it.unive.lisa.util.datastructures.graph.code.NodeList;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -19,12 +19,11 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * An extractor of {@link ControlFlowStructure}s from {@link CFG}s. It uses
- * {@link Dominators} to extract {@link Loop}s, and a graph visiting heuristics
- * to find {@link IfThenElse}s.<br>
+ * {@link DominatorTree} to extract {@link Loop}s, and a graph visiting
+ * heuristics to find {@link IfThenElse}s.<br>
  * <br>
  * Extracting control flows should be a last-resort: if the cfg contains
  * arbitrary jumps (like {@code goto, break, continue, ...}) the aforementioned
@@ -68,10 +67,10 @@ public class ControlFlowExtractor {
 		// https://www.cs.utexas.edu/~pingali/CS375/2010Sp/lectures/LoopOptimizations.pdf
 		// http://pages.cs.wisc.edu/~fischer/cs701.f14/finding.loops.html
 		Map<Statement, ControlFlowStructure> result = new HashMap<>();
-		Map<Statement, Set<Statement>> dominators = new Dominators<CFG, Statement, Edge>().build(target);
+		DominatorTree<CFG, Statement, Edge> dominators = new DominatorTree<>(target);
 		for (Statement conditional : conditionals)
 			for (Statement pred : target.predecessorsOf(conditional))
-				if (dominators.get(pred).contains(conditional))
+				if (dominators.dominates(conditional, pred))
 					new LoopReconstructor(conditional, pred, result).build();
 
 		// now we scan for if statements
@@ -0,0 +1,119 @@
+package it.unive.lisa.symbolic;
+
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.CacheScope;
+import it.unive.lisa.util.collections.Interner;
+import java.util.Objects;
+
+/**
+ * An opt-in interning layer for {@link Type}s and for the immutable leaves of
+ * symbolic expressions, that is, {@link Constant}s and {@link Variable}s. When
+ * enabled through {@link LiSAConfiguration#interning}, the {@code intern}
+ * methods yield canonical instances taken from weak, concurrent
+ * canonicalization tables, so that equal objects built at different times end
+ * up being the same instance: equality tests between them succeed on
+ * identity. The tables are resources of the {@link CacheScope} of the running
+ * analysis, and they are thus discarded when the analysis terminates. When
+ * interning is disabled (the default), or outside of an analysis, the
+ * {@code intern} methods return their argument unchanged.<br>
+ * <br>
+ * Since the runtime types of symbolic expressions are set in place by the
+ * analysis, leaves are canonicalized on their static type, code location and
+ * name (or value) only if no runtime type has been set on them: leaves that
+ * carry runtime types are never interned, and canonical instances whose
+ * runtime types are set after being interned are no longer returned. Leaves
+ * should thus only be interned where the analysis does not set their runtime
+ * types. The same holds for the annotations of {@link Variable}s, that can be
+ * added after their creation.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class Interning {
+
+	private Interning() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Yields the canonical instance of the given type. If interning is
+	 * disabled, or if {@code type} is {@code null}, {@code type} is returned.
+	 *
+	 * @param <T>  the type of the type
+	 * @param type the type to intern
+	 *
+	 * @return the canonical instance of {@code type}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Type> T intern(T type) {
+		CacheScope scope = CacheScope.current();
+		if (scope == null || !scope.isInterning() || type == null)
+			return type;
+		Interner<Type> types = scope.resource(Type.class, Interner::new);
+		return (T) types.intern(type);
+	}
+
+	/**
+	 * Yields the canonical instance of the given constant. If interning is
+	 * disabled, if {@code constant} is {@code null}, or if its runtime types
+	 * have been set, {@code constant} is returned.
+	 *
+	 * @param constant the constant to intern
+	 *
+	 * @return the canonical instance of {@code constant}
+	 */
+	public static Constant intern(Constant constant) {
+		return leaf(constant);
+	}
+
+	/**
+	 * Yields the canonical instance of the given variable. If interning is
+	 * disabled, if {@code variable} is {@code null}, if its runtime types have
+	 * been set, or if it carries annotations, {@code variable} is returned.
+	 *
+	 * @param variable the variable to intern
+	 *
+	 * @return the canonical instance of {@code variable}
+	 */
+	public static Variable intern(Variable variable) {
+		return leaf(variable);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E extends ValueExpression> E leaf(E leaf) {
+		CacheScope scope = CacheScope.current();
+		if (scope == null || !scope.isInterning() || leaf == null || !isShareable(leaf))
+			return leaf;
+		Interner<ValueExpression> leaves = scope.resource(ValueExpression.class,
+				() -> new Interner<>(Interning::hash, Interning::sameLeaf));
+		return (E) leaves.intern(leaf);
+	}
+
+	private static boolean isShareable(ValueExpression leaf) {
+		if (leaf.hasRuntimeTypes())
+			return false;
+		return !(leaf instanceof Variable) || ((Variable) leaf).getAnnotations().getAnnotations().isEmpty();
+	}
+
+	private static Object key(ValueExpression leaf) {
+		return leaf instanceof Constant ? ((Constant) leaf).getValue() : ((Variable) leaf).getName();
+	}
+
+	private static int hash(ValueExpression leaf) {
+		return Objects.hash(leaf.getClass(), leaf.getStaticType(), leaf.getCodeLocation(), key(leaf));
+	}
+
+	private static boolean sameLeaf(ValueExpression first, ValueExpression second) {
+		// canonical instances that have been modified in the meantime
+		// cannot be shared anymore
+		return first.getClass() == second.getClass()
+				&& isShareable(first)
+				&& isShareable(second)
+				&& first.getStaticType().equals(second.getStaticType())
+				&& Objects.equals(first.getCodeLocation(), second.getCodeLocation())
+				&& Objects.equals(key(first), key(second));
+	}
+}
@@ -24,6 +24,12 @@ public class AccessChild extends HeapExpression {
 	 */
 	private final SymbolicExpression child;
 
+	/**
+	 * The cached hash code of this expression, or {@code 0} if it has not been
+	 * computed yet
+	 */
+	private int hash;
+
 	/**
 	 * Builds the child access.
 	 * 
@@ -60,6 +66,14 @@ public class AccessChild extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		// the hash code only depends on final fields, and can be cached
+		int result = hash;
+		if (result == 0)
+			hash = result = computeHashCode();
+		return result;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((container == null) ? 0 : container.hashCode());
@@ -76,6 +90,8 @@ public class AccessChild extends HeapExpression {
 		if (getClass() != obj.getClass())
 			return false;
 		AccessChild other = (AccessChild) obj;
+		if (hash != 0 && other.hash != 0 && hash != other.hash)
+			return false;
 		if (container == null) {
 			if (other.container != null)
 				return false;
@@ -18,6 +18,12 @@ public class HeapDereference extends HeapExpression {
 	 */
 	private final SymbolicExpression toDeref;
 
+	/**
+	 * The cached hash code of this expression, or {@code 0} if it has not been
+	 * computed yet
+	 */
+	private int hash;
+
 	/**
 	 * Builds the heap dereference.
 	 * 
@@ -33,6 +39,14 @@ public class HeapDereference extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		// the hash code only depends on final fields, and can be cached
+		int result = hash;
+		if (result == 0)
+			hash = result = computeHashCode();
+		return result;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((toDeref == null) ? 0 : toDeref.hashCode());
@@ -48,6 +62,8 @@ public class HeapDereference extends HeapExpression {
 		if (getClass() != obj.getClass())
 			return false;
 		HeapDereference other = (HeapDereference) obj;
+		if (hash != 0 && other.hash != 0 && hash != other.hash)
+			return false;
 		if (toDeref == null) {
 			if (other.toDeref != null)
 				return false;
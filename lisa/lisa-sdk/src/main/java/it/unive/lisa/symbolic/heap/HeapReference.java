@@ -18,6 +18,12 @@ public class HeapReference extends HeapExpression {
 	 */
 	private final SymbolicExpression expression;
 
+	/**
+	 * The cached hash code of this expression, or {@code 0} if it has not been
+	 * computed yet
+	 */
+	private int hash;
+
 	/**
 	 * Builds the heap reference.
 	 * 
@@ -38,6 +44,14 @@ public class HeapReference extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		// the hash code only depends on final fields, and can be cached
+		int result = hash;
+		if (result == 0)
+			hash = result = computeHashCode();
+		return result;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
@@ -62,6 +76,8 @@ public class HeapReference extends HeapExpression {
 		if (getClass() != obj.getClass())
 			return false;
 		HeapReference other = (HeapReference) obj;
+		if (hash != 0 && other.hash != 0 && hash != other.hash)
+			return false;
 		if (expression == null) {
 			if (other.expression != null)
 				return false;
@@ -31,6 +31,12 @@ public class BinaryExpression extends ValueExpression {
 	 */
 	private final BinaryOperator operator;
 
+	/**
+	 * The cached hash code of this expression, or {@code 0} if it has not been
+	 * computed yet
+	 */
+	private int hash;
+
 	/**
 	 * Builds the binary expression.
 	 * 
@@ -97,6 +103,14 @@ public class BinaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		// the hash code only depends on final fields, and can be cached
+		int result = hash;
+		if (result == 0)
+			hash = result = computeHashCode();
+		return result;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((left == null) ? 0 : left.hashCode());
@@ -114,6 +128,8 @@ public class BinaryExpression extends ValueExpression {
 		if (getClass() != obj.getClass())
 			return false;
 		BinaryExpression other = (BinaryExpression) obj;
+		if (hash != 0 && other.hash != 0 && hash != other.hash)
+			return false;
 		if (left == null) {
 			if (other.left != null)
 				return false;
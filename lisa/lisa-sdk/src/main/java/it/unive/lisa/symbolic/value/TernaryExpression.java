@@ -36,6 +36,12 @@ public class TernaryExpression extends ValueExpression {
 	 */
 	private final TernaryOperator operator;
 
+	/**
+	 * The cached hash code of this expression, or {@code 0} if it has not been
+	 * computed yet
+	 */
+	private int hash;
+
 	/**
 	 * Builds the binary expression.
 	 * 
@@ -114,6 +120,14 @@ public class TernaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		// the hash code only depends on final fields, and can be cached
+		int result = hash;
+		if (result == 0)
+			hash = result = computeHashCode();
+		return result;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((left == null) ? 0 : left.hashCode());
@@ -132,6 +146,8 @@ public class TernaryExpression extends ValueExpression {
 		if (getClass() != obj.getClass())
 			return false;
 		TernaryExpression other = (TernaryExpression) obj;
+		if (hash != 0 && other.hash != 0 && hash != other.hash)
+			return false;
 		if (left == null) {
 			if (other.left != null)
 				return false;
@@ -29,6 +29,12 @@ public class UnaryExpression extends ValueExpression {
 	 */
 	private final UnaryOperator operator;
 
+	/**
+	 * The cached hash code of this expression, or {@code 0} if it has not been
+	 * computed yet
+	 */
+	private int hash;
+
 	/**
 	 * Builds the unary expression.
 	 * 
@@ -103,6 +109,14 @@ public class UnaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		// the hash code only depends on final fields, and can be cached
+		int result = hash;
+		if (result == 0)
+			hash = result = computeHashCode();
+		return result;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
@@ -119,6 +133,8 @@ public class UnaryExpression extends ValueExpression {
 		if (getClass() != obj.getClass())
 			return false;
 		UnaryExpression other = (UnaryExpression) obj;
+		if (hash != 0 && other.hash != 0 && hash != other.hash)
+			return false;
 		if (expression == null) {
 			if (other.expression != null)
 				return false;
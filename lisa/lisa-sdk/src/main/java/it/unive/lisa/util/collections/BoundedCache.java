@@ -0,0 +1,149 @@
+package it.unive.lisa.util.collections;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded, concurrent cache evicting least recently used entries. Entries are
+ * split among a fixed number of segments according to the hash code of their
+ * keys, each one guarded by its own lock and holding at most a fraction of the
+ * capacity of the cache: eviction is thus least-recently-used within each
+ * segment. Values are computed outside of the locks, so that concurrent
+ * lookups of a missing key might compute its value more than once, keeping
+ * the first one that is stored. This class is thread-safe.<br>
+ * <br>
+ * Every cache counts the lookups that found a value (hits) and the ones that
+ * had to compute it (misses). Totals over the caches of an execution of LiSA
+ * are available through the {@link CacheScope} that created them.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class BoundedCache<K, V> {
+
+	private static final int SEGMENTS = 16;
+
+	private final Segment<K, V>[] segments;
+
+	private final LongAdder hits;
+
+	private final LongAdder misses;
+
+	/**
+	 * Builds an empty cache holding at most (approximately) {@code capacity}
+	 * entries.
+	 *
+	 * @param capacity the maximum number of entries
+	 */
+	public BoundedCache(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("The capacity of a cache must be positive");
+		int count = Math.min(SEGMENTS, capacity);
+		int perSegment = (capacity + count - 1) / count;
+		@SuppressWarnings("unchecked")
+		Segment<K, V>[] array = (Segment<K, V>[]) new Segment<?, ?>[count];
+		for (int i = 0; i < count; i++)
+			array[i] = new Segment<>(perSegment);
+		segments = array;
+		hits = new LongAdder();
+		misses = new LongAdder();
+	}
+
+	/**
+	 * Yields the value associated with {@code key}, computing it through
+	 * {@code mapping} and storing it if it is not cached.
+	 *
+	 * @param key     the key, that must not be {@code null}
+	 * @param mapping the function computing the value of {@code key}, that
+	 *                    must not yield {@code null}
+	 *
+	 * @return the value associated with {@code key}
+	 */
+	public V get(K key, Function<? super K, ? extends V> mapping) {
+		Segment<K, V> segment = segments[Math.floorMod(spread(key.hashCode()), segments.length)];
+		V value;
+		synchronized (segment) {
+			value = segment.get(key);
+		}
+		if (value != null) {
+			hits.increment();
+			return value;
+		}
+
+		misses.increment();
+		V computed = Objects.requireNonNull(mapping.apply(key));
+		synchronized (segment) {
+			value = segment.putIfAbsent(key, computed);
+		}
+		return value == null ? computed : value;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Yields the number of lookups that found a cached value.
+	 *
+	 * @return the number of hits
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Yields the number of lookups that had to compute their value.
+	 *
+	 * @return the number of misses
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Yields the number of entries currently in this cache.
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments)
+			synchronized (segment) {
+				size += segment.size();
+			}
+		return size;
+	}
+
+	/**
+	 * Removes all entries from this cache. Hit and miss counters are not
+	 * reset.
+	 */
+	public void clear() {
+		for (Segment<K, V> segment : segments)
+			synchronized (segment) {
+				segment.clear();
+			}
+	}
+
+	private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		private Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return size() > capacity;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package it.unive.lisa.util.collections;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * A scope owning the caches and canonicalization tables used during a single
+ * execution of LiSA. A scope is opened through {@link #open(boolean)} when the
+ * execution starts, and closed through {@link #close()} when it terminates:
+ * the resources created through {@link #resource(Object, Supplier)} are thus
+ * discarded together with the scope, instead of living as long as the process.
+ * The innermost open scope is available through {@link #current()} to the
+ * thread that opened it and to all threads that are (transitively) created by
+ * it while the scope is open, such as the workers of the pools used by
+ * parallel fixpoints. Outside of an execution, {@link #current()} yields
+ * {@code null}, and components relying on a scope should fall back to
+ * uncached computations. The {@link BoundedCache}s created through
+ * {@link #newCache(int)} are also counted by the scope, so that
+ * {@link #hits()} and {@link #misses()} yield the lookups performed during a
+ * single execution. This class is thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class CacheScope implements AutoCloseable {
+
+	private static final InheritableThreadLocal<CacheScope> CURRENT = new InheritableThreadLocal<>();
+
+	private final CacheScope parent;
+
+	private final boolean interning;
+
+	private final Map<Object, Object> resources;
+
+	private final List<BoundedCache<?, ?>> caches;
+
+	private CacheScope(CacheScope parent, boolean interning) {
+		this.parent = parent;
+		this.interning = interning;
+		this.resources = new ConcurrentHashMap<>();
+		this.caches = new CopyOnWriteArrayList<>();
+	}
+
+	/**
+	 * Opens a new scope, that becomes the {@link #current()} one until it is
+	 * closed.
+	 *
+	 * @param interning whether or not objects should be interned while the
+	 *                      scope is open
+	 *
+	 * @return the new scope
+	 */
+	public static CacheScope open(boolean interning) {
+		CacheScope scope = new CacheScope(CURRENT.get(), interning);
+		CURRENT.set(scope);
+		return scope;
+	}
+
+	/**
+	 * Yields the innermost open scope visible from the current thread.
+	 *
+	 * @return the current scope, or {@code null} if no scope is open
+	 */
+	public static CacheScope current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Yields whether or not objects should be interned while this scope is
+	 * open.
+	 *
+	 * @return {@code true} if interning is enabled
+	 */
+	public boolean isInterning() {
+		return interning;
+	}
+
+	/**
+	 * Yields the resource of this scope associated with the given key,
+	 * creating it through {@code factory} if no resource is associated with
+	 * {@code key} yet. The resource is created at most once per scope.
+	 *
+	 * @param <T>     the type of the resource
+	 * @param key     the key identifying the resource
+	 * @param factory the factory creating the resource
+	 *
+	 * @return the resource associated with {@code key}
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T resource(Object key, Supplier<? extends T> factory) {
+		return (T) resources.computeIfAbsent(key, k -> factory.get());
+	}
+
+	/**
+	 * Builds a new, empty {@link BoundedCache} whose lookups are counted by
+	 * this scope.
+	 *
+	 * @param <K>      the type of keys
+	 * @param <V>      the type of values
+	 * @param capacity the maximum number of entries
+	 *
+	 * @return the new cache
+	 */
+	public <K, V> BoundedCache<K, V> newCache(int capacity) {
+		BoundedCache<K, V> cache = new BoundedCache<>(capacity);
+		caches.add(cache);
+		return cache;
+	}
+
+	/**
+	 * Yields the sum of {@link BoundedCache#hits()} over all caches created
+	 * through {@link #newCache(int)}.
+	 *
+	 * @return the number of hits in this scope
+	 */
+	public long hits() {
+		long total = 0;
+		for (BoundedCache<?, ?> cache : caches)
+			total += cache.hits();
+		return total;
+	}
+
+	/**
+	 * Yields the sum of {@link BoundedCache#misses()} over all caches created
+	 * through {@link #newCache(int)}.
+	 *
+	 * @return the number of misses in this scope
+	 */
+	public long misses() {
+		long total = 0;
+		for (BoundedCache<?, ?> cache : caches)
+			total += cache.misses();
+		return total;
+	}
+
+	/**
+	 * Closes this scope, discarding all of its resources and caches and
+	 * restoring the scope that was current when this one was opened. The
+	 * counters of the caches are retained.
+	 */
+	@Override
+	public void close() {
+		resources.clear();
+		for (BoundedCache<?, ?> cache : caches)
+			cache.clear();
+		if (CURRENT.get() == this)
+			if (parent == null)
+				CURRENT.remove();
+			else
+				CURRENT.set(parent);
+	}
+}
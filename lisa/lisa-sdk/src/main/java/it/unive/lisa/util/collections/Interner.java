@@ -0,0 +1,144 @@
+package it.unive.lisa.util.collections;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A weak, concurrent canonicalization table. Each call to
+ * {@link #intern(Object)} yields the canonical instance among the ones that are
+ * equivalent to the given object, registering the object itself as canonical if
+ * no such instance exists. Canonical instances are only weakly referenced by
+ * the table: once they are no longer reachable from elsewhere, they are
+ * discarded together with their entry. The equivalence used for
+ * canonicalization defaults to {@link Object#equals(Object)} and
+ * {@link Object#hashCode()}, but can be customized at construction time. This
+ * class is thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the type of objects that are interned
+ */
+public class Interner<T> {
+
+	private final ConcurrentHashMap<Entry<T>, Entry<T>> table;
+
+	private final ReferenceQueue<T> queue;
+
+	private final ToIntFunction<? super T> hasher;
+
+	private final BiPredicate<? super T, ? super T> equivalence;
+
+	/**
+	 * Builds an empty table that canonicalizes objects according to their
+	 * {@link Object#equals(Object)} and {@link Object#hashCode()}.
+	 */
+	public Interner() {
+		this(Object::hashCode, Object::equals);
+	}
+
+	/**
+	 * Builds an empty table that canonicalizes objects according to the given
+	 * equivalence.
+	 *
+	 * @param hasher      the function computing the hash code of an object,
+	 *                        that must be consistent with {@code equivalence}
+	 * @param equivalence the predicate testing if two objects are equivalent
+	 */
+	public Interner(ToIntFunction<? super T> hasher, BiPredicate<? super T, ? super T> equivalence) {
+		this.table = new ConcurrentHashMap<>();
+		this.queue = new ReferenceQueue<>();
+		this.hasher = hasher;
+		this.equivalence = equivalence;
+	}
+
+	/**
+	 * Yields the canonical instance equivalent to the given object. If no such
+	 * instance exists, {@code object} becomes the canonical one and is
+	 * returned.
+	 *
+	 * @param object the object to intern
+	 *
+	 * @return the canonical instance equivalent to {@code object}
+	 */
+	public T intern(T object) {
+		Objects.requireNonNull(object);
+		purge();
+		Entry<T> entry = new Entry<>(object, hasher.applyAsInt(object), this);
+		while (true) {
+			Entry<T> existing = table.putIfAbsent(entry, entry);
+			if (existing == null)
+				return object;
+			T canonical = existing.get();
+			if (canonical != null)
+				return canonical;
+			// the canonical instance has just been collected
+			table.remove(existing, existing);
+		}
+	}
+
+	/**
+	 * Yields the number of canonical instances that are still alive.
+	 *
+	 * @return the number of canonical instances
+	 */
+	public int size() {
+		purge();
+		return table.size();
+	}
+
+	/**
+	 * Removes all canonical instances from this table. Instances interned after
+	 * this call will not be compared with the ones interned before it.
+	 */
+	public void clear() {
+		table.clear();
+		purge();
+	}
+
+	private void purge() {
+		Reference<? extends T> ref;
+		while ((ref = queue.poll()) != null)
+			table.remove(ref, ref);
+	}
+
+	private static final class Entry<T> extends WeakReference<T> {
+
+		private final int hash;
+
+		private final Interner<T> owner;
+
+		private Entry(T referent, int hash, Interner<T> owner) {
+			super(referent, owner.queue);
+			this.hash = hash;
+			this.owner = owner;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Entry))
+				return false;
+			Entry<T> other = (Entry<T>) obj;
+			if (hash != other.hash)
+				return false;
+			T mine = get();
+			T theirs = other.get();
+			// collected entries are only equal to themselves
+			if (mine == null || theirs == null)
+				return false;
+			return mine == theirs || owner.equivalence.test(mine, theirs);
+		}
+	}
+}
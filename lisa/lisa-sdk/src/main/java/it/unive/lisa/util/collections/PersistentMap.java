@@ -0,0 +1,622 @@
+package it.unive.lisa.util.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Map} backed by a persistent hash array mapped trie. The trie is
+ * never modified in place: updates copy only the path from the root to the
+ * modified entry, sharing all other nodes with the previous version. This makes
+ * copies (see {@link #PersistentMap(Map)}) constant-time and updates
+ * logarithmic in both time and allocated memory. Updates that do not change the
+ * map (e.g., putting a value that is already mapped to the same key) do not
+ * allocate at all.<br>
+ * <br>
+ * The shape of the trie only depends on the keys it contains, regardless of the
+ * order of insertions and removals. Together with sharing, this enables
+ * pointer-equality short-circuits on whole subtrees when comparing two maps
+ * (see {@link #equals(Object)} and {@link #differences(PersistentMap)}).
+ * Differently from other {@link Map} implementations,
+ * {@link #put(Object, Object)} replaces the stored key too, if it is not the
+ * same object as the given one. Null keys and values are supported. This
+ * implementation is <b>not</b> thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	private static final Object NOT_FOUND = new Object();
+
+	private static final Node<?, ?> EMPTY = new BitmapNode<>(0, 0, new Object[0], new Object[0], nodes());
+
+	private Node<K, V> root;
+
+	private int size;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public PersistentMap() {
+		root = empty();
+		size = 0;
+	}
+
+	/**
+	 * Builds a map containing the same mappings of the given one. If
+	 * {@code other} is a {@link PersistentMap}, this takes constant time, and
+	 * the two maps will share their structure until one of them is modified.
+	 *
+	 * @param other the map to copy
+	 */
+	public PersistentMap(Map<? extends K, ? extends V> other) {
+		this();
+		putAll(other);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void putAll(Map<? extends K, ? extends V> m) {
+		if (size == 0 && m instanceof PersistentMap) {
+			PersistentMap<K, V> other = (PersistentMap<K, V>) m;
+			root = other.root;
+			size = other.size;
+		} else
+			super.putAll(m);
+	}
+
+	private static int hash(Object key) {
+		return Objects.hashCode(key);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return root.find(key, hash(key), 0) != NOT_FOUND;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		Object res = root.find(key, hash(key), 0);
+		return res == NOT_FOUND ? null : (V) res;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(K key, V value) {
+		Change change = new Change();
+		root = root.put(key, value, hash(key), 0, change);
+		if (change.size > 0)
+			size++;
+		return change.old == NOT_FOUND ? null : (V) change.old;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		Change change = new Change();
+		Node<K, V> res = root.remove(key, hash(key), 0, change);
+		if (change.old == NOT_FOUND)
+			return null;
+		root = res;
+		size--;
+		return (V) change.old;
+	}
+
+	@Override
+	public void clear() {
+		root = empty();
+		size = 0;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<Entry<K, V>>() {
+
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new TrieIterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Yields the keys whose mapping differs between this map and the given one,
+	 * that is, the keys that are contained in only one of the two maps, and the
+	 * ones that are mapped to different values. Keys and values are compared
+	 * through pointer equality: equal objects that are not the same object will
+	 * cause their key to be returned. The returned set might also contain some
+	 * keys whose mapping is the same in both maps, but it is guaranteed that
+	 * the ones that are not returned are mapped to the same value, through the
+	 * same key object, in both maps. Subtrees shared by the two maps are not
+	 * visited.
+	 *
+	 * @param other the other map
+	 *
+	 * @return the keys whose mapping differs
+	 */
+	public Set<K> differences(PersistentMap<K, V> other) {
+		Set<K> result = new HashSet<>();
+		diff(root, other.root, 0, result::add);
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof PersistentMap))
+			return super.equals(o);
+		PersistentMap<K, V> other = (PersistentMap<K, V>) o;
+		return size == other.size && same(root, other.root);
+	}
+
+	private static <K, V> boolean same(Node<K, V> n1, Node<K, V> n2) {
+		if (n1 == n2)
+			return true;
+		if (n1 instanceof BitmapNode && n2 instanceof BitmapNode) {
+			BitmapNode<K, V> b1 = (BitmapNode<K, V>) n1;
+			BitmapNode<K, V> b2 = (BitmapNode<K, V>) n2;
+			if (b1.dataMap != b2.dataMap || b1.nodeMap != b2.nodeMap)
+				return false;
+			for (int i = 0; i < b1.keys.length; i++)
+				if (!Objects.equals(b1.keys[i], b2.keys[i]) || !Objects.equals(b1.values[i], b2.values[i]))
+					return false;
+			for (int i = 0; i < b1.nodes.length; i++)
+				if (!same(b1.nodes[i], b2.nodes[i]))
+					return false;
+			return true;
+		}
+		if (n1 instanceof CollisionNode && n2 instanceof CollisionNode) {
+			CollisionNode<K, V> c1 = (CollisionNode<K, V>) n1;
+			CollisionNode<K, V> c2 = (CollisionNode<K, V>) n2;
+			if (c1.keys.length != c2.keys.length)
+				return false;
+			for (int i = 0; i < c1.keys.length; i++) {
+				Object other = c2.find(c1.keys[i], c1.hash, 0);
+				if (other == NOT_FOUND || !Objects.equals(c1.values[i], other))
+					return false;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static <K, V> void diff(Node<K, V> n1, Node<K, V> n2, int shift, Consumer<K> out) {
+		if (n1 == n2)
+			return;
+		if (n1 instanceof BitmapNode && n2 instanceof BitmapNode) {
+			BitmapNode<K, V> b1 = (BitmapNode<K, V>) n1;
+			BitmapNode<K, V> b2 = (BitmapNode<K, V>) n2;
+			int all = b1.dataMap | b1.nodeMap | b2.dataMap | b2.nodeMap;
+			while (all != 0) {
+				int bit = Integer.lowestOneBit(all);
+				all &= ~bit;
+				Node<K, V> sub1 = b1.subnode(bit);
+				Node<K, V> sub2 = b2.subnode(bit);
+				if (sub1 != null && sub2 != null)
+					diff(sub1, sub2, shift + BITS, out);
+				else if (sub1 != null)
+					diffWithEntry(sub1, b2, bit, out);
+				else if (sub2 != null)
+					diffWithEntry(sub2, b1, bit, out);
+				else if ((b1.dataMap & bit) != 0 && (b2.dataMap & bit) != 0) {
+					K k1 = b1.key(bit);
+					K k2 = b2.key(bit);
+					if (k1 != k2) {
+						out.accept(k1);
+						out.accept(k2);
+					} else if (b1.value(bit) != b2.value(bit))
+						out.accept(k1);
+				} else if ((b1.dataMap & bit) != 0)
+					out.accept(b1.key(bit));
+				else
+					out.accept(b2.key(bit));
+			}
+		} else {
+			// collision nodes are rare enough to not deserve a precise
+			// comparison
+			n1.forEach(e -> out.accept(e.getKey()));
+			n2.forEach(e -> out.accept(e.getKey()));
+		}
+	}
+
+	private static <K, V> void diffWithEntry(Node<K, V> sub, BitmapNode<K, V> node, int bit, Consumer<K> out) {
+		if ((node.dataMap & bit) != 0)
+			out.accept(node.key(bit));
+		sub.forEach(e -> out.accept(e.getKey()));
+	}
+
+	private static final class Change {
+		private Object old = NOT_FOUND;
+		private int size = 0;
+	}
+
+	private abstract static class Node<K, V> {
+
+		abstract Object find(Object key, int hash, int shift);
+
+		abstract Node<K, V> put(K key, V value, int hash, int shift, Change change);
+
+		abstract Node<K, V> remove(Object key, int hash, int shift, Change change);
+
+		abstract boolean isSingleton();
+
+		abstract K singleKey();
+
+		abstract V singleValue();
+
+		abstract void forEach(Consumer<Entry<K, V>> action);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V> empty() {
+		return (Node<K, V>) EMPTY;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V>[] nodes(Node<?, ?>... nodes) {
+		return (Node<K, V>[]) nodes;
+	}
+
+	private static <K, V> Node<K, V> pair(K k1, V v1, int h1, K k2, V v2, int h2, int shift) {
+		if (shift >= Integer.SIZE)
+			return new CollisionNode<>(h1, new Object[] { k1, k2 }, new Object[] { v1, v2 });
+		int b1 = 1 << ((h1 >>> shift) & MASK);
+		int b2 = 1 << ((h2 >>> shift) & MASK);
+		if (b1 == b2)
+			return new BitmapNode<>(0, b1, new Object[0], new Object[0],
+					nodes(pair(k1, v1, h1, k2, v2, h2, shift + BITS)));
+		if (Integer.compareUnsigned(b1, b2) < 0)
+			return new BitmapNode<>(b1 | b2, 0, new Object[] { k1, k2 }, new Object[] { v1, v2 }, nodes());
+		return new BitmapNode<>(b1 | b2, 0, new Object[] { k2, k1 }, new Object[] { v2, v1 }, nodes());
+	}
+
+	private static final class BitmapNode<K, V> extends Node<K, V> {
+
+		private final int dataMap;
+
+		private final int nodeMap;
+
+		private final Object[] keys;
+
+		private final Object[] values;
+
+		private final Node<K, V>[] nodes;
+
+		private BitmapNode(int dataMap, int nodeMap, Object[] keys, Object[] values, Node<K, V>[] nodes) {
+			this.dataMap = dataMap;
+			this.nodeMap = nodeMap;
+			this.keys = keys;
+			this.values = values;
+			this.nodes = nodes;
+		}
+
+		private int dataIndex(int bit) {
+			return Integer.bitCount(dataMap & (bit - 1));
+		}
+
+		private int nodeIndex(int bit) {
+			return Integer.bitCount(nodeMap & (bit - 1));
+		}
+
+		@SuppressWarnings("unchecked")
+		private K key(int bit) {
+			return (K) keys[dataIndex(bit)];
+		}
+
+		@SuppressWarnings("unchecked")
+		private V value(int bit) {
+			return (V) values[dataIndex(bit)];
+		}
+
+		private Node<K, V> subnode(int bit) {
+			return (nodeMap & bit) == 0 ? null : nodes[nodeIndex(bit)];
+		}
+
+		@Override
+		Object find(Object key, int hash, int shift) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((dataMap & bit) != 0) {
+				int idx = dataIndex(bit);
+				return Objects.equals(keys[idx], key) ? values[idx] : NOT_FOUND;
+			}
+			if ((nodeMap & bit) != 0)
+				return nodes[nodeIndex(bit)].find(key, hash, shift + BITS);
+			return NOT_FOUND;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Node<K, V> put(K key, V value, int hash, int shift, Change change) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((dataMap & bit) != 0) {
+				int idx = dataIndex(bit);
+				K existing = (K) keys[idx];
+				if (Objects.equals(existing, key)) {
+					change.old = values[idx];
+					if (existing == key && values[idx] == value)
+						return this;
+					return new BitmapNode<>(dataMap, nodeMap, replace(keys, idx, key), replace(values, idx, value),
+							nodes);
+				}
+
+				change.size = 1;
+				Node<K, V> sub = pair(existing, (V) values[idx], hash(existing), key, value, hash, shift + BITS);
+				int nidx = nodeIndex(bit);
+				return new BitmapNode<>(dataMap & ~bit, nodeMap | bit, removeAt(keys, idx), removeAt(values, idx),
+						insertAt(nodes, nidx, sub));
+			}
+
+			if ((nodeMap & bit) != 0) {
+				int nidx = nodeIndex(bit);
+				Node<K, V> sub = nodes[nidx].put(key, value, hash, shift + BITS, change);
+				if (sub == nodes[nidx])
+					return this;
+				Node<K, V>[] subs = nodes.clone();
+				subs[nidx] = sub;
+				return new BitmapNode<>(dataMap, nodeMap, keys, values, subs);
+			}
+
+			change.size = 1;
+			int idx = dataIndex(bit);
+			return new BitmapNode<>(dataMap | bit, nodeMap, insertAt(keys, idx, key), insertAt(values, idx, value),
+					nodes);
+		}
+
+		@Override
+		Node<K, V> remove(Object key, int hash, int shift, Change change) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((dataMap & bit) != 0) {
+				int idx = dataIndex(bit);
+				if (!Objects.equals(keys[idx], key))
+					return this;
+				change.old = values[idx];
+				return new BitmapNode<>(dataMap & ~bit, nodeMap, removeAt(keys, idx), removeAt(values, idx), nodes);
+			}
+
+			if ((nodeMap & bit) != 0) {
+				int nidx = nodeIndex(bit);
+				Node<K, V> sub = nodes[nidx].remove(key, hash, shift + BITS, change);
+				if (sub == nodes[nidx])
+					return this;
+				if (!sub.isSingleton()) {
+					Node<K, V>[] subs = nodes.clone();
+					subs[nidx] = sub;
+					return new BitmapNode<>(dataMap, nodeMap, keys, values, subs);
+				}
+
+				// the subnode is inlined to keep the trie canonical
+				int idx = dataIndex(bit);
+				return new BitmapNode<>(dataMap | bit, nodeMap & ~bit, insertAt(keys, idx, sub.singleKey()),
+						insertAt(values, idx, sub.singleValue()), removeAt(nodes, nidx));
+			}
+
+			return this;
+		}
+
+		@Override
+		boolean isSingleton() {
+			return nodeMap == 0 && keys.length == 1;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		K singleKey() {
+			return (K) keys[0];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		V singleValue() {
+			return (V) values[0];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		void forEach(Consumer<Entry<K, V>> action) {
+			for (int i = 0; i < keys.length; i++)
+				action.accept(new SimpleImmutableEntry<>((K) keys[i], (V) values[i]));
+			for (Node<K, V> sub : nodes)
+				sub.forEach(action);
+		}
+	}
+
+	private static final class CollisionNode<K, V> extends Node<K, V> {
+
+		private final int hash;
+
+		private final Object[] keys;
+
+		private final Object[] values;
+
+		private CollisionNode(int hash, Object[] keys, Object[] values) {
+			this.hash = hash;
+			this.keys = keys;
+			this.values = values;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < keys.length; i++)
+				if (Objects.equals(keys[i], key))
+					return i;
+			return -1;
+		}
+
+		@Override
+		Object find(Object key, int hash, int shift) {
+			int idx = indexOf(key);
+			return idx < 0 ? NOT_FOUND : values[idx];
+		}
+
+		@Override
+		Node<K, V> put(K key, V value, int hash, int shift, Change change) {
+			int idx = indexOf(key);
+			if (idx < 0) {
+				change.size = 1;
+				return new CollisionNode<>(this.hash, insertAt(keys, keys.length, key),
+						insertAt(values, values.length, value));
+			}
+
+			change.old = values[idx];
+			if (keys[idx] == key && values[idx] == value)
+				return this;
+			return new CollisionNode<>(this.hash, replace(keys, idx, key), replace(values, idx, value));
+		}
+
+		@Override
+		Node<K, V> remove(Object key, int hash, int shift, Change change) {
+			int idx = indexOf(key);
+			if (idx < 0)
+				return this;
+			change.old = values[idx];
+			return new CollisionNode<>(this.hash, removeAt(keys, idx), removeAt(values, idx));
+		}
+
+		@Override
+		boolean isSingleton() {
+			return keys.length == 1;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		K singleKey() {
+			return (K) keys[0];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		V singleValue() {
+			return (V) values[0];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		void forEach(Consumer<Entry<K, V>> action) {
+			for (int i = 0; i < keys.length; i++)
+				action.accept(new SimpleImmutableEntry<>((K) keys[i], (V) values[i]));
+		}
+	}
+
+	private static <T> T[] replace(T[] array, int idx, T element) {
+		if (array[idx] == element)
+			return array;
+		T[] result = array.clone();
+		result[idx] = element;
+		return result;
+	}
+
+	private static <T> T[] insertAt(T[] array, int idx, T element) {
+		T[] result = Arrays.copyOf(array, array.length + 1);
+		System.arraycopy(array, idx, result, idx + 1, array.length - idx);
+		result[idx] = element;
+		return result;
+	}
+
+	private static <T> T[] removeAt(T[] array, int idx) {
+		T[] result = Arrays.copyOf(array, array.length - 1);
+		System.arraycopy(array, idx + 1, result, idx, array.length - idx - 1);
+		return result;
+	}
+
+	private final class TrieIterator implements Iterator<Entry<K, V>> {
+
+		private final Deque<Node<K, V>> pending = new ArrayDeque<>();
+
+		private BitmapNode<K, V> bitmap;
+
+		private CollisionNode<K, V> collision;
+
+		private int next;
+
+		private Entry<K, V> last;
+
+		private TrieIterator() {
+			pending.push(root);
+			advance();
+		}
+
+		private int length() {
+			if (bitmap != null)
+				return bitmap.keys.length;
+			if (collision != null)
+				return collision.keys.length;
+			return 0;
+		}
+
+		private void advance() {
+			while (next >= length() && !pending.isEmpty()) {
+				Node<K, V> node = pending.pop();
+				next = 0;
+				if (node instanceof BitmapNode) {
+					bitmap = (BitmapNode<K, V>) node;
+					collision = null;
+					for (int i = bitmap.nodes.length - 1; i >= 0; i--)
+						pending.push(bitmap.nodes[i]);
+				} else {
+					bitmap = null;
+					collision = (CollisionNode<K, V>) node;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < length();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Entry<K, V> next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			Object[] keys = bitmap != null ? bitmap.keys : collision.keys;
+			Object[] values = bitmap != null ? bitmap.values : collision.values;
+			last = new SimpleImmutableEntry<>((K) keys[next], (V) values[next]);
+			next++;
+			advance();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			// the trie being iterated is never modified in place
+			PersistentMap.this.remove(last.getKey());
+			last = null;
+		}
+	}
+}
@@ -3,13 +3,23 @@ package it.unive.lisa.util.collections.externalSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A cache for creating {@link ExternalSet}s of the elements contained in this
- * cache.
+ * cache.<br>
+ * <br>
+ * This class is thread-safe, and it is meant to be shared among threads
+ * (e.g., the ones running fixpoints in parallel). Indexes of the elements are
+ * stored in a {@link ConcurrentHashMap}, while elements are stored in an
+ * append-only sequence of fixed-size chunks: looking up the index of an
+ * element, or the element at a given index, never blocks, and adding a new
+ * element only locks the bin of the map where the element falls (and, once in
+ * a while, the cache itself to allocate new chunks).
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -18,24 +28,33 @@ import java.util.Map;
 public class ExternalSetCache<T> {
 
 	/**
-	 * The collection of elements in this cache
+	 * The number of elements stored in each chunk
 	 */
-	private final List<T> elements = new ArrayList<>(16);
+	private static final int CHUNK_SIZE = 1024;
 
 	/**
-	 * A map from the elements to their index
+	 * The key used to store {@code null} inside {@link #indexes}
 	 */
-	private final Map<T, Integer> indexes = new HashMap<>(16);
+	private static final Object NULL = new Object();
 
 	/**
-	 * The next index available for new elements
+	 * A map from the elements to their index, where {@code null} is
+	 * represented by {@link #NULL}
 	 */
-	private int nextIndex = 0;
+	private final ConcurrentHashMap<Object, Integer> indexes = new ConcurrentHashMap<>(16);
 
 	/**
-	 * The index assigned to the {@code null} key, if any.
+	 * The chunks containing the elements in this cache, where the element
+	 * with index {@code i} is stored in position {@code i % CHUNK_SIZE} of the
+	 * chunk {@code i / CHUNK_SIZE}. Chunks are only added, and this array is
+	 * replaced with a longer copy when needed.
+	 */
+	private volatile AtomicReferenceArray<?>[] chunks = { new AtomicReferenceArray<>(CHUNK_SIZE) };
+
+	/**
+	 * The next index available for new elements
 	 */
-	private int indexOfNull = -1;
+	private final AtomicInteger nextIndex = new AtomicInteger();
 
 	/**
 	 * Builds an empty {@link ExternalSet} that uses this cache.
@@ -58,6 +77,22 @@ public class ExternalSetCache<T> {
 		return new BitExternalSet<>(this, iterable);
 	}
 
+	/**
+	 * Yields an {@link ExternalSet} that uses this cache and contains the
+	 * elements of the given set. If {@code set} is already an
+	 * {@link ExternalSet} that uses this cache, it is returned without being
+	 * copied.
+	 *
+	 * @param set the set
+	 *
+	 * @return the external set
+	 */
+	public ExternalSet<T> asExternalSet(Set<T> set) {
+		if (set instanceof ExternalSet && ((ExternalSet<T>) set).getCache() == this)
+			return (ExternalSet<T>) set;
+		return new BitExternalSet<>(this, set);
+	}
+
 	/**
 	 * Builds an {@link ExternalSet} that uses this cache and contains only the
 	 * given element.
@@ -87,12 +122,9 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}, or {@code -1}
 	 */
-	protected final synchronized int indexOf(T e) {
-		if (e == null)
-			return indexOfNull;
-
-		Integer result;
-		return (result = indexes.get(e)) == null ? -1 : result;
+	protected final int indexOf(T e) {
+		Integer result = indexes.get(e == null ? NULL : e);
+		return result == null ? -1 : result;
 	}
 
 	/**
@@ -103,23 +135,45 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}
 	 */
-	protected final synchronized int indexOfOrAdd(T e) {
-		if (e == null) {
-			if (indexOfNull == -1) {
-				elements.add(null);
-				indexOfNull = nextIndex++;
-			}
-			return indexOfNull;
-		}
+	protected final int indexOfOrAdd(T e) {
+		Object key = e == null ? NULL : e;
+		Integer result = indexes.get(key);
+		if (result != null)
+			return result;
+
+		// the element is stored before its index is published through the
+		// map, so that whoever obtains the index can also read the element
+		return indexes.computeIfAbsent(key, k -> {
+			int index = nextIndex.getAndIncrement();
+			store(index, k);
+			return index;
+		});
+	}
 
-		Integer result = indexes.get(e);
-		if (result == null)
-			return indexes.computeIfAbsent(e, el -> {
-				elements.add(e);
-				return nextIndex++;
-			});
+	@SuppressWarnings("unchecked")
+	private void store(int index, Object key) {
+		int chunk = index / CHUNK_SIZE;
+		AtomicReferenceArray<?>[] local = chunks;
+		if (chunk >= local.length)
+			synchronized (this) {
+				local = chunks;
+				if (chunk >= local.length) {
+					AtomicReferenceArray<?>[] grown = new AtomicReferenceArray<?>[Math.max(chunk + 1,
+							local.length * 2)];
+					System.arraycopy(local, 0, grown, 0, local.length);
+					for (int i = local.length; i < grown.length; i++)
+						grown[i] = new AtomicReferenceArray<>(CHUNK_SIZE);
+					chunks = local = grown;
+				}
+			}
+		((AtomicReferenceArray<Object>) local[chunk]).set(index % CHUNK_SIZE, key);
+	}
 
-		return result;
+	// yields null for indexes whose element has not been stored yet
+	private Object slot(int index) {
+		AtomicReferenceArray<?>[] local = chunks;
+		int chunk = index / CHUNK_SIZE;
+		return chunk < local.length ? local[chunk].get(index % CHUNK_SIZE) : null;
 	}
 
 	/**
@@ -129,18 +183,26 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the element
 	 */
-	protected final synchronized T get(int pos) {
-		return elements.get(pos);
+	@SuppressWarnings("unchecked")
+	protected final T get(int pos) {
+		Object key;
+		while ((key = slot(pos)) == null)
+			if (pos < 0 || pos >= nextIndex.get())
+				throw new IndexOutOfBoundsException("Index: " + pos + ", Size: " + size());
+			else
+				// the element is being stored by another thread
+				Thread.onSpinWait();
+		return key == NULL ? null : (T) key;
 	}
 
 	/**
-	 * Cleans the cache, removing all elements.
+	 * Cleans the cache, removing all elements. This method must not be invoked
+	 * while other threads are using this cache.
 	 */
 	public final synchronized void clear() {
-		elements.clear();
 		indexes.clear();
-		indexOfNull = -1;
-		nextIndex = 0;
+		chunks = new AtomicReferenceArray<?>[] { new AtomicReferenceArray<>(CHUNK_SIZE) };
+		nextIndex.set(0);
 	}
 
 	/**
@@ -148,22 +210,34 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the number of elements
 	 */
-	public final synchronized int size() {
-		return elements.size();
+	public final int size() {
+		return indexes.size();
 	}
 
 	@Override
-	public final synchronized String toString() {
-		return elements.toString();
+	public final String toString() {
+		return getAllElements().toString();
 	}
 
 	/**
-	 * Yields an unmodifiable view of all the elements currently in the cache.
-	 * For a view that always stays up-to-date, use {@link #mkUniversalSet()}.
+	 * Yields an unmodifiable snapshot of all the elements currently in the
+	 * cache. The snapshot is not affected by elements added to the cache after
+	 * this call, and can thus be safely iterated while other threads populate
+	 * the cache. For a view that always stays up-to-date, use
+	 * {@link #mkUniversalSet()}.
 	 * 
-	 * @return a view of the elements inside this cache
+	 * @return a snapshot of the elements inside this cache
 	 */
-	synchronized Collection<T> getAllElements() {
-		return Collections.unmodifiableCollection(elements);
+	@SuppressWarnings("unchecked")
+	Collection<T> getAllElements() {
+		int size = nextIndex.get();
+		List<T> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Object key = slot(i);
+			// elements that are still being added are skipped
+			if (key != null)
+				result.add(key == NULL ? null : (T) key);
+		}
+		return Collections.unmodifiableCollection(result);
 	}
 }
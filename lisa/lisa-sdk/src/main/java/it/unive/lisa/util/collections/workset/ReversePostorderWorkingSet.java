@@ -0,0 +1,193 @@
+package it.unive.lisa.util.collections.workset;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A working set that always yields the pending element with the lowest
+ * priority, where priorities are given by the reverse-postorder index of each
+ * element in a graph. Processing nodes in reverse-postorder ensures that, on
+ * acyclic portions of the graph, each node is processed only after all of its
+ * predecessors. Priorities are computed through
+ * {@link #prepare(Collection, Function)}: elements without a priority
+ * receive one when first pushed, after all previously known ones.<br>
+ * <br>
+ * Pushing an element that is already contained in this working set has no
+ * effect, and costs a constant time. This implementation is <b>not</b>
+ * thread-safe.
+ *
+ * @author Luca Negrini
+ *
+ * @param <E> the type of the elements that this working set contains
+ */
+public final class ReversePostorderWorkingSet<E> implements WorkingSet<E> {
+
+	private final Map<E, Integer> priorities;
+
+	private final List<E> elements;
+
+	private final BitSet pending;
+
+	private int size;
+
+	private ReversePostorderWorkingSet() {
+		priorities = new HashMap<>();
+		elements = new ArrayList<>();
+		pending = new BitSet();
+		size = 0;
+	}
+
+	/**
+	 * Yields a new, empty working set.
+	 *
+	 * @param <E> the type of the elements that the returned working set
+	 *                contains
+	 *
+	 * @return the new working set
+	 */
+	public static <E> ReversePostorderWorkingSet<E> mk() {
+		return new ReversePostorderWorkingSet<>();
+	}
+
+	/**
+	 * Recomputes the priorities of the elements of this working set, numbering
+	 * elements in reverse-postorder w.r.t. a depth-first visit of the graph
+	 * described by {@code followers}, starting from the given roots. Elements
+	 * that are not reachable from the roots will receive a priority when first
+	 * pushed. Elements contained in this working set are preserved.
+	 *
+	 * @param roots     the elements where the visit starts
+	 * @param followers the function yielding the successors of an element
+	 */
+	@Override
+	public void prepare(Collection<E> roots, Function<E, Collection<E>> followers) {
+		List<E> contained = new ArrayList<>(size);
+		for (int i = pending.nextSetBit(0); i >= 0; i = pending.nextSetBit(i + 1))
+			contained.add(elements.get(i));
+
+		List<E> postorder = postorder(roots, followers);
+		priorities.clear();
+		elements.clear();
+		pending.clear();
+		size = 0;
+		for (int i = postorder.size() - 1; i >= 0; i--)
+			rank(postorder.get(i));
+
+		contained.forEach(this::push);
+	}
+
+	private static <E> List<E> postorder(Collection<E> roots, Function<E, Collection<E>> followers) {
+		List<E> postorder = new ArrayList<>();
+		Map<E, Boolean> visited = new HashMap<>();
+		Deque<E> nodes = new ArrayDeque<>();
+		Deque<Iterator<E>> iterators = new ArrayDeque<>();
+
+		for (E root : roots) {
+			if (visited.containsKey(root))
+				continue;
+			visited.put(root, true);
+			nodes.push(root);
+			iterators.push(followers.apply(root).iterator());
+
+			while (!nodes.isEmpty()) {
+				Iterator<E> it = iterators.peek();
+				if (it.hasNext()) {
+					E next = it.next();
+					if (!visited.containsKey(next)) {
+						visited.put(next, true);
+						nodes.push(next);
+						iterators.push(followers.apply(next).iterator());
+					}
+				} else {
+					postorder.add(nodes.pop());
+					iterators.pop();
+				}
+			}
+		}
+
+		return postorder;
+	}
+
+	private int rank(E e) {
+		Integer p = priorities.get(e);
+		if (p != null)
+			return p;
+
+		int rank = elements.size();
+		priorities.put(e, rank);
+		elements.add(e);
+		return rank;
+	}
+
+	@Override
+	public void push(E e) {
+		int rank = rank(e);
+		if (!pending.get(rank)) {
+			pending.set(rank);
+			size++;
+		}
+	}
+
+	@Override
+	public E pop() {
+		int rank = pending.nextSetBit(0);
+		if (rank < 0)
+			throw new IllegalStateException("The working set is empty");
+		pending.clear(rank);
+		size--;
+		return elements.get(rank);
+	}
+
+	@Override
+	public E peek() {
+		int rank = pending.nextSetBit(0);
+		return rank < 0 ? null : elements.get(rank);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder res = new StringBuilder("[");
+		for (int i = pending.nextSetBit(0); i >= 0; i = pending.nextSetBit(i + 1)) {
+			if (res.length() > 1)
+				res.append(", ");
+			res.append(elements.get(i));
+		}
+		return res.append("]").toString();
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(elements, pending);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ReversePostorderWorkingSet<?> other = (ReversePostorderWorkingSet<?>) obj;
+		return Objects.equals(elements, other.elements) && Objects.equals(pending, other.pending);
+	}
+}
@@ -2,6 +2,8 @@ package it.unive.lisa.util.collections.workset;
 
 import it.unive.lisa.AnalysisSetupException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.function.Function;
 
 /**
  * A working set, containing items to be processed.
@@ -73,4 +75,16 @@ public interface WorkingSet<E> {
 	 * @return {@code true} if that condition holds
 	 */
 	boolean isEmpty();
+
+	/**
+	 * Prepares this working set for processing the elements of a graph,
+	 * before any of them is pushed. Working sets whose order depends on the
+	 * shape of the graph can use this callback to inspect it. The default
+	 * implementation does nothing.
+	 * 
+	 * @param roots     the elements where the processing starts
+	 * @param followers the function yielding the successors of an element
+	 */
+	default void prepare(Collection<E> roots, Function<E, Collection<E>> followers) {
+	}
 }
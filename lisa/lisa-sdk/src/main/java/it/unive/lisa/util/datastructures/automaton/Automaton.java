@@ -62,6 +62,27 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 */
 	protected Optional<Boolean> minimized;
 
+	/**
+	 * The adjacency index of {@link #transitions}, lazily built by
+	 * {@link #index()} and kept up-to-date by the methods modifying this
+	 * automaton.
+	 */
+	private volatile TransitionIndex<T> index;
+
+	/**
+	 * The canonical form of this automaton, together with its fingerprint,
+	 * lazily computed by {@link #canonical()}. Once it is computed, this
+	 * automaton can no longer be modified.
+	 */
+	private volatile Canonical<A> canonical;
+
+	/**
+	 * Whether or not this automaton is known to be its own canonical form,
+	 * set by {@link #markCanonical()} and reset by the methods modifying this
+	 * automaton.
+	 */
+	private volatile boolean selfCanonical;
+
 	/**
 	 * Builds an empty automaton.
 	 */
@@ -91,21 +112,65 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	}
 
 	/**
-	 * Yields the set of states of this automaton.
+	 * Yields the set of states of this automaton. The returned set is
+	 * unmodifiable if this automaton is frozen (see {@link #isFrozen()}).
 	 * 
 	 * @return the set of states
 	 */
 	public SortedSet<State> getStates() {
-		return states;
+		return isFrozen() ? Collections.unmodifiableSortedSet(states) : states;
 	}
 
 	/**
-	 * Yields the set of transitions contained in this automaton.
+	 * Yields the set of transitions contained in this automaton. The returned
+	 * set is unmodifiable if this automaton is frozen (see
+	 * {@link #isFrozen()}).
 	 * 
 	 * @return the set of transitions
 	 */
 	public SortedSet<Transition<T>> getTransitions() {
-		return transitions;
+		return isFrozen() ? Collections.unmodifiableSortedSet(transitions) : transitions;
+	}
+
+	/**
+	 * Yields whether or not this automaton is frozen, that is, if it can no
+	 * longer be modified. An automaton is frozen the first time its
+	 * {@link #canonicalForm()} is needed, either directly or through
+	 * {@link #fingerprint()} and {@link #isCanonicallyEqualTo(Automaton)}:
+	 * from that moment on, the automaton can be used as a value (e.g., as a
+	 * key of a cache), and all methods modifying it throw an
+	 * {@link IllegalStateException}. Subclasses must not modify
+	 * {@link #states} and {@link #transitions} directly after the automaton
+	 * has been built.
+	 * 
+	 * @return {@code true} if this automaton is frozen
+	 */
+	public boolean isFrozen() {
+		return canonical != null;
+	}
+
+	private void checkNotFrozen() {
+		if (isFrozen())
+			throw new IllegalStateException(
+					"An automaton cannot be modified after its canonical form has been computed");
+	}
+
+	/**
+	 * Yields the adjacency index of the transitions of this automaton, building
+	 * it if needed. The index is rebuilt also if {@link #transitions} has been
+	 * modified directly instead of through {@link #addTransition(Transition)}
+	 * and {@link #removeTransitions(Set)}.
+	 * 
+	 * @return the index
+	 */
+	private TransitionIndex<T> index() {
+		TransitionIndex<T> idx = index;
+		if (idx == null || idx.size() != transitions.size()) {
+			// concurrent builds yield equivalent indexes
+			idx = new TransitionIndex<>(transitions);
+			index = idx;
+		}
+		return idx;
 	}
 
 	/**
@@ -117,11 +182,13 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 *                                      part of this automaton
 	 */
 	public void addState(State s) {
+		checkNotFrozen();
 		if (states.stream().filter(ss -> ss.getId() == s.getId()).findAny().isPresent())
 			throw new IllegalArgumentException("A state with id " + s.getId() + " aready exists");
 		states.add(s);
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
+		this.selfCanonical = false;
 	}
 
 	/**
@@ -143,9 +210,13 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 * @param t the transition to add
 	 */
 	public void addTransition(Transition<T> t) {
-		transitions.add(t);
+		checkNotFrozen();
+		TransitionIndex<T> idx = index;
+		if (transitions.add(t) && idx != null)
+			idx.add(t);
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
+		this.selfCanonical = false;
 	}
 
 	/**
@@ -155,25 +226,35 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 * @param ts the set of transitions to remove
 	 */
 	public void removeTransitions(Set<Transition<T>> ts) {
-		transitions.removeAll(ts);
+		checkNotFrozen();
+		TransitionIndex<T> idx = index;
+		for (Transition<T> t : ts)
+			if (transitions.remove(t) && idx != null)
+				idx.remove(t);
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
+		this.selfCanonical = false;
 	}
 
 	/**
 	 * Removes every state in the given set from the ones of this automaton.
+	 * Transitions connecting the removed states are not affected.
 	 * 
 	 * @param ts the set of states to remove
 	 */
 	public void removeStates(Set<State> ts) {
+		checkNotFrozen();
 		states.removeAll(ts);
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
+		this.selfCanonical = false;
 	}
 
 	/**
-	 * Yields a minimal automaton equivalent to this one through Brzozowski's
-	 * minimization algorithm. <br>
+	 * Yields a minimal automaton equivalent to this one. The automaton is
+	 * first determinized, and then minimized through Hopcroft's partition
+	 * refinement algorithm. Deterministic automata with more than one initial
+	 * state are instead minimized through {@link #brzozowskiMinimize()}. <br>
 	 * <br>
 	 * This automaton is never modified.
 	 * 
@@ -183,6 +264,25 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	public A minimize() {
 		if (minimized.isPresent() && minimized.get())
 			return (A) this;
+		A a = determinize();
+		if (a.getInitialStates().size() != 1)
+			return a.brzozowskiMinimize();
+		return HopcroftMinimizer.minimize(a);
+	}
+
+	/**
+	 * Yields a minimal automaton equivalent to this one through Brzozowski's
+	 * minimization algorithm, that is, by determinizing the reverse of the
+	 * reverse of this automaton. Since intermediate automata can be
+	 * exponentially larger than this one, {@link #minimize()} should be
+	 * preferred. <br>
+	 * <br>
+	 * This automaton is never modified.
+	 * 
+	 * @return a minimal automaton equivalent to this one
+	 */
+	@SuppressWarnings("unchecked")
+	public A brzozowskiMinimize() {
 		A a = (A) this;
 		if (!isDeterministic())
 			a = determinize();
@@ -198,26 +298,108 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	}
 
 	/**
-	 * Yields the set of all outgoing transitions from the given state.
+	 * Yields the canonical form of this automaton, that is, its minimal
+	 * deterministic automaton with states numbered in breadth-first order from
+	 * the initial one, visiting outgoing transitions by increasing symbol. Two
+	 * automata recognize the same language if and only if their canonical forms
+	 * are equal. The canonical form is computed once and cached, and this
+	 * automaton is frozen (see {@link #isFrozen()}). <br>
+	 * <br>
+	 * This automaton is never modified.
+	 * 
+	 * @return the canonical form of this automaton
+	 */
+	public A canonicalForm() {
+		return canonical().form;
+	}
+
+	/**
+	 * Yields a 64-bit fingerprint of the language recognized by this
+	 * automaton, computed from its {@link #canonicalForm()}. Automata
+	 * recognizing the same language always have the same fingerprint, while
+	 * different fingerprints imply different languages. The fingerprint is
+	 * computed once and cached, and this automaton is frozen (see
+	 * {@link #isFrozen()}).
+	 * 
+	 * @return the fingerprint of this automaton
+	 */
+	public long fingerprint() {
+		return canonical().fingerprint;
+	}
+
+	/**
+	 * Yields {@code true} if and only if this automaton and {@code other}
+	 * recognize the same language, comparing their {@link #fingerprint()}s
+	 * first and their {@link #canonicalForm()}s only if those match. Unlike
+	 * {@link #isEqualTo(Automaton)}, the cost of this check after the first
+	 * call on each automaton is linear in the size of their canonical forms.
+	 * 
+	 * @param other the other automaton
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isCanonicallyEqualTo(A other) {
+		if (this == other)
+			return true;
+		Canonical<A> c = canonical(), oc = ((Automaton<A, T>) other).canonical();
+		return c.fingerprint == oc.fingerprint && c.form.equals(oc.form);
+	}
+
+	/**
+	 * Yields the canonical form of this automaton, computing it and freezing
+	 * this automaton if needed.
+	 * 
+	 * @return the canonical form
+	 */
+	@SuppressWarnings("unchecked")
+	private Canonical<A> canonical() {
+		Canonical<A> c = canonical;
+		if (c == null) {
+			// concurrent computations yield equal forms
+			if (selfCanonical)
+				c = new Canonical<>((A) this, Canonical.fingerprint(this));
+			else {
+				A form = HopcroftMinimizer.minimize(toSingleInitalState().determinize());
+				c = ((Automaton<A, T>) form).canonical();
+			}
+			canonical = c;
+		}
+		return c;
+	}
+
+	/**
+	 * Marks this automaton, that must be the result of
+	 * {@link HopcroftMinimizer}, as being its own canonical form. The
+	 * automaton is not frozen until its canonical form is first needed.
+	 */
+	void markCanonical() {
+		selfCanonical = true;
+	}
+
+	/**
+	 * Yields the set of all outgoing transitions from the given state. The
+	 * returned set is a read-only view that is not affected by later
+	 * modifications of this automaton.
 	 * 
 	 * @param s the state
 	 * 
 	 * @return the set of outgoing transitions
 	 */
 	public SortedSet<Transition<T>> getOutgoingTransitionsFrom(State s) {
-		return new TreeSet<>(transitions.stream().filter(t -> t.getSource().equals(s)).collect(Collectors.toSet()));
+		return index().outgoing(s);
 	}
 
 	/**
-	 * Yields the set of all ingoing transitions to the given state.
+	 * Yields the set of all ingoing transitions to the given state. The
+	 * returned set is a read-only view that is not affected by later
+	 * modifications of this automaton.
 	 * 
 	 * @param s the state
 	 * 
 	 * @return the set of ingoing transitions
 	 */
 	public SortedSet<Transition<T>> getIngoingTransitionsFrom(State s) {
-		return new TreeSet<>(
-				transitions.stream().filter(t -> t.getDestination().equals(s)).collect(Collectors.toSet()));
+		return index().ingoing(s);
 	}
 
 	/**
@@ -696,10 +878,12 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 		newStates.add(garbage);
 
 		// add additional transitions towards the garbage state
-		for (State s : states)
+		for (State s : states) {
+			SortedSet<T> readable = getReadableSymbolsFromState(s);
 			for (T c : sigma)
-				if (!getReadableSymbolsFromStates(Collections.singleton(s)).contains(c))
+				if (!readable.contains(c))
 					newTransitions.add(new Transition<>(s, garbage, c));
+		}
 
 		// self loops over garbage state
 		for (T c : sigma)
@@ -749,15 +933,7 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 		if (this == other)
 			return (A) this;
 
-		// !(!(first) u !(second))
-		Set<T> sigma = commonAlphabet(other);
-		A notFirst = complement(sigma);
-		A notSecond = other.complement(sigma);
-		A union = notFirst.union(notSecond);
-		A result = union.complement(null);
-		// the last operation of the complement is minimization, and thus the
-		// result is already minimized
-		return result;
+		return ProductExplorer.intersection((A) this, other).minimize();
 	}
 
 	/**
@@ -780,53 +956,24 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
+	@SuppressWarnings("unchecked")
 	public boolean isContained(A other) {
-		SortedSet<T> commonAlphabet = commonAlphabet(other);
-		A complement = other.complement(commonAlphabet);
-		A intersection = intersection(complement);
-		A minimal = intersection.minimize();
-		return minimal.acceptsEmptyLanguage();
+		return ProductExplorer.isContained((A) this, other);
 	}
 
 	/**
 	 * Checks if the automaton {@code this} accepts the same language as
-	 * {@code other}, implemented as:<br>
-	 * {@code language(A).equals(language(B))} if both automata are loop free,
-	 * {@code A.contains(B) && B.contains(A)} otherwise.<br>
+	 * {@code other}. Both automata are explored in lockstep through Hopcroft
+	 * and Karp's algorithm, stopping at the first string accepted by only one
+	 * of them.
 	 * 
 	 * @param other the other automaton
 	 * 
 	 * @return a boolean value that points out if the automata are equivalent
 	 */
+	@SuppressWarnings("unchecked")
 	public boolean isEqualTo(A other) {
-		A o = (A) other;
-		if (!hasCycle() && !o.hasCycle())
-			try {
-				return getLanguage().equals(o.getLanguage());
-			} catch (CyclicAutomatonException e) {
-				// safe to ignore
-			}
-
-		A a = minimize();
-		A b = o.minimize();
-
-		if (a.hasCycle() && !b.hasCycle() || !a.hasCycle() && b.hasCycle())
-			return false;
-
-		if (!a.hasCycle() && !b.hasCycle())
-			try {
-				return a.getLanguage().equals(b.getLanguage());
-			} catch (CyclicAutomatonException e) {
-				// safe to ignore
-			}
-
-		if (!a.isContained(b))
-			return false;
-
-		if (!b.isContained(a))
-			return false;
-
-		return true;
+		return ProductExplorer.isEquivalent((A) this, other);
 	}
 
 	/**
@@ -1124,9 +1271,9 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 		if (a.getInitialStates().isEmpty())
 			return EmptySet.INSTANCE;
 
-		// automaton that accepts only the empty string
+		// automaton that accepts only the empty string, or nothing at all
 		if (a.states.size() == 1 && a.transitions.size() == 0)
-			return Atom.EPSILON;
+			return a.states.first().isFinal() ? Atom.EPSILON : EmptySet.INSTANCE;
 
 		// automaton with one state -> cyclic automaton
 		if (a.states.size() == 1) {
@@ -1236,8 +1383,8 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	public SortedSet<Transition<T>> getAllTransitionsConnecting(State s1, State s2) {
 		SortedSet<Transition<T>> result = new TreeSet<>();
 
-		for (Transition<T> t : this.transitions)
-			if (t.getSource().equals(s1) && t.getDestination().equals(s2))
+		for (Transition<T> t : getOutgoingTransitionsFrom(s1))
+			if (t.getDestination().equals(s2))
 				result.add(t);
 
 		return result;
@@ -1327,7 +1474,7 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	private Set<Transition<T>[]> depthFirst(State src) {
 		Set<Transition<T>[]> paths = new HashSet<>();
 		Stack<Triple<State, Transition<T>[], int[]>> ws = new Stack<>();
-		ws.push(Triple.of(src, new Transition[0], new int[0]));
+		ws.push(Triple.of(src, (Transition<T>[]) new Transition<?>[0], new int[0]));
 
 		do {
 			Triple<State, Transition<T>[], int[]> current = ws.pop();
@@ -1738,4 +1885,83 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 * @return the equivalent regular expression
 	 */
 	public abstract RegularExpression symbolToRegex(T symbol);
-}
\ No newline at end of file
+
+	/**
+	 * Yields an automaton equivalent to this one where symbols are split such
+	 * that each of them is either equal to or disjoint from each symbol of
+	 * {@code other}. Algorithms comparing the symbols of two automata, such as
+	 * {@link #intersection(Automaton)} and {@link #isContained(Automaton)},
+	 * invoke this method on both operands first. The default implementation
+	 * yields this automaton, and should be overridden only by automata whose
+	 * symbols can partially overlap (e.g., intervals of characters).
+	 * 
+	 * @param other the other automaton
+	 * 
+	 * @return the automaton with split symbols
+	 */
+	@SuppressWarnings("unchecked")
+	protected A splitSymbols(A other) {
+		return (A) this;
+	}
+
+	/**
+	 * Yields an automaton equivalent to this one, that has just been produced
+	 * by {@link #minimize()}, where symbols are merged whenever this does not
+	 * change the recognized language. The result must have the same states of
+	 * this automaton, and must be uniquely determined by its language for
+	 * {@link #canonicalForm()} to stay canonical. The default implementation
+	 * yields this automaton.
+	 * 
+	 * @return the automaton with merged symbols
+	 */
+	@SuppressWarnings("unchecked")
+	protected A mergeSymbols() {
+		return (A) this;
+	}
+
+	/**
+	 * The canonical form of an automaton, together with its fingerprint and
+	 * the sizes of the automaton it was computed for.
+	 *
+	 * @param <A> the concrete type of the automaton
+	 */
+	private static final class Canonical<A extends Automaton<A, ?>> {
+
+		private final A form;
+
+		private final long fingerprint;
+
+		private Canonical(A form, long fingerprint) {
+			this.form = form;
+			this.fingerprint = fingerprint;
+		}
+
+		/**
+		 * Hashes the states and transitions of {@code form}, that must be a
+		 * canonical form: its state ids are thus consecutive, with the initial
+		 * state being the first one, and they can be hashed in place of the
+		 * states themselves.
+		 */
+		private static long fingerprint(Automaton<?, ?> form) {
+			long h = mix(0x9E3779B97F4A7C15L, form.states.size());
+			for (State s : form.states)
+				h = mix(h, s.isFinal() ? 1 : 0);
+			for (Transition<?> t : form.transitions) {
+				h = mix(h, t.getSource().getId());
+				h = mix(h, t.getDestination().getId());
+				h = mix(h, t.getSymbol().hashCode());
+			}
+			// murmur3 finalizer
+			h ^= h >>> 33;
+			h *= 0xFF51AFD7ED558CCDL;
+			h ^= h >>> 33;
+			h *= 0xC4CEB9FE1A85EC53L;
+			return h ^ (h >>> 33);
+		}
+
+		private static long mix(long h, long value) {
+			h = (h ^ value) * 0x9E3779B97F4A7C15L;
+			return h ^ (h >>> 29);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package it.unive.lisa.util.datastructures.automaton;
+
+import it.unive.lisa.util.collections.BoundedCache;
+import it.unive.lisa.util.collections.CacheScope;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * A bounded cache memoizing the results of binary operations on automata, such
+ * as unions, concatenations, widenings and inclusion checks. Operands are
+ * matched by the language they recognize: keys are hashed on the
+ * {@link Automaton#fingerprint()} of the operands, and matches are confirmed
+ * through {@link Automaton#isCanonicallyEqualTo(Automaton)}. Operations whose
+ * result depends on the structure of the operands, and not only on their
+ * languages (e.g., widenings), thus yield the result computed for the first
+ * pair of operands recognizing the same languages. Cached automata are shared
+ * among all callers, so neither the operands nor the results of cached
+ * operations must be modified. This class is thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the concrete type of the cached automata
+ */
+public class AutomatonCache<A extends Automaton<A, ?>> {
+
+	/**
+	 * A cache that does not store any result.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final AutomatonCache DISABLED = new AutomatonCache<>();
+
+	private final BoundedCache<Key<A>, A> automata;
+
+	private final BoundedCache<Key<A>, Boolean> predicates;
+
+	private AutomatonCache() {
+		automata = null;
+		predicates = null;
+	}
+
+	/**
+	 * Builds an empty cache holding at most (approximately) {@code capacity}
+	 * automata and {@code capacity} predicate results.
+	 *
+	 * @param capacity the maximum number of entries of each kind
+	 */
+	public AutomatonCache(int capacity) {
+		automata = new BoundedCache<>(capacity);
+		predicates = new BoundedCache<>(capacity);
+	}
+
+	/**
+	 * Builds an empty cache holding at most (approximately) {@code capacity}
+	 * automata and {@code capacity} predicate results, whose lookups are
+	 * counted by the given scope.
+	 *
+	 * @param scope    the scope owning the cache
+	 * @param capacity the maximum number of entries of each kind
+	 */
+	public AutomatonCache(CacheScope scope, int capacity) {
+		automata = scope.newCache(capacity);
+		predicates = scope.newCache(capacity);
+	}
+
+	/**
+	 * Yields the cache associated with {@code owner} in the
+	 * {@link CacheScope#current()} scope, creating it if needed. The cache is
+	 * thus shared by all the operations of {@code owner} during an execution
+	 * of LiSA, and it is discarded when the execution terminates. Outside of
+	 * an execution, a cache that does not store any result is returned.
+	 *
+	 * @param <A>      the concrete type of the cached automata
+	 * @param owner    the key identifying the cache in the scope
+	 * @param capacity the maximum number of entries of each kind, used if the
+	 *                     cache has to be created
+	 *
+	 * @return the cache associated with {@code owner}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <A extends Automaton<A, ?>> AutomatonCache<A> current(Object owner, int capacity) {
+		CacheScope scope = CacheScope.current();
+		if (scope == null)
+			return DISABLED;
+		return scope.resource(owner, () -> new AutomatonCache<>(scope, capacity));
+	}
+
+	/**
+	 * Yields the result of the operation {@code operation} between
+	 * {@code left} and {@code right}, computing it through {@code function} if
+	 * it is not cached.
+	 *
+	 * @param operation the name of the operation, distinguishing it from the
+	 *                      other ones using this cache
+	 * @param parameter an additional parameter of the operation (e.g., a
+	 *                      widening threshold), that is part of the cache key
+	 * @param left      the left operand
+	 * @param right     the right operand
+	 * @param function  the function computing the result
+	 *
+	 * @return the result of the operation
+	 */
+	public A apply(String operation, int parameter, A left, A right, BiFunction<A, A, A> function) {
+		if (automata == null)
+			return function.apply(left, right);
+		return automata.get(new Key<>(operation, parameter, left, right), k -> function.apply(left, right));
+	}
+
+	/**
+	 * Yields the result of the predicate {@code operation} on {@code left} and
+	 * {@code right}, computing it through {@code predicate} if it is not
+	 * cached.
+	 *
+	 * @param operation the name of the predicate, distinguishing it from the
+	 *                      other ones using this cache
+	 * @param left      the left operand
+	 * @param right     the right operand
+	 * @param predicate the predicate to test
+	 *
+	 * @return the result of the predicate
+	 */
+	public boolean test(String operation, A left, A right, BiPredicate<A, A> predicate) {
+		if (predicates == null)
+			return predicate.test(left, right);
+		return predicates.get(new Key<>(operation, 0, left, right), k -> predicate.test(left, right));
+	}
+
+	/**
+	 * Removes all entries from this cache.
+	 */
+	public void clear() {
+		if (automata != null) {
+			automata.clear();
+			predicates.clear();
+		}
+	}
+
+	private static final class Key<A extends Automaton<A, ?>> {
+
+		private final String operation;
+
+		private final int parameter;
+
+		private final A left;
+
+		private final A right;
+
+		private final int hash;
+
+		private Key(String operation, int parameter, A left, A right) {
+			this.operation = operation;
+			this.parameter = parameter;
+			this.left = left;
+			this.right = right;
+			int result = operation.hashCode();
+			result = 31 * result + parameter;
+			result = 31 * result + Long.hashCode(left.fingerprint());
+			result = 31 * result + Long.hashCode(right.fingerprint());
+			this.hash = result;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key<?> other = (Key<?>) obj;
+			return hash == other.hash
+					&& parameter == other.parameter
+					&& operation.equals(other.operation)
+					&& sameLanguage(left, other.left)
+					&& sameLanguage(right, other.right);
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <A extends Automaton<A, ?>> boolean sameLanguage(A first, Automaton<?, ?> second) {
+			return first.getClass() == second.getClass() && first.isCanonicallyEqualTo((A) second);
+		}
+	}
+}
@@ -0,0 +1,348 @@
+package it.unive.lisa.util.datastructures.automaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Minimization of deterministic automata through Hopcroft's partition
+ * refinement algorithm, that runs in {@code O(n k log n)} for {@code n} states
+ * and {@code k} symbols. The transition function of the automaton is completed
+ * with an implicit sink state, and states that are not reachable from the
+ * initial one or that cannot reach a final one are discarded before
+ * refinement: if the initial state itself cannot reach a final one, the result
+ * is made of a single non-final initial state.<br>
+ * <br>
+ * States of the minimal automaton are numbered in breadth-first order from the
+ * initial one, visiting outgoing transitions by increasing symbol, as done by
+ * {@link Automaton#determinize()}, and symbols are finally merged through
+ * {@link Automaton#mergeSymbols()}. The result is thus canonical: automata
+ * recognizing the same language are minimized to equal automata.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class HopcroftMinimizer {
+
+	private HopcroftMinimizer() {
+		// utility class
+	}
+
+	/**
+	 * Yields the minimal automaton equivalent to {@code a}, that must be
+	 * deterministic and must have at most one initial state. {@code a} is
+	 * never modified.
+	 *
+	 * @param <A> the concrete type of the automaton
+	 * @param <T> the concrete type of {@link TransitionSymbol}s of the
+	 *                automaton
+	 * @param a   the automaton to minimize
+	 *
+	 * @return the minimal automaton equivalent to {@code a}
+	 */
+	static <A extends Automaton<A, T>, T extends TransitionSymbol<T>> A minimize(Automaton<A, T> a) {
+		State initial = a.getInitialState();
+		List<State> live = initial == null ? List.of() : liveStates(a, initial);
+		if (live.isEmpty()) {
+			SortedSet<State> states = new TreeSet<>();
+			states.add(new State(0, true, false));
+			return mark(a.from(states, new TreeSet<>()));
+		}
+
+		int n = live.size(), sink = n, total = n + 1;
+		Map<State, Integer> ids = new HashMap<>(total * 2);
+		for (int i = 0; i < n; i++)
+			ids.put(live.get(i), i);
+
+		// dense symbol ids, assigned by increasing symbol
+		TreeMap<T, Integer> symbolIds = new TreeMap<>();
+		for (State s : live)
+			for (Transition<T> t : a.getOutgoingTransitionsFrom(s))
+				if (ids.containsKey(t.getDestination()))
+					symbolIds.put(t.getSymbol(), 0);
+		int k = 0;
+		List<T> symbols = new ArrayList<>(symbolIds.size());
+		for (Map.Entry<T, Integer> entry : symbolIds.entrySet()) {
+			entry.setValue(k++);
+			symbols.add(entry.getKey());
+		}
+
+		// complete transition function, with missing transitions going to
+		// the sink
+		int[] delta = new int[total * k];
+		Arrays.fill(delta, sink);
+		for (int p = 0; p < n; p++)
+			for (Transition<T> t : a.getOutgoingTransitionsFrom(live.get(p))) {
+				Integer q = ids.get(t.getDestination());
+				if (q != null)
+					delta[p * k + symbolIds.get(t.getSymbol())] = q;
+			}
+
+		// inverse transition function: the predecessors of q through symbol
+		// c are preds[predStart[q * k + c] .. predStart[q * k + c + 1])
+		int[] predStart = new int[total * k + 1];
+		for (int p = 0; p < total; p++)
+			for (int c = 0; c < k; c++)
+				predStart[delta[p * k + c] * k + c + 1]++;
+		for (int i = 0; i < total * k; i++)
+			predStart[i + 1] += predStart[i];
+		int[] preds = new int[total * k];
+		int[] fill = Arrays.copyOf(predStart, total * k);
+		for (int p = 0; p < total; p++)
+			for (int c = 0; c < k; c++)
+				preds[fill[delta[p * k + c] * k + c]++] = p;
+
+		Partition partition = new Partition(total);
+		for (int p = 0; p < n; p++)
+			if (live.get(p).isFinal())
+				partition.mark(p);
+		partition.split(0);
+
+		// block 0 is the one containing the sink, block 1 contains final
+		// states: both are non-empty since there is at least a live state
+		Splitters splitters = new Splitters(total, k);
+		for (int c = 0; c < k; c++)
+			splitters.add(partition.size(0) <= partition.size(1) ? 0 : 1, c);
+
+		int[] splitter = new int[total];
+		int[] touched = new int[total];
+		while (!splitters.isEmpty()) {
+			int pair = splitters.pop();
+			int block = pair / k, c = pair % k;
+
+			// the splitter is copied since marking reorders blocks
+			int size = partition.elements(block, splitter);
+			int ntouched = 0;
+			for (int i = 0; i < size; i++) {
+				int q = splitter[i];
+				for (int j = predStart[q * k + c]; j < predStart[q * k + c + 1]; j++)
+					if (partition.mark(preds[j]))
+						touched[ntouched++] = partition.blockOf(preds[j]);
+			}
+
+			for (int i = 0; i < ntouched; i++) {
+				int b = touched[i];
+				int nb = partition.split(b);
+				if (nb < 0)
+					continue;
+				for (int d = 0; d < k; d++)
+					if (splitters.contains(b, d) || partition.size(nb) <= partition.size(b))
+						splitters.add(nb, d);
+					else
+						splitters.add(b, d);
+			}
+		}
+
+		// one state for each block reachable from the initial one
+		int[] names = new int[partition.count()];
+		Arrays.fill(names, -1);
+		List<State> states = new ArrayList<>();
+		int[] queue = new int[partition.count()];
+		int head = 0, tail = 0;
+		int initialBlock = partition.blockOf(ids.get(initial));
+		names[initialBlock] = 0;
+		states.add(new State(0, true, live.get(partition.representative(initialBlock)).isFinal()));
+		queue[tail++] = initialBlock;
+
+		SortedSet<Transition<T>> transitions = new TreeSet<>();
+		while (head < tail) {
+			int b = queue[head++];
+			int rep = partition.representative(b);
+			for (int c = 0; c < k; c++) {
+				int q = delta[rep * k + c];
+				if (q == sink)
+					continue;
+				int target = partition.blockOf(q);
+				if (names[target] < 0) {
+					names[target] = states.size();
+					states.add(new State(states.size(), false, live.get(q).isFinal()));
+					queue[tail++] = target;
+				}
+				transitions.add(new Transition<>(states.get(names[b]), states.get(names[target]), symbols.get(c)));
+			}
+		}
+
+		return mark(a.from(new TreeSet<>(states), transitions));
+	}
+
+	private static <A extends Automaton<A, T>, T extends TransitionSymbol<T>> A mark(A minimal) {
+		A a = minimal.mergeSymbols();
+		a.deterministic = Optional.of(true);
+		a.minimized = Optional.of(true);
+		a.markCanonical();
+		return a;
+	}
+
+	/**
+	 * Yields the states of {@code a} that are reachable from {@code initial}
+	 * and that can reach a final state. The returned list is empty if
+	 * {@code initial} cannot reach a final state.
+	 */
+	private static <A extends Automaton<A, T>, T extends TransitionSymbol<T>> List<State> liveStates(
+			Automaton<A, T> a,
+			State initial) {
+		Set<State> reachable = new HashSet<>();
+		List<State> ws = new ArrayList<>();
+		reachable.add(initial);
+		ws.add(initial);
+		for (int i = 0; i < ws.size(); i++)
+			for (Transition<T> t : a.getOutgoingTransitionsFrom(ws.get(i)))
+				if (reachable.add(t.getDestination()))
+					ws.add(t.getDestination());
+
+		Set<State> coreachable = new HashSet<>();
+		List<State> live = new ArrayList<>();
+		for (State s : reachable)
+			if (s.isFinal() && coreachable.add(s))
+				live.add(s);
+		for (int i = 0; i < live.size(); i++)
+			for (Transition<T> t : a.getIngoingTransitionsFrom(live.get(i)))
+				if (reachable.contains(t.getSource()) && coreachable.add(t.getSource()))
+					live.add(t.getSource());
+
+		return coreachable.contains(initial) ? live : List.of();
+	}
+
+	/**
+	 * A partition of the integers {@code 0..n-1} into blocks. Elements are
+	 * stored in a single array where each block occupies a contiguous range,
+	 * whose first part holds the marked elements of the block.
+	 */
+	private static final class Partition {
+
+		private final int[] elements;
+
+		private final int[] location;
+
+		private final int[] blockOf;
+
+		private final int[] first;
+
+		private final int[] end;
+
+		private final int[] marked;
+
+		private int count;
+
+		private Partition(int n) {
+			elements = new int[n];
+			location = new int[n];
+			blockOf = new int[n];
+			first = new int[n];
+			end = new int[n];
+			marked = new int[n];
+			for (int i = 0; i < n; i++)
+				elements[i] = location[i] = i;
+			end[0] = n;
+			count = 1;
+		}
+
+		private int count() {
+			return count;
+		}
+
+		private int blockOf(int e) {
+			return blockOf[e];
+		}
+
+		private int size(int b) {
+			return end[b] - first[b];
+		}
+
+		private int representative(int b) {
+			return elements[first[b]];
+		}
+
+		private int elements(int b, int[] target) {
+			int size = size(b);
+			System.arraycopy(elements, first[b], target, 0, size);
+			return size;
+		}
+
+		/**
+		 * Marks {@code e}, yielding {@code true} if it is the first marked
+		 * element of its block.
+		 */
+		private boolean mark(int e) {
+			int b = blockOf[e], pos = location[e], target = first[b] + marked[b];
+			if (pos < target)
+				return false;
+			int other = elements[target];
+			elements[target] = e;
+			location[e] = target;
+			elements[pos] = other;
+			location[other] = pos;
+			return marked[b]++ == 0;
+		}
+
+		/**
+		 * Moves the marked elements of {@code b} to a new block, unmarking
+		 * them, and yields the new block, or {@code -1} if either all or none
+		 * of the elements of {@code b} were marked.
+		 */
+		private int split(int b) {
+			int m = marked[b];
+			marked[b] = 0;
+			if (m == 0 || m == size(b))
+				return -1;
+			int nb = count++;
+			first[nb] = first[b];
+			end[nb] = first[b] + m;
+			first[b] = end[nb];
+			for (int i = first[nb]; i < end[nb]; i++)
+				blockOf[elements[i]] = nb;
+			return nb;
+		}
+	}
+
+	/**
+	 * The set of pending splitters, that is, pairs of a block and a symbol.
+	 */
+	private static final class Splitters {
+
+		private final int k;
+
+		private final boolean[] pending;
+
+		private int[] stack;
+
+		private int size;
+
+		private Splitters(int blocks, int k) {
+			this.k = k;
+			pending = new boolean[blocks * k];
+			stack = new int[Math.max(16, k * 2)];
+		}
+
+		private boolean isEmpty() {
+			return size == 0;
+		}
+
+		private boolean contains(int b, int c) {
+			return pending[b * k + c];
+		}
+
+		private void add(int b, int c) {
+			int pair = b * k + c;
+			if (pending[pair])
+				return;
+			pending[pair] = true;
+			if (size == stack.length)
+				stack = Arrays.copyOf(stack, size * 2);
+			stack[size++] = pair;
+		}
+
+		private int pop() {
+			int pair = stack[--size];
+			pending[pair] = false;
+			return pair;
+		}
+	}
+}
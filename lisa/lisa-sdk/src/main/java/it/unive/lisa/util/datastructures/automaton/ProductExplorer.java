@@ -0,0 +1,288 @@
+package it.unive.lisa.util.datastructures.automaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Operations on the product of two automata that explore it lazily, starting
+ * from the pair of initial states and visiting only reachable pairs. After
+ * splitting their symbols through {@link Automaton#splitSymbols(Automaton)},
+ * both automata are explored through deterministic views that are built on
+ * the fly by the subset construction, so that each pair has at most one
+ * successor for each symbol and only the subsets of states that are actually
+ * reached are ever created. Missing transitions are treated as going to an
+ * implicit sink state, represented as {@code null}.<br>
+ * <br>
+ * Yes/no questions, that is, inclusion and equivalence, stop at the first
+ * counterexample without building either the product or any complement.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class ProductExplorer {
+
+	private ProductExplorer() {
+		// utility class
+	}
+
+	/**
+	 * Yields {@code true} if and only if the language recognized by {@code a}
+	 * is contained in the one recognized by {@code b}. The exploration stops
+	 * at the first reachable pair where {@code a} accepts and {@code b} does
+	 * not.
+	 *
+	 * @param <A> the concrete type of the automata
+	 * @param <T> the concrete type of {@link TransitionSymbol}s of the
+	 *                automata
+	 * @param a   the first automaton
+	 * @param b   the second automaton
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	static <A extends Automaton<A, T>, T extends TransitionSymbol<T>> boolean isContained(A a, A b) {
+		Dfa<T> first = new Dfa<>(a.splitSymbols(b)), second = new Dfa<>(b.splitSymbols(a));
+		if (first.initial == null)
+			return true;
+
+		Map<State, Map<State, Boolean>> visited = new HashMap<>();
+		List<State[]> ws = new ArrayList<>();
+		ws.add(new State[] { first.initial, second.initial });
+		visited.computeIfAbsent(first.initial, s -> new HashMap<>()).put(second.initial, true);
+		while (!ws.isEmpty()) {
+			State[] pair = ws.remove(ws.size() - 1);
+			State p = pair[0], q = pair[1];
+			if (p.isFinal() && (q == null || !q.isFinal()))
+				return false;
+
+			for (Map.Entry<T, State> succ : first.successors(p).entrySet()) {
+				State pp = succ.getValue(), qq = second.successor(q, succ.getKey());
+				if (visited.computeIfAbsent(pp, s -> new HashMap<>()).put(qq, true) == null)
+					ws.add(new State[] { pp, qq });
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Yields {@code true} if and only if {@code a} and {@code b} recognize the
+	 * same language. This is decided through Hopcroft and Karp's algorithm:
+	 * pairs of states that must be equivalent are merged in a union-find
+	 * structure, and only pairs that are not already known to be equivalent
+	 * are explored. The exploration stops at the first pair where exactly one
+	 * of the states is final.
+	 *
+	 * @param <A> the concrete type of the automata
+	 * @param <T> the concrete type of {@link TransitionSymbol}s of the
+	 *                automata
+	 * @param a   the first automaton
+	 * @param b   the second automaton
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	static <A extends Automaton<A, T>, T extends TransitionSymbol<T>> boolean isEquivalent(A a, A b) {
+		Dfa<T> first = new Dfa<>(a.splitSymbols(b)), second = new Dfa<>(b.splitSymbols(a));
+
+		// the nodes of the union-find structure are the states of the two
+		// views, numbered as they are reached, plus their sinks
+		UnionFind partition = new UnionFind();
+		Map<State, Integer> firstIds = new HashMap<>(), secondIds = new HashMap<>();
+		int firstSink = partition.add(), secondSink = partition.add();
+
+		List<State[]> ws = new ArrayList<>();
+		ws.add(new State[] { first.initial, second.initial });
+		partition.union(id(firstIds, first.initial, firstSink, partition),
+				id(secondIds, second.initial, secondSink, partition));
+		while (!ws.isEmpty()) {
+			State[] pair = ws.remove(ws.size() - 1);
+			State p = pair[0], q = pair[1];
+			if ((p != null && p.isFinal()) != (q != null && q.isFinal()))
+				return false;
+
+			SortedSet<T> symbols = new TreeSet<>(first.successors(p).keySet());
+			symbols.addAll(second.successors(q).keySet());
+			for (T symbol : symbols) {
+				State pp = first.successor(p, symbol), qq = second.successor(q, symbol);
+				if (partition.union(id(firstIds, pp, firstSink, partition), id(secondIds, qq, secondSink, partition)))
+					ws.add(new State[] { pp, qq });
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Yields the automaton recognizing the intersection of the languages
+	 * recognized by {@code a} and {@code b}, built from the reachable pairs of
+	 * states where both automata can move. The returned automaton is
+	 * deterministic, but it is not minimized.
+	 *
+	 * @param <A> the concrete type of the automata
+	 * @param <T> the concrete type of {@link TransitionSymbol}s of the
+	 *                automata
+	 * @param a   the first automaton
+	 * @param b   the second automaton
+	 *
+	 * @return the intersection automaton
+	 */
+	static <A extends Automaton<A, T>, T extends TransitionSymbol<T>> A intersection(A a, A b) {
+		Dfa<T> first = new Dfa<>(a.splitSymbols(b)), second = new Dfa<>(b.splitSymbols(a));
+		SortedSet<State> states = new TreeSet<>();
+		SortedSet<Transition<T>> transitions = new TreeSet<>();
+		if (first.initial == null || second.initial == null) {
+			states.add(new State(0, true, false));
+			return a.from(states, transitions);
+		}
+
+		Map<State, Map<State, State>> names = new HashMap<>();
+		List<State[]> ws = new ArrayList<>();
+		State init = new State(0, true, first.initial.isFinal() && second.initial.isFinal());
+		names.computeIfAbsent(first.initial, s -> new HashMap<>()).put(second.initial, init);
+		states.add(init);
+		ws.add(new State[] { first.initial, second.initial });
+		for (int i = 0; i < ws.size(); i++) {
+			State p = ws.get(i)[0], q = ws.get(i)[1];
+			State source = names.get(p).get(q);
+			for (Map.Entry<T, State> succ : first.successors(p).entrySet()) {
+				State pp = succ.getValue(), qq = second.successor(q, succ.getKey());
+				if (qq == null)
+					continue;
+
+				Map<State, State> row = names.computeIfAbsent(pp, s -> new HashMap<>());
+				State dest = row.get(qq);
+				if (dest == null) {
+					dest = new State(states.size(), false, pp.isFinal() && qq.isFinal());
+					row.put(qq, dest);
+					states.add(dest);
+					ws.add(new State[] { pp, qq });
+				}
+				transitions.add(new Transition<>(source, dest, succ.getKey()));
+			}
+		}
+
+		A result = a.from(states, transitions);
+		result.deterministic = Optional.of(true);
+		return result;
+	}
+
+	private static int id(Map<State, Integer> ids, State s, int sink, UnionFind partition) {
+		return s == null ? sink : ids.computeIfAbsent(s, k -> partition.add());
+	}
+
+	/**
+	 * A union-find structure over integers, that grows as new elements are
+	 * added.
+	 */
+	private static final class UnionFind {
+
+		private int[] parent = new int[16];
+
+		private int size = 0;
+
+		private int add() {
+			if (size == parent.length)
+				parent = Arrays.copyOf(parent, size * 2);
+			parent[size] = size;
+			return size++;
+		}
+
+		private int find(int x) {
+			while (parent[x] != x) {
+				parent[x] = parent[parent[x]];
+				x = parent[x];
+			}
+			return x;
+		}
+
+		private boolean union(int x, int y) {
+			int rx = find(x), ry = find(y);
+			if (rx == ry)
+				return false;
+			parent[rx] = ry;
+			return true;
+		}
+	}
+
+	/**
+	 * A deterministic view of an automaton, built on the fly through the
+	 * subset construction. Each state of the view stands for the (epsilon
+	 * closed) set of states of the automaton that can be reached by reading
+	 * the same string, and it is created when it is first reached. The
+	 * initial state of the view stands for all the initial states of the
+	 * automaton. Epsilon closures and successors are memoized.
+	 *
+	 * @param <T> the concrete type of {@link TransitionSymbol}s of the
+	 *                automaton
+	 */
+	private static final class Dfa<T extends TransitionSymbol<T>> {
+
+		private final Automaton<?, T> automaton;
+
+		private final State initial;
+
+		private final Map<Set<State>, State> names = new HashMap<>();
+
+		private final Map<State, Set<State>> subsets = new HashMap<>();
+
+		private final Map<State, Set<State>> closures = new HashMap<>();
+
+		private final Map<State, Map<T, State>> successors = new HashMap<>();
+
+		private Dfa(Automaton<?, T> automaton) {
+			this.automaton = automaton;
+			Set<State> init = closure(automaton.getInitialStates());
+			initial = init.isEmpty() ? null : name(init, true);
+		}
+
+		private Set<State> closure(Collection<State> states) {
+			Set<State> result = new TreeSet<>();
+			for (State s : states)
+				result.addAll(closures.computeIfAbsent(s, automaton::epsilonClosure));
+			return result;
+		}
+
+		private State name(Set<State> subset, boolean isInitial) {
+			State name = names.get(subset);
+			if (name == null) {
+				boolean isFinal = false;
+				for (State s : subset)
+					isFinal |= s.isFinal();
+				name = new State(names.size(), isInitial, isFinal);
+				names.put(subset, name);
+				subsets.put(name, subset);
+			}
+			return name;
+		}
+
+		private Map<T, State> successors(State s) {
+			if (s == null)
+				return Map.of();
+			Map<T, State> result = successors.get(s);
+			if (result != null)
+				return result;
+
+			Map<T, Set<State>> targets = new HashMap<>();
+			for (State q : subsets.get(s))
+				for (Transition<T> t : automaton.getOutgoingTransitionsFrom(q))
+					if (!t.isEpsilonTransition())
+						targets.computeIfAbsent(t.getSymbol(), k -> new TreeSet<>()).add(t.getDestination());
+
+			result = new HashMap<>();
+			for (Map.Entry<T, Set<State>> target : targets.entrySet())
+				result.put(target.getKey(), name(closure(target.getValue()), false));
+			successors.put(s, result);
+			return result;
+		}
+
+		private State successor(State s, T symbol) {
+			return successors(s).get(symbol);
+		}
+	}
+}
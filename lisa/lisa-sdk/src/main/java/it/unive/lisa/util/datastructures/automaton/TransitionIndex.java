@@ -0,0 +1,308 @@
+package it.unive.lisa.util.datastructures.automaton;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * An adjacency index over the transitions of an {@link Automaton}. Each state
+ * appearing in a transition is given a dense numeric id, that is used to access
+ * the sorted arrays of its outgoing and ingoing transitions. Arrays are never
+ * modified once built: adding or removing a transition replaces the arrays of
+ * the states it connects, so that the read-only views returned by
+ * {@link #outgoing(State)} and {@link #ingoing(State)} are never affected by
+ * later modifications.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the concrete type of {@link TransitionSymbol}s of the indexed
+ *                transitions
+ */
+final class TransitionIndex<T extends TransitionSymbol<T>> {
+
+	/**
+	 * The dense ids of the states appearing in the indexed transitions
+	 */
+	private final Map<State, Integer> ids;
+
+	/**
+	 * The sorted outgoing transitions of each state, indexed by dense id
+	 */
+	private Transition<T>[][] outgoing;
+
+	/**
+	 * The sorted ingoing transitions of each state, indexed by dense id
+	 */
+	private Transition<T>[][] ingoing;
+
+	/**
+	 * The number of indexed transitions
+	 */
+	private int size;
+
+	/**
+	 * Builds the index of the given transitions.
+	 *
+	 * @param transitions the sorted transitions to index
+	 */
+	TransitionIndex(Collection<Transition<T>> transitions) {
+		ids = new HashMap<>();
+		for (Transition<T> t : transitions) {
+			ids.putIfAbsent(t.getSource(), ids.size());
+			ids.putIfAbsent(t.getDestination(), ids.size());
+		}
+
+		int[] outCount = new int[ids.size()], inCount = new int[ids.size()];
+		for (Transition<T> t : transitions) {
+			outCount[ids.get(t.getSource())]++;
+			inCount[ids.get(t.getDestination())]++;
+		}
+
+		outgoing = matrix(ids.size());
+		ingoing = matrix(ids.size());
+		for (int i = 0; i < outgoing.length; i++) {
+			outgoing[i] = array(outCount[i]);
+			ingoing[i] = array(inCount[i]);
+		}
+
+		// transitions are iterated in their natural order, so appending
+		// them yields sorted arrays
+		Arrays.fill(outCount, 0);
+		Arrays.fill(inCount, 0);
+		for (Transition<T> t : transitions) {
+			int src = ids.get(t.getSource()), dest = ids.get(t.getDestination());
+			outgoing[src][outCount[src]++] = t;
+			ingoing[dest][inCount[dest]++] = t;
+			size++;
+		}
+	}
+
+	/**
+	 * Yields the number of transitions in this index.
+	 *
+	 * @return the number of transitions
+	 */
+	int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int idOf(State s) {
+		Integer id = ids.get(s);
+		if (id != null)
+			return id;
+
+		int fresh = ids.size();
+		ids.put(s, fresh);
+		if (fresh >= outgoing.length) {
+			int capacity = Math.max(fresh + 1, outgoing.length * 2);
+			outgoing = Arrays.copyOf(outgoing, capacity);
+			ingoing = Arrays.copyOf(ingoing, capacity);
+		}
+		outgoing[fresh] = array(0);
+		ingoing[fresh] = array(0);
+		return fresh;
+	}
+
+	/**
+	 * Adds the given transition to this index. The transition must not be
+	 * already part of it.
+	 *
+	 * @param t the transition to add
+	 */
+	void add(Transition<T> t) {
+		int src = idOf(t.getSource()), dest = idOf(t.getDestination());
+		outgoing[src] = insert(outgoing[src], t);
+		ingoing[dest] = insert(ingoing[dest], t);
+		size++;
+	}
+
+	/**
+	 * Removes the given transition from this index, if it is part of it.
+	 *
+	 * @param t the transition to remove
+	 */
+	void remove(Transition<T> t) {
+		Integer src = ids.get(t.getSource()), dest = ids.get(t.getDestination());
+		if (src == null || dest == null)
+			return;
+
+		Transition<T>[] out = delete(outgoing[src], t);
+		if (out == outgoing[src])
+			return;
+		outgoing[src] = out;
+		ingoing[dest] = delete(ingoing[dest], t);
+		size--;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends TransitionSymbol<T>> Transition<T>[] array(int length) {
+		return (Transition<T>[]) new Transition<?>[length];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends TransitionSymbol<T>> Transition<T>[][] matrix(int length) {
+		return (Transition<T>[][]) new Transition<?>[length][];
+	}
+
+	private static <T extends TransitionSymbol<T>> Transition<T>[] insert(Transition<T>[] array, Transition<T> t) {
+		int pos = Arrays.binarySearch(array, t);
+		if (pos >= 0)
+			return array;
+		pos = -pos - 1;
+		Transition<T>[] result = Arrays.copyOf(array, array.length + 1);
+		System.arraycopy(array, pos, result, pos + 1, array.length - pos);
+		result[pos] = t;
+		return result;
+	}
+
+	private static <T extends TransitionSymbol<T>> Transition<T>[] delete(Transition<T>[] array, Transition<T> t) {
+		int pos = Arrays.binarySearch(array, t);
+		if (pos < 0)
+			return array;
+		Transition<T>[] result = Arrays.copyOf(array, array.length - 1);
+		System.arraycopy(array, pos + 1, result, pos, array.length - pos - 1);
+		return result;
+	}
+
+	/**
+	 * Yields a read-only view of the transitions leaving the given state.
+	 *
+	 * @param s the state
+	 *
+	 * @return the outgoing transitions
+	 */
+	SortedSet<Transition<T>> outgoing(State s) {
+		Integer id = ids.get(s);
+		return new View<>(id == null ? null : outgoing[id]);
+	}
+
+	/**
+	 * Yields a read-only view of the transitions reaching the given state.
+	 *
+	 * @param s the state
+	 *
+	 * @return the ingoing transitions
+	 */
+	SortedSet<Transition<T>> ingoing(State s) {
+		Integer id = ids.get(s);
+		return new View<>(id == null ? null : ingoing[id]);
+	}
+
+	/**
+	 * A read-only {@link SortedSet} backed by a range of a sorted array of
+	 * transitions, that is never modified.
+	 *
+	 * @param <T> the concrete type of {@link TransitionSymbol}s of the
+	 *                transitions
+	 */
+	private static final class View<T extends TransitionSymbol<T>> extends AbstractSet<Transition<T>>
+			implements SortedSet<Transition<T>> {
+
+		private final Transition<T>[] array;
+
+		private final int from;
+
+		private final int to;
+
+		private View(Transition<T>[] array) {
+			this(array, 0, array == null ? 0 : array.length);
+		}
+
+		private View(Transition<T>[] array, int from, int to) {
+			this.array = array;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return from == to;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Transition) || from == to)
+				return false;
+			try {
+				return Arrays.binarySearch(array, from, to, o) >= 0;
+			} catch (ClassCastException e) {
+				return false;
+			}
+		}
+
+		@Override
+		public Iterator<Transition<T>> iterator() {
+			return new Iterator<>() {
+
+				private int next = from;
+
+				@Override
+				public boolean hasNext() {
+					return next < to;
+				}
+
+				@Override
+				public Transition<T> next() {
+					if (next >= to)
+						throw new NoSuchElementException();
+					return array[next++];
+				}
+			};
+		}
+
+		@Override
+		public Comparator<? super Transition<T>> comparator() {
+			return null;
+		}
+
+		private int position(Transition<T> t) {
+			if (from == to)
+				return from;
+			int pos = Arrays.binarySearch(array, from, to, t);
+			return pos >= 0 ? pos : -pos - 1;
+		}
+
+		@Override
+		public SortedSet<Transition<T>> subSet(Transition<T> fromElement, Transition<T> toElement) {
+			if (fromElement.compareTo(toElement) > 0)
+				throw new IllegalArgumentException("fromElement > toElement");
+			return new View<>(array, position(fromElement), position(toElement));
+		}
+
+		@Override
+		public SortedSet<Transition<T>> headSet(Transition<T> toElement) {
+			return new View<>(array, from, position(toElement));
+		}
+
+		@Override
+		public SortedSet<Transition<T>> tailSet(Transition<T> fromElement) {
+			return new View<>(array, position(fromElement), to);
+		}
+
+		@Override
+		public Transition<T> first() {
+			if (from == to)
+				throw new NoSuchElementException();
+			return array[from];
+		}
+
+		@Override
+		public Transition<T> last() {
+			if (from == to)
+				throw new NoSuchElementException();
+			return array[to - 1];
+		}
+	}
+}
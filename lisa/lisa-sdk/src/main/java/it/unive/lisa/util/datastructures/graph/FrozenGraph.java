@@ -0,0 +1,308 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.util.datastructures.graph.code.CodeNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the structure of a {@link Graph}, meant to be used
+ * when the graph is no longer modified (e.g., during the analysis of a cfg).
+ * Nodes are assigned dense indexes, and their followers and predecessors are
+ * stored in <i>compressed sparse row</i> form: the followers of node {@code i}
+ * are the nodes with indexes {@code follower(k)}, for
+ * {@code k in [followersStart(i), followersEnd(i))}, and the edge leading to
+ * each of them is {@code outgoingEdge(k)} (and similarly for predecessors).
+ * Iterating over the neighbors of a node, or retrieving the edge connecting
+ * two neighbors, thus requires no allocation and no lookup in the original
+ * graph.<br>
+ * <br>
+ * Indexes follow the order in which {@link Graph#getNodes()} returns the
+ * nodes. If all nodes are {@link CodeNode}s with distinct, non-negative
+ * offsets, the index of a node is retrieved through an array indexed by
+ * {@link CodeNode#getOffset()}, otherwise a {@link HashMap} is used. Changes
+ * to the original graph after the creation of the snapshot are not reflected
+ * by it.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <G> the type of the source {@link Graph}
+ * @param <N> the type of the {@link Node}s in the source graph
+ * @param <E> the type of the {@link Edge}s in the source graph
+ */
+public class FrozenGraph<G extends Graph<G, N, E>, N extends Node<G, N, E>, E extends Edge<G, N, E>> {
+
+	private final Object[] nodes;
+
+	private final int[] byOffset;
+
+	private final Map<N, Integer> indexes;
+
+	private final int[] followersStart, followers;
+
+	private final Object[] outgoing;
+
+	private final int[] predecessorsStart, predecessors;
+
+	private final Object[] ingoing;
+
+	/**
+	 * Builds the snapshot of the given graph. Neighbors of each node are
+	 * stored in the order they are returned by {@link Graph#followersOf(Node)}
+	 * and {@link Graph#predecessorsOf(Node)}, and the edge connecting each
+	 * pair of neighbors is the one that
+	 * {@link Graph#getEdgeConnecting(Node, Node)} would return.
+	 *
+	 * @param graph the graph
+	 */
+	public FrozenGraph(Graph<G, N, E> graph) {
+		Collection<N> all = graph.getNodes();
+		nodes = all.toArray();
+		byOffset = offsets();
+		if (byOffset == null) {
+			indexes = new HashMap<>(nodes.length);
+			for (int i = 0; i < nodes.length; i++)
+				indexes.put(node(i), i);
+		} else
+			indexes = null;
+
+		followersStart = new int[nodes.length + 1];
+		List<N> targets = new ArrayList<>();
+		List<E> edges = new ArrayList<>();
+		Map<N, E> connecting = new HashMap<>();
+		for (int i = 0; i < nodes.length; i++) {
+			followersStart[i] = targets.size();
+			N node = node(i);
+			connecting.clear();
+			for (E edge : graph.getOutgoingEdges(node))
+				// if more edges reach the same node, the first one is kept
+				connecting.putIfAbsent(edge.getDestination(), edge);
+			for (N follower : graph.followersOf(node)) {
+				targets.add(follower);
+				edges.add(connecting.get(follower));
+			}
+		}
+		followersStart[nodes.length] = targets.size();
+		followers = toIndexes(targets);
+		outgoing = edges.toArray();
+
+		predecessorsStart = new int[nodes.length + 1];
+		targets.clear();
+		for (int i = 0; i < nodes.length; i++) {
+			predecessorsStart[i] = targets.size();
+			targets.addAll(graph.predecessorsOf(node(i)));
+		}
+		predecessorsStart[nodes.length] = targets.size();
+		predecessors = toIndexes(targets);
+		ingoing = new Object[predecessors.length];
+		for (int i = 0; i < nodes.length; i++)
+			for (int k = predecessorsStart[i]; k < predecessorsStart[i + 1]; k++)
+				ingoing[k] = getEdgeConnecting(predecessors[k], i);
+	}
+
+	private int[] offsets() {
+		int max = -1;
+		for (Object node : nodes) {
+			if (!(node instanceof CodeNode))
+				return null;
+			int offset = ((CodeNode<?, ?, ?>) node).getOffset();
+			if (offset < 0)
+				return null;
+			max = Math.max(max, offset);
+		}
+
+		int[] result = new int[max + 1];
+		Arrays.fill(result, -1);
+		for (int i = 0; i < nodes.length; i++) {
+			int offset = ((CodeNode<?, ?, ?>) nodes[i]).getOffset();
+			if (result[offset] != -1)
+				// duplicate offsets
+				return null;
+			result[offset] = i;
+		}
+		return result;
+	}
+
+	private int[] toIndexes(List<N> targets) {
+		int[] result = new int[targets.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = indexOf(targets.get(i));
+			if (result[i] == -1)
+				throw new IllegalArgumentException("'" + targets.get(i) + "' is not part of the graph");
+		}
+		return result;
+	}
+
+	/**
+	 * Yields the number of nodes of this graph.
+	 *
+	 * @return the number of nodes
+	 */
+	public int getNodesCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * Yields the node with the given index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the node
+	 */
+	@SuppressWarnings("unchecked")
+	public N node(int index) {
+		return (N) nodes[index];
+	}
+
+	/**
+	 * Yields the index of the given node.
+	 *
+	 * @param node the node
+	 *
+	 * @return the index of the node, or {@code -1} if it is not part of this
+	 *             graph
+	 */
+	public int indexOf(N node) {
+		if (node == null)
+			return -1;
+
+		if (byOffset == null) {
+			Integer index = indexes.get(node);
+			return index == null ? -1 : index;
+		}
+
+		int offset = ((CodeNode<?, ?, ?>) node).getOffset();
+		if (offset < 0 || offset >= byOffset.length || byOffset[offset] == -1)
+			return -1;
+		int index = byOffset[offset];
+		return nodes[index] == node || nodes[index].equals(node) ? index : -1;
+	}
+
+	/**
+	 * Yields {@code true} if the given node is contained in this graph.
+	 *
+	 * @param node the node to check
+	 *
+	 * @return {@code true} if the node is in this graph
+	 */
+	public boolean containsNode(N node) {
+		return indexOf(node) != -1;
+	}
+
+	/**
+	 * Yields the position of the first follower of the node with the given
+	 * index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the position of the first follower
+	 */
+	public int followersStart(int index) {
+		return followersStart[index];
+	}
+
+	/**
+	 * Yields the position after the last follower of the node with the given
+	 * index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the position after the last follower
+	 */
+	public int followersEnd(int index) {
+		return followersStart[index + 1];
+	}
+
+	/**
+	 * Yields the index of the follower at the given position.
+	 *
+	 * @param position the position, between {@link #followersStart(int)} and
+	 *                     {@link #followersEnd(int)}
+	 *
+	 * @return the index of the follower
+	 */
+	public int follower(int position) {
+		return followers[position];
+	}
+
+	/**
+	 * Yields the edge leading to the follower at the given position.
+	 *
+	 * @param position the position, between {@link #followersStart(int)} and
+	 *                     {@link #followersEnd(int)}
+	 *
+	 * @return the edge
+	 */
+	@SuppressWarnings("unchecked")
+	public E outgoingEdge(int position) {
+		return (E) outgoing[position];
+	}
+
+	/**
+	 * Yields the position of the first predecessor of the node with the given
+	 * index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the position of the first predecessor
+	 */
+	public int predecessorsStart(int index) {
+		return predecessorsStart[index];
+	}
+
+	/**
+	 * Yields the position after the last predecessor of the node with the
+	 * given index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the position after the last predecessor
+	 */
+	public int predecessorsEnd(int index) {
+		return predecessorsStart[index + 1];
+	}
+
+	/**
+	 * Yields the index of the predecessor at the given position.
+	 *
+	 * @param position the position, between {@link #predecessorsStart(int)}
+	 *                     and {@link #predecessorsEnd(int)}
+	 *
+	 * @return the index of the predecessor
+	 */
+	public int predecessor(int position) {
+		return predecessors[position];
+	}
+
+	/**
+	 * Yields the edge coming from the predecessor at the given position.
+	 *
+	 * @param position the position, between {@link #predecessorsStart(int)}
+	 *                     and {@link #predecessorsEnd(int)}
+	 *
+	 * @return the edge
+	 */
+	@SuppressWarnings("unchecked")
+	public E ingoingEdge(int position) {
+		return (E) ingoing[position];
+	}
+
+	/**
+	 * Yields the edge connecting the two given nodes, if any. The lookup scans
+	 * the followers of {@code source}.
+	 *
+	 * @param source      the index of the source node
+	 * @param destination the index of the destination node
+	 *
+	 * @return the edge connecting the two nodes, or {@code null}
+	 */
+	public E getEdgeConnecting(int source, int destination) {
+		for (int k = followersStart[source]; k < followersStart[source + 1]; k++)
+			if (followers[k] == destination)
+				return outgoingEdge(k);
+		return null;
+	}
+}
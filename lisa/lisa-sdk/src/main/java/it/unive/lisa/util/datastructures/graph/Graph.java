@@ -171,6 +171,19 @@ public interface Graph<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exte
 	 */
 	Collection<N> predecessorsOf(N node);
 
+	/**
+	 * Yields an immutable snapshot of the current structure of this graph,
+	 * providing allocation-free access to the neighbors of each node. The
+	 * snapshot should be taken once the graph is no longer modified.
+	 * Implementations may cache the snapshot, returning the same instance
+	 * until the graph is modified.
+	 * 
+	 * @return the snapshot of this graph
+	 */
+	public default FrozenGraph<G, N, E> freeze() {
+		return new FrozenGraph<>(this);
+	}
+
 	/**
 	 * Yields an instance of {@link SerializableGraph} built from this one. The
 	 * default implementation of this method is equivalent to invoking
@@ -0,0 +1,377 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The dominator tree of a graph, where the parent of each node is its
+ * immediate dominator. A node {@code d} dominates a node {@code n} if every
+ * path from a root of the graph to {@code n} must go through {@code d}, and it
+ * is the immediate dominator of {@code n} if it is the closest strict dominator
+ * of {@code n}. The tree is computed through the iterative algorithm by Cooper,
+ * Harvey and Kennedy, operating on integer arrays indexed by the position of
+ * each node in the reverse postorder of the graph: its memory footprint is
+ * linear in the size of the graph, as opposed to the one of
+ * {@link Dominators}, that stores the whole set of dominators of each
+ * node.<br>
+ * <br>
+ * When the graph has more than one root, all of them are treated as successors
+ * of a virtual root that is not part of the graph, and that dominates every
+ * node. Roots thus have no immediate dominator, and nodes that are not
+ * reachable from any root are not part of the tree. Building the tree on the
+ * reversed graph, starting from its exit nodes, yields the
+ * <i>post-dominator</i> tree (see {@link #postDominators(Graph)}).<br>
+ * <br>
+ * Once built, the tree answers {@link #dominates(Node, Node)} queries in
+ * constant time, and lazily computes the dominance frontier of each node
+ * (see {@link #getDominanceFrontier(Node)}).
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <G> the type of the target {@link Graph}s
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ *
+ * @see <a href=
+ *          "https://www.cs.tufts.edu/comp/150FP/archive/keith-cooper/dom14.pdf">A
+ *          Simple, Fast Dominance Algorithm</a>
+ */
+public class DominatorTree<G extends Graph<G, N, E>, N extends Node<G, N, E>, E extends Edge<G, N, E>> {
+
+	/**
+	 * Index of the virtual root.
+	 */
+	private static final int ROOT = 0;
+
+	/**
+	 * The nodes of the tree, sorted in reverse postorder. Position
+	 * {@link #ROOT} is occupied by the virtual root, and is thus
+	 * {@code null}.
+	 */
+	private final List<N> nodes;
+
+	/**
+	 * The reverse postorder index of each node of the tree.
+	 */
+	private final Map<N, Integer> indexes;
+
+	/**
+	 * The predecessors of each node (in the direction the graph is visited),
+	 * stored in compressed form: the predecessors of node {@code i} are
+	 * {@code preds[predsStart[i]]} to {@code preds[predsStart[i + 1] - 1]}.
+	 */
+	private final int[] predsStart, preds;
+
+	/**
+	 * The index of the immediate dominator of each node.
+	 */
+	private final int[] idom;
+
+	/**
+	 * The position of each node in a preorder visit of the tree, and the size
+	 * of the subtree rooted in each node: {@code d} dominates {@code n} if and
+	 * only if {@code pre[d] <= pre[n] < pre[d] + size[d]}.
+	 */
+	private final int[] pre, size;
+
+	/**
+	 * The dominance frontiers of the nodes, computed on first access.
+	 */
+	private List<Set<N>> frontiers;
+
+	/**
+	 * Builds the dominator tree of the given graph, rooted in its entrypoints.
+	 *
+	 * @param graph the graph
+	 */
+	public DominatorTree(G graph) {
+		this(graph, graph.getEntrypoints(), false);
+	}
+
+	/**
+	 * Builds the dominator tree of the given graph, rooted in the given
+	 * nodes. If {@code reversed} is {@code true}, edges are traversed
+	 * backwards, yielding the post-dominator tree if {@code roots} are the
+	 * exit nodes of the graph.
+	 *
+	 * @param graph    the graph
+	 * @param roots    the roots of the tree
+	 * @param reversed whether or not edges should be traversed backwards
+	 */
+	public DominatorTree(G graph, Collection<N> roots, boolean reversed) {
+		nodes = new ArrayList<>(graph.getNodesCount() + 1);
+		indexes = new IdentityHashMap<>(graph.getNodesCount());
+		reversePostorder(graph, roots, reversed);
+
+		int count = nodes.size();
+		predsStart = new int[count + 1];
+		List<Integer> predecessors = new ArrayList<>(count * 2);
+		Set<N> rootSet = Collections.newSetFromMap(new IdentityHashMap<>());
+		rootSet.addAll(roots);
+		for (int i = 1; i < count; i++) {
+			predsStart[i] = predecessors.size();
+			N node = nodes.get(i);
+			if (rootSet.contains(node))
+				predecessors.add(ROOT);
+			for (N pred : reversed ? graph.followersOf(node) : graph.predecessorsOf(node)) {
+				Integer index = indexes.get(pred);
+				// unreachable predecessors are not part of the tree
+				if (index != null)
+					predecessors.add(index);
+			}
+		}
+		predsStart[count] = predecessors.size();
+		preds = new int[predecessors.size()];
+		for (int i = 0; i < preds.length; i++)
+			preds[i] = predecessors.get(i);
+
+		idom = new int[count];
+		computeImmediateDominators();
+		pre = new int[count];
+		size = new int[count];
+		computeIntervals();
+	}
+
+	/**
+	 * Builds the post-dominator tree of the given graph, rooted in the nodes
+	 * that have no followers.
+	 *
+	 * @param <G>   the type of the target {@link Graph}
+	 * @param <N>   the type of {@link Node}s in the target graph
+	 * @param <E>   the type of {@link Edge}s in the target graph
+	 * @param graph the graph
+	 *
+	 * @return the post-dominator tree
+	 */
+	public static <G extends Graph<G, N, E>,
+			N extends Node<G, N, E>,
+			E extends Edge<G, N, E>> DominatorTree<G, N, E> postDominators(G graph) {
+		Collection<N> exits = new ArrayList<>();
+		for (N node : graph.getNodes())
+			if (graph.followersOf(node).isEmpty())
+				exits.add(node);
+		return new DominatorTree<>(graph, exits, true);
+	}
+
+	private void reversePostorder(G graph, Collection<N> roots, boolean reversed) {
+		Set<N> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<N> postorder = new ArrayList<>(graph.getNodesCount());
+		Deque<N> path = new ArrayDeque<>();
+		Deque<Iterator<N>> pending = new ArrayDeque<>();
+		for (N root : roots) {
+			if (!visited.add(root))
+				continue;
+			path.push(root);
+			pending.push(successors(graph, root, reversed).iterator());
+			while (!path.isEmpty()) {
+				Iterator<N> it = pending.peek();
+				if (it.hasNext()) {
+					N next = it.next();
+					if (visited.add(next)) {
+						path.push(next);
+						pending.push(successors(graph, next, reversed).iterator());
+					}
+				} else {
+					postorder.add(path.pop());
+					pending.pop();
+				}
+			}
+		}
+
+		nodes.add(null);
+		for (int i = postorder.size() - 1; i >= 0; i--) {
+			indexes.put(postorder.get(i), nodes.size());
+			nodes.add(postorder.get(i));
+		}
+	}
+
+	private Collection<N> successors(G graph, N node, boolean reversed) {
+		return reversed ? graph.predecessorsOf(node) : graph.followersOf(node);
+	}
+
+	private void computeImmediateDominators() {
+		Arrays.fill(idom, -1);
+		idom[ROOT] = ROOT;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int b = 1; b < idom.length; b++) {
+				int newIdom = -1;
+				for (int i = predsStart[b]; i < predsStart[b + 1]; i++) {
+					int p = preds[i];
+					if (idom[p] == -1)
+						// not processed yet
+						continue;
+					newIdom = newIdom == -1 ? p : intersect(p, newIdom);
+				}
+				if (idom[b] != newIdom) {
+					idom[b] = newIdom;
+					changed = true;
+				}
+			}
+		}
+	}
+
+	private int intersect(int f1, int f2) {
+		// in reverse postorder, dominators have lower indexes
+		while (f1 != f2) {
+			while (f1 > f2)
+				f1 = idom[f1];
+			while (f2 > f1)
+				f2 = idom[f2];
+		}
+		return f1;
+	}
+
+	private void computeIntervals() {
+		// immediate dominators precede their children in reverse postorder
+		Arrays.fill(size, 1);
+		for (int b = idom.length - 1; b > ROOT; b--)
+			size[idom[b]] += size[b];
+		int[] next = new int[idom.length];
+		next[ROOT] = 1;
+		for (int b = 1; b < idom.length; b++) {
+			pre[b] = next[idom[b]];
+			next[idom[b]] += size[b];
+			next[b] = pre[b] + 1;
+		}
+	}
+
+	/**
+	 * Yields {@code true} if and only if the given node is part of this tree,
+	 * that is, if it is reachable from one of the roots of the tree.
+	 *
+	 * @param node the node
+	 *
+	 * @return whether or not the node is part of this tree
+	 */
+	public boolean contains(N node) {
+		return indexes.containsKey(node);
+	}
+
+	/**
+	 * Yields the nodes of this tree, sorted in reverse postorder. Each node
+	 * thus comes after its immediate dominator.
+	 *
+	 * @return the nodes of this tree
+	 */
+	public List<N> getNodes() {
+		return Collections.unmodifiableList(nodes.subList(1, nodes.size()));
+	}
+
+	/**
+	 * Yields the immediate dominator of the given node, that is, its parent
+	 * in this tree.
+	 *
+	 * @param node the node
+	 *
+	 * @return the immediate dominator, or {@code null} if {@code node} is a
+	 *             root or it is not part of this tree
+	 */
+	public N getImmediateDominator(N node) {
+		Integer index = indexes.get(node);
+		return index == null ? null : nodes.get(idom[index]);
+	}
+
+	/**
+	 * Yields {@code true} if and only if {@code dominator} dominates
+	 * {@code node}. Every node of this tree dominates itself.
+	 *
+	 * @param dominator the candidate dominator
+	 * @param node      the node
+	 *
+	 * @return whether or not {@code dominator} dominates {@code node}, or
+	 *             {@code false} if any of the two is not part of this tree
+	 */
+	public boolean dominates(N dominator, N node) {
+		Integer d = indexes.get(dominator), n = indexes.get(node);
+		if (d == null || n == null)
+			return false;
+		return pre[d] <= pre[n] && pre[n] < pre[d] + size[d];
+	}
+
+	/**
+	 * Yields {@code true} if and only if {@code dominator} dominates
+	 * {@code node} and they are different nodes.
+	 *
+	 * @param dominator the candidate dominator
+	 * @param node      the node
+	 *
+	 * @return whether or not {@code dominator} strictly dominates
+	 *             {@code node}
+	 */
+	public boolean strictlyDominates(N dominator, N node) {
+		return dominator != node && dominates(dominator, node);
+	}
+
+	/**
+	 * Yields the set of nodes dominating the given one, including the node
+	 * itself. The set is built by walking the tree up to its root, and its
+	 * size is thus proportional to the depth of {@code node}.
+	 *
+	 * @param node the node
+	 *
+	 * @return the dominators of {@code node}, or an empty set if it is not
+	 *             part of this tree
+	 */
+	public Set<N> getDominators(N node) {
+		Integer index = indexes.get(node);
+		if (index == null)
+			return new HashSet<>();
+		Set<N> result = new HashSet<>();
+		for (int i = index; i != ROOT; i = idom[i])
+			result.add(nodes.get(i));
+		return result;
+	}
+
+	/**
+	 * Yields the dominance frontier of the given node, that is, the set of
+	 * nodes {@code f} such that {@code node} dominates a predecessor of
+	 * {@code f} but does not strictly dominate {@code f}. On a post-dominator
+	 * tree, this yields the post-dominance frontier (that is, the nodes
+	 * {@code node} is control dependent on). Frontiers of all nodes are
+	 * computed on the first invocation of this method.
+	 *
+	 * @param node the node
+	 *
+	 * @return the dominance frontier of {@code node}, or an empty set if it is
+	 *             not part of this tree
+	 */
+	public synchronized Set<N> getDominanceFrontier(N node) {
+		Integer index = indexes.get(node);
+		if (index == null)
+			return Collections.emptySet();
+		if (frontiers == null)
+			computeFrontiers();
+		Set<N> frontier = frontiers.get(index);
+		return frontier == null ? Collections.emptySet() : Collections.unmodifiableSet(frontier);
+	}
+
+	private void computeFrontiers() {
+		frontiers = new ArrayList<>(Collections.nCopies(idom.length, null));
+		for (int b = 1; b < idom.length; b++) {
+			if (predsStart[b + 1] - predsStart[b] < 2)
+				continue;
+			for (int i = predsStart[b]; i < predsStart[b + 1]; i++)
+				for (int runner = preds[i]; runner != idom[b]; runner = idom[runner]) {
+					if (frontiers.get(runner) == null)
+						frontiers.set(runner, new LinkedHashSet<>());
+					frontiers.get(runner).add(nodes.get(b));
+				}
+		}
+	}
+}
@@ -4,10 +4,12 @@ import static java.lang.String.format;
 
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.FrozenGraph;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.Node;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Component;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Element;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,15 +31,32 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 
 	private final Graph<G, N, E> graph;
 
+	/**
+	 * The structure of {@link #graph}, frozen when this fixpoint is created
+	 * and used for all the runs.
+	 */
+	private final FrozenGraph<G, N, E> frozen;
+
 	private Map<N, T> result;
 
 	/**
-	 * Builds a fixpoint for the given {@link Graph}.
+	 * The states reaching the node whose entry state is being computed,
+	 * reused across computations.
+	 */
+	private final List<T> states;
+
+	/**
+	 * Builds a fixpoint for the given {@link Graph}. The structure of the
+	 * graph is frozen (see {@link Graph#freeze()}) at this time, reusing the
+	 * snapshot cached by the graph if any, and it must not be modified while
+	 * this fixpoint is in use.
 	 * 
 	 * @param graph the source graph
 	 */
 	public Fixpoint(Graph<G, N, E> graph) {
 		this.graph = graph;
+		this.frozen = graph.freeze();
+		this.states = new ArrayList<>();
 		result = new HashMap<>(graph.getNodesCount());
 	}
 
@@ -58,8 +77,8 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 		 * its semantics.<br>
 		 * <br>
 		 * This callback is invoked after the overall entry state for a node has
-		 * been computed through {@link #union(Object, Object, Object)} of the
-		 * exit states of its predecessors.
+		 * been computed through {@link #unionAll(Object, List)} of the exit
+		 * states of its predecessors.
 		 * 
 		 * @param node       the node where the computation takes place
 		 * @param entrystate the computed state before the computation
@@ -106,6 +125,35 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 		 */
 		T union(N node, T left, T right) throws Exception;
 
+		/**
+		 * Given a node and the states reaching it, computes their union (i.e.
+		 * least upper bound, <b>not</b> widening) in a single pass.<br>
+		 * <br>
+		 * This callback is invoked for the computation of the overall entry
+		 * state for a node reached by at least two states (its starting state,
+		 * if any, followed by the exit states of its predecessors, after
+		 * traversing the edges connecting them through
+		 * {@link #traverse(Object, Object)}). The default implementation folds
+		 * {@code states} through {@link #union(Object, Object, Object)}: the
+		 * implementations that can join all states at once, without building
+		 * intermediate results, should override this method. The given list is
+		 * reused by the fixpoint algorithm, and must thus be neither modified
+		 * nor retained.
+		 * 
+		 * @param node   the node where the computation takes place
+		 * @param states the states to join, containing at least two elements
+		 * 
+		 * @return the union of the states
+		 * 
+		 * @throws Exception if something goes wrong during the computation
+		 */
+		default T unionAll(N node, List<T> states) throws Exception {
+			T result = states.get(0);
+			for (int i = 1; i < states.size(); i++)
+				result = union(node, result, states.get(i));
+			return result;
+		}
+
 		/**
 		 * Given a node and two states, joins the states (i.e. least upper bound
 		 * <i>or</i> widening) together.<br>
@@ -179,7 +227,10 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 	 * @param startingPoints a map containing all the nodes to start the
 	 *                           fixpoint at, each mapped to its entry state.
 	 * @param ws             the instance of {@link WorkingSet} to use for the
-	 *                           fixpoint
+	 *                           fixpoint, that is prepared (see
+	 *                           {@link WorkingSet#prepare(java.util.Collection, java.util.function.Function)})
+	 *                           on the source graph starting from
+	 *                           {@code startingPoints}
 	 * @param implementation the {@link FixpointImplementation} to use for
 	 *                           running the fixpoint
 	 * @param initialResult  the map of initial result to use for running the
@@ -196,18 +247,15 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			throws FixpointException {
 
 		result = initialResult;
+		ws.prepare(startingPoints.keySet(), graph::followersOf);
 		startingPoints.keySet().forEach(ws::push);
 
 		T newApprox;
 		while (!ws.isEmpty()) {
 			N current = ws.pop();
 
-			if (current == null)
-				throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
-			if (!graph.containsNode(current))
-				throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
-
-			T entrystate = getEntryState(current, startingPoints.get(current), implementation);
+			int index = indexOf(current);
+			T entrystate = getEntryState(current, index, startingPoints.get(current), implementation);
 			if (entrystate == null)
 				throw new FixpointException("'" + current + "' does not have an entry state");
 
@@ -227,8 +275,8 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			try {
 				if (oldApprox == null || !implementation.equality(current, newApprox, oldApprox)) {
 					result.put(current, newApprox);
-					for (N instr : graph.followersOf(current))
-						ws.push(instr);
+					for (int k = frozen.followersStart(index); k < frozen.followersEnd(index); k++)
+						ws.push(frozen.node(frozen.follower(k)));
 				}
 			} catch (Exception e) {
 				throw new FixpointException(format(ERROR, "updating result", current, graph), e);
@@ -238,33 +286,168 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 		return result;
 	}
 
-	private T getEntryState(N current, T startstate, FixpointImplementation<N, E, T> implementation)
+	/**
+	 * Runs the fixpoint following the given weak topological ordering of the
+	 * nodes of the graph, as computed by {@link WeakTopologicalOrder}. Invoking
+	 * this method effectively recomputes the result: no caching on previous
+	 * runs is executed. It starts with empty result.
+	 * 
+	 * @param startingPoints a map containing all the nodes to start the
+	 *                           fixpoint at, each mapped to its entry state.
+	 * @param order          the weak topological ordering of the nodes
+	 * @param implementation the {@link FixpointImplementation} to use for
+	 *                           running the fixpoint
+	 * 
+	 * @return a mapping from each (reachable) node of the source graph to the
+	 *             fixpoint result computed at that node
+	 * 
+	 * @throws FixpointException if something goes wrong during the fixpoint
+	 *                               execution
+	 * 
+	 * @see #fixpoint(Map, List, FixpointImplementation, Map)
+	 */
+	public Map<N, T> fixpoint(Map<N, T> startingPoints, List<Element<N>> order,
+			FixpointImplementation<N, E, T> implementation)
+			throws FixpointException {
+		return fixpoint(startingPoints, order, implementation, new HashMap<>(graph.getNodesCount()));
+	}
+
+	/**
+	 * Runs the fixpoint following the given weak topological ordering of the
+	 * nodes of the graph, as computed by {@link WeakTopologicalOrder}. This
+	 * implements Bourdoncle's recursive iteration strategy: elements of the
+	 * ordering are processed in sequence, and each {@link Component} is
+	 * iterated, processing its head first and then its body, until the result
+	 * of its head stabilizes. Since every cycle of the graph passes through a
+	 * head, {@link FixpointImplementation#operation(Object, Object, Object)}
+	 * and {@link FixpointImplementation#equality(Object, Object, Object)} are
+	 * only invoked on heads: the result of every other node is simply replaced
+	 * with the one computed by
+	 * {@link FixpointImplementation#semantics(Object, Object)}. Invoking this
+	 * method effectively recomputes the result: no caching on previous runs is
+	 * executed.
+	 * 
+	 * @param startingPoints a map containing all the nodes to start the
+	 *                           fixpoint at, each mapped to its entry state.
+	 * @param order          the weak topological ordering of the nodes
+	 * @param implementation the {@link FixpointImplementation} to use for
+	 *                           running the fixpoint
+	 * @param initialResult  the map of initial result to use for running the
+	 *                           fixpoint
+	 * 
+	 * @return a mapping from each (reachable) node of the source graph to the
+	 *             fixpoint result computed at that node
+	 * 
+	 * @throws FixpointException if something goes wrong during the fixpoint
+	 *                               execution
+	 */
+	public Map<N, T> fixpoint(Map<N, T> startingPoints, List<Element<N>> order,
+			FixpointImplementation<N, E, T> implementation, Map<N, T> initialResult)
+			throws FixpointException {
+		result = initialResult;
+		for (Element<N> element : order)
+			iterate(element, startingPoints, implementation);
+		return result;
+	}
+
+	private void iterate(Element<N> element, Map<N, T> startingPoints,
+			FixpointImplementation<N, E, T> implementation)
 			throws FixpointException {
-		Collection<N> preds = graph.predecessorsOf(current);
-		List<T> states = new ArrayList<>(preds.size());
+		if (!element.isComponent()) {
+			update(element.getHead(), startingPoints, implementation, false);
+			return;
+		}
 
-		for (N pred : preds)
-			if (result.containsKey(pred)) {
+		// the body is always processed at least once, since it might
+		// be refined even if the head is stable (e.g., in descending
+		// phases starting from a previous result)
+		Component<N> component = (Component<N>) element;
+		boolean first = true;
+		while (update(component.getHead(), startingPoints, implementation, true) || first) {
+			first = false;
+			for (Element<N> inner : component.getBody())
+				iterate(inner, startingPoints, implementation);
+		}
+	}
+
+	private boolean update(N current, Map<N, T> startingPoints, FixpointImplementation<N, E, T> implementation,
+			boolean head)
+			throws FixpointException {
+		int index = indexOf(current);
+		T entrystate = getEntryState(current, index, startingPoints.get(current), implementation);
+		if (entrystate == null)
+			// not reached yet
+			return false;
+
+		T newApprox;
+		try {
+			newApprox = implementation.semantics(current, entrystate);
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "computing semantics", current, graph), e);
+		}
+
+		T oldApprox = result.get(current);
+		if (!head || oldApprox == null) {
+			result.put(current, newApprox);
+			return true;
+		}
+
+		try {
+			newApprox = implementation.operation(current, newApprox, oldApprox);
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "joining states", current, graph), e);
+		}
+
+		try {
+			if (implementation.equality(current, newApprox, oldApprox))
+				return false;
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "updating result", current, graph), e);
+		}
+
+		result.put(current, newApprox);
+		return true;
+	}
+
+	private int indexOf(N current) throws FixpointException {
+		if (current == null)
+			throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
+		int index = frozen.indexOf(current);
+		if (index == -1)
+			throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
+		return index;
+	}
+
+	private T getEntryState(N current, int index, T startstate, FixpointImplementation<N, E, T> implementation)
+			throws FixpointException {
+		states.clear();
+		if (startstate != null)
+			states.add(startstate);
+
+		for (int k = frozen.predecessorsStart(index); k < frozen.predecessorsEnd(index); k++) {
+			T predstate = result.get(frozen.node(frozen.predecessor(k)));
+			if (predstate != null) {
 				// this might not have been computed yet
-				E edge = graph.getEdgeConnecting(pred, current);
+				E edge = frozen.ingoingEdge(k);
 				try {
-					states.add(implementation.traverse(edge, result.get(pred)));
+					states.add(implementation.traverse(edge, predstate));
 				} catch (Exception e) {
 					throw new FixpointException(format(ERROR, "computing edge semantics", edge, graph), e);
 				}
 			}
+		}
 
-		T entrystate = startstate;
 		try {
-			for (T s : states)
-				if (entrystate == null)
-					entrystate = s;
-				else
-					entrystate = implementation.union(current, entrystate, s);
+			if (states.isEmpty())
+				return null;
+			if (states.size() == 1)
+				return states.get(0);
+			return implementation.unionAll(current, states);
 		} catch (Exception e) {
 			throw new FixpointException(format(ERROR, "creating entry state", current, graph), e);
+		} finally {
+			// we do not retain states after their union
+			states.clear();
 		}
-
-		return entrystate;
 	}
 }
@@ -0,0 +1,132 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * An algorithm that evaluates the strongly connected components of a graph,
+ * that is, its maximal sets of nodes such that each node of the set can reach
+ * all other nodes of the same set. The components are computed through an
+ * iterative version of Tarjan's algorithm, that does not consume the call stack
+ * and can thus be used on arbitrarily deep graphs. As a by-product of the
+ * algorithm, components are returned in reverse topological order: a component
+ * always comes after all the components that can be reached from it.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <G> the type of the target {@link Graph}s
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ *
+ * @see <a href=
+ *          "https://en.wikipedia.org/wiki/Tarjan%27s_strongly_connected_components_algorithm">Tarjan's
+ *          strongly connected components algorithm</a>
+ */
+public class StronglyConnectedComponents<G extends Graph<G, N, E>,
+		N extends Node<G, N, E>,
+		E extends Edge<G, N, E>> {
+
+	private final List<Set<N>> components;
+
+	/**
+	 * Builds the components. To run the algorithm, use {@link #build(Graph)}.
+	 */
+	public StronglyConnectedComponents() {
+		components = new ArrayList<>();
+	}
+
+	/**
+	 * Yields the last computed components through {@link #build(Graph)}, in
+	 * reverse topological order.
+	 *
+	 * @return the strongly connected components of the graph passed as argument
+	 *             to the last call to {@link #build(Graph)}
+	 */
+	public List<Set<N>> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Builds the strongly connected components of the given graph. The returned
+	 * value, that can also be accessed later through {@link #getComponents()},
+	 * is a list containing each component exactly once, such that every
+	 * component comes after all the components that can be reached from any of
+	 * its nodes.
+	 *
+	 * @param graph the graph whose components are to be computed
+	 *
+	 * @return the strongly connected components of the graph, in reverse
+	 *             topological order
+	 */
+	public List<Set<N>> build(G graph) {
+		components.clear();
+		Map<N, Integer> index = new HashMap<>(graph.getNodesCount());
+		Map<N, Integer> lowlink = new HashMap<>(graph.getNodesCount());
+		Deque<N> stack = new ArrayDeque<>();
+		Set<N> onStack = new HashSet<>();
+		Deque<Pair<N, Iterator<N>>> visiting = new ArrayDeque<>();
+
+		for (N root : graph.getNodes()) {
+			if (index.containsKey(root))
+				continue;
+
+			int next = index.size();
+			index.put(root, next);
+			lowlink.put(root, next);
+			stack.push(root);
+			onStack.add(root);
+			visiting.push(Pair.of(root, graph.followersOf(root).iterator()));
+
+			while (!visiting.isEmpty()) {
+				N node = visiting.peek().getLeft();
+				Iterator<N> followers = visiting.peek().getRight();
+
+				if (followers.hasNext()) {
+					N follower = followers.next();
+					if (!index.containsKey(follower)) {
+						next = index.size();
+						index.put(follower, next);
+						lowlink.put(follower, next);
+						stack.push(follower);
+						onStack.add(follower);
+						visiting.push(Pair.of(follower, graph.followersOf(follower).iterator()));
+					} else if (onStack.contains(follower))
+						lowlink.put(node, Math.min(lowlink.get(node), index.get(follower)));
+					continue;
+				}
+
+				// all followers have been visited
+				visiting.pop();
+				if (!visiting.isEmpty()) {
+					N parent = visiting.peek().getLeft();
+					lowlink.put(parent, Math.min(lowlink.get(parent), lowlink.get(node)));
+				}
+
+				if (lowlink.get(node).equals(index.get(node))) {
+					// node is the root of a component
+					Set<N> component = new HashSet<>();
+					N member;
+					do {
+						member = stack.pop();
+						onStack.remove(member);
+						component.add(member);
+					} while (!member.equals(node));
+					components.add(component);
+				}
+			}
+		}
+
+		return components;
+	}
+}
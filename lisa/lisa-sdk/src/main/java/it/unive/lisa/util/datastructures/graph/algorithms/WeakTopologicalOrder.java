@@ -0,0 +1,334 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An algorithm that computes a weak topological ordering of a graph, following
+ * Bourdoncle's recursive decomposition. A weak topological ordering is a
+ * hierarchical partition of the nodes of the graph, where each
+ * {@link Component} is a set of nodes that together form a cycle, whose first
+ * element (the <i>head</i> of the component) is visited before all other
+ * members. Every cycle of the graph contains at least one head: heads are thus
+ * the only nodes where widening is needed to ensure the termination of a
+ * fixpoint computation. The decomposition is computed without consuming the
+ * call stack, and can thus be used on arbitrarily large graphs.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <G> the type of the target {@link Graph}s
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ *
+ * @see <a href="https://doi.org/10.1007/BFb0039704">F. Bourdoncle, Efficient
+ *          chaotic iteration strategies with widenings</a>
+ */
+public class WeakTopologicalOrder<G extends Graph<G, N, E>,
+		N extends Node<G, N, E>,
+		E extends Edge<G, N, E>> {
+
+	/**
+	 * An element of a weak topological ordering, that is either a single node
+	 * or a {@link Component}.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <N> the type of nodes in the ordering
+	 */
+	public static class Element<N> {
+
+		private final N head;
+
+		/**
+		 * Builds the element.
+		 *
+		 * @param head the node represented by this element, or the head of the
+		 *                 component represented by this element
+		 */
+		private Element(N head) {
+			this.head = head;
+		}
+
+		/**
+		 * Yields the node represented by this element, or the head of the
+		 * component if this element is a {@link Component}.
+		 *
+		 * @return the node
+		 */
+		public N getHead() {
+			return head;
+		}
+
+		/**
+		 * Yields whether or not this element is a {@link Component}.
+		 *
+		 * @return {@code true} if that condition holds
+		 */
+		public boolean isComponent() {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(head);
+		}
+	}
+
+	/**
+	 * A component of a weak topological ordering, that is, a cycle of the
+	 * graph. The component is formed by its head, that must be processed first,
+	 * and by an ordered list of elements that constitute its body.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <N> the type of nodes in the ordering
+	 */
+	public static class Component<N> extends Element<N> {
+
+		private final List<Element<N>> body;
+
+		private Component(N head, List<Element<N>> body) {
+			super(head);
+			this.body = Collections.unmodifiableList(body);
+		}
+
+		@Override
+		public boolean isComponent() {
+			return true;
+		}
+
+		/**
+		 * Yields the elements that constitute the body of this component, in
+		 * the order they should be processed after the head.
+		 *
+		 * @return the body of this component
+		 */
+		public List<Element<N>> getBody() {
+			return body;
+		}
+
+		@Override
+		public String toString() {
+			return body.isEmpty() ? "(" + getHead() + ")"
+					: "(" + getHead() + " " + body.stream().map(Element::toString).collect(Collectors.joining(" "))
+							+ ")";
+		}
+	}
+
+	private final List<Element<N>> order;
+
+	private final Set<N> heads;
+
+	/**
+	 * Builds the ordering. To run the algorithm, use
+	 * {@link #build(Graph, Collection)}.
+	 */
+	public WeakTopologicalOrder() {
+		order = new LinkedList<>();
+		heads = new HashSet<>();
+	}
+
+	/**
+	 * Yields the last ordering computed through
+	 * {@link #build(Graph, Collection)}.
+	 *
+	 * @return the top-level elements of the ordering
+	 */
+	public List<Element<N>> getOrder() {
+		return order;
+	}
+
+	/**
+	 * Yields the heads of all the {@link Component}s (at any nesting level) of
+	 * the last ordering computed through {@link #build(Graph, Collection)}.
+	 *
+	 * @return the heads of the components
+	 */
+	public Set<N> getHeads() {
+		return heads;
+	}
+
+	/**
+	 * Builds the weak topological ordering of the nodes of the given graph that
+	 * are reachable from the given roots. Roots are visited in the order they
+	 * are returned by the collection.
+	 *
+	 * @param graph the graph to order
+	 * @param roots the nodes where the visit starts
+	 *
+	 * @return the top-level elements of the ordering
+	 */
+	public List<Element<N>> build(G graph, Collection<N> roots) {
+		order.clear();
+		heads.clear();
+		new Builder(graph).run(roots);
+		return order;
+	}
+
+	@Override
+	public String toString() {
+		return order.stream().map(Element::toString).collect(Collectors.joining(" "));
+	}
+
+	/**
+	 * A simulation of the recursive version of Bourdoncle's algorithm, where
+	 * the call stack is replaced by an explicit stack of {@link Frame}s.
+	 */
+	private class Builder {
+		private final G graph;
+		private final Map<N, Integer> dfn;
+		private final Deque<N> stack;
+		private final Deque<Frame> frames;
+		private int num;
+		private int returned;
+
+		private Builder(G graph) {
+			this.graph = graph;
+			this.dfn = new HashMap<>(graph.getNodesCount());
+			this.stack = new ArrayDeque<>();
+			this.frames = new ArrayDeque<>();
+		}
+
+		private int dfn(N node) {
+			return dfn.getOrDefault(node, 0);
+		}
+
+		private void visit(N node, LinkedList<Element<N>> partition) {
+			stack.push(node);
+			dfn.put(node, ++num);
+			frames.push(new Visit(node, graph.followersOf(node).iterator(), num, partition));
+		}
+
+		private void run(Collection<N> roots) {
+			for (N root : roots)
+				if (dfn(root) == 0) {
+					// each root gets its own partition, so that the ordering
+					// follows the one of the roots
+					LinkedList<Element<N>> partition = new LinkedList<>();
+					visit(root, partition);
+					while (!frames.isEmpty())
+						frames.peek().step();
+					order.addAll(partition);
+				}
+		}
+
+		/**
+		 * A frame of the explicit stack, corresponding to a pending recursive
+		 * call.
+		 */
+		private abstract class Frame {
+			protected final N node;
+			protected final Iterator<N> followers;
+			protected final LinkedList<Element<N>> partition;
+			protected int head;
+
+			private Frame(N node, Iterator<N> followers, int head, LinkedList<Element<N>> partition) {
+				this.node = node;
+				this.followers = followers;
+				this.head = head;
+				this.partition = partition;
+			}
+
+			/**
+			 * Performs one step of the call, that either processes one follower
+			 * of the node or completes the call.
+			 */
+			protected abstract void step();
+		}
+
+		/**
+		 * The frame of a call to {@code visit}.
+		 */
+		private class Visit extends Frame {
+			private boolean loop;
+			private boolean waiting;
+
+			private Visit(N node, Iterator<N> followers, int head, LinkedList<Element<N>> partition) {
+				super(node, followers, head, partition);
+			}
+
+			@Override
+			protected void step() {
+				if (waiting) {
+					waiting = false;
+					if (returned <= head) {
+						head = returned;
+						loop = true;
+					}
+				}
+
+				if (followers.hasNext()) {
+					N follower = followers.next();
+					int min = dfn(follower);
+					if (min == 0) {
+						waiting = true;
+						visit(follower, partition);
+					} else if (min <= head) {
+						head = min;
+						loop = true;
+					}
+					return;
+				}
+
+				frames.pop();
+				if (head == dfn(node)) {
+					dfn.put(node, Integer.MAX_VALUE);
+					N element = stack.pop();
+					if (loop) {
+						while (!element.equals(node)) {
+							dfn.put(element, 0);
+							element = stack.pop();
+						}
+						heads.add(node);
+						// the component call replaces this one, returning
+						// its value when completed
+						frames.push(new ComponentVisit(node, graph.followersOf(node).iterator(), head, partition));
+						return;
+					} else
+						partition.addFirst(new Element<>(node));
+				}
+
+				returned = head;
+			}
+		}
+
+		/**
+		 * The frame of a call to {@code component}.
+		 */
+		private class ComponentVisit extends Frame {
+			private final LinkedList<Element<N>> body;
+
+			private ComponentVisit(N node, Iterator<N> followers, int head, LinkedList<Element<N>> partition) {
+				super(node, followers, head, partition);
+				this.body = new LinkedList<>();
+			}
+
+			@Override
+			protected void step() {
+				if (followers.hasNext()) {
+					N follower = followers.next();
+					if (dfn(follower) == 0)
+						visit(follower, body);
+					return;
+				}
+
+				frames.pop();
+				partition.addFirst(new Component<>(node, body));
+				returned = head;
+			}
+		}
+	}
+}
@@ -2,6 +2,7 @@ package it.unive.lisa.util.datastructures.graph.code;
 
 import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
 import it.unive.lisa.outputs.serializableGraph.SerializableValue;
+import it.unive.lisa.util.datastructures.graph.FrozenGraph;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -42,6 +43,12 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 	 */
 	protected final Collection<N> entrypoints;
 
+	/**
+	 * The snapshot of this graph returned by {@link #freeze()}, discarded
+	 * whenever the graph is modified through its methods.
+	 */
+	private volatile FrozenGraph<G, N, E> frozen;
+
 	/**
 	 * Builds the graph.
 	 * 
@@ -111,11 +118,30 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 		list.addNode(node);
 		if (entrypoint)
 			this.entrypoints.add(node);
+		frozen = null;
 	}
 
 	@Override
 	public void addEdge(E edge) {
 		list.addEdge(edge);
+		frozen = null;
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The snapshot is built once and shared by all callers until this graph is
+	 * modified through {@link #addNode(CodeNode, boolean)},
+	 * {@link #addEdge(CodeEdge)} or
+	 * {@link #simplify(Class, Collection, Map)}. Modifications performed
+	 * directly on the {@link NodeList} backing this graph are not tracked.
+	 */
+	@Override
+	public FrozenGraph<G, N, E> freeze() {
+		FrozenGraph<G, N, E> result = frozen;
+		if (result == null)
+			frozen = result = Graph.super.freeze();
+		return result;
 	}
 
 	@Override
@@ -230,6 +256,7 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 				.collect(Collectors.toSet());
 		targets.forEach(this::preSimplify);
 		list.simplify(targets, entrypoints, removedEdges, replacedEdges);
+		frozen = null;
 		return targets;
 	}
 
@@ -175,7 +175,10 @@ public class IntInterval implements Iterable<Long> {
 			return ONE;
 		if (i.is(-1))
 			return MINUS_ONE;
-		return new IntInterval(i.low.roundDown(), i.high.roundUp());
+		MathNumber low = i.low.roundDown();
+		MathNumber high = i.high.roundUp();
+		// rounding yields the same number if it is already an integer
+		return low == i.low && high == i.high ? i : new IntInterval(low, high);
 	}
 
 	/**
@@ -5,7 +5,16 @@ import java.math.RoundingMode;
 
 /**
  * A wrapper around {@link BigDecimal} to represent the mathematical concept of
- * a number, that can be also plus or minus infinity, in a convenient way.
+ * a number, that can be also plus or minus infinity, in a convenient way.<br>
+ * <br>
+ * Integer numbers that fit in a {@code long} are stored as such, and
+ * arithmetic operations between them are carried out on {@code long}s through
+ * overflow-checked operations (e.g., {@link Math#addExact(long, long)}). A
+ * {@link BigDecimal} is only created for numbers that are not integers or that
+ * do not fit in a {@code long}, and operations fall back to it only when the
+ * {@code long} computation would overflow. Since every number is stored in
+ * exactly one form, two integers are equal iff they have the same value,
+ * regardless of how they have been computed.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -42,8 +51,26 @@ public class MathNumber implements Comparable<MathNumber> {
 	 */
 	public static final MathNumber NaN = new MathNumber((byte) 3);
 
+	private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+	private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+	/**
+	 * The value of this number, if it is not infinite, not NaN, and it cannot
+	 * be stored in {@link #value}
+	 */
 	private final BigDecimal number;
 
+	/**
+	 * The value of this number, if {@link #exact} is true
+	 */
+	private final long value;
+
+	/**
+	 * True means that the value of this number is stored in {@link #value}
+	 */
+	private final boolean exact;
+
 	/**
 	 * True means this number is positive or zero
 	 */
@@ -55,7 +82,9 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @param number the value
 	 */
 	public MathNumber(long number) {
-		this.number = BigDecimal.valueOf(number);
+		this.number = null;
+		this.value = number;
+		this.exact = true;
 		this.sign = number >= 0 ? (byte) 0 : (byte) 1;
 	}
 
@@ -65,8 +94,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @param number the value
 	 */
 	public MathNumber(double number) {
-		this.number = BigDecimal.valueOf(number);
-		this.sign = number >= 0 ? (byte) 0 : (byte) 1;
+		this(BigDecimal.valueOf(number));
 	}
 
 	/**
@@ -75,22 +103,52 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @param number the value
 	 */
 	public MathNumber(BigDecimal number) {
-		this.number = number;
+		this.exact = fitsLong(number);
+		this.number = exact ? null : number;
+		this.value = exact ? number.longValue() : 0;
 		this.sign = number.signum() >= 0 ? (byte) 0 : (byte) 1;
 	}
 
 	private MathNumber(byte sign) {
 		this.number = null;
+		this.value = 0;
+		this.exact = false;
 		this.sign = sign;
 	}
 
+	private static boolean fitsLong(BigDecimal number) {
+		if (number.signum() == 0)
+			return true;
+		if (number.scale() > 0 && number.stripTrailingZeros().scale() > 0)
+			// not an integer
+			return false;
+		if (number.precision() - number.scale() < 19)
+			// less than 19 digits always fit
+			return true;
+		return number.compareTo(LONG_MIN) >= 0 && number.compareTo(LONG_MAX) <= 0;
+	}
+
+	private static MathNumber of(long value) {
+		if (value == 0)
+			return ZERO;
+		if (value == 1)
+			return ONE;
+		if (value == -1)
+			return MINUS_ONE;
+		return new MathNumber(value);
+	}
+
+	private BigDecimal big() {
+		return exact ? BigDecimal.valueOf(value) : number;
+	}
+
 	/**
 	 * Yields {@code true} if this number is minus infinity.
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean isMinusInfinity() {
-		return number == null && isNegative();
+		return !exact && number == null && isNegative();
 	}
 
 	/**
@@ -99,7 +157,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean isPlusInfinity() {
-		return number == null && isPositiveOrZero();
+		return !exact && number == null && isPositiveOrZero();
 	}
 
 	/**
@@ -130,7 +188,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean is(int n) {
-		return number != null && number.equals(new BigDecimal(n));
+		return exact && value == n;
 	}
 
 	/**
@@ -159,17 +217,11 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean isNaN() {
-		return number == null && sign == (byte) 3;
+		return !exact && number == null && sign == (byte) 3;
 	}
 
 	private static MathNumber cached(MathNumber i) {
-		if (i.is(0))
-			return ZERO;
-		if (i.is(1))
-			return ONE;
-		if (i.is(-1))
-			return MINUS_ONE;
-		return i;
+		return i.exact ? of(i.value) : i;
 	}
 
 	/**
@@ -190,7 +242,14 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity() || other.isMinusInfinity())
 			return MINUS_INFINITY;
 
-		return cached(new MathNumber(number.add(other.number)));
+		if (exact && other.exact)
+			try {
+				return of(Math.addExact(value, other.value));
+			} catch (ArithmeticException e) {
+				// overflow: we fall back to big decimals
+			}
+
+		return cached(new MathNumber(big().add(other.big())));
 	}
 
 	/**
@@ -211,7 +270,14 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity() || other.isMinusInfinity())
 			return MINUS_INFINITY;
 
-		return cached(new MathNumber(number.subtract(other.number)));
+		if (exact && other.exact)
+			try {
+				return of(Math.subtractExact(value, other.value));
+			} catch (ArithmeticException e) {
+				// overflow: we fall back to big decimals
+			}
+
+		return cached(new MathNumber(big().subtract(other.big())));
 	}
 
 	/**
@@ -241,7 +307,14 @@ public class MathNumber implements Comparable<MathNumber> {
 				|| (other.isPlusInfinity() && isPositiveOrZero()))
 			return PLUS_INFINITY;
 
-		return cached(new MathNumber(number.multiply(other.number)));
+		if (exact && other.exact)
+			try {
+				return of(Math.multiplyExact(value, other.value));
+			} catch (ArithmeticException e) {
+				// overflow: we fall back to big decimals
+			}
+
+		return cached(new MathNumber(big().multiply(other.big())));
 	}
 
 	/**
@@ -279,11 +352,18 @@ public class MathNumber implements Comparable<MathNumber> {
 			else
 				return MINUS_INFINITY;
 
-		return cached(new MathNumber(number.divide(other.number, 100, RoundingMode.HALF_UP).stripTrailingZeros()));
+		if (exact && other.exact && value % other.value == 0 && (value != Long.MIN_VALUE || other.value != -1))
+			// exact integer division
+			return of(value / other.value);
+
+		return cached(new MathNumber(big().divide(other.big(), 100, RoundingMode.HALF_UP).stripTrailingZeros()));
 	}
 
 	@Override
 	public int compareTo(MathNumber other) {
+		if (exact && other.exact)
+			return Long.compare(value, other.value);
+
 		if (equals(other))
 			return 0;
 
@@ -302,7 +382,7 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isPlusInfinity() || other.isMinusInfinity() || (isPositiveOrZero() && other.isNegative()))
 			return 1;
 
-		return number.compareTo(other.number);
+		return big().compareTo(other.big());
 	}
 
 	/**
@@ -324,7 +404,7 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (other.isMinusInfinity() || isPlusInfinity())
 			return other;
 
-		return cached(new MathNumber(number.min(other.number)));
+		return compareTo(other) <= 0 ? this : other;
 	}
 
 	/**
@@ -346,7 +426,7 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity() || other.isPlusInfinity())
 			return other;
 
-		return cached(new MathNumber(number.max(other.number)));
+		return compareTo(other) >= 0 ? this : other;
 	}
 
 	/**
@@ -409,7 +489,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity())
 			return PLUS_INFINITY;
 
-		return cached(new MathNumber(number.abs()));
+		if (exact && value != Long.MIN_VALUE)
+			return value >= 0 ? this : of(-value);
+
+		return cached(new MathNumber(big().abs()));
 	}
 
 	/**
@@ -421,7 +504,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return this number rounded up towards plus infinity
 	 */
 	public MathNumber roundUp() {
-		if (isInfinite() || isNaN())
+		if (exact || isInfinite() || isNaN())
 			return this;
 		return cached(new MathNumber(number.setScale(0, RoundingMode.CEILING)));
 	}
@@ -435,7 +518,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return this number rounded down towards minus infinity
 	 */
 	public MathNumber roundDown() {
-		if (isInfinite() || isNaN())
+		if (exact || isInfinite() || isNaN())
 			return this;
 		return cached(new MathNumber(number.setScale(0, RoundingMode.FLOOR)));
 	}
@@ -451,7 +534,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public int toInt() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.intValue();
+		return exact ? (int) value : number.intValue();
 	}
 
 	/**
@@ -465,7 +548,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public double toDouble() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.doubleValue();
+		return exact ? value : number.doubleValue();
 	}
 
 	/**
@@ -479,7 +562,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public byte toByte() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.byteValue();
+		return exact ? (byte) value : number.byteValue();
 	}
 
 	/**
@@ -493,7 +576,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public short toShort() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.shortValue();
+		return exact ? (short) value : number.shortValue();
 	}
 
 	/**
@@ -507,7 +590,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public float toFloat() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.floatValue();
+		return exact ? value : number.floatValue();
 	}
 
 	/**
@@ -521,7 +604,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	public long toLong() throws MathNumberConversionException {
 		if (isNaN() || isInfinite())
 			throw new MathNumberConversionException(this);
-		return number.longValue();
+		return exact ? value : number.longValue();
 	}
 
 	@Override
@@ -529,6 +612,8 @@ public class MathNumber implements Comparable<MathNumber> {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((number == null) ? 0 : number.hashCode());
+		result = prime * result + Long.hashCode(value);
+		result = prime * result + (exact ? 1231 : 1237);
 		result = prime * result + sign;
 		return result;
 	}
@@ -547,6 +632,10 @@ public class MathNumber implements Comparable<MathNumber> {
 				return false;
 		} else if (!number.equals(other.number))
 			return false;
+		if (value != other.value)
+			return false;
+		if (exact != other.exact)
+			return false;
 		if (sign != other.sign)
 			return false;
 		return true;
@@ -554,6 +643,8 @@ public class MathNumber implements Comparable<MathNumber> {
 
 	@Override
 	public String toString() {
+		if (exact)
+			return String.valueOf(value);
 		return isNaN() ? "NaN" : isMinusInfinity() ? "-Inf" : isPlusInfinity() ? "+Inf" : number.toString();
 	}
 
@@ -579,6 +670,6 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity())
 			throw new IllegalStateException();
 
-		return number;
+		return big();
 	}
 }
@@ -0,0 +1,71 @@
+package it.unive.lisa.analysis.lattices;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class ExternalSetLatticeTest {
+
+	private static class Strings extends ExternalSetLattice<Strings, String> {
+
+		private Strings(ExternalSet<String> elements, boolean isTop) {
+			super(elements, isTop);
+		}
+
+		@Override
+		public Strings top() {
+			return new Strings(getCache().mkEmptySet(), true);
+		}
+
+		@Override
+		public Strings bottom() {
+			return new Strings(getCache().mkEmptySet(), false);
+		}
+
+		@Override
+		public Strings mk(Set<String> set) {
+			return new Strings(getCache().asExternalSet(set), false);
+		}
+	}
+
+	private static Strings mk(ExternalSetCache<String> cache, String... elements) {
+		return new Strings(cache.mkSet(Set.of(elements)), false);
+	}
+
+	@Test
+	public void testOperations() throws SemanticException {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		Strings ab = mk(cache, "a", "b");
+		Strings bc = mk(cache, "b", "c");
+
+		assertEquals(mk(cache, "a", "b", "c"), ab.lub(bc));
+		assertEquals(mk(cache, "b"), ab.glb(bc));
+		assertTrue(mk(cache, "b").lessOrEqual(ab));
+		assertFalse(ab.lessOrEqual(bc));
+		assertTrue(ab.lessOrEqual(ab.lub(bc)));
+		assertSame(cache, ab.lub(bc).getCache());
+		assertTrue(ab.bottom().lessOrEqual(ab));
+		assertTrue(ab.lessOrEqual(ab.top()));
+	}
+
+	@Test
+	public void testDifferentCaches() throws SemanticException {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		Strings ab = mk(cache, "a", "b");
+		Strings bc = mk(new ExternalSetCache<>(), "b", "c");
+
+		Strings lub = ab.lub(bc);
+		assertSame(cache, lub.getCache());
+		assertEquals(Set.of("a", "b", "c"), new HashSet<>(lub.elements()));
+		assertEquals(Set.of("b"), new HashSet<>(ab.glb(bc).elements()));
+		assertTrue(mk(new ExternalSetCache<>(), "a").lessOrEqual(ab));
+	}
+}
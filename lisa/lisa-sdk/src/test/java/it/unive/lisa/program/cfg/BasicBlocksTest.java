@@ -0,0 +1,155 @@
+package it.unive.lisa.program.cfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.TestAbstractState;
+import it.unive.lisa.TestHeapDomain;
+import it.unive.lisa.TestLanguageFeatures;
+import it.unive.lisa.TestTypeDomain;
+import it.unive.lisa.TestTypeSystem;
+import it.unive.lisa.TestValueDomain;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.program.ClassUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.blocks.BasicBlock;
+import it.unive.lisa.program.cfg.blocks.BasicBlockGraph;
+import it.unive.lisa.program.cfg.edge.FalseEdge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.edge.TrueEdge;
+import it.unive.lisa.program.cfg.statement.Assignment;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.program.cfg.statement.call.Call.CallType;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class BasicBlocksTest {
+
+	private static final ClassUnit unit = new ClassUnit(new SourceCodeLocation("unknown", 0, 0),
+			new Program(new TestLanguageFeatures(), new TestTypeSystem()), "Testing", false);
+
+	private static SourceCodeLocation loc(int line) {
+		return new SourceCodeLocation("unknown", line, 0);
+	}
+
+	private static Assignment assign(CFG cfg, int line, String target, String value) {
+		return new Assignment(cfg, loc(line), new VariableRef(cfg, loc(line), target),
+				new VariableRef(cfg, loc(line), value));
+	}
+
+	@Test
+	public void testBlocks() {
+		CFG cfg = new CFG(new CodeMemberDescriptor(loc(0), unit, false, "blocks"));
+		Assignment a1 = assign(cfg, 1, "x", "a");
+		Assignment a2 = assign(cfg, 2, "y", "x");
+		VariableRef condition = new VariableRef(cfg, loc(3), "b");
+		Assignment a3 = assign(cfg, 4, "z", "y");
+		Assignment a4 = assign(cfg, 5, "z", "x");
+		Return ret = new Return(cfg, loc(6), new VariableRef(cfg, loc(6), "z"));
+		cfg.addNode(a1, true);
+		cfg.addNode(a2);
+		cfg.addNode(condition);
+		cfg.addNode(a3);
+		cfg.addNode(a4);
+		cfg.addNode(ret);
+		cfg.addEdge(new SequentialEdge(a1, a2));
+		cfg.addEdge(new SequentialEdge(a2, condition));
+		cfg.addEdge(new TrueEdge(condition, a3));
+		cfg.addEdge(new FalseEdge(condition, a4));
+		cfg.addEdge(new SequentialEdge(a3, ret));
+		cfg.addEdge(new SequentialEdge(a4, ret));
+
+		BasicBlockGraph blocks = new BasicBlockGraph(cfg, Collections.emptyList());
+		assertEquals(4, blocks.getNodesCount());
+		assertEquals(4, blocks.getEdgesCount());
+
+		BasicBlock first = blocks.getBlockOf(a1);
+		assertSame(first, blocks.getBlockOf(a2));
+		assertSame(first, blocks.getBlockOf(condition));
+		assertEquals(List.of(a1, a2, condition), first.getStatements());
+		assertEquals(List.of(new SequentialEdge(a1, a2), new SequentialEdge(a2, condition)), first.getInnerEdges());
+		assertEquals(Set.of(blocks.getBlockOf(a3), blocks.getBlockOf(a4)), Set.copyOf(blocks.followersOf(first)));
+		assertEquals(Set.of(first), Set.copyOf(blocks.getEntrypoints()));
+		assertEquals(List.of(ret), blocks.getBlockOf(ret).getStatements());
+		assertNull(blocks.getBlockOf(new VariableRef(cfg, loc(7), "w")));
+
+		// roots start a new block
+		blocks = new BasicBlockGraph(cfg, List.of(a2));
+		assertEquals(List.of(a1), blocks.getBlockOf(a1).getStatements());
+		assertEquals(List.of(a2, condition), blocks.getBlockOf(a2).getStatements());
+	}
+
+	@Test
+	public void testCallsEndBlocks() {
+		CFG cfg = new CFG(new CodeMemberDescriptor(loc(0), unit, false, "calls"));
+		Assignment a1 = assign(cfg, 1, "x", "a");
+		UnresolvedCall call = new UnresolvedCall(cfg, loc(2), CallType.STATIC, "Testing", "foo",
+				new VariableRef(cfg, loc(2), "x"));
+		Assignment a2 = new Assignment(cfg, loc(3), new VariableRef(cfg, loc(3), "y"), call);
+		Assignment a3 = assign(cfg, 4, "z", "y");
+		cfg.addNode(a1, true);
+		cfg.addNode(a2);
+		cfg.addNode(a3);
+		cfg.addEdge(new SequentialEdge(a1, a2));
+		cfg.addEdge(new SequentialEdge(a2, a3));
+
+		BasicBlockGraph blocks = new BasicBlockGraph(cfg, Collections.emptyList());
+		assertEquals(List.of(a1, a2), blocks.getBlockOf(a1).getStatements());
+		assertEquals(List.of(a3), blocks.getBlockOf(a3).getStatements());
+	}
+
+	@Test
+	public void testFixpoint() throws FixpointException {
+		CFG cfg = new CFG(new CodeMemberDescriptor(loc(0), unit, false, "fixpoint"));
+		NoOp[] n = new NoOp[6];
+		for (int i = 0; i < n.length; i++) {
+			n[i] = new NoOp(cfg, loc(i + 1));
+			cfg.addNode(n[i], i == 0);
+		}
+		// 0 -> 1 -> 2 -> {3 -> 4 -> 2, 5}
+		cfg.addEdge(new SequentialEdge(n[0], n[1]));
+		cfg.addEdge(new SequentialEdge(n[1], n[2]));
+		cfg.addEdge(new TrueEdge(n[2], n[3]));
+		cfg.addEdge(new SequentialEdge(n[3], n[4]));
+		cfg.addEdge(new SequentialEdge(n[4], n[2]));
+		cfg.addEdge(new FalseEdge(n[2], n[5]));
+
+		AnalysisState<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> state = new AnalysisState<>(
+				new TestAbstractState(), new ExpressionSet<>(), new SymbolAliasing());
+
+		LiSAConfiguration conf = new LiSAConfiguration();
+		CFGWithAnalysisResults<TestAbstractState, TestHeapDomain, TestValueDomain,
+				TestTypeDomain> statements = cfg.fixpoint(state, null, FIFOWorkingSet.mk(),
+						new FixpointConfiguration(conf));
+		conf.useBasicBlocks = true;
+		CFGWithAnalysisResults<TestAbstractState, TestHeapDomain, TestValueDomain,
+				TestTypeDomain> blocks = cfg.fixpoint(state, null, FIFOWorkingSet.mk(),
+						new FixpointConfiguration(conf));
+
+		for (NoOp st : n)
+			assertEquals(statements.getAnalysisStateAfter(st), blocks.getAnalysisStateAfter(st));
+
+		// comparisons also consider results that have not been queried yet
+		blocks = cfg.fixpoint(state, null, FIFOWorkingSet.mk(), new FixpointConfiguration(conf));
+		assertEquals(statements, blocks);
+
+		conf.useWeakTopologicalOrder = true;
+		blocks = cfg.fixpoint(state, null, FIFOWorkingSet.mk(), new FixpointConfiguration(conf));
+		for (NoOp st : n)
+			assertEquals(statements.getAnalysisStateAfter(st), blocks.getAnalysisStateAfter(st));
+	}
+}
@@ -0,0 +1,88 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+	@Test
+	public void testHitsAndMisses() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(64);
+		AtomicInteger computed = new AtomicInteger();
+
+		assertEquals("1", cache.get(1, k -> String.valueOf(computed.incrementAndGet())));
+		assertEquals("1", cache.get(1, k -> String.valueOf(computed.incrementAndGet())));
+		assertEquals("2", cache.get(2, k -> String.valueOf(computed.incrementAndGet())));
+		assertEquals(2, computed.get());
+		assertEquals(1, cache.hits());
+		assertEquals(2, cache.misses());
+		assertEquals(2, cache.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals("3", cache.get(1, k -> String.valueOf(computed.incrementAndGet())));
+		assertEquals(3, cache.misses());
+	}
+
+	@Test
+	public void testEviction() {
+		// one entry per segment
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(16);
+		for (int i = 0; i < 1000; i++)
+			cache.get(i, k -> k * 2);
+		assertTrue(cache.size() <= 16);
+		assertEquals(1000, cache.misses());
+
+		// the most recently used entry is always kept
+		assertEquals(1998, (int) cache.get(999, k -> -1));
+		assertEquals(1, cache.hits());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(1);
+		cache.get(0, k -> k);
+		cache.get(1, k -> k);
+		assertEquals(1, cache.size());
+		assertEquals(-1, (int) cache.get(0, k -> -1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveCapacity() {
+		new BoundedCache<>(0);
+	}
+
+	@Test
+	public void testConcurrentAccess() throws InterruptedException, ExecutionException {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(128);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int t = 0; t < 8; t++)
+				results.add(executor.submit(() -> {
+					for (int i = 0; i < 10000; i++) {
+						int key = i % 256;
+						if (cache.get(key, k -> k + 1) != key + 1)
+							return false;
+					}
+					return true;
+				}));
+			for (Future<Boolean> result : results)
+				assertTrue(result.get());
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(80000, cache.hits() + cache.misses());
+		assertTrue(cache.size() <= 128);
+	}
+}
@@ -0,0 +1,127 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.annotations.Annotation;
+import it.unive.lisa.symbolic.Interning;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.ReferenceType;
+import it.unive.lisa.type.Untyped;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class CacheScopeTest {
+
+	@Test
+	public void testNesting() {
+		assertNull(CacheScope.current());
+		try (CacheScope outer = CacheScope.open(false)) {
+			assertSame(outer, CacheScope.current());
+			try (CacheScope inner = CacheScope.open(true)) {
+				assertSame(inner, CacheScope.current());
+			}
+			assertSame(outer, CacheScope.current());
+		}
+		assertNull(CacheScope.current());
+	}
+
+	@Test
+	public void testResources() {
+		Object first, second;
+		try (CacheScope scope = CacheScope.open(false)) {
+			first = scope.resource("list", ArrayList::new);
+			assertSame(first, scope.resource("list", ArrayList::new));
+		}
+		try (CacheScope scope = CacheScope.open(false)) {
+			second = scope.resource("list", ArrayList::new);
+		}
+		assertNotSame(first, second);
+	}
+
+	@Test
+	public void testCounters() {
+		try (CacheScope scope = CacheScope.open(false)) {
+			BoundedCache<Integer, Integer> first = scope.newCache(16);
+			BoundedCache<Integer, Integer> second = scope.newCache(16);
+			first.get(1, k -> k);
+			first.get(1, k -> k);
+			second.get(1, k -> k);
+			assertEquals(1, scope.hits());
+			assertEquals(2, scope.misses());
+		}
+		try (CacheScope scope = CacheScope.open(false)) {
+			assertEquals(0, scope.hits());
+			assertEquals(0, scope.misses());
+		}
+	}
+
+	@Test
+	public void testInheritance() throws InterruptedException {
+		AtomicReference<CacheScope> seen = new AtomicReference<>();
+		try (CacheScope scope = CacheScope.open(false)) {
+			Thread thread = new Thread(() -> seen.set(CacheScope.current()));
+			thread.start();
+			thread.join();
+			assertSame(scope, seen.get());
+		}
+	}
+
+	@Test
+	public void testInterning() {
+		ReferenceType first = new ReferenceType(Untyped.INSTANCE);
+		ReferenceType second = new ReferenceType(Untyped.INSTANCE);
+		assertSame(second, Interning.intern(second));
+		try (CacheScope scope = CacheScope.open(false)) {
+			assertSame(second, Interning.intern(second));
+		}
+		try (CacheScope scope = CacheScope.open(true)) {
+			assertSame(first, Interning.intern(first));
+			assertSame(first, Interning.intern(second));
+		}
+	}
+
+	@Test
+	public void testLeafInterning() {
+		SourceCodeLocation loc = new SourceCodeLocation("file", 1, 1);
+		Constant c1 = new Constant(Untyped.INSTANCE, 5, loc);
+		Constant c2 = new Constant(Untyped.INSTANCE, 5, loc);
+		Variable v1 = new Variable(Untyped.INSTANCE, "x", loc);
+		Variable v2 = new Variable(Untyped.INSTANCE, "x", loc);
+		assertSame(c2, Interning.intern(c2));
+		try (CacheScope scope = CacheScope.open(false)) {
+			assertSame(c2, Interning.intern(c2));
+			assertSame(v2, Interning.intern(v2));
+		}
+		try (CacheScope scope = CacheScope.open(true)) {
+			assertSame(c1, Interning.intern(c1));
+			assertSame(c1, Interning.intern(c2));
+			assertSame(v1, Interning.intern(v1));
+			assertSame(v1, Interning.intern(v2));
+
+			Constant elsewhere = new Constant(Untyped.INSTANCE, 5, new SourceCodeLocation("file", 2, 1));
+			assertSame(elsewhere, Interning.intern(elsewhere));
+
+			Constant typed = new Constant(Untyped.INSTANCE, 5, loc);
+			typed.setRuntimeTypes(Collections.singleton(Untyped.INSTANCE));
+			assertSame(typed, Interning.intern(typed));
+
+			// canonical instances modified after being interned are not
+			// returned anymore
+			c1.setRuntimeTypes(Collections.singleton(Untyped.INSTANCE));
+			assertSame(c2, Interning.intern(c2));
+			v1.addAnnotation(new Annotation("a"));
+			assertSame(v2, Interning.intern(v2));
+
+			Variable annotated = new Variable(Untyped.INSTANCE, "x", loc);
+			annotated.addAnnotation(new Annotation("a"));
+			assertSame(annotated, Interning.intern(annotated));
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class InternerTest {
+
+	@Test
+	public void testCanonicalInstances() {
+		Interner<String> interner = new Interner<>();
+		String first = new String("foo");
+		String second = new String("foo");
+		String other = new String("bar");
+
+		assertSame(first, interner.intern(first));
+		assertSame(first, interner.intern(second));
+		assertSame(other, interner.intern(other));
+		assertEquals(2, interner.size());
+
+		interner.clear();
+		assertEquals(0, interner.size());
+		assertSame(second, interner.intern(second));
+	}
+
+	@Test
+	public void testCustomEquivalence() {
+		Interner<String> interner = new Interner<>(s -> s.toLowerCase().hashCode(), String::equalsIgnoreCase);
+		String first = "Foo";
+
+		assertSame(first, interner.intern(first));
+		assertSame(first, interner.intern("FOO"));
+		assertNotSame(first, interner.intern("bar"));
+	}
+
+	@Test
+	public void testConcurrentInterning() throws InterruptedException, ExecutionException {
+		Interner<String> interner = new Interner<>();
+		// keep the canonical instances alive
+		List<String> canonical = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			canonical.add(interner.intern(String.valueOf(i)));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++)
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < 1000; j++) {
+						int i = j % 100;
+						assertSame(canonical.get(i), interner.intern(new String(String.valueOf(i))));
+					}
+				}));
+			for (Future<?> future : futures)
+				future.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(100, interner.size());
+	}
+}
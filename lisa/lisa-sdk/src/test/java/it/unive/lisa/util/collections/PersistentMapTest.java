@@ -0,0 +1,156 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class PersistentMapTest {
+
+	private static class Colliding {
+		private final int value;
+
+		private Colliding(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int hashCode() {
+			return value % 3;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Colliding && ((Colliding) obj).value == value;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(value);
+		}
+	}
+
+	private static Object key(Random random) {
+		int value = random.nextInt(500);
+		return random.nextBoolean() ? value : new Colliding(value);
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		Random random = new Random(42);
+		Map<Object, Integer> expected = new HashMap<>();
+		PersistentMap<Object, Integer> actual = new PersistentMap<>();
+		for (int i = 0; i < 20000; i++) {
+			Object key = key(random);
+			if (random.nextInt(3) == 0)
+				assertEquals(expected.remove(key), actual.remove(key));
+			else {
+				Integer value = random.nextInt(10);
+				assertEquals(expected.put(key, value), actual.put(key, value));
+			}
+			assertEquals(expected.size(), actual.size());
+		}
+
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		for (Entry<Object, Integer> entry : expected.entrySet())
+			assertEquals(entry.getValue(), actual.get(entry.getKey()));
+		assertEquals(expected.keySet(), actual.keySet());
+	}
+
+	@Test
+	public void testShapeIsCanonical() {
+		Random random = new Random(42);
+		PersistentMap<Object, Integer> first = new PersistentMap<>();
+		Set<Object> keys = new HashSet<>();
+		for (int i = 0; i < 1000; i++)
+			keys.add(key(random));
+		for (Object key : keys)
+			first.put(key, 0);
+
+		// insert in a different order, adding and removing other keys
+		PersistentMap<Object, Integer> second = new PersistentMap<>();
+		for (int i = 0; i < 1000; i++)
+			second.put(i + 1000, 0);
+		for (Object key : keys)
+			second.put(key, 0);
+		for (int i = 0; i < 1000; i++)
+			second.remove(i + 1000);
+
+		assertEquals(first, second);
+		// only keys in collision nodes can be reported
+		for (Object key : first.differences(second))
+			assertTrue(key.hashCode() < 3);
+	}
+
+	@Test
+	public void testCopiesShareStructure() {
+		PersistentMap<Object, Object> map = new PersistentMap<>();
+		Object value = new Object();
+		for (int i = 0; i < 1000; i++)
+			map.put(i, value);
+
+		PersistentMap<Object, Object> copy = new PersistentMap<>(map);
+		assertEquals(map, copy);
+		assertTrue(map.differences(copy).isEmpty());
+
+		Object other = new Object();
+		copy.put(7, other);
+		copy.put(new Colliding(2000), value);
+		copy.remove(12);
+		assertSame(value, map.get(7));
+		assertNull(map.get(new Colliding(2000)));
+		assertTrue(map.containsKey(12));
+		assertEquals(1000, map.size());
+		assertTrue(map.differences(copy).containsAll(Arrays.asList(7, new Colliding(2000), 12)));
+		assertFalse(map.differences(copy).contains(500));
+		assertFalse(copy.differences(map).contains(500));
+
+		// putting the same value does not change the map
+		copy.put(7, value);
+		copy.put(12, value);
+		copy.remove(new Colliding(2000));
+		assertEquals(map, copy);
+		assertTrue(map.differences(copy).isEmpty());
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		PersistentMap<Object, Integer> map = new PersistentMap<>();
+		for (int i = 0; i < 100; i++)
+			map.put(i, i);
+
+		Iterator<Entry<Object, Integer>> it = map.entrySet().iterator();
+		int count = 0;
+		while (it.hasNext()) {
+			Entry<Object, Integer> entry = it.next();
+			count++;
+			if (entry.getValue() % 2 == 0)
+				it.remove();
+		}
+
+		assertEquals(100, count);
+		assertEquals(50, map.size());
+		for (int i = 0; i < 100; i++)
+			assertEquals(i % 2 != 0, map.containsKey(i));
+
+		map.keySet().retainAll(Collections.singleton(1));
+		assertEquals(Collections.singletonMap(1, 1), map);
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.entrySet().iterator().hasNext());
+	}
+}
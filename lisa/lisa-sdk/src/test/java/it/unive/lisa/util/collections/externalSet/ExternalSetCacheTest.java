@@ -0,0 +1,79 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ExternalSetCacheTest {
+
+	private static final int THREADS = 8;
+	private static final int ELEMENTS = 5000;
+
+	@Test
+	public void testIndexes() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		assertEquals(-1, cache.indexOf("a"));
+		assertEquals(0, cache.indexOfOrAdd("a"));
+		assertEquals(1, cache.indexOfOrAdd(null));
+		assertEquals(0, cache.indexOfOrAdd("a"));
+		assertEquals(1, cache.indexOf(null));
+		assertEquals("a", cache.get(0));
+		assertNull(cache.get(1));
+		assertEquals(2, cache.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(-1, cache.indexOf("a"));
+		assertEquals(0, cache.indexOfOrAdd("b"));
+	}
+
+	@Test
+	public void testConcurrentAdditions() throws InterruptedException, ExecutionException {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<ExternalSet<String>>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int offset = t;
+				// each thread adds all elements, in a different order
+				futures.add(executor.submit(() -> {
+					ExternalSet<String> set = cache.mkEmptySet();
+					for (int i = 0; i < ELEMENTS; i++)
+						set.add("e" + (i * 7 + offset * 613) % ELEMENTS);
+					return set;
+				}));
+			}
+
+			List<ExternalSet<String>> sets = new ArrayList<>();
+			for (Future<ExternalSet<String>> future : futures)
+				sets.add(future.get());
+
+			assertEquals(ELEMENTS, cache.size());
+			Set<Integer> indexes = new HashSet<>();
+			for (int i = 0; i < ELEMENTS; i++) {
+				int index = cache.indexOf("e" + i);
+				assertTrue(index >= 0 && index < ELEMENTS);
+				assertTrue("Index " + index + " assigned twice", indexes.add(index));
+				assertEquals("e" + i, cache.get(index));
+			}
+
+			for (ExternalSet<String> set : sets) {
+				assertEquals(ELEMENTS, set.size());
+				assertEquals(sets.get(0), set);
+			}
+			assertEquals(ELEMENTS, cache.getAllElements().size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
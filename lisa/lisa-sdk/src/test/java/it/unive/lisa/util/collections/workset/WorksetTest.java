@@ -8,9 +8,11 @@ import static org.junit.Assert.fail;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.junit.Test;
 
@@ -166,4 +168,35 @@ public class WorksetTest {
 		unique(ConcurrentLIFOWorkingSet.mk(), true, (ws, lifo, el) -> random(ws, lifo, false, el), "a", "b", "c", "d",
 				"d", "f", "a", "b", "i");
 	}
+
+	@Test
+	public void ReversePostorderWsTest() {
+		// without priorities, elements are yielded in order of first insertion
+		linear(ReversePostorderWorkingSet.mk(), false, false, "a", "b", "c", "d", "e", "f", "g", "h", "i");
+		linear(ReversePostorderWorkingSet.mk(), false, false, "a", "b", "c", "d", null);
+		random(ReversePostorderWorkingSet.mk(), false, false, "a", "b", "c", "d", "e", "f", "g", "h", "i");
+		random(ReversePostorderWorkingSet.mk(), false, false, "a", "b", "c", "d", null);
+
+		// a -> b -> d -> e -> b, a -> c -> d
+		Map<String, List<String>> graph = new HashMap<>();
+		graph.put("a", List.of("b", "c"));
+		graph.put("b", List.of("d"));
+		graph.put("c", List.of("d"));
+		graph.put("d", List.of("e"));
+		graph.put("e", List.of("b"));
+		graph.put("x", List.of("a"));
+
+		ReversePostorderWorkingSet<String> ws = ReversePostorderWorkingSet.mk();
+		ws.push("e");
+		ws.prepare(List.of("a"), graph::get);
+		assertEquals("Pending elements were lost when computing priorities", 1, ws.size());
+		for (String s : new String[] { "d", "x", "c", "b", "a", "d", "c", "e" })
+			ws.push(s);
+		assertEquals("Duplicate elements were not ignored", 6, ws.size());
+
+		List<String> popped = new ArrayList<>();
+		while (!ws.isEmpty())
+			popped.add(ws.pop());
+		assertEquals("Elements were not yielded in reverse-postorder", List.of("a", "c", "b", "d", "e", "x"), popped);
+	}
 }
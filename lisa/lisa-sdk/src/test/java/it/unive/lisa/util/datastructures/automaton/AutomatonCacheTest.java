@@ -0,0 +1,52 @@
+package it.unive.lisa.util.datastructures.automaton;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.collections.CacheScope;
+import org.junit.Test;
+
+public class AutomatonCacheTest {
+
+	@Test
+	public void testLanguageKeys() {
+		TestAutomaton ab = new TestAutomaton("ab");
+		State q0 = new State(0, true, false), q1 = new State(1, false, false), q2 = new State(2, false, false),
+				q3 = new State(3, false, true);
+		// a non-deterministic automaton recognizing ab
+		TestAutomaton other = TestUtil.addEdges(TestUtil.build(q0, q1, q2, q3),
+				new Transition<>(q0, q1, new TestSymbol("a")),
+				new Transition<>(q0, q2, new TestSymbol("a")),
+				new Transition<>(q1, q3, new TestSymbol("b")),
+				new Transition<>(q2, q3, new TestSymbol("b")));
+		TestAutomaton c = new TestAutomaton("c");
+		assertNotEquals(ab, other);
+
+		try (CacheScope scope = CacheScope.open(false)) {
+			AutomatonCache<TestAutomaton> cache = AutomatonCache.current(AutomatonCacheTest.class, 16);
+			assertSame(cache, AutomatonCache.current(AutomatonCacheTest.class, 16));
+
+			TestAutomaton first = cache.apply("concat", 0, ab, c, TestAutomaton::concat);
+			// operands recognizing the same languages hit the cache
+			assertSame(first, cache.apply("concat", 0, other, c, TestAutomaton::concat));
+			assertNotSame(first, cache.apply("concat", 0, c, ab, TestAutomaton::concat));
+			assertNotSame(first, cache.apply("concat", 1, ab, c, TestAutomaton::concat));
+			assertTrue(cache.test("contained", ab, other, TestAutomaton::isContained));
+			assertTrue(cache.test("contained", other, ab, (l, r) -> false));
+
+			assertEquals(2, scope.hits());
+			assertEquals(4, scope.misses());
+		}
+	}
+
+	@Test
+	public void testOutsideOfScopes() {
+		TestAutomaton ab = new TestAutomaton("ab");
+		AutomatonCache<TestAutomaton> cache = AutomatonCache.current(AutomatonCacheTest.class, 16);
+		TestAutomaton first = cache.apply("concat", 0, ab, ab, TestAutomaton::concat);
+		assertNotSame(first, cache.apply("concat", 0, ab, ab, TestAutomaton::concat));
+	}
+}
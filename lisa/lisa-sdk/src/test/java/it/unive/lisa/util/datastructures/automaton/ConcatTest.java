@@ -75,9 +75,9 @@ public class ConcatTest {
 
 		SortedSet<State> expStates = new TreeSet<>();
 		State[] expSt = new State[3];
-		expSt[0] = new State(2, true, false);
+		expSt[0] = new State(0, true, false);
 		expSt[1] = new State(1, false, false);
-		expSt[2] = new State(0, false, true);
+		expSt[2] = new State(2, false, true);
 		Collections.addAll(expStates, expSt);
 
 		SortedSet<Transition<TestSymbol>> expDelta = new TreeSet<>();
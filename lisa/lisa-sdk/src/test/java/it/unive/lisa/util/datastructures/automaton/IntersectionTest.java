@@ -3,6 +3,8 @@ package it.unive.lisa.util.datastructures.automaton;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import org.junit.Test;
@@ -80,4 +82,19 @@ public class IntersectionTest {
 
 		assertEquals(a2, a.intersection(a2));
 	}
+
+	@Test
+	public void testRandomAutomata() {
+		Random random = new Random(42);
+		String[] letters = { "a", "b" };
+		for (int round = 0; round < 300; round++) {
+			TestAutomaton a = TestUtil.randomAutomaton(random, 2 + random.nextInt(4), "", "a", "b");
+			TestAutomaton b = TestUtil.randomAutomaton(random, 2 + random.nextInt(4), "", "a", "b");
+
+			TestAutomaton intersection = a.intersection(b);
+			for (List<TestSymbol> word : TestUtil.words(letters, 6))
+				assertEquals(TestUtil.accepts(a, word) && TestUtil.accepts(b, word),
+						TestUtil.accepts(intersection, word));
+		}
+	}
 }
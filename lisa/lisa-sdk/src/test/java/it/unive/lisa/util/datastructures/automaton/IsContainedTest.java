@@ -1,8 +1,12 @@
 package it.unive.lisa.util.datastructures.automaton;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import org.junit.Test;
@@ -97,4 +101,22 @@ public class IsContainedTest {
 		assertTrue(a2.isContained(a));
 		assertTrue(!a.isContained(a2));
 	}
+
+	@Test
+	public void testRandomAutomata() {
+		Random random = new Random(42);
+		String[] letters = { "a", "b" };
+		for (int round = 0; round < 300; round++) {
+			TestAutomaton a = TestUtil.randomAutomaton(random, 2 + random.nextInt(4), "", "a", "b");
+			TestAutomaton b = TestUtil.randomAutomaton(random, 2 + random.nextInt(4), "", "a", "b");
+
+			boolean contained = a.isContained(b);
+			for (List<TestSymbol> word : TestUtil.words(letters, 6))
+				if (TestUtil.accepts(a, word) && !TestUtil.accepts(b, word))
+					assertFalse(contained);
+			assertEquals(a.isEqualTo(b), contained && b.isContained(a));
+			assertTrue(a.isContained(a.union(b)));
+			assertTrue(a.intersection(b).isContained(b));
+		}
+	}
 }
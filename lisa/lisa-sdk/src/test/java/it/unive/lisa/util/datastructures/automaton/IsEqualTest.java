@@ -1,8 +1,15 @@
 package it.unive.lisa.util.datastructures.automaton;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import org.junit.Test;
@@ -174,4 +181,65 @@ public class IsEqualTest {
 		TestAutomaton a2 = new TestAutomaton(states2, delta2);
 		assertTrue(!a.isEqualTo(a2));
 	}
+
+	@Test
+	public void testCanonicalForm() {
+		Random random = new Random(42);
+		String[] letters = { "a", "b" };
+		List<List<TestSymbol>> words = TestUtil.words(letters, 6);
+		for (int round = 0; round < 300; round++) {
+			TestAutomaton a = TestUtil.randomAutomaton(random, 2 + random.nextInt(4), "", "a", "b");
+			TestAutomaton b = TestUtil.randomAutomaton(random, 2 + random.nextInt(4), "", "a", "b");
+
+			// the canonical form recognizes the same language
+			TestAutomaton canonical = a.canonicalForm();
+			for (List<TestSymbol> word : words)
+				assertEquals(TestUtil.accepts(a, word), TestUtil.accepts(canonical, word));
+			assertSame(canonical, canonical.canonicalForm());
+			assertEquals(a.fingerprint(), canonical.fingerprint());
+			assertEquals(a.minimize(), canonical);
+
+			boolean equal = a.isEqualTo(b);
+			assertEquals(equal, a.isCanonicallyEqualTo(b));
+			if (equal)
+				assertEquals(a.fingerprint(), b.fingerprint());
+			else
+				assertNotEquals(a.canonicalForm(), b.canonicalForm());
+			assertTrue(a.isCanonicallyEqualTo(a.union(a)));
+		}
+	}
+
+	@Test
+	public void testFrozenAfterCanonicalForm() {
+		State q0 = new State(0, true, false);
+		State q1 = new State(1, false, true);
+		TestAutomaton a = TestUtil.addEdges(TestUtil.build(q0, q1), new Transition<>(q0, q1, new TestSymbol("a")));
+		TestAutomaton b = TestUtil.addEdges(TestUtil.build(q0, q1), new Transition<>(q0, q1, new TestSymbol("b")));
+		assertFalse(a.isFrozen());
+		long fingerprint = a.fingerprint();
+		assertTrue(a.isFrozen());
+		assertNotEquals(fingerprint, b.fingerprint());
+
+		try {
+			a.addTransition(q0, q1, new TestSymbol("b"));
+			fail("A frozen automaton has been modified");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			a.getTransitions().add(new Transition<>(q0, q1, new TestSymbol("b")));
+			fail("The transitions of a frozen automaton have been modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertEquals(fingerprint, a.fingerprint());
+
+		// automata that are not frozen can still be modified
+		TestAutomaton c = TestUtil.addEdges(TestUtil.build(q0, q1), new Transition<>(q0, q1, new TestSymbol("a")));
+		c.addTransition(q0, q1, new TestSymbol("b"));
+		TestAutomaton d = b.minimize().copy();
+		d.addTransition(d.getInitialState(), d.getFinalStates().first(), new TestSymbol("a"));
+		assertEquals(c.fingerprint(), d.fingerprint());
+		assertTrue(c.isCanonicallyEqualTo(d));
+	}
 }
@@ -2,8 +2,11 @@ package it.unive.lisa.util.datastructures.automaton;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import org.junit.Test;
@@ -147,19 +150,18 @@ public class MinimizeTest {
 
 		SortedSet<State> expStates = new TreeSet<>();
 		SortedSet<Transition<TestSymbol>> expDelta = new TreeSet<>();
-		State[] expSt = new State[5];
+		State[] expSt = new State[4];
 		expSt[0] = new State(0, true, true);
 		expSt[1] = new State(1, false, false);
 		expSt[2] = new State(2, false, false);
 		expSt[3] = new State(3, false, true);
-		expSt[4] = new State(4, false, true);
 		Collections.addAll(expStates, expSt);
 
 		expDelta.add(new Transition<>(expSt[0], expSt[0], new TestSymbol("c")));
 		expDelta.add(new Transition<>(expSt[0], expSt[1], new TestSymbol("a")));
 		expDelta.add(new Transition<>(expSt[0], expSt[2], new TestSymbol("b")));
 		expDelta.add(new Transition<>(expSt[1], expSt[3], new TestSymbol("a")));
-		expDelta.add(new Transition<>(expSt[2], expSt[4], new TestSymbol("b")));
+		expDelta.add(new Transition<>(expSt[2], expSt[3], new TestSymbol("b")));
 
 		TestAutomaton exp = new TestAutomaton(expStates, expDelta);
 
@@ -186,4 +188,48 @@ public class MinimizeTest {
 
 		assertSame(a, a.minimize());
 	}
+
+	@Test
+	public void testEmptyLanguage() {
+		State q0 = new State(0, true, false);
+		State q1 = new State(1, false, false);
+		State q2 = new State(2, false, true);
+		TestAutomaton a = TestUtil.build(q0, q1, q2);
+		a.addTransition(q0, q1, new TestSymbol("a"));
+		a.addTransition(q1, q0, new TestSymbol("b"));
+		a.addTransition(q2, q2, new TestSymbol("a"));
+
+		assertEquals(a.emptyLanguage(), a.minimize());
+	}
+
+	@Test
+	public void testRandomAutomata() {
+		Random random = new Random(42);
+		String[] symbols = { "a", "b", "c" };
+		for (int round = 0; round < 200; round++) {
+			int size = 2 + random.nextInt(10);
+			State[] st = new State[size];
+			for (int i = 0; i < size; i++)
+				st[i] = new State(i, i == 0, random.nextInt(4) == 0);
+			TestAutomaton a = TestUtil.build(st);
+			for (int i = 0; i < size * 2; i++)
+				a.addTransition(st[random.nextInt(size)], st[random.nextInt(size)],
+						new TestSymbol(symbols[random.nextInt(symbols.length)]));
+
+			TestAutomaton min = a.minimize();
+			assertTrue(min.isDeterministic());
+			assertSame(min, min.minimize());
+			for (List<TestSymbol> word : TestUtil.words(symbols, 5))
+				assertEquals(TestUtil.accepts(a, word), TestUtil.accepts(min, word));
+
+			// the minimal automaton does not depend on state names
+			State[] renamed = new State[size];
+			for (int i = 0; i < size; i++)
+				renamed[i] = new State(size - i, st[i].isInitial(), st[i].isFinal());
+			TestAutomaton b = TestUtil.build(renamed);
+			for (Transition<TestSymbol> t : a.getTransitions())
+				b.addTransition(renamed[t.getSource().getId()], renamed[t.getDestination().getId()], t.getSymbol());
+			assertEquals(min, b.minimize());
+		}
+	}
 }
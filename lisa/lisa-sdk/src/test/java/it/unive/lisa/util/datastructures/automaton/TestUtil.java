@@ -1,7 +1,10 @@
 package it.unive.lisa.util.datastructures.automaton;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -46,4 +49,41 @@ public class TestUtil {
 
 		return a;
 	}
+
+	public static List<List<TestSymbol>> words(String[] symbols, int maxLength) {
+		List<List<TestSymbol>> words = new ArrayList<>();
+		words.add(new ArrayList<>());
+		for (int i = 0; i < words.size(); i++)
+			if (words.get(i).size() < maxLength)
+				for (String sym : symbols) {
+					List<TestSymbol> word = new ArrayList<>(words.get(i));
+					word.add(new TestSymbol(sym));
+					words.add(word);
+				}
+		return words;
+	}
+
+	public static boolean accepts(TestAutomaton a, List<TestSymbol> word) {
+		Set<State> current = a.epsilonClosure(a.getInitialStates());
+		for (TestSymbol sym : word) {
+			Set<State> next = new TreeSet<>();
+			for (State s : current)
+				for (Transition<TestSymbol> t : a.getOutgoingTransitionsFrom(s))
+					if (t.getSymbol().equals(sym))
+						next.add(t.getDestination());
+			current = a.epsilonClosure(next);
+		}
+		return current.stream().anyMatch(State::isFinal);
+	}
+
+	public static TestAutomaton randomAutomaton(Random random, int size, String... symbols) {
+		State[] st = new State[size];
+		for (int i = 0; i < size; i++)
+			st[i] = new State(i, i == 0 || random.nextInt(8) == 0, random.nextInt(3) == 0);
+		TestAutomaton a = build(st);
+		for (int i = 0; i < size * 2; i++)
+			a.addTransition(st[random.nextInt(size)], st[random.nextInt(size)],
+					new TestSymbol(symbols[random.nextInt(symbols.length)]));
+		return a;
+	}
 }
@@ -0,0 +1,97 @@
+package it.unive.lisa.util.datastructures.automaton;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TransitionIndexTest {
+
+	private static SortedSet<Transition<TestSymbol>> outgoing(TestAutomaton a, State s) {
+		return a.getTransitions().stream().filter(t -> t.getSource().equals(s))
+				.collect(Collectors.toCollection(TreeSet::new));
+	}
+
+	private static SortedSet<Transition<TestSymbol>> ingoing(TestAutomaton a, State s) {
+		return a.getTransitions().stream().filter(t -> t.getDestination().equals(s))
+				.collect(Collectors.toCollection(TreeSet::new));
+	}
+
+	private static void checkIndex(TestAutomaton a, State[] st) {
+		for (State s : st) {
+			assertEquals(outgoing(a, s), a.getOutgoingTransitionsFrom(s));
+			assertEquals(ingoing(a, s), a.getIngoingTransitionsFrom(s));
+			assertEquals(outgoing(a, s).stream().map(Transition::getDestination)
+					.collect(Collectors.toCollection(TreeSet::new)), a.getNextStates(s));
+		}
+	}
+
+	@Test
+	public void testConsistencyUnderModifications() {
+		Random random = new Random(42);
+		State[] st = new State[20];
+		for (int i = 0; i < st.length; i++)
+			st[i] = new State(i, i == 0, i % 5 == 4);
+		TestAutomaton a = TestUtil.build(st);
+		String[] symbols = { "", "a", "b", "c" };
+
+		for (int round = 0; round < 500; round++) {
+			Transition<TestSymbol> t = new Transition<>(st[random.nextInt(st.length)], st[random.nextInt(st.length)],
+					new TestSymbol(symbols[random.nextInt(symbols.length)]));
+			if (random.nextInt(3) == 0)
+				a.removeTransitions(Collections.singleton(t));
+			else
+				a.addTransition(t);
+
+			if (random.nextInt(20) == 0)
+				a.removeStates(Collections.singleton(st[random.nextInt(st.length)]));
+
+			if (round % 10 == 0)
+				checkIndex(a, st);
+		}
+		checkIndex(a, st);
+	}
+
+	@Test
+	public void testViewsAreSnapshots() {
+		State q0 = new State(0, true, false);
+		State q1 = new State(1, false, true);
+		TestAutomaton a = TestUtil.build(q0, q1);
+		Transition<TestSymbol> ta = new Transition<>(q0, q1, new TestSymbol("a"));
+		Transition<TestSymbol> tb = new Transition<>(q0, q1, new TestSymbol("b"));
+		Transition<TestSymbol> tc = new Transition<>(q0, q0, new TestSymbol("c"));
+		a.addTransition(ta);
+
+		SortedSet<Transition<TestSymbol>> before = a.getOutgoingTransitionsFrom(q0);
+		a.addTransition(tb);
+		a.addTransition(tc);
+		assertEquals(Collections.singleton(ta), before);
+
+		SortedSet<Transition<TestSymbol>> after = a.getOutgoingTransitionsFrom(q0);
+		assertEquals(3, after.size());
+		assertEquals(tc, after.first());
+		assertEquals(tb, after.last());
+		assertTrue(after.contains(ta));
+		assertFalse(after.contains(new Transition<>(q1, q1, new TestSymbol("a"))));
+		assertEquals(Collections.singleton(tc), after.headSet(ta));
+		assertEquals(new TreeSet<>(Arrays.asList(ta, tb)), after.tailSet(ta));
+		assertEquals(Collections.singleton(ta), after.subSet(ta, tb));
+		assertTrue(a.getOutgoingTransitionsFrom(new State(7, false, false)).isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testViewsAreReadOnly() {
+		State q0 = new State(0, true, false);
+		State q1 = new State(1, false, true);
+		TestAutomaton a = TestUtil.build(q0, q1);
+		a.addTransition(new Transition<>(q0, q1, new TestSymbol("a")));
+		a.getOutgoingTransitionsFrom(q0).add(new Transition<>(q0, q1, new TestSymbol("b")));
+	}
+}
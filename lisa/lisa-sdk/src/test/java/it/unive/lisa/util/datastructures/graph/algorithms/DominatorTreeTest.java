@@ -0,0 +1,135 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import java.util.Set;
+import org.junit.Test;
+
+public class DominatorTreeTest {
+
+	private static TestNode[] nodes(TestGraph graph, int count, int... entries) {
+		TestNode[] nodes = new TestNode[count];
+		for (int i = 0; i < count; i++) {
+			nodes[i] = new TestNode(i);
+			graph.addNode(nodes[i]);
+		}
+		for (int entry : entries)
+			graph.getEntrypoints().add(nodes[entry]);
+		return nodes;
+	}
+
+	private static TestGraph loop(TestNode[] n) {
+		// 0 -> 1 -> {2, 3} -> 4 -> 1, 1 -> 5
+		TestGraph graph = new TestGraph();
+		for (int i = 0; i < n.length; i++) {
+			n[i] = new TestNode(i);
+			graph.addNode(n[i], i == 0);
+		}
+		graph.addEdge(new TestEdge(n[0], n[1]));
+		graph.addEdge(new TestEdge(n[1], n[2]));
+		graph.addEdge(new TestEdge(n[1], n[3]));
+		graph.addEdge(new TestEdge(n[2], n[4]));
+		graph.addEdge(new TestEdge(n[3], n[4]));
+		graph.addEdge(new TestEdge(n[4], n[1]));
+		graph.addEdge(new TestEdge(n[1], n[5]));
+		return graph;
+	}
+
+	@Test
+	public void testImmediateDominators() {
+		TestNode[] n = new TestNode[6];
+		TestGraph graph = loop(n);
+		DominatorTree<TestGraph, TestNode, TestEdge> tree = new DominatorTree<>(graph);
+
+		assertNull(tree.getImmediateDominator(n[0]));
+		assertEquals(n[0], tree.getImmediateDominator(n[1]));
+		assertEquals(n[1], tree.getImmediateDominator(n[2]));
+		assertEquals(n[1], tree.getImmediateDominator(n[3]));
+		assertEquals(n[1], tree.getImmediateDominator(n[4]));
+		assertEquals(n[1], tree.getImmediateDominator(n[5]));
+
+		assertTrue(tree.dominates(n[1], n[4]));
+		assertTrue(tree.dominates(n[4], n[4]));
+		assertFalse(tree.strictlyDominates(n[4], n[4]));
+		assertFalse(tree.dominates(n[2], n[4]));
+		assertFalse(tree.dominates(n[4], n[1]));
+		assertEquals(Set.of(n[0], n[1], n[4]), tree.getDominators(n[4]));
+		assertEquals(n[0], tree.getNodes().get(0));
+	}
+
+	@Test
+	public void testDominanceFrontiers() {
+		TestNode[] n = new TestNode[6];
+		TestGraph graph = loop(n);
+		DominatorTree<TestGraph, TestNode, TestEdge> tree = new DominatorTree<>(graph);
+
+		assertEquals(Set.of(), tree.getDominanceFrontier(n[0]));
+		assertEquals(Set.of(n[1]), tree.getDominanceFrontier(n[1]));
+		assertEquals(Set.of(n[4]), tree.getDominanceFrontier(n[2]));
+		assertEquals(Set.of(n[4]), tree.getDominanceFrontier(n[3]));
+		assertEquals(Set.of(n[1]), tree.getDominanceFrontier(n[4]));
+		assertEquals(Set.of(), tree.getDominanceFrontier(n[5]));
+	}
+
+	@Test
+	public void testPostDominators() {
+		TestNode[] n = new TestNode[6];
+		TestGraph graph = loop(n);
+		DominatorTree<TestGraph, TestNode, TestEdge> tree = DominatorTree.postDominators(graph);
+
+		assertNull(tree.getImmediateDominator(n[5]));
+		assertEquals(n[5], tree.getImmediateDominator(n[1]));
+		assertEquals(n[1], tree.getImmediateDominator(n[0]));
+		assertEquals(n[1], tree.getImmediateDominator(n[4]));
+		assertEquals(n[4], tree.getImmediateDominator(n[2]));
+		assertEquals(n[4], tree.getImmediateDominator(n[3]));
+		assertTrue(tree.dominates(n[5], n[0]));
+		// the branches of the loop are control dependent on its guard
+		assertEquals(Set.of(n[1]), tree.getDominanceFrontier(n[2]));
+		assertEquals(Set.of(n[1]), tree.getDominanceFrontier(n[4]));
+	}
+
+	@Test
+	public void testMultipleEntriesAndUnreachableNodes() {
+		TestGraph graph = new TestGraph();
+		TestNode[] n = nodes(graph, 5, 0, 1);
+		graph.addEdge(new TestEdge(n[0], n[2]));
+		graph.addEdge(new TestEdge(n[1], n[2]));
+		graph.addEdge(new TestEdge(n[2], n[3]));
+		DominatorTree<TestGraph, TestNode, TestEdge> tree = new DominatorTree<>(graph);
+
+		assertNull(tree.getImmediateDominator(n[0]));
+		assertNull(tree.getImmediateDominator(n[1]));
+		assertNull(tree.getImmediateDominator(n[2]));
+		assertEquals(n[2], tree.getImmediateDominator(n[3]));
+		assertFalse(tree.dominates(n[0], n[2]));
+		assertTrue(tree.dominates(n[2], n[3]));
+
+		assertFalse(tree.contains(n[4]));
+		assertNull(tree.getImmediateDominator(n[4]));
+		assertFalse(tree.dominates(n[4], n[4]));
+		assertEquals(Set.of(), tree.getDominators(n[4]));
+	}
+
+	@Test
+	public void testLongChain() {
+		TestGraph graph = new TestGraph();
+		TestNode[] n = nodes(graph, 20000, 0);
+		for (int i = 1; i < n.length; i++)
+			graph.addEdge(new TestEdge(n[i - 1], n[i]));
+		DominatorTree<TestGraph, TestNode, TestEdge> tree = new DominatorTree<>(graph);
+
+		for (int i = 1; i < n.length; i++)
+			assertEquals(n[i - 1], tree.getImmediateDominator(n[i]));
+		assertTrue(tree.dominates(n[0], n[n.length - 1]));
+		assertTrue(tree.dominates(n[100], n[10000]));
+		assertFalse(tree.dominates(n[10000], n[100]));
+		assertTrue(DominatorTree.postDominators(graph).dominates(n[n.length - 1], n[0]));
+	}
+}
@@ -11,8 +11,10 @@ import it.unive.lisa.util.datastructures.graph.TestGraph;
 import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
 import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint.FixpointImplementation;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.collections4.SetUtils;
@@ -178,6 +180,103 @@ public class FixpointTest {
 				res);
 	}
 
+	@Test
+	public void testCyclicGraphWTO() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode first = new TestNode(2);
+		TestNode second = new TestNode(3);
+		TestNode join = new TestNode(4);
+		TestNode end = new TestNode(5);
+		graph.addNode(source, true);
+		graph.addNode(first);
+		graph.addNode(second);
+		graph.addNode(join);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, join));
+		graph.addEdge(new TestEdge(join, first));
+		graph.addEdge(new TestEdge(first, second));
+		graph.addEdge(new TestEdge(second, join));
+		graph.addEdge(new TestEdge(join, end));
+
+		Map<TestNode, Set<TestNode>> res = null;
+		try {
+			res = new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph).fixpoint(
+					Map.of(source, Set.of()),
+					new WeakTopologicalOrder<TestGraph, TestNode, TestEdge>().build(graph, List.of(source)),
+					new FixpointTester());
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+
+		assertNotNull("Fixpoint failed", res);
+		assertEquals("Fixpoint returned wrong result",
+				Map.of(source, Set.of(source),
+						join, Set.of(source, join, first, second),
+						first, Set.of(source, join, first, second),
+						second, Set.of(source, join, first, second),
+						end, Set.of(source, join, first, second, end)),
+				res);
+	}
+
+	private static class NaryTester extends FixpointTester {
+
+		private final List<Integer> sizes = new ArrayList<>();
+
+		@Override
+		public Set<TestNode> union(TestNode node, Set<TestNode> left, Set<TestNode> right) throws Exception {
+			throw new Exception("Binary union should not be used");
+		}
+
+		@Override
+		public Set<TestNode> unionAll(TestNode node, List<Set<TestNode>> states) throws Exception {
+			sizes.add(states.size());
+			Set<TestNode> result = new HashSet<>();
+			for (Set<TestNode> state : states)
+				result.addAll(state);
+			return result;
+		}
+	}
+
+	@Test
+	public void testNaryUnion() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode first = new TestNode(2);
+		TestNode second = new TestNode(3);
+		TestNode third = new TestNode(4);
+		TestNode join = new TestNode(5);
+		graph.addNode(source, true);
+		graph.addNode(first);
+		graph.addNode(second);
+		graph.addNode(third);
+		graph.addNode(join);
+		graph.addEdge(new TestEdge(source, first));
+		graph.addEdge(new TestEdge(source, second));
+		graph.addEdge(new TestEdge(source, third));
+		graph.addEdge(new TestEdge(first, join));
+		graph.addEdge(new TestEdge(second, join));
+		graph.addEdge(new TestEdge(third, join));
+
+		NaryTester tester = new NaryTester();
+		Map<TestNode, Set<TestNode>> res = null;
+		try {
+			res = new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph).fixpoint(
+					Map.of(source, Set.of()),
+					new WeakTopologicalOrder<TestGraph, TestNode, TestEdge>().build(graph, List.of(source)),
+					tester);
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+
+		assertNotNull("Fixpoint failed", res);
+		assertEquals("Fixpoint returned wrong result", Set.of(source, first, second, third, join), res.get(join));
+		// the three predecessors of join are joined at once
+		assertEquals(List.of(3), tester.sizes);
+	}
+
 	private static class ExceptionalTester implements FixpointImplementation<TestNode, TestEdge, Set<TestNode>> {
 
 		private final int type;
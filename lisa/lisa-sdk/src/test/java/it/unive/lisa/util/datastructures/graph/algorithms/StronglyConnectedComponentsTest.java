@@ -0,0 +1,67 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class StronglyConnectedComponentsTest {
+
+	@Test
+	public void testAcyclic() {
+		TestGraph graph = new TestGraph();
+		TestNode one = new TestNode(1);
+		TestNode two = new TestNode(2);
+		TestNode three = new TestNode(3);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addNode(three);
+		graph.addEdge(new TestEdge(one, two));
+		graph.addEdge(new TestEdge(two, three));
+
+		List<Set<TestNode>> res = new StronglyConnectedComponents<TestGraph, TestNode, TestEdge>().build(graph);
+		assertEquals("Wrong components", List.of(Set.of(three), Set.of(two), Set.of(one)), res);
+	}
+
+	@Test
+	public void testCycles() {
+		TestGraph graph = new TestGraph();
+		TestNode one = new TestNode(1);
+		TestNode two = new TestNode(2);
+		TestNode three = new TestNode(3);
+		TestNode four = new TestNode(4);
+		TestNode five = new TestNode(5);
+		TestNode six = new TestNode(6);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addNode(three);
+		graph.addNode(four);
+		graph.addNode(five);
+		graph.addNode(six);
+		graph.addEdge(new TestEdge(one, two));
+		graph.addEdge(new TestEdge(two, three));
+		graph.addEdge(new TestEdge(two, four));
+		graph.addEdge(new TestEdge(three, five));
+		graph.addEdge(new TestEdge(four, five));
+		graph.addEdge(new TestEdge(five, two));
+		graph.addEdge(new TestEdge(two, six));
+		graph.addEdge(new TestEdge(six, six));
+
+		StronglyConnectedComponents<TestGraph, TestNode, TestEdge> scc = new StronglyConnectedComponents<>();
+		List<Set<TestNode>> res = scc.build(graph);
+		assertEquals("Wrong components",
+				Set.of(Set.of(one), Set.of(two, three, four, five), Set.of(six)),
+				new HashSet<>(res));
+		assertEquals("Wrong number of components", 3, res.size());
+		assertTrue("Callee component not before its caller",
+				res.indexOf(Set.of(six)) < res.indexOf(Set.of(two, three, four, five)));
+		assertEquals("Caller component not last", Set.of(one), res.get(2));
+		assertEquals("Components not stored", res, scc.getComponents());
+	}
+}
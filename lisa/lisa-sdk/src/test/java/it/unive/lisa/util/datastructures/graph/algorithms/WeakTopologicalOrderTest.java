@@ -0,0 +1,76 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class WeakTopologicalOrderTest {
+
+	@Test
+	public void testAcyclic() {
+		TestGraph graph = new TestGraph();
+		TestNode one = new TestNode(1);
+		TestNode two = new TestNode(2);
+		TestNode three = new TestNode(3);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addNode(three);
+		graph.addEdge(new TestEdge(one, two));
+		graph.addEdge(new TestEdge(two, three));
+
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>();
+		wto.build(graph, List.of(one));
+		assertEquals("Wrong ordering", "1 2 3", wto.toString());
+		assertEquals("Wrong heads", Set.of(), wto.getHeads());
+	}
+
+	@Test
+	public void testNestedLoops() {
+		TestGraph graph = new TestGraph();
+		TestNode one = new TestNode(1);
+		TestNode two = new TestNode(2);
+		TestNode three = new TestNode(3);
+		TestNode four = new TestNode(4);
+		TestNode five = new TestNode(5);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addNode(three);
+		graph.addNode(four);
+		graph.addNode(five);
+		graph.addEdge(new TestEdge(one, two));
+		graph.addEdge(new TestEdge(two, three));
+		graph.addEdge(new TestEdge(three, four));
+		graph.addEdge(new TestEdge(four, three));
+		graph.addEdge(new TestEdge(four, two));
+		graph.addEdge(new TestEdge(four, five));
+
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>();
+		wto.build(graph, List.of(one));
+		assertEquals("Wrong ordering", "1 (2 (3 4)) 5", wto.toString());
+		assertEquals("Wrong heads", Set.of(two, three), wto.getHeads());
+	}
+
+	@Test
+	public void testSelfLoopAndUnreachable() {
+		TestGraph graph = new TestGraph();
+		TestNode one = new TestNode(1);
+		TestNode two = new TestNode(2);
+		TestNode three = new TestNode(3);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addNode(three);
+		graph.addEdge(new TestEdge(one, two));
+		graph.addEdge(new TestEdge(two, two));
+		graph.addEdge(new TestEdge(three, two));
+
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>();
+		wto.build(graph, List.of(one));
+		assertEquals("Wrong ordering", "1 (2)", wto.toString());
+		assertEquals("Wrong heads", Set.of(two), wto.getHeads());
+	}
+}
@@ -0,0 +1,137 @@
+package it.unive.lisa.util.datastructures.graph.code;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.datastructures.graph.FrozenGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import it.unive.lisa.util.datastructures.graph.code.TestCodeGraph.TestCodeEdge;
+import it.unive.lisa.util.datastructures.graph.code.TestCodeGraph.TestCodeNode;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class FrozenGraphTest {
+
+	private static Set<TestCodeNode> followers(FrozenGraph<TestCodeGraph, TestCodeNode, TestCodeEdge> frozen,
+			TestCodeNode node) {
+		Set<TestCodeNode> result = new HashSet<>();
+		int index = frozen.indexOf(node);
+		for (int k = frozen.followersStart(index); k < frozen.followersEnd(index); k++) {
+			TestCodeNode follower = frozen.node(frozen.follower(k));
+			assertEquals(new TestCodeEdge(node, follower), frozen.outgoingEdge(k));
+			result.add(follower);
+		}
+		return result;
+	}
+
+	private static Set<TestCodeNode> predecessors(FrozenGraph<TestCodeGraph, TestCodeNode, TestCodeEdge> frozen,
+			TestCodeNode node) {
+		Set<TestCodeNode> result = new HashSet<>();
+		int index = frozen.indexOf(node);
+		for (int k = frozen.predecessorsStart(index); k < frozen.predecessorsEnd(index); k++) {
+			TestCodeNode pred = frozen.node(frozen.predecessor(k));
+			assertEquals(new TestCodeEdge(pred, node), frozen.ingoingEdge(k));
+			result.add(pred);
+		}
+		return result;
+	}
+
+	@Test
+	public void testCodeGraph() {
+		TestCodeGraph graph = new TestCodeGraph();
+		TestCodeNode[] n = new TestCodeNode[6];
+		for (int i = 0; i < n.length; i++) {
+			n[i] = new TestCodeNode(i);
+			graph.addNode(n[i], i == 0);
+		}
+		graph.addEdge(new TestCodeEdge(n[0], n[1]));
+		graph.addEdge(new TestCodeEdge(n[1], n[2]));
+		graph.addEdge(new TestCodeEdge(n[1], n[3]));
+		graph.addEdge(new TestCodeEdge(n[1], n[5]));
+		graph.addEdge(new TestCodeEdge(n[2], n[4]));
+		graph.addEdge(new TestCodeEdge(n[3], n[4]));
+		graph.addEdge(new TestCodeEdge(n[4], n[1]));
+
+		FrozenGraph<TestCodeGraph, TestCodeNode, TestCodeEdge> frozen = graph.freeze();
+		assertEquals(6, frozen.getNodesCount());
+		for (TestCodeNode node : n) {
+			assertEquals(node, frozen.node(frozen.indexOf(node)));
+			assertEquals(new HashSet<>(graph.followersOf(node)), followers(frozen, node));
+			assertEquals(new HashSet<>(graph.predecessorsOf(node)), predecessors(frozen, node));
+		}
+
+		assertEquals(new TestCodeEdge(n[4], n[1]),
+				frozen.getEdgeConnecting(frozen.indexOf(n[4]), frozen.indexOf(n[1])));
+		assertNull(frozen.getEdgeConnecting(frozen.indexOf(n[1]), frozen.indexOf(n[4])));
+
+		// not part of the graph, with and without a clashing offset
+		TestCodeNode external = new TestCodeNode(42);
+		assertFalse(frozen.containsNode(external));
+		external.setOffset(n[3].getOffset());
+		assertFalse(frozen.containsNode(external));
+		assertFalse(frozen.containsNode(null));
+	}
+
+	@Test
+	public void testChangesAreNotReflected() {
+		TestCodeGraph graph = new TestCodeGraph();
+		TestCodeNode first = new TestCodeNode(0), second = new TestCodeNode(1);
+		graph.addNode(first, true);
+		graph.addNode(second);
+		graph.addEdge(new TestCodeEdge(first, second));
+		FrozenGraph<TestCodeGraph, TestCodeNode, TestCodeEdge> frozen = graph.freeze();
+
+		TestCodeNode third = new TestCodeNode(2);
+		graph.addNode(third);
+		graph.addEdge(new TestCodeEdge(second, third));
+		assertEquals(2, frozen.getNodesCount());
+		assertFalse(frozen.containsNode(third));
+		assertTrue(followers(frozen, second).isEmpty());
+	}
+
+	@Test
+	public void testSnapshotIsCached() {
+		TestCodeGraph graph = new TestCodeGraph();
+		TestCodeNode first = new TestCodeNode(0), second = new TestCodeNode(1);
+		graph.addNode(first, true);
+		graph.addNode(second);
+		FrozenGraph<TestCodeGraph, TestCodeNode, TestCodeEdge> frozen = graph.freeze();
+		assertSame(frozen, graph.freeze());
+
+		graph.addEdge(new TestCodeEdge(first, second));
+		FrozenGraph<TestCodeGraph, TestCodeNode, TestCodeEdge> withEdge = graph.freeze();
+		assertNotSame(frozen, withEdge);
+		assertEquals(Set.of(second), followers(withEdge, first));
+		assertSame(withEdge, graph.freeze());
+
+		TestCodeNode third = new TestCodeNode(2);
+		graph.addNode(third);
+		assertNotSame(withEdge, graph.freeze());
+		assertTrue(graph.freeze().containsNode(third));
+	}
+
+	@Test
+	public void testGenericGraph() {
+		TestGraph graph = new TestGraph();
+		TestNode first = new TestNode(1), second = new TestNode(2);
+		graph.addNode(first, true);
+		graph.addNode(second);
+		graph.addEdge(new TestEdge(first, second));
+		graph.addEdge(new TestEdge(second, first));
+
+		FrozenGraph<TestGraph, TestNode, TestEdge> frozen = graph.freeze();
+		int f = frozen.indexOf(first), s = frozen.indexOf(second);
+		assertEquals(1, frozen.followersEnd(f) - frozen.followersStart(f));
+		assertEquals(s, frozen.follower(frozen.followersStart(f)));
+		assertEquals(s, frozen.predecessor(frozen.predecessorsStart(f)));
+		assertEquals(new TestEdge(second, first), frozen.getEdgeConnecting(s, f));
+		assertFalse(frozen.containsNode(new TestNode(3)));
+	}
+}
@@ -12,6 +12,8 @@ public class TestCodeGraph extends CodeGraph<TestCodeGraph, TestCodeGraph.TestCo
 
 		private final int id;
 
+		private int offset = -1;
+
 		public TestCodeNode(int id) {
 			this.id = id;
 		}
@@ -23,6 +25,7 @@ public class TestCodeGraph extends CodeGraph<TestCodeGraph, TestCodeGraph.TestCo
 
 		@Override
 		public int setOffset(int offset) {
+			this.offset = offset;
 			return offset;
 		}
 
@@ -60,7 +63,7 @@ public class TestCodeGraph extends CodeGraph<TestCodeGraph, TestCodeGraph.TestCo
 
 		@Override
 		public int getOffset() {
-			return 0;
+			return offset;
 		}
 	}
 
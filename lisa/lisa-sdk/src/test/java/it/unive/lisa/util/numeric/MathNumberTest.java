@@ -7,8 +7,10 @@ import static it.unive.lisa.util.numeric.MathNumber.ONE;
 import static it.unive.lisa.util.numeric.MathNumber.PLUS_INFINITY;
 import static it.unive.lisa.util.numeric.MathNumber.ZERO;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.math.BigDecimal;
 import org.junit.Test;
 
 public class MathNumberTest {
@@ -225,4 +227,35 @@ public class MathNumberTest {
 		assertEquals("-inf max +inf != -inf", PLUS_INFINITY, MINUS_INFINITY.max(PLUS_INFINITY));
 		assertEquals("-inf max -inf != -inf", MINUS_INFINITY, MINUS_INFINITY.max(MINUS_INFINITY));
 	}
+
+	@Test
+	public void testLongOverflow() throws MathNumberConversionException {
+		MathNumber max = new MathNumber(Long.MAX_VALUE);
+		MathNumber min = new MathNumber(Long.MIN_VALUE);
+		BigDecimal bigMax = BigDecimal.valueOf(Long.MAX_VALUE);
+		BigDecimal bigMin = BigDecimal.valueOf(Long.MIN_VALUE);
+
+		assertEquals(new MathNumber(bigMax.add(BigDecimal.ONE)), max.add(ONE));
+		assertEquals(new MathNumber(bigMin.subtract(BigDecimal.ONE)), min.subtract(ONE));
+		assertEquals(new MathNumber(bigMax.multiply(bigMax)), max.multiply(max));
+		assertEquals(new MathNumber(bigMin.negate()), min.divide(MINUS_ONE));
+		assertEquals(new MathNumber(bigMin.negate()), min.abs());
+
+		// results that fit again in a long are equal to plain longs
+		assertEquals(max, max.add(ONE).subtract(ONE));
+		assertEquals(Long.MAX_VALUE, max.add(ONE).subtract(ONE).toLong());
+		assertTrue(max.add(ONE).compareTo(max) > 0);
+		assertTrue(min.subtract(ONE).compareTo(min) < 0);
+	}
+
+	@Test
+	public void testIntegerRepresentation() {
+		assertEquals(new MathNumber(2), new MathNumber(2.0));
+		assertEquals(new MathNumber(10), new MathNumber(100).divide(new MathNumber(10)));
+		assertEquals(new MathNumber(new BigDecimal("0.5")), ONE.divide(new MathNumber(2)));
+		assertEquals(new MathNumber(3), new MathNumber(new BigDecimal("2.5")).roundUp());
+		assertEquals(new MathNumber(2), new MathNumber(new BigDecimal("2.5")).roundDown());
+		assertEquals("10", new MathNumber(new BigDecimal("1E+1")).toString());
+		assertEquals(1, new MathNumber(7).divide(new MathNumber(5)).compareTo(ONE));
+	}
 }